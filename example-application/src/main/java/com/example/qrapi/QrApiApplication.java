@@ -2,10 +2,6 @@ package com.example.qrapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.FilterType;
-import com.aveplus.uemoa.qr.config.UemoaQrProperties;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -17,13 +13,6 @@ import io.swagger.v3.oas.annotations.info.License;
  * Cette APPLICATION utilise votre MODULE comme dépendance
  */
 @SpringBootApplication
-@ComponentScan(basePackages = {"com.example.qrapi", "com.aveplus.uemoa.qr"},
-    excludeFilters = @ComponentScan.Filter(
-        type = FilterType.ASSIGNABLE_TYPE,
-        classes = {UemoaQrProperties.class}
-    )
-)
-@EnableConfigurationProperties(UemoaQrProperties.class)
 @OpenAPIDefinition(
     info = @Info(
         title = "UEMOA QR Code API",
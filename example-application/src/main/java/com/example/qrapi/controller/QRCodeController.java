@@ -2,7 +2,11 @@ package com.example.qrapi.controller;
 
 import com.aveplus.uemoa.qr.model.MerchantInfo;
 import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.QRGenerationResult;
 import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.web.QRBatchStreamer;
+import com.aveplus.uemoa.qr.web.QRImageHttpHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +16,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,8 +37,12 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class QRCodeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     // ⭐ Injection du service de VOTRE MODULE
     private final UemoaQRService qrService;
+    private final QRImageHttpHandler imageHandler;
+    private final QRBatchStreamer batchStreamer;
 
     @PostMapping("/generate")
     @Operation(summary = "Générer un QR code")
@@ -39,14 +50,16 @@ public class QRCodeController {
             @Valid @RequestBody QRPaymentData request) {
         
         try {
-            String qrData = qrService.generateQRData(request);
-            String qrImageBase64 = qrService.generateQRImage(request);
+            // Une seule génération du payload et un seul rendu par requête
+            QRGenerationResult result = qrService.generate(request, RenderOptions.defaults());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", qrData);
-            response.put("image", qrImageBase64);
+            response.put("data", result.getPayload());
+            response.put("image", result.getImageBase64());
             response.put("type", request.getType());
+            response.put("crc", result.getCrc());
+            response.put("symbolVersion", result.getSymbolVersion());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -57,6 +70,18 @@ public class QRCodeController {
         }
     }
 
+    @GetMapping(value = "/image", produces = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE})
+    @Operation(summary = "Image QR code (binaire, avec ETag et cache HTTP)")
+    public ResponseEntity<byte[]> qrImage(
+            @Valid QRPaymentData request,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws Exception {
+        // 304 sans rendu si le client possède déjà cette image
+        RenderOptions options = RenderOptions.builder().size(size).build();
+        return imageHandler.handle(request, options, ifNoneMatch);
+    }
+
     @PostMapping("/parse")
     @Operation(summary = "Parser un QR code")
     public ResponseEntity<QRPaymentData> parseQR(@RequestBody Map<String, String> request) {
@@ -65,6 +90,37 @@ public class QRCodeController {
         return ResponseEntity.ok(parsed);
     }
 
+    /**
+     * Vérification d'un QR scanné : le JSON est écrit directement dans la réponse
+     */
+    @PostMapping("/details")
+    @Operation(summary = "Détails d'un QR code scanné")
+    public void details(@RequestBody Map<String, String> request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        qrService.writeQRCodeDetails(request.get("qrData"), response.getOutputStream());
+    }
+
+    /**
+     * Lot NDJSON : une ligne QRPaymentData en entrée, une ligne de résultat en sortie (même ordre).
+     * La requête et la réponse sont traitées en flux, sans charger le lot en mémoire.
+     */
+    @PostMapping(value = "/batch/generate", consumes = NDJSON)
+    @Operation(summary = "Générer un lot de QR codes (NDJSON en flux)")
+    public void generateBatch(@RequestParam(defaultValue = "false") boolean includeImage,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        RenderOptions options = includeImage ? RenderOptions.defaults() : RenderOptions.payloadOnly();
+        batchStreamer.generate(request.getInputStream(), response.getOutputStream(), options);
+    }
+
+    @PostMapping(value = "/batch/parse", consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Parser un lot de QR codes (un payload par ligne, NDJSON en flux)")
+    public void parseBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        batchStreamer.parse(request.getInputStream(), response.getOutputStream());
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<Map<String, String>> health() {
@@ -0,0 +1,254 @@
+package com.aveplus.uemoa.qr.admission;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Contrôle d'admission : seaux de jetons par clé et plafond de rendus simultanés
+ * 
+ * Chaque clé (alias marchand ou client d'API) dispose d'un seau de
+ * {@code burst} jetons rempli à {@code refillPerSecond}. Le seau est réduit
+ * à un seul {@code long} mis à jour par CAS (algorithme GCRA : instant
+ * théorique auquel le seau sera plein) ; les clés sont réparties dans une
+ * {@link ConcurrentHashMap}, sans verrou global. Les rendus d'image sont
+ * plafonnés globalement par un sémaphore pris sans attente.
+ * 
+ * Un seau plein depuis plus de {@code idleTimeout} ne porte plus d'état et
+ * est libéré lors d'un balayage périodique ; au-delà de {@code maxKeys}
+ * seaux, les nouvelles clés partagent un seau de débordement jusqu'au
+ * balayage suivant (une rotation de clés ne déclenche jamais de balayage
+ * supplémentaire). Thread-safe.
+ */
+@Slf4j
+public class AdmissionController {
+    
+    /**
+     * Clé du seau partagé par les clés en surnombre
+     */
+    private static final String OVERFLOW_KEY = "\u0000overflow";
+    
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long idleNanos;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    
+    /**
+     * Plafond des rendus simultanés (null = illimité)
+     */
+    private final Semaphore renders;
+    private final int maxConcurrentRenders;
+    
+    /**
+     * Instant théorique (nanos) auquel chaque seau sera de nouveau plein
+     */
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+    private final LongAdder sweeps = new LongAdder();
+    
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder renderRejected = new LongAdder();
+    
+    /**
+     * Crée un contrôleur à partir des propriétés du module
+     * 
+     * @param admission La configuration d'admission
+     */
+    public AdmissionController(UemoaQrProperties.Admission admission) {
+        this(admission.getBurst(), admission.getRefillPerSecond(),
+             admission.getMaxConcurrentRenders() > 0
+                 ? admission.getMaxConcurrentRenders()
+                 : 2 * Runtime.getRuntime().availableProcessors(),
+             admission.getIdleTimeout(), admission.getMaxKeys(), System::nanoTime);
+    }
+    
+    /**
+     * @param burst Capacité de chaque seau
+     * @param refillPerSecond Jetons rendus par seconde
+     * @param maxConcurrentRenders Rendus simultanés autorisés (0 = illimité)
+     * @param idleTimeout Inactivité après laquelle un seau plein est libéré
+     * @param maxKeys Nombre maximal de seaux
+     * @param clock Horloge monotone en nanosecondes
+     */
+    public AdmissionController(int burst, double refillPerSecond, int maxConcurrentRenders,
+                               Duration idleTimeout, int maxKeys, LongSupplier clock) {
+        if (burst <= 0 || refillPerSecond <= 0 || maxConcurrentRenders < 0 || maxKeys <= 0
+                || idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Configuration d'admission invalide: burst=" + burst
+                    + ", refillPerSecond=" + refillPerSecond + ", maxConcurrentRenders=" + maxConcurrentRenders
+                    + ", maxKeys=" + maxKeys + ", idleTimeout=" + idleTimeout);
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.renders = maxConcurrentRenders > 0 ? new Semaphore(maxConcurrentRenders) : null;
+        this.maxConcurrentRenders = maxConcurrentRenders;
+        this.lastSweep = new AtomicLong(clock.getAsLong());
+    }
+    
+    /**
+     * Contrôleur qui admet tout (contrôle d'admission désactivé)
+     */
+    public static AdmissionController unlimited() {
+        return new AdmissionController();
+    }
+    
+    private AdmissionController() {
+        this.intervalNanos = 0;
+        this.toleranceNanos = 0;
+        this.idleNanos = 0;
+        this.maxKeys = 0;
+        this.clock = System::nanoTime;
+        this.renders = null;
+        this.maxConcurrentRenders = 0;
+        this.lastSweep = new AtomicLong();
+    }
+    
+    /**
+     * Prend un jeton dans le seau d'une clé, sans attendre
+     * 
+     * @param key La clé (alias marchand, client d'API ; null = seau anonyme partagé)
+     * @return Zéro si le jeton est accordé, sinon le délai avant le prochain jeton
+     */
+    public Duration tryAcquire(String key) {
+        if (intervalNanos == 0) {
+            admitted.increment();
+            return Duration.ZERO;
+        }
+        long now = clock.getAsLong();
+        sweepIfDue(now);
+        
+        AtomicLong bucket = bucket(key != null ? key : "", now);
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                rateLimited.increment();
+                return Duration.ofNanos(wait);
+            }
+            if (bucket.compareAndSet(full, next)) {
+                admitted.increment();
+                return Duration.ZERO;
+            }
+        }
+    }
+    
+    /**
+     * Réserve une place de rendu d'image, sans attendre
+     * 
+     * @return true si la place est accordée ; elle doit alors être rendue par {@link #releaseRender()}
+     */
+    public boolean tryAcquireRender() {
+        if (renders == null || renders.tryAcquire()) {
+            return true;
+        }
+        renderRejected.increment();
+        return false;
+    }
+    
+    /**
+     * Rend une place de rendu accordée par {@link #tryAcquireRender()}
+     */
+    public void releaseRender() {
+        if (renders != null) {
+            renders.release();
+        }
+    }
+    
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            // Pas de balayage ici : seul sweepIfDue balaye, au plus une fois par période
+            key = OVERFLOW_KEY;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+    
+    /**
+     * Balayage des seaux inactifs, au plus une fois par demi-délai d'inactivité
+     */
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last >= idleNanos / 2 && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+    
+    /**
+     * Libère les seaux pleins depuis plus du délai d'inactivité
+     * 
+     * Un seau plein ne porte pas d'état : le retirer puis le recréer plein
+     * ne change pas les décisions (à un jeton près si un thread le tenait
+     * au moment du retrait).
+     */
+    private void sweep(long now) {
+        sweeps.increment();
+        int before = buckets.size();
+        buckets.forEach((key, bucket) -> {
+            long full = bucket.get();
+            if (now - full > idleNanos) {
+                buckets.remove(key, bucket);
+            }
+        });
+        if (log.isDebugEnabled() && buckets.size() != before) {
+            log.debug("Seaux d'admission libérés: {} (restants: {})", before - buckets.size(), buckets.size());
+        }
+    }
+    
+    /**
+     * Nombre de seaux en mémoire
+     */
+    public int size() {
+        return buckets.size();
+    }
+    
+    /**
+     * Nombre de balayages effectués
+     */
+    long sweepCount() {
+        return sweeps.sum();
+    }
+    
+    /**
+     * Rendus d'image en cours (0 si illimité)
+     */
+    public int activeRenders() {
+        return renders == null ? 0 : maxConcurrentRenders - renders.availablePermits();
+    }
+    
+    /**
+     * Nombre de requêtes admises
+     */
+    public long admittedCount() {
+        return admitted.sum();
+    }
+    
+    /**
+     * Nombre de refus pour limite de débit
+     */
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+    
+    /**
+     * Nombre de refus pour plafond de rendus atteint
+     */
+    public long renderRejectedCount() {
+        return renderRejected.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.aveplus.uemoa.qr.admission;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Résultat d'une opération soumise au contrôle d'admission
+ * 
+ * Une requête refusée n'est pas mise en attente : le résultat indique le
+ * motif et, pour une limite de débit, le délai avant qu'un jeton soit
+ * disponible (à renvoyer en {@code Retry-After}).
+ * 
+ * @param <T> Le type du résultat de l'opération
+ */
+@Value
+public class AdmissionResult<T> {
+    
+    /**
+     * Motif de refus
+     */
+    public enum Rejection {
+        /**
+         * Seau de jetons de la clé (marchand ou client) vide
+         */
+        RATE_LIMITED,
+        
+        /**
+         * Nombre maximal de rendus d'image simultanés atteint
+         */
+        RENDER_CAPACITY
+    }
+    
+    /**
+     * Résultat de l'opération (null si refusée)
+     */
+    T value;
+    
+    /**
+     * Motif de refus (null si admise)
+     */
+    Rejection rejection;
+    
+    /**
+     * Délai conseillé avant une nouvelle tentative (zéro si admise ou inconnu)
+     */
+    Duration retryAfter;
+    
+    public static <T> AdmissionResult<T> admitted(T value) {
+        return new AdmissionResult<>(value, null, Duration.ZERO);
+    }
+    
+    public static <T> AdmissionResult<T> rejected(Rejection rejection, Duration retryAfter) {
+        return new AdmissionResult<>(null, rejection, retryAfter);
+    }
+    
+    /**
+     * @return true si l'opération a été exécutée
+     */
+    public boolean isAdmitted() {
+        return rejection == null;
+    }
+    
+    /**
+     * Résultat de l'opération admise
+     * 
+     * @return Le résultat
+     * @throws NoSuchElementException si l'opération a été refusée
+     */
+    public T get() {
+        if (rejection != null) {
+            throw new NoSuchElementException("Requête refusée: " + rejection);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,443 @@
+package com.aveplus.uemoa.qr.codec;
+
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Format binaire compact et versionné pour {@link QRPaymentData}
+ *
+ * Disposition (version 1) :
+ * <pre>
+ * version        : 1 octet
+ * présence       : 1 octet (bit par champ optionnel)
+ * type, canal    : 1 octet chacun (ordinal + 1, 0 = absent)
+ * marchand       : 5 chaînes (alias, nom, ville, pays, catégorie)
+ * montant        : varint zigzag (valeur en unités mineures) + échelle
+ * chaînes        : varint (longueur UTF-8 + 1, 0 = null) + octets
+ * données 62     : varint nombre d'entrées, puis clé + valeur ;
+ *                  les clés "00" à "99" tiennent sur un octet du dictionnaire
+ * </pre>
+ *
+ * L'encodeur écrit dans le tampon de l'appelant ; le décodeur lit les chaînes
+ * directement depuis le tableau du tampon (sans copie intermédiaire) et
+ * réutilise des clés internées pour les données additionnelles.
+ */
+public final class QRPaymentCodec {
+    
+    /**
+     * Version courante du format
+     */
+    public static final byte VERSION = 1;
+    
+    private static final int HAS_MERCHANT = 1;
+    private static final int HAS_AMOUNT = 1 << 1;
+    private static final int HAS_TRANSACTION_ID = 1 << 2;
+    private static final int HAS_BILL_REFERENCE = 1 << 3;
+    private static final int HAS_SUBSCRIPTION_ID = 1 << 4;
+    private static final int HAS_DYNAMIC_URL = 1 << 5;
+    private static final int HAS_ADDITIONAL_DATA = 1 << 6;
+    
+    /**
+     * Dictionnaire des sous-tags du template 62 : code = numéro du tag + 1
+     */
+    private static final String[] TAGS = new String[100];
+    private static final int LITERAL_TAG = 0;
+    
+    private static final QRPaymentData.QRType[] TYPES = QRPaymentData.QRType.values();
+    private static final QRPaymentData.MerchantChannel[] CHANNELS = QRPaymentData.MerchantChannel.values();
+    
+    static {
+        for (int i = 0; i < TAGS.length; i++) {
+            TAGS[i] = (i < 10 ? "0" : "") + i;
+        }
+    }
+    
+    private QRPaymentCodec() {
+    }
+    
+    /**
+     * Encode les données dans un nouveau tableau à la taille exacte
+     * 
+     * @param data Les données de paiement
+     * @return Les octets encodés
+     */
+    public static byte[] encode(QRPaymentData data) {
+        byte[] bytes = new byte[encodedSize(data)];
+        write(data, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+    
+    /**
+     * Encode les données à la position courante du tampon
+     * 
+     * @param data Les données de paiement
+     * @param buffer Le tampon de destination (position avancée)
+     * @return Le nombre d'octets écrits
+     * @throws BufferOverflowException si le tampon est trop petit
+     * @throws IllegalArgumentException si le montant dépasse 63 bits en unités mineures
+     */
+    public static int write(QRPaymentData data, ByteBuffer buffer) {
+        int start = buffer.position();
+        MerchantInfo merchant = data.getMerchantInfo();
+        Map<String, String> additionalData = data.getAdditionalData();
+        
+        buffer.put(VERSION);
+        buffer.put((byte) flags(data));
+        buffer.put((byte) (data.getType() == null ? 0 : data.getType().ordinal() + 1));
+        buffer.put((byte) (data.getMerchantChannel() == null ? 0 : data.getMerchantChannel().ordinal() + 1));
+        
+        if (merchant != null) {
+            writeString(buffer, merchant.getAlias());
+            writeString(buffer, merchant.getName());
+            writeString(buffer, merchant.getCity());
+            writeString(buffer, merchant.getCountryCode());
+            writeString(buffer, merchant.getCategoryCode());
+        }
+        if (data.getAmount() != null) {
+            writeVarLong(buffer, zigzag(unscaled(data.getAmount())));
+            writeVarLong(buffer, zigzag(data.getAmount().scale()));
+        }
+        if (data.getTransactionId() != null) {
+            writeString(buffer, data.getTransactionId());
+        }
+        if (data.getBillReference() != null) {
+            writeString(buffer, data.getBillReference());
+        }
+        if (data.getSubscriptionId() != null) {
+            writeString(buffer, data.getSubscriptionId());
+        }
+        if (data.getDynamicUrl() != null) {
+            writeString(buffer, data.getDynamicUrl());
+        }
+        if (additionalData != null && !additionalData.isEmpty()) {
+            writeVarLong(buffer, additionalData.size());
+            for (Map.Entry<String, String> entry : additionalData.entrySet()) {
+                int code = tagCode(entry.getKey());
+                writeVarLong(buffer, code);
+                if (code == LITERAL_TAG) {
+                    writeString(buffer, entry.getKey());
+                }
+                writeString(buffer, entry.getValue());
+            }
+        }
+        return buffer.position() - start;
+    }
+    
+    /**
+     * Taille exacte de l'encodage, pour dimensionner le tampon
+     * 
+     * @param data Les données de paiement
+     * @return Le nombre d'octets
+     */
+    public static int encodedSize(QRPaymentData data) {
+        int size = 4;
+        MerchantInfo merchant = data.getMerchantInfo();
+        if (merchant != null) {
+            size += stringSize(merchant.getAlias()) + stringSize(merchant.getName())
+                + stringSize(merchant.getCity()) + stringSize(merchant.getCountryCode())
+                + stringSize(merchant.getCategoryCode());
+        }
+        if (data.getAmount() != null) {
+            size += varLongSize(zigzag(unscaled(data.getAmount()))) + varLongSize(zigzag(data.getAmount().scale()));
+        }
+        if (data.getTransactionId() != null) {
+            size += stringSize(data.getTransactionId());
+        }
+        if (data.getBillReference() != null) {
+            size += stringSize(data.getBillReference());
+        }
+        if (data.getSubscriptionId() != null) {
+            size += stringSize(data.getSubscriptionId());
+        }
+        if (data.getDynamicUrl() != null) {
+            size += stringSize(data.getDynamicUrl());
+        }
+        Map<String, String> additionalData = data.getAdditionalData();
+        if (additionalData != null && !additionalData.isEmpty()) {
+            size += varLongSize(additionalData.size());
+            for (Map.Entry<String, String> entry : additionalData.entrySet()) {
+                int code = tagCode(entry.getKey());
+                size += varLongSize(code) + stringSize(entry.getValue());
+                if (code == LITERAL_TAG) {
+                    size += stringSize(entry.getKey());
+                }
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * Décode un tableau d'octets complet
+     * 
+     * @param bytes Les octets encodés
+     * @return Les données de paiement
+     */
+    public static QRPaymentData decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+    
+    /**
+     * Décode les données à la position courante du tampon (position avancée)
+     * 
+     * @param buffer Le tampon source
+     * @return Les données de paiement
+     * @throws IllegalArgumentException si la version ou le contenu est invalide
+     */
+    public static QRPaymentData read(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Version de format binaire non supportée: " + version);
+            }
+            int flags = buffer.get() & 0xFF;
+            int type = buffer.get() & 0xFF;
+            int channel = buffer.get() & 0xFF;
+            
+            QRPaymentData data = new QRPaymentData();
+            data.setType(type == 0 ? null : enumValue(TYPES, type));
+            data.setMerchantChannel(channel == 0 ? null : enumValue(CHANNELS, channel));
+            
+            if ((flags & HAS_MERCHANT) != 0) {
+                MerchantInfo merchant = new MerchantInfo();
+                merchant.setAlias(readString(buffer));
+                merchant.setName(readString(buffer));
+                merchant.setCity(readString(buffer));
+                merchant.setCountryCode(readString(buffer));
+                merchant.setCategoryCode(readString(buffer));
+                data.setMerchantInfo(merchant);
+            }
+            if ((flags & HAS_AMOUNT) != 0) {
+                long unscaled = unzigzag(readVarLong(buffer));
+                data.setAmount(BigDecimal.valueOf(unscaled, (int) unzigzag(readVarLong(buffer))));
+            }
+            if ((flags & HAS_TRANSACTION_ID) != 0) {
+                data.setTransactionId(readString(buffer));
+            }
+            if ((flags & HAS_BILL_REFERENCE) != 0) {
+                data.setBillReference(readString(buffer));
+            }
+            if ((flags & HAS_SUBSCRIPTION_ID) != 0) {
+                data.setSubscriptionId(readString(buffer));
+            }
+            if ((flags & HAS_DYNAMIC_URL) != 0) {
+                data.setDynamicUrl(readString(buffer));
+            }
+            
+            Map<String, String> additionalData = new HashMap<>();
+            if ((flags & HAS_ADDITIONAL_DATA) != 0) {
+                int count = readVarInt(buffer);
+                for (int i = 0; i < count; i++) {
+                    int code = readVarInt(buffer);
+                    String key;
+                    if (code == LITERAL_TAG) {
+                        key = readString(buffer);
+                    } else if (code >= 1 && code <= TAGS.length) {
+                        key = TAGS[code - 1];
+                    } else {
+                        throw new IllegalArgumentException("Code de tag invalide: " + code);
+                    }
+                    additionalData.put(key, readString(buffer));
+                }
+            }
+            data.setAdditionalData(additionalData);
+            return data;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Données binaires tronquées", e);
+        }
+    }
+    
+    private static int flags(QRPaymentData data) {
+        int flags = 0;
+        if (data.getMerchantInfo() != null) {
+            flags |= HAS_MERCHANT;
+        }
+        if (data.getAmount() != null) {
+            flags |= HAS_AMOUNT;
+        }
+        if (data.getTransactionId() != null) {
+            flags |= HAS_TRANSACTION_ID;
+        }
+        if (data.getBillReference() != null) {
+            flags |= HAS_BILL_REFERENCE;
+        }
+        if (data.getSubscriptionId() != null) {
+            flags |= HAS_SUBSCRIPTION_ID;
+        }
+        if (data.getDynamicUrl() != null) {
+            flags |= HAS_DYNAMIC_URL;
+        }
+        if (data.getAdditionalData() != null && !data.getAdditionalData().isEmpty()) {
+            flags |= HAS_ADDITIONAL_DATA;
+        }
+        return flags;
+    }
+    
+    private static <E> E enumValue(E[] values, int code) {
+        if (code > values.length) {
+            throw new IllegalArgumentException("Valeur d'énumération inconnue: " + code);
+        }
+        return values[code - 1];
+    }
+    
+    /**
+     * Montant en unités mineures (valeur non mise à l'échelle du BigDecimal)
+     */
+    private static long unscaled(BigDecimal amount) {
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            throw new IllegalArgumentException("Montant hors limites pour le format binaire: " + amount);
+        }
+        return unscaled.longValue();
+    }
+    
+    /**
+     * Code du dictionnaire : "00".."99" → 1..100, sinon clé littérale
+     */
+    private static int tagCode(String key) {
+        if (key != null && key.length() == 2) {
+            char tens = key.charAt(0);
+            char units = key.charAt(1);
+            if (tens >= '0' && tens <= '9' && units >= '0' && units <= '9') {
+                return (tens - '0') * 10 + (units - '0') + 1;
+            }
+        }
+        return LITERAL_TAG;
+    }
+    
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        int length = utf8Length(value);
+        if (length == value.length()) {
+            writeVarLong(buffer, length + 1L);
+            // ASCII : écriture directe, sans tableau intermédiaire ; les seuls
+            // caractères non ASCII possibles ici sont des substituts isolés,
+            // remplacés par '?' comme le fait String.getBytes
+            if (buffer.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                buffer.put(c < 0x80 ? (byte) c : (byte) '?');
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(buffer, bytes.length + 1L);
+            buffer.put(bytes);
+        }
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        long header = readVarLong(buffer);
+        if (header == 0) {
+            return null;
+        }
+        // Comparaison non signée sur 64 bits avant conversion : une longueur
+        // corrompue (>= 2^31 ou varint négatif) ne doit pas devenir un int valide
+        if (Long.compareUnsigned(header - 1, buffer.remaining()) > 0) {
+            throw new BufferUnderflowException();
+        }
+        int length = (int) (header - 1);
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+    
+    private static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varLongSize(length + 1L) + length;
+    }
+    
+    /**
+     * Longueur UTF-8 (un substitut isolé compte pour '?', comme String.getBytes)
+     */
+    static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint trop long");
+    }
+    
+    /**
+     * Varint destiné à un int (nombre d'entrées, code de tag) : une valeur
+     * au-delà de Integer.MAX_VALUE est rejetée au lieu d'être tronquée
+     */
+    private static int readVarInt(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint hors limites: " + Long.toUnsignedString(value));
+        }
+        return (int) value;
+    }
+    
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
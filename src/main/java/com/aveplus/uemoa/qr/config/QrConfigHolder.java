@@ -0,0 +1,70 @@
+package com.aveplus.uemoa.qr.config;
+
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Référence vers la configuration compilée courante
+ * 
+ * Les générateurs et le moteur de rendu lisent {@link #current()} (une
+ * lecture volatile) une fois par appel ; un rechargement compile une
+ * nouvelle {@link QrConfigSnapshot} et la publie atomiquement. Un appel en
+ * cours termine avec la configuration qu'il a lue.
+ */
+@Slf4j
+public class QrConfigHolder {
+    
+    private final UemoaQrProperties properties;
+    private final EMVFormatter formatter;
+    private final CRCCalculator crcCalculator;
+    
+    private volatile QrConfigSnapshot current;
+    
+    /**
+     * Compile la configuration initiale
+     * 
+     * @param properties La configuration du module (relue par {@link #refresh()})
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @throws IllegalArgumentException si la configuration est invalide
+     */
+    public QrConfigHolder(UemoaQrProperties properties, EMVFormatter formatter, CRCCalculator crcCalculator) {
+        this.properties = properties;
+        this.formatter = formatter;
+        this.crcCalculator = crcCalculator;
+        this.current = QrConfigSnapshot.compile(1, properties, formatter, crcCalculator);
+    }
+    
+    /**
+     * Configuration compilée courante
+     */
+    public QrConfigSnapshot current() {
+        return current;
+    }
+    
+    /**
+     * Recompile la configuration depuis les propriétés du module
+     * 
+     * @return La nouvelle configuration
+     * @throws IllegalArgumentException si la configuration est invalide (l'ancienne reste active)
+     */
+    public QrConfigSnapshot refresh() {
+        return refresh(properties);
+    }
+    
+    /**
+     * Recompile la configuration depuis des propriétés fournies
+     * 
+     * @param source Les propriétés à compiler
+     * @return La nouvelle configuration
+     * @throws IllegalArgumentException si la configuration est invalide (l'ancienne reste active)
+     */
+    public synchronized QrConfigSnapshot refresh(UemoaQrProperties source) {
+        QrConfigSnapshot next = QrConfigSnapshot.compile(current.getGeneration() + 1, source, formatter, crcCalculator);
+        current = next;
+        log.info("Configuration UEMOA QR rechargée (génération {}, {} profil(s) PSP)",
+                next.getGeneration(), next.getProfiles().names().size());
+        return next;
+    }
+}
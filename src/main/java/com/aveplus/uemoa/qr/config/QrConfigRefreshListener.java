@@ -0,0 +1,39 @@
+package com.aveplus.uemoa.qr.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Recharge la configuration compilée sur {@link EnvironmentChangeEvent} (Spring Cloud)
+ * 
+ * Les propriétés sont relues directement depuis l'{@link Environment}, sans
+ * dépendre de l'ordre de rebind du bean {@link UemoaQrProperties}. Une
+ * configuration invalide est rejetée et la précédente reste active.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QrConfigRefreshListener implements ApplicationListener<EnvironmentChangeEvent> {
+    
+    static final String PREFIX = "uemoa.qr.payment";
+    
+    private final QrConfigHolder holder;
+    private final Environment environment;
+    
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX + "."))) {
+            return;
+        }
+        
+        try {
+            UemoaQrProperties properties = Binder.get(environment).bindOrCreate(PREFIX, UemoaQrProperties.class);
+            holder.refresh(properties);
+        } catch (RuntimeException e) {
+            log.error("Configuration UEMOA QR invalide, la configuration précédente reste active: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.aveplus.uemoa.qr.config;
+
+import com.aveplus.uemoa.qr.profile.QrProfileRegistry;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.EncodeHintType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Configuration compilée et immuable du module
+ * 
+ * Regroupe ce qui est lu à chaque génération ou rendu : profils PSP
+ * précalculés, paramètres d'image, indications d'encodage ZXing et durées
+ * de cache HTTP. Une nouvelle instance est compilée à chaque rechargement
+ * (voir {@link QrConfigHolder}) ; une instance n'est jamais modifiée.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class QrConfigSnapshot {
+    
+    /**
+     * Numéro de génération (1 au démarrage, +1 à chaque rechargement)
+     */
+    long generation;
+    
+    /**
+     * Profils PSP compilés
+     */
+    QrProfileRegistry profiles;
+    
+    /**
+     * Taille par défaut des images QR (en pixels)
+     */
+    int qrImageSize;
+    
+    /**
+     * Marge des images QR (en pixels)
+     */
+    int qrImageMargin;
+    
+    /**
+     * Format d'image par défaut, en majuscules
+     */
+    String imageFormat;
+    
+    /**
+     * Indications d'encodage ZXing (non modifiables)
+     */
+    Map<EncodeHintType, Object> encodeHints;
+    
+    /**
+     * Encodeur de symboles intégré (false = ZXing)
+     */
+    boolean nativeEncoder;
+    
+    /**
+     * Durée de cache HTTP des images de QR statiques et P2P
+     */
+    Duration staticMaxAge;
+    
+    /**
+     * Durée de cache HTTP des images de QR dynamiques
+     */
+    Duration dynamicMaxAge;
+    
+    /**
+     * Taille maximale des images demandées par HTTP (en pixels)
+     */
+    int maxImageSize;
+    
+    /**
+     * Marge maximale des images demandées par HTTP (en modules)
+     */
+    int maxImageMargin;
+    
+    /**
+     * Compile la configuration
+     * 
+     * @param generation Le numéro de génération
+     * @param properties La configuration du module
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @return La configuration compilée
+     * @throws IllegalArgumentException si la configuration est invalide
+     */
+    public static QrConfigSnapshot compile(long generation,
+                                           UemoaQrProperties properties,
+                                           EMVFormatter formatter,
+                                           CRCCalculator crcCalculator) {
+        if (properties.getQrImageSize() <= 0) {
+            throw new IllegalArgumentException("La taille des images QR doit être positive: " + properties.getQrImageSize());
+        }
+        if (properties.getQrImageMargin() < 0) {
+            throw new IllegalArgumentException("La marge des images QR ne peut pas être négative: " + properties.getQrImageMargin());
+        }
+        if (properties.getImageFormat() == null || properties.getImageFormat().isEmpty()) {
+            throw new IllegalArgumentException("Le format d'image est obligatoire");
+        }
+        
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        
+        UemoaQrProperties.Http http = properties.getHttp();
+        if (http.getMaxImageSize() <= 0 || http.getMaxImageMargin() < 0) {
+            throw new IllegalArgumentException("Limites d'image HTTP invalides: taille=" + http.getMaxImageSize()
+                    + ", marge=" + http.getMaxImageMargin());
+        }
+        return new QrConfigSnapshot(generation,
+                QrProfileRegistry.from(properties, formatter, crcCalculator),
+                properties.getQrImageSize(),
+                properties.getQrImageMargin(),
+                properties.getImageFormat().toUpperCase(Locale.ROOT),
+                Collections.unmodifiableMap(hints),
+                properties.isNativeEncoder(),
+                http.getStaticMaxAge(),
+                http.getDynamicMaxAge(),
+                http.getMaxImageSize(),
+                http.getMaxImageMargin());
+    }
+}
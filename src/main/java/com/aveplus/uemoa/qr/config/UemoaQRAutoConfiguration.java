@@ -1,24 +1,221 @@
 package com.aveplus.uemoa.qr.config;
 
+import com.aveplus.uemoa.qr.admission.AdmissionController;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.QrTemplateCache;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.QrLogoCache;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.aveplus.uemoa.qr.warmup.QRWarmupRunner;
+import com.aveplus.uemoa.qr.web.QRBatchStreamer;
+import com.aveplus.uemoa.qr.web.QRImageHttpHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 /**
  * Configuration automatique pour le module UEMOA QR Payment
  * Cette classe permet l'intégration automatique du module dans les projets Spring Boot
+ *
+ * Les beans sont déclarés explicitement (pas de scan de classpath) afin de
+ * réduire le temps de démarrage et de rester compatible avec Spring AOT.
  */
-@Configuration
-@ComponentScan(basePackages = "com.aveplus.uemoa.qr")
+@AutoConfiguration
+@ImportRuntimeHints(UemoaQRRuntimeHints.class)
 public class UemoaQRAutoConfiguration {
-    
+
     @Bean
     @Primary
     @ConfigurationProperties(prefix = "uemoa.qr.payment")
     public UemoaQrProperties uemoaQrProperties() {
         return new UemoaQrProperties();
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EMVFormatter emvFormatter() {
+        return new EMVFormatter();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CRCCalculator crcCalculator() {
+        return new CRCCalculator();
+    }
+
+    /**
+     * Configuration compilée (profils PSP, paramètres d'image), rechargeable
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public QrConfigHolder qrConfigHolder(UemoaQrProperties properties,
+                                         EMVFormatter formatter,
+                                         CRCCalculator crcCalculator) {
+        return new QrConfigHolder(properties, formatter, crcCalculator);
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public StaticQRGenerator staticQRGenerator(EMVFormatter formatter,
+                                               CRCCalculator crcCalculator,
+                                               UemoaQrProperties properties,
+                                               QrConfigHolder qrConfigHolder) {
+        return new StaticQRGenerator(formatter, crcCalculator, properties, qrConfigHolder);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DynamicQRGenerator dynamicQRGenerator(EMVFormatter formatter,
+                                                 CRCCalculator crcCalculator,
+                                                 UemoaQrProperties properties,
+                                                 QrConfigHolder qrConfigHolder) {
+        return new DynamicQRGenerator(formatter, crcCalculator, properties, qrConfigHolder);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public P2PQRGenerator p2pQRGenerator(EMVFormatter formatter,
+                                         CRCCalculator crcCalculator,
+                                         UemoaQrProperties properties,
+                                         QrConfigHolder qrConfigHolder) {
+        return new P2PQRGenerator(formatter, crcCalculator, properties, qrConfigHolder);
+    }
+
+    /**
+     * Modèles de QR précompilés par marchand
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public QrTemplateCache qrTemplateCache(EMVFormatter formatter,
+                                           CRCCalculator crcCalculator,
+                                           QrConfigHolder qrConfigHolder,
+                                           UemoaQrProperties properties) {
+        return new QrTemplateCache(formatter, crcCalculator, qrConfigHolder, properties.getTemplateCacheSize());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public QRParser qrParser(CRCCalculator crcCalculator) {
+        return new QRParser(crcCalculator);
+    }
+
+    /**
+     * Logos marchands incrustés au centre des images
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "uemoa.qr.payment", name = "generate-qr-image",
+                           havingValue = "true", matchIfMissing = true)
+    public QrLogoCache qrLogoCache(UemoaQrProperties properties) {
+        return new QrLogoCache(properties.getLogoCacheSize());
+    }
+
+    /**
+     * Moteur de rendu d'images, créé uniquement si la génération d'images est activée
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "uemoa.qr.payment", name = "generate-qr-image",
+                           havingValue = "true", matchIfMissing = true)
+    public QRImageRenderer qrImageRenderer(UemoaQrProperties properties,
+                                           QrConfigHolder qrConfigHolder,
+                                           QrLogoCache qrLogoCache) {
+        QRImageRenderer renderer = new QRImageRenderer(qrConfigHolder, qrLogoCache);
+        if (properties.isImagePreload()) {
+            renderer.preloadAsync();
+        }
+        return renderer;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QRImageDecoder qrImageDecoder(UemoaQrProperties properties) {
+        return new QRImageDecoder(properties);
+    }
+
+    /**
+     * Contrôle d'admission (seaux de jetons par marchand ou client, plafond de rendus)
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "uemoa.qr.payment.admission", name = "enabled", havingValue = "true")
+    public AdmissionController admissionController(UemoaQrProperties properties) {
+        return new AdmissionController(properties.getAdmission());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public UemoaQRService uemoaQRService(StaticQRGenerator staticQRGenerator,
+                                         DynamicQRGenerator dynamicQRGenerator,
+                                         P2PQRGenerator p2pQRGenerator,
+                                         QRParser qrParser,
+                                         UemoaQrProperties properties,
+                                         ObjectProvider<QRImageRenderer> imageRenderer,
+                                         QRImageDecoder imageDecoder,
+                                         ObjectProvider<AdmissionController> admissionController) {
+        return new UemoaQRService(staticQRGenerator, dynamicQRGenerator, p2pQRGenerator,
+                                  qrParser, properties, imageRenderer.getIfAvailable(), imageDecoder,
+                                  admissionController.getIfAvailable(AdmissionController::unlimited));
+    }
+
+    /**
+     * Réponses HTTP d'images QR (ETag, Cache-Control, 304)
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "uemoa.qr.payment", name = "generate-qr-image",
+                           havingValue = "true", matchIfMissing = true)
+    public QRImageHttpHandler qrImageHttpHandler(UemoaQRService uemoaQRService, QrConfigHolder qrConfigHolder) {
+        return new QRImageHttpHandler(uemoaQRService, qrConfigHolder);
+    }
+
+    /**
+     * Traitement en flux des lots NDJSON
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public QRBatchStreamer qrBatchStreamer(UemoaQRService uemoaQRService,
+                                           ObjectProvider<ObjectMapper> objectMapper,
+                                           UemoaQrProperties properties) {
+        return new QRBatchStreamer(uemoaQRService, objectMapper.getIfAvailable(ObjectMapper::new), properties);
+    }
+
+    /**
+     * Préchauffage JIT au démarrage, avec blocage de la readiness
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "uemoa.qr.payment.warmup", name = "enabled", havingValue = "true")
+    public QRWarmupRunner qrWarmupRunner(UemoaQRService uemoaQRService, UemoaQrProperties properties) {
+        return new QRWarmupRunner(uemoaQRService, properties);
+    }
+    
+    /**
+     * Rechargement à chaud sur EnvironmentChangeEvent, si Spring Cloud Context est présent
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.cloud.context.environment.EnvironmentChangeEvent")
+    static class RefreshConfiguration {
+        
+        @Bean
+        @ConditionalOnMissingBean
+        public QrConfigRefreshListener qrConfigRefreshListener(QrConfigHolder qrConfigHolder, Environment environment) {
+            return new QrConfigRefreshListener(qrConfigHolder, environment);
+        }
+    }
 }
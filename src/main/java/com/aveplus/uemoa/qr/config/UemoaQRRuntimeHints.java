@@ -0,0 +1,41 @@
+package com.aveplus.uemoa.qr.config;
+
+import com.aveplus.uemoa.qr.model.AdditionalData;
+import com.aveplus.uemoa.qr.model.EMVField;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Indications Spring AOT pour le module UEMOA QR
+ *
+ * Les modèles sont sérialisés par Jackson et validés par Bean Validation,
+ * qui s'appuient tous deux sur la réflexion.
+ */
+public class UemoaQRRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] MODEL_TYPES = {
+        QRPaymentData.class,
+        QRPaymentData.QRType.class,
+        QRPaymentData.MerchantChannel.class,
+        MerchantInfo.class,
+        QrPayment.class,
+        QrMerchant.class,
+        AdditionalData.class,
+        EMVField.class,
+        UemoaQrProperties.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : MODEL_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.values());
+        }
+
+        hints.resources().registerPattern("application.properties");
+    }
+}
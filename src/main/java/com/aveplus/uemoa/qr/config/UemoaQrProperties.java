@@ -3,6 +3,10 @@ package com.aveplus.uemoa.qr.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Propriétés de configuration pour le module UEMOA QR Payment
  */
@@ -35,6 +39,21 @@ public class UemoaQrProperties {
      */
     private String bceaoPrefix = "int.bceao.pi";
     
+    /**
+     * Profils PSP nommés ; les valeurs non renseignées reprennent celles ci-dessus
+     */
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+    
+    /**
+     * Profil PSP par alias marchand, utilisé quand la requête n'en désigne pas
+     */
+    private Map<String, String> merchantProfiles = new LinkedHashMap<>();
+    
+    /**
+     * Nombre maximal de modèles de QR précompilés conservés en cache
+     */
+    private int templateCacheSize = 10000;
+    
     /**
      * Active la validation du CRC lors du parsing
      */
@@ -60,8 +79,204 @@ public class UemoaQrProperties {
      */
     private String imageFormat = "PNG";
     
+    /**
+     * Encode les symboles avec l'encodeur intégré (mode octet, résultat
+     * identique à ZXing) ; false ou contenu non octet = ZXing
+     */
+    private boolean nativeEncoder = true;
+    
+    /**
+     * Nombre maximal de logos pré-mis à l'échelle conservés en cache (par logo et taille)
+     */
+    private int logoCacheSize = 1000;
+    
+    /**
+     * Initialise la pile image (ZXing, AWT, ImageIO) en arrière-plan au démarrage
+     */
+    private boolean imagePreload = true;
+    
+    /**
+     * Dimension maximale (en pixels) des images avant binarisation lors du décodage
+     */
+    private int decodeMaxDimension = 1200;
+    
+    /**
+     * Nombre de threads pour le décodage batch (0 = nombre de processeurs)
+     */
+    private int decodeParallelism = 0;
+    
+    /**
+     * Taille des tuiles (en pixels) pour la détection multi-symboles sur les grandes images
+     */
+    private int decodeTileSize = 2048;
+    
+    /**
+     * Chevauchement des tuiles (doit dépasser la taille d'un QR code imprimé)
+     */
+    private int decodeTileOverlap = 640;
+    
     /**
      * Active les logs détaillés
      */
     private boolean debugMode = false;
+    
+    /**
+     * Cache HTTP des images QR
+     */
+    private Http http = new Http();
+    
+    /**
+     * Traitement des lots NDJSON
+     */
+    private Batch batch = new Batch();
+    
+    /**
+     * Phase de préchauffage JIT au démarrage
+     */
+    private Warmup warmup = new Warmup();
+    
+    /**
+     * Contrôle d'admission (débit par marchand ou client, rendus simultanés)
+     */
+    private Admission admission = new Admission();
+    
+    /**
+     * Profil PSP : valeurs d'en-tête propres à un PSP ou à un pays
+     */
+    @Data
+    public static class Profile {
+        
+        /**
+         * Code pays par défaut (null = valeur globale)
+         */
+        private String defaultCountryCode;
+        
+        /**
+         * Code devise (null = valeur globale)
+         */
+        private String currencyCode;
+        
+        /**
+         * Indicateur de format de payload (null = valeur globale)
+         */
+        private String payloadFormatIndicator;
+        
+        /**
+         * Code catégorie marchand (null = valeur globale)
+         */
+        private String merchantCategoryCode;
+        
+        /**
+         * Identifiant global du template 36 (null = valeur globale)
+         */
+        private String bceaoPrefix;
+    }
+    
+    /**
+     * Configuration du préchauffage
+     */
+    @Data
+    public static class Warmup {
+        
+        /**
+         * Active le préchauffage sur ApplicationReadyEvent
+         */
+        private boolean enabled = false;
+        
+        /**
+         * Nombre d'itérations (chaque itération couvre tous les types, le parsing et le rendu)
+         */
+        private int iterations = 3000;
+        
+        /**
+         * Durée maximale du préchauffage (arrêt à la première limite atteinte)
+         */
+        private Duration maxDuration = Duration.ofSeconds(30);
+    }
+    
+    /**
+     * Configuration du contrôle d'admission
+     */
+    @Data
+    public static class Admission {
+        
+        /**
+         * Active le contrôle d'admission des méthodes {@code tryGenerate*} du service
+         */
+        private boolean enabled = false;
+        
+        /**
+         * Nombre de requêtes acceptées d'affilée par clé (capacité du seau)
+         */
+        private int burst = 20;
+        
+        /**
+         * Requêtes par seconde rendues à chaque clé (remplissage du seau)
+         */
+        private double refillPerSecond = 10.0;
+        
+        /**
+         * Nombre maximal de rendus d'image simultanés, toutes clés confondues (0 = 2 × nombre de processeurs)
+         */
+        private int maxConcurrentRenders = 0;
+        
+        /**
+         * Durée après laquelle le seau plein d'une clé inactive est libéré
+         */
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        
+        /**
+         * Nombre maximal de seaux ; au-delà, les nouvelles clés partagent un seau de débordement
+         */
+        private int maxKeys = 100_000;
+    }
+    
+    /**
+     * Configuration du cache HTTP des images
+     */
+    @Data
+    public static class Http {
+        
+        /**
+         * Durée de cache (Cache-Control max-age) des images de QR statiques et P2P
+         */
+        private Duration staticMaxAge = Duration.ofDays(1);
+        
+        /**
+         * Durée de cache (Cache-Control max-age) des images de QR dynamiques
+         */
+        private Duration dynamicMaxAge = Duration.ofSeconds(60);
+        
+        /**
+         * Taille maximale (en pixels) acceptée pour une image demandée par HTTP (au-delà : 400)
+         */
+        private int maxImageSize = 2000;
+        
+        /**
+         * Marge maximale (en modules) acceptée pour une image demandée par HTTP (au-delà : 400)
+         */
+        private int maxImageMargin = 10;
+    }
+    
+    /**
+     * Configuration du traitement des lots NDJSON
+     */
+    @Data
+    public static class Batch {
+        
+        /**
+         * Nombre de threads de traitement par lot (0 = nombre de processeurs)
+         */
+        private int parallelism = 0;
+        
+        /**
+         * Nombre maximal de lignes en cours de traitement (0 = 4 × parallélisme)
+         */
+        private int maxInFlight = 0;
+        
+        /**
+         * Longueur maximale d'une ligne d'entrée, en caractères
+         */
+        private int maxLineLength = 8192;
+    }
 }
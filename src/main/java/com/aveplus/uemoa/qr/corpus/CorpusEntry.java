@@ -0,0 +1,48 @@
+package com.aveplus.uemoa.qr.corpus;
+
+import com.aveplus.uemoa.qr.model.QrPayment;
+import lombok.Value;
+
+/**
+ * Entrée d'un corpus synthétique
+ */
+@Value
+public class CorpusEntry {
+    
+    /**
+     * Nature du payload
+     */
+    public enum Kind {
+        /**
+         * Payload conforme, identique à celui des générateurs pour les données
+         */
+        VALID,
+        
+        /**
+         * CRC faux (structure TLV intacte)
+         */
+        CORRUPT_CRC,
+        
+        /**
+         * Structure TLV invalide (troncature, longueur ou tag non numérique), CRC recalculé
+         */
+        MALFORMED_TLV
+    }
+    
+    /**
+     * Position dans le corpus (à partir de 0)
+     */
+    long index;
+    
+    Kind kind;
+    
+    /**
+     * Données de paiement ayant servi à générer le payload (avant altération)
+     */
+    QrPayment payment;
+    
+    /**
+     * Chaîne EMVCo
+     */
+    String payload;
+}
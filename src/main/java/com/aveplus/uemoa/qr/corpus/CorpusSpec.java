@@ -0,0 +1,62 @@
+package com.aveplus.uemoa.qr.corpus;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Paramètres d'un corpus synthétique
+ * 
+ * Deux corpus de mêmes paramètres sont identiques entrée par entrée.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CorpusSpec {
+    
+    /**
+     * Graine du générateur pseudo-aléatoire
+     */
+    @Builder.Default
+    long seed = 42L;
+    
+    /**
+     * Nombre d'entrées du corpus
+     */
+    @Builder.Default
+    long size = 1_000_000L;
+    
+    /**
+     * Nombre de marchands et de particuliers distincts (répartis selon les pondérations)
+     */
+    @Builder.Default
+    int merchants = 10_000;
+    
+    /**
+     * Pondération des QR statiques
+     */
+    @Builder.Default
+    int staticWeight = 40;
+    
+    /**
+     * Pondération des QR dynamiques
+     */
+    @Builder.Default
+    int dynamicWeight = 45;
+    
+    /**
+     * Pondération des QR P2P
+     */
+    @Builder.Default
+    int p2pWeight = 15;
+    
+    /**
+     * Part des payloads dont le CRC est faux (0 à 1)
+     */
+    @Builder.Default
+    double corruptCrcRate = 0.0;
+    
+    /**
+     * Part des payloads à la structure TLV invalide, avec un CRC correct (0 à 1)
+     */
+    @Builder.Default
+    double malformedTlvRate = 0.0;
+}
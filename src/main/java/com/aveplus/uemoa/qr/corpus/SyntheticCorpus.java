@@ -0,0 +1,617 @@
+package com.aveplus.uemoa.qr.corpus;
+
+import com.aveplus.uemoa.qr.codec.QRPaymentCodec;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.generator.QrTemplate;
+import com.aveplus.uemoa.qr.model.AdditionalData;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
+import com.aveplus.uemoa.qr.profile.QrProfileRegistry;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Générateur déterministe de corpus de QR codes pour les benchmarks et tests d'endurance
+ *
+ * Produit des QR statiques, dynamiques et P2P réalistes : pays UEMOA,
+ * noms et villes dans les limites de {@link com.aveplus.uemoa.qr.model.MerchantInfo},
+ * canaux, abonnements, URL dynamiques et sous-champs du template 62 variés,
+ * avec des parts contrôlées de CRC faux et de TLV malformés. Le corpus est
+ * reproductible à partir de la graine : chaque marchand est dérivé de la
+ * graine et de son rang, chaque transaction de la séquence de la graine.
+ *
+ * Les payloads valides sont rendus par des {@link QrTemplate} compilés une
+ * fois par marchand (identiques aux générateurs) : le corpus est produit en
+ * flux, sans être conservé en mémoire.
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:exec -Dbench.main=com.aveplus.uemoa.qr.corpus.SyntheticCorpus \
+ *     -Dbench.args="--size 5000000 --seed 7 --corrupt-crc 0.01 --malformed-tlv 0.01 --out target/corpus.txt"
+ * </pre>
+ */
+public class SyntheticCorpus implements Iterable<CorpusEntry> {
+    
+    private static final String[] COUNTRIES = {"CI", "SN", "BF", "ML", "BJ", "TG", "NE", "GW"};
+    private static final int[] COUNTRY_WEIGHTS = {30, 20, 12, 12, 10, 8, 6, 2};
+    
+    /**
+     * Villes par pays (15 caractères au plus), dans l'ordre de {@link #COUNTRIES}
+     */
+    private static final String[][] CITIES = {
+        {"Abidjan", "Bouaké", "Yamoussoukro", "San-Pédro", "Daloa", "Korhogo", "Man"},
+        {"Dakar", "Thiès", "Saint-Louis", "Ziguinchor", "Kaolack", "Touba", "Mbour"},
+        {"Ouagadougou", "Bobo-Dioulasso", "Koudougou", "Banfora", "Kaya"},
+        {"Bamako", "Sikasso", "Ségou", "Mopti", "Kayes", "Gao"},
+        {"Cotonou", "Porto-Novo", "Parakou", "Abomey-Calavi", "Djougou"},
+        {"Lomé", "Kara", "Sokodé", "Kpalimé", "Atakpamé"},
+        {"Niamey", "Zinder", "Maradi", "Agadez", "Tahoua"},
+        {"Bissau", "Bafatá", "Gabú"}
+    };
+    
+    private static final String[] BUSINESSES = {
+        "BOUTIQUE", "PHARMACIE", "SUPERMARCHE", "STATION", "RESTAURANT", "QUINCAILLERIE",
+        "BOULANGERIE", "SALON", "GARAGE", "TELECOM", "CAFÉ", "ÉPICERIE", "MAQUIS", "LIBRAIRIE"
+    };
+    
+    private static final String[] NAMES = {
+        "AMA", "KOFFI", "DIALLO", "TRAORE", "OUEDRAOGO", "KONE", "SOW", "NDIAYE", "BAMBA",
+        "YAO", "FALL", "COULIBALY", "SANOGO", "MENSAH", "AGBEKO", "KOUASSI", "DIOP", "ZONGO"
+    };
+    
+    private static final String[] SUFFIXES = {"", "", "", " & FILS", " SARL", " PLUS", " EXPRESS", " 2000"};
+    
+    /**
+     * Tags libres du template 62 (libellés, magasin, terminal, objet...)
+     */
+    private static final String[] EXTRA_TAGS = {"04", "05", "06", "07", "08", "09", "10"};
+    
+    private static final QRPaymentData.MerchantChannel[] STATIC_CHANNELS = {
+        null, QRPaymentData.MerchantChannel.STATIC_ONSITE, QRPaymentData.MerchantChannel.STATIC_WITH_AMOUNT,
+        QRPaymentData.MerchantChannel.STATIC_WITH_TXID, QRPaymentData.MerchantChannel.STATIC_INVOICE
+    };
+    
+    private static final QRPaymentData.MerchantChannel[] DYNAMIC_CHANNELS = {
+        null, QRPaymentData.MerchantChannel.DYNAMIC_ONSITE, QRPaymentData.MerchantChannel.DYNAMIC_ECOMMERCE_WEB,
+        QRPaymentData.MerchantChannel.DYNAMIC_ECOMMERCE_APP
+    };
+    
+    private static final QRPaymentData.QRType[] TYPES = QRPaymentData.QRType.values();
+    
+    private static final char[] ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private static final double MIN_AMOUNT_LOG = Math.log(100);
+    private static final double MAX_AMOUNT_LOG = Math.log(2_000_000);
+    
+    /**
+     * Taille maximale d'un enregistrement binaire (préfixe de longueur sur 2 octets)
+     */
+    private static final int MAX_RECORD_SIZE = 0xFFFF;
+    
+    private final CorpusSpec spec;
+    private final EMVFormatter formatter;
+    private final CRCCalculator crcCalculator;
+    private final QrProfile profile;
+    
+    /**
+     * Marchands et modèles par type, créés à la première utilisation
+     * (valeurs déterministes : une course entre itérateurs est sans effet)
+     */
+    private final QrPayment[][] prototypes = new QrPayment[TYPES.length][];
+    private final QrTemplate[][] templates = new QrTemplate[TYPES.length][];
+    private final int[] typeWeights;
+    
+    /**
+     * Crée un corpus avec la configuration par défaut du module (profil BCEAO)
+     *
+     * @param spec Les paramètres du corpus
+     */
+    public SyntheticCorpus(CorpusSpec spec) {
+        this(spec, new UemoaQrProperties());
+    }
+    
+    /**
+     * Crée un corpus avec le profil PSP par défaut des propriétés
+     *
+     * @param spec Les paramètres du corpus
+     * @param properties Les propriétés du module
+     * @throws IllegalArgumentException si les paramètres sont incohérents
+     */
+    public SyntheticCorpus(CorpusSpec spec, UemoaQrProperties properties) {
+        if (spec.getSize() < 0 || spec.getMerchants() <= 0) {
+            throw new IllegalArgumentException("La taille du corpus doit être positive et le nombre de marchands > 0");
+        }
+        if (spec.getStaticWeight() < 0 || spec.getDynamicWeight() < 0 || spec.getP2pWeight() < 0
+                || spec.getStaticWeight() + spec.getDynamicWeight() + spec.getP2pWeight() <= 0) {
+            throw new IllegalArgumentException("Les pondérations des types doivent être positives");
+        }
+        if (spec.getCorruptCrcRate() < 0 || spec.getMalformedTlvRate() < 0
+                || spec.getCorruptCrcRate() + spec.getMalformedTlvRate() > 1) {
+            throw new IllegalArgumentException("Les parts de payloads altérés doivent être comprises entre 0 et 1");
+        }
+        this.spec = spec;
+        this.formatter = new EMVFormatter();
+        this.crcCalculator = new CRCCalculator();
+        this.profile = QrProfileRegistry.from(properties, formatter, crcCalculator).defaultProfile();
+        
+        this.typeWeights = new int[] {spec.getStaticWeight(), spec.getDynamicWeight(), spec.getP2pWeight()};
+        int totalWeight = spec.getStaticWeight() + spec.getDynamicWeight() + spec.getP2pWeight();
+        for (QRPaymentData.QRType type : TYPES) {
+            int weight = typeWeights[type.ordinal()];
+            int count = weight == 0 ? 0 : Math.max(1, (int) ((long) spec.getMerchants() * weight / totalWeight));
+            prototypes[type.ordinal()] = new QrPayment[count];
+            templates[type.ordinal()] = new QrTemplate[count];
+        }
+    }
+    
+    public CorpusSpec getSpec() {
+        return spec;
+    }
+    
+    /**
+     * Parcourt le corpus depuis le début
+     */
+    @Override
+    public Iterator<CorpusEntry> iterator() {
+        return new Iterator<>() {
+            private final SplittableRandom random = new SplittableRandom(spec.getSeed());
+            private long index;
+            
+            @Override
+            public boolean hasNext() {
+                return index < spec.getSize();
+            }
+            
+            @Override
+            public CorpusEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return entry(index++, random);
+            }
+        };
+    }
+    
+    /**
+     * Corpus sous forme de flux séquentiel
+     */
+    public Stream<CorpusEntry> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), spec.getSize(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+    
+    /**
+     * Payloads du corpus
+     */
+    public Iterator<String> payloads() {
+        return stream().map(CorpusEntry::getPayload).iterator();
+    }
+    
+    /**
+     * Données de paiement du corpus, sous forme de beans
+     */
+    public Iterator<QRPaymentData> records() {
+        return stream().map(entry -> entry.getPayment().toQRPaymentData()).iterator();
+    }
+    
+    /**
+     * Écrit les payloads, un par ligne (UTF-8), format de rejeu du harnais de charge
+     *
+     * @param file Le fichier de destination (remplacé)
+     * @return Le nombre de payloads écrits
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public long writePayloads(Path file) throws IOException {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            return writePayloads(output);
+        }
+    }
+    
+    /**
+     * Écrit les payloads, un par ligne (UTF-8)
+     *
+     * @param output Le flux de destination (non fermé)
+     * @return Le nombre de payloads écrits
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public long writePayloads(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+        long count = 0;
+        for (CorpusEntry entry : this) {
+            writer.write(entry.getPayload());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+    
+    /**
+     * Écrit les données de paiement au format binaire {@link QRPaymentCodec}
+     *
+     * @param file Le fichier de destination (remplacé)
+     * @return Le nombre d'enregistrements écrits
+     * @throws IOException En cas d'erreur d'écriture
+     * @see #readRecords(InputStream)
+     */
+    public long writeRecords(Path file) throws IOException {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            return writeRecords(output);
+        }
+    }
+    
+    /**
+     * Écrit les données de paiement au format binaire {@link QRPaymentCodec},
+     * chaque enregistrement précédé de sa longueur (2 octets, gros-boutiste)
+     *
+     * @param output Le flux de destination (non fermé)
+     * @return Le nombre d'enregistrements écrits
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public long writeRecords(OutputStream output) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(output, 1 << 16);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + MAX_RECORD_SIZE);
+        long count = 0;
+        for (CorpusEntry entry : this) {
+            buffer.clear().position(2);
+            int length = QRPaymentCodec.write(entry.getPayment().toQRPaymentData(), buffer);
+            buffer.putShort(0, (short) length);
+            buffered.write(buffer.array(), 0, 2 + length);
+            count++;
+        }
+        buffered.flush();
+        return count;
+    }
+    
+    /**
+     * Relit des enregistrements écrits par {@link #writeRecords(OutputStream)}
+     *
+     * @param input Le flux source (lu au fil de l'itération, non fermé)
+     * @return Les données de paiement ; les erreurs de lecture sont levées en {@link UncheckedIOException}
+     */
+    public static Iterator<QRPaymentData> readRecords(InputStream input) {
+        DataInputStream data = new DataInputStream(input);
+        return new Iterator<>() {
+            private QRPaymentData next = read();
+            
+            private QRPaymentData read() {
+                try {
+                    int length;
+                    try {
+                        length = data.readUnsignedShort();
+                    } catch (EOFException e) {
+                        return null;
+                    }
+                    byte[] record = new byte[length];
+                    data.readFully(record);
+                    return QRPaymentCodec.decode(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+            
+            @Override
+            public QRPaymentData next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                QRPaymentData current = next;
+                next = read();
+                return current;
+            }
+        };
+    }
+    
+    /**
+     * Entrée de rang donné : transaction tirée de la séquence, marchand dérivé de son rang
+     */
+    private CorpusEntry entry(long index, SplittableRandom random) {
+        QRPaymentData.QRType type = TYPES[pick(random, typeWeights)];
+        QrPayment[] pool = prototypes[type.ordinal()];
+        // Répartition inégale : les premiers marchands concentrent le trafic
+        double draw = random.nextDouble();
+        int rank = (int) (draw * draw * pool.length);
+        
+        QrPayment prototype = prototype(type, rank);
+        QrTemplate template = templates[type.ordinal()][rank];
+        if (template == null) {
+            template = QrTemplate.compile(prototype, profile, formatter, crcCalculator);
+            templates[type.ordinal()][rank] = template;
+        }
+        
+        QrPayment payment = transaction(prototype, random);
+        String payload = template.render(payment.amount(), payment.transactionId(), payment.billReference());
+        
+        double corruption = random.nextDouble();
+        if (corruption < spec.getCorruptCrcRate()) {
+            return new CorpusEntry(index, CorpusEntry.Kind.CORRUPT_CRC, payment, corruptCrc(payload, random));
+        }
+        if (corruption < spec.getCorruptCrcRate() + spec.getMalformedTlvRate()) {
+            return new CorpusEntry(index, CorpusEntry.Kind.MALFORMED_TLV, payment, malformTlv(payload, random));
+        }
+        return new CorpusEntry(index, CorpusEntry.Kind.VALID, payment, payload);
+    }
+    
+    /**
+     * Données fixes d'un marchand ou d'un particulier
+     */
+    private QrPayment prototype(QRPaymentData.QRType type, int rank) {
+        QrPayment prototype = prototypes[type.ordinal()][rank];
+        if (prototype != null) {
+            return prototype;
+        }
+        SplittableRandom random = new SplittableRandom(spec.getSeed() * 31 + type.ordinal() * 1_000_003L + rank);
+        int country = pick(random, COUNTRY_WEIGHTS);
+        String[] cities = CITIES[country];
+        
+        QrPayment.QrPaymentBuilder builder = QrPayment.builder().type(type);
+        QrMerchant.QrMerchantBuilder merchant = QrMerchant.builder()
+            .countryCode(COUNTRIES[country])
+            .city(cities[random.nextInt(cities.length)]);
+        
+        if (type == QRPaymentData.QRType.P2P) {
+            merchant.alias("+225" + digits(random, 10))
+                .name(random.nextInt(2) == 0 ? "XXX" : limit(pick(random, NAMES) + " " + pick(random, NAMES), 25));
+        } else {
+            merchant.alias(uuid(random))
+                .name(limit(pick(random, BUSINESSES) + " " + pick(random, NAMES) + pick(random, SUFFIXES), 25));
+            builder.merchantChannel(type == QRPaymentData.QRType.STATIC
+                ? STATIC_CHANNELS[random.nextInt(STATIC_CHANNELS.length)]
+                : DYNAMIC_CHANNELS[random.nextInt(DYNAMIC_CHANNELS.length)]);
+            if (random.nextInt(10) == 0) {
+                builder.subscriptionId("ABO-" + digits(random, 6));
+            }
+            if (type == QRPaymentData.QRType.DYNAMIC && random.nextInt(5) == 0) {
+                builder.dynamicUrl("pi.psp" + random.nextInt(20) + ".example/q/" + hex(random, 8));
+            }
+        }
+        
+        AdditionalData extras = AdditionalData.EMPTY;
+        for (int i = random.nextInt(3); i > 0; i--) {
+            extras = extras.with(pick(random, EXTRA_TAGS), alphanumeric(random, 1 + random.nextInt(8)));
+        }
+        prototype = builder.merchant(merchant.build()).additionalData(extras).build();
+        prototypes[type.ordinal()][rank] = prototype;
+        return prototype;
+    }
+    
+    /**
+     * Montant, ID de transaction et référence de facture selon le type
+     */
+    private static QrPayment transaction(QrPayment prototype, SplittableRandom random) {
+        boolean amount;
+        boolean transactionId;
+        boolean billReference;
+        switch (prototype.type()) {
+            case DYNAMIC:
+                amount = true;
+                transactionId = true;
+                billReference = random.nextInt(4) == 0;
+                break;
+            case P2P:
+                amount = random.nextInt(10) < 3;
+                transactionId = random.nextInt(5) == 0;
+                billReference = false;
+                break;
+            default:
+                amount = random.nextInt(2) == 0;
+                transactionId = random.nextInt(10) < 3;
+                billReference = prototype.merchantChannel() == QRPaymentData.MerchantChannel.STATIC_INVOICE
+                    || random.nextInt(5) == 0;
+                break;
+        }
+        return prototype.toBuilder()
+            .amount(amount ? amount(random) : null)
+            .transactionId(transactionId ? "TXN-" + alphanumeric(random, 6 + random.nextInt(14)) : null)
+            .billReference(billReference ? "FAC-" + digits(random, 6) : null)
+            .build();
+    }
+    
+    /**
+     * Montant en XOF, log-uniforme entre 100 et 2 000 000, arrondi à 25
+     */
+    private static BigDecimal amount(SplittableRandom random) {
+        double value = Math.exp(MIN_AMOUNT_LOG + random.nextDouble() * (MAX_AMOUNT_LOG - MIN_AMOUNT_LOG));
+        return BigDecimal.valueOf(Math.max(25, Math.round(value / 25) * 25));
+    }
+    
+    private String corruptCrc(String payload, SplittableRandom random) {
+        int crc = Integer.parseInt(payload.substring(payload.length() - 4), 16);
+        return payload.substring(0, payload.length() - 4)
+            + crcCalculator.format(crc ^ (1 + random.nextInt(0xFFFF)));
+    }
+    
+    /**
+     * Altère la structure d'un champ de premier niveau puis recalcule le CRC,
+     * pour que l'erreur soit détectée par l'analyse TLV et non par le CRC
+     */
+    private String malformTlv(String payload, SplittableRandom random) {
+        StringBuilder body = new StringBuilder(payload.length());
+        body.append(payload, 0, payload.length() - 8);
+        
+        int[] starts = new int[body.length() / 4];
+        int fields = 0;
+        for (int offset = 0; offset < body.length(); offset += 4 + EMVFormatter.parseLength(payload, offset + 2)) {
+            starts[fields++] = offset;
+        }
+        // Champ au hasard, hors en-tête 00
+        int start = starts[1 + random.nextInt(fields - 1)];
+        char letter = (char) ('A' + random.nextInt(26));
+        
+        switch (random.nextInt(3)) {
+            case 0:
+                // Longueur du dernier champ supérieure au reste du payload
+                start = starts[fields - 1];
+                if (body.length() - start + 4 < 99) {
+                    body.replace(start + 2, start + 4, "99");
+                } else {
+                    body.setCharAt(start + 2, letter);
+                }
+                break;
+            case 1:
+                // Longueur non numérique
+                body.setCharAt(start + 2 + random.nextInt(2), letter);
+                break;
+            default:
+                // Tag non numérique
+                body.setCharAt(start + random.nextInt(2), letter);
+                break;
+        }
+        
+        body.append("6304");
+        return body.append(crcCalculator.format(crcCalculator.update(CRCCalculator.INITIAL_VALUE, body))).toString();
+    }
+    
+    private static int pick(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int draw = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            draw -= weights[i];
+            if (draw < 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException();
+    }
+    
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static String limit(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength).trim();
+    }
+    
+    private static String digits(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+    
+    private static String alphanumeric(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+        }
+        return new String(chars);
+    }
+    
+    private static String hex(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = HEX[random.nextInt(HEX.length)];
+        }
+        return new String(chars);
+    }
+    
+    private static String uuid(SplittableRandom random) {
+        return hex(random, 8) + "-" + hex(random, 4) + "-4" + hex(random, 3) + "-"
+            + HEX[8 + random.nextInt(4)] + hex(random, 3) + "-" + hex(random, 12);
+    }
+    
+    /**
+     * Génère un corpus dans un fichier
+     *
+     * Options (valeurs par défaut entre parenthèses) : {@code --size} (1000000),
+     * {@code --seed} (42), {@code --merchants} (10000), {@code --mix}
+     * pondérations des types (static=40,dynamic=45,p2p=15), {@code --corrupt-crc}
+     * et {@code --malformed-tlv} parts de payloads altérés (0), {@code --format}
+     * payloads (un par ligne) ou records (binaire {@link QRPaymentCodec}),
+     * {@code --out} fichier de destination (target/corpus.txt).
+     *
+     * @param args Les options {@code --nom valeur}
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public static void main(String[] args) throws IOException {
+        CorpusSpec.CorpusSpecBuilder spec = CorpusSpec.builder();
+        boolean records = false;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (!name.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Option invalide: " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--size": spec.size(Long.parseLong(value)); break;
+                case "--seed": spec.seed(Long.parseLong(value)); break;
+                case "--merchants": spec.merchants(Integer.parseInt(value)); break;
+                case "--mix": mix(spec, value); break;
+                case "--corrupt-crc": spec.corruptCrcRate(Double.parseDouble(value)); break;
+                case "--malformed-tlv": spec.malformedTlvRate(Double.parseDouble(value)); break;
+                case "--format": records = "records".equalsIgnoreCase(value); break;
+                case "--out": out = Path.of(value); break;
+                default: throw new IllegalArgumentException("Option inconnue: " + name);
+            }
+        }
+        if (out == null) {
+            out = Path.of("target", records ? "corpus.bin" : "corpus.txt");
+        }
+        if (out.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(out.toAbsolutePath().getParent());
+        }
+        
+        SyntheticCorpus corpus = new SyntheticCorpus(spec.build());
+        long start = System.nanoTime();
+        long count = records ? corpus.writeRecords(out) : corpus.writePayloads(out);
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        
+        System.out.printf(Locale.ROOT, "Corpus %s: %d entrées (seed=%d) -> %s, %.1f Mo en %.2f s (%.0f entrées/s)%n",
+                records ? "records" : "payloads", count, corpus.getSpec().getSeed(), out,
+                Files.size(out) / 1e6, seconds, count / seconds);
+    }
+    
+    /**
+     * Pondérations "static=40,dynamic=45,p2p=15"
+     */
+    private static void mix(CorpusSpec.CorpusSpecBuilder spec, String value) {
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix invalide: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            switch (QRPaymentData.QRType.valueOf(parts[0].trim().toUpperCase(Locale.ROOT))) {
+                case STATIC: spec.staticWeight(weight); break;
+                case DYNAMIC: spec.dynamicWeight(weight); break;
+                default: spec.p2pWeight(weight); break;
+            }
+        }
+    }
+}
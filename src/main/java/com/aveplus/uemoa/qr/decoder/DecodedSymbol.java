@@ -0,0 +1,41 @@
+package com.aveplus.uemoa.qr.decoder;
+
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * QR code détecté dans une image contenant plusieurs symboles
+ */
+@Value
+public class DecodedSymbol {
+    
+    /**
+     * Texte brut du QR code
+     */
+    String payload;
+    
+    /**
+     * Boîte englobante dans l'image d'origine (pixels)
+     */
+    int x;
+    int y;
+    int width;
+    int height;
+    
+    /**
+     * Données de paiement parsées (null si non parsé ou en erreur)
+     */
+    @With
+    QRPaymentData data;
+    
+    /**
+     * Message d'erreur du parsing (null en cas de succès)
+     */
+    @With
+    String error;
+    
+    public boolean isSuccess() {
+        return data != null && error == null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.aveplus.uemoa.qr.decoder;
+
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Résultat du décodage d'un fichier image (mode batch)
+ */
+@Value
+public class ImageDecodeResult {
+    
+    /**
+     * Fichier image décodé
+     */
+    Path file;
+    
+    /**
+     * Texte brut du QR code (null si aucun QR code n'a été lu)
+     */
+    String payload;
+    
+    /**
+     * Données de paiement parsées (null en cas d'erreur)
+     */
+    QRPaymentData data;
+    
+    /**
+     * Message d'erreur (null en cas de succès)
+     */
+    String error;
+    
+    /**
+     * Durée du décodage et du parsing en millisecondes
+     */
+    long durationMillis;
+    
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
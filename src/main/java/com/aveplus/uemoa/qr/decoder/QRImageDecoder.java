@@ -0,0 +1,366 @@
+package com.aveplus.uemoa.qr.decoder;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.qrcode.QRCodeMultiReader;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.detector.FinderPattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lecture d'images de QR codes (captures d'écran, photos) via ZXing
+ *
+ * Stratégie : l'image est d'abord réduite (niveaux de gris) avant la
+ * binarisation, puis décodée avec le binariseur hybride (seuillage local,
+ * robuste aux photos). Le mode TRY_HARDER en pleine résolution n'est
+ * utilisé qu'en dernier recours.
+ *
+ * Le mode multi-symboles ({@link #decodeAll(BufferedImage)}) détecte tous les
+ * QR codes d'une image en une passe ; les grandes pages sont découpées en
+ * tuiles chevauchantes traitées en parallèle. La page est convertie une
+ * seule fois en luminance, les tuiles n'en sont que des fenêtres.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QRImageDecoder {
+    
+    private static final Map<DecodeHintType, Object> FAST_HINTS = hints(false);
+    private static final Map<DecodeHintType, Object> TRY_HARDER_HINTS = hints(true);
+    
+    private final UemoaQrProperties properties;
+    
+    /**
+     * Décode le texte du QR code contenu dans une image
+     * 
+     * @param imageBytes L'image encodée (PNG, JPG, ...)
+     * @return Le texte du QR code
+     * @throws IOException En cas d'erreur de lecture
+     * @throws IllegalArgumentException si l'image est illisible ou ne contient pas de QR code
+     */
+    public String decode(byte[] imageBytes) throws IOException {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalArgumentException("L'image ne peut pas être vide");
+        }
+        return decode(new ByteArrayInputStream(imageBytes));
+    }
+    
+    /**
+     * Décode le texte du QR code contenu dans une image
+     * 
+     * @param input Le flux de l'image encodée
+     * @return Le texte du QR code
+     * @throws IOException En cas d'erreur de lecture
+     * @throws IllegalArgumentException si l'image est illisible ou ne contient pas de QR code
+     */
+    public String decode(InputStream input) throws IOException {
+        BufferedImage image = ImageIO.read(input);
+        if (image == null) {
+            throw new IllegalArgumentException("Format d'image non supporté");
+        }
+        return decode(image);
+    }
+    
+    /**
+     * Décode le texte du QR code contenu dans une image
+     * 
+     * @param image L'image
+     * @return Le texte du QR code
+     * @throws IllegalArgumentException si aucun QR code n'est lisible
+     */
+    public String decode(BufferedImage image) {
+        BufferedImage scaled = downscale(image, properties.getDecodeMaxDimension());
+        
+        // Chemin rapide : image réduite, binarisation locale
+        Result result = tryDecode(new BufferedImageLuminanceSource(scaled), FAST_HINTS, true);
+        
+        // Repli : pleine résolution, TRY_HARDER, puis histogramme global
+        if (result == null) {
+            log.debug("Décodage rapide en échec, repli TRY_HARDER ({}x{})", image.getWidth(), image.getHeight());
+            LuminanceSource source = new BufferedImageLuminanceSource(image);
+            result = tryDecode(source, TRY_HARDER_HINTS, true);
+            if (result == null) {
+                result = tryDecode(source, TRY_HARDER_HINTS, false);
+            }
+        }
+        
+        if (result == null) {
+            throw new IllegalArgumentException("Aucun QR code lisible dans l'image");
+        }
+        return result.getText();
+    }
+    
+    /**
+     * Détecte et décode tous les QR codes d'une image
+     * 
+     * @param imageBytes L'image encodée (PNG, JPG, ...)
+     * @return Les symboles trouvés, sans doublon de contenu, dans l'ordre de lecture
+     * @throws IOException En cas d'erreur de lecture
+     * @throws IllegalArgumentException si l'image est illisible
+     */
+    public List<DecodedSymbol> decodeAll(byte[] imageBytes) throws IOException {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalArgumentException("L'image ne peut pas être vide");
+        }
+        return decodeAll(new ByteArrayInputStream(imageBytes));
+    }
+    
+    /**
+     * Détecte et décode tous les QR codes d'une image
+     * 
+     * @param input Le flux de l'image encodée
+     * @return Les symboles trouvés, sans doublon de contenu, dans l'ordre de lecture
+     * @throws IOException En cas d'erreur de lecture
+     * @throws IllegalArgumentException si l'image est illisible
+     */
+    public List<DecodedSymbol> decodeAll(InputStream input) throws IOException {
+        BufferedImage image = ImageIO.read(input);
+        if (image == null) {
+            throw new IllegalArgumentException("Format d'image non supporté");
+        }
+        return decodeAll(image);
+    }
+    
+    /**
+     * Détecte et décode tous les QR codes d'une image
+     * 
+     * @param image L'image
+     * @return Les symboles trouvés, sans doublon de contenu, dans l'ordre de lecture
+     */
+    public List<DecodedSymbol> decodeAll(BufferedImage image) {
+        List<int[]> tiles = tiles(image.getWidth(), image.getHeight(),
+                properties.getDecodeTileSize(), properties.getDecodeTileOverlap());
+        
+        // Le détecteur multi-symboles sans TRY_HARDER saute trop de lignes et manque des symboles
+        List<DecodedSymbol> found = decodeTiles(luminance(image), image.getWidth(), image.getHeight(),
+                tiles, TRY_HARDER_HINTS);
+        
+        // Un même symbole peut apparaître dans plusieurs tuiles (ou être imprimé deux fois)
+        Map<String, DecodedSymbol> unique = new LinkedHashMap<>();
+        found.stream()
+            .sorted(Comparator.comparingInt(DecodedSymbol::getY).thenComparingInt(DecodedSymbol::getX))
+            .forEach(symbol -> unique.putIfAbsent(symbol.getPayload(), symbol));
+        
+        log.debug("{} QR code(s) détecté(s) dans l'image {}x{} ({} tuile(s))",
+                unique.size(), image.getWidth(), image.getHeight(), tiles.size());
+        return new ArrayList<>(unique.values());
+    }
+    
+    private List<DecodedSymbol> decodeTiles(byte[] luminance, int width, int height, List<int[]> tiles,
+                                            Map<DecodeHintType, Object> hints) {
+        if (tiles.size() == 1) {
+            return decodeTile(luminance, width, height, tiles.get(0), hints);
+        }
+        return tiles.parallelStream()
+            .flatMap(tile -> decodeTile(luminance, width, height, tile, hints).stream())
+            .collect(Collectors.toList());
+    }
+    
+    private List<DecodedSymbol> decodeTile(byte[] luminance, int width, int height, int[] tile,
+                                           Map<DecodeHintType, Object> hints) {
+        LuminanceSource source = new PlanarYUVLuminanceSource(luminance, width, height,
+                tile[0], tile[1], tile[2], tile[3], false);
+        Result[] results = tryDecodeMultiple(source, hints);
+        
+        List<DecodedSymbol> symbols = new ArrayList<>(results.length);
+        for (Result result : results) {
+            symbols.add(toSymbol(result, tile[0], tile[1]));
+        }
+        return symbols;
+    }
+    
+    private Result[] tryDecodeMultiple(LuminanceSource source, Map<DecodeHintType, Object> hints) {
+        try {
+            return new QRCodeMultiReader().decodeMultiple(new BinaryBitmap(new HybridBinarizer(source)), hints);
+        } catch (ReaderException e) {
+            return new Result[0];
+        }
+    }
+    
+    /**
+     * Calcule la boîte englobante à partir des motifs de positionnement
+     * (centres des motifs, élargis de 3,5 modules pour atteindre les coins)
+     */
+    private static DecodedSymbol toSymbol(Result result, int offsetX, int offsetY) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        float margin = 0;
+        
+        ResultPoint[] points = result.getResultPoints();
+        if (points != null) {
+            for (ResultPoint point : points) {
+                minX = Math.min(minX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxX = Math.max(maxX, point.getX());
+                maxY = Math.max(maxY, point.getY());
+                if (point instanceof FinderPattern) {
+                    margin = Math.max(margin, ((FinderPattern) point).getEstimatedModuleSize() * 3.5f);
+                }
+            }
+        }
+        if (minX > maxX) {
+            return new DecodedSymbol(result.getText(), offsetX, offsetY, 0, 0, null, null);
+        }
+        
+        int x = Math.max(0, Math.round(minX - margin));
+        int y = Math.max(0, Math.round(minY - margin));
+        return new DecodedSymbol(result.getText(),
+                offsetX + x, offsetY + y,
+                Math.round(maxX + margin) - x, Math.round(maxY + margin) - y,
+                null, null);
+    }
+    
+    /**
+     * Luminance de chaque pixel (pondération de ZXing, pixels transparents
+     * blancs), lue directement dans le raster pour les types courants
+     */
+    static byte[] luminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] luminance = new byte[width * height];
+        switch (image.getType()) {
+            case BufferedImage.TYPE_BYTE_GRAY:
+                if (image.getRaster().getDataBuffer() instanceof DataBufferByte
+                        && image.getRaster().getParent() == null) {
+                    System.arraycopy(((DataBufferByte) image.getRaster().getDataBuffer()).getData(), 0,
+                            luminance, 0, luminance.length);
+                    return luminance;
+                }
+                break;
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+                if (image.getRaster().getDataBuffer() instanceof DataBufferInt
+                        && image.getRaster().getParent() == null) {
+                    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                    boolean alpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+                    for (int i = 0; i < luminance.length; i++) {
+                        luminance[i] = luminance(pixels[i], alpha);
+                    }
+                    return luminance;
+                }
+                break;
+            default:
+                break;
+        }
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                luminance[y * width + x] = luminance(row[x], true);
+            }
+        }
+        return luminance;
+    }
+    
+    private static byte luminance(int argb, boolean alpha) {
+        if (alpha && (argb & 0xFF000000) == 0) {
+            return (byte) 0xFF;
+        }
+        int red = (argb >> 16) & 0xFF;
+        int green = (argb >> 8) & 0xFF;
+        int blue = argb & 0xFF;
+        return (byte) ((306 * red + 601 * green + 117 * blue + 0x200) >> 10);
+    }
+    
+    /**
+     * Découpe l'image en tuiles chevauchantes {x, y, largeur, hauteur}
+     */
+    static List<int[]> tiles(int width, int height, int tileSize, int overlap) {
+        List<int[]> tiles = new ArrayList<>();
+        if (tileSize <= 0 || (width <= tileSize && height <= tileSize)) {
+            tiles.add(new int[] {0, 0, width, height});
+            return tiles;
+        }
+        
+        int stride = Math.max(1, tileSize - Math.max(0, overlap));
+        for (int top = 0; ; top += stride) {
+            int tileHeight = Math.min(tileSize, height - top);
+            for (int left = 0; ; left += stride) {
+                int tileWidth = Math.min(tileSize, width - left);
+                tiles.add(new int[] {left, top, tileWidth, tileHeight});
+                if (left + tileWidth >= width) {
+                    break;
+                }
+            }
+            if (top + tileHeight >= height) {
+                break;
+            }
+        }
+        return tiles;
+    }
+    
+    private Result tryDecode(LuminanceSource source, Map<DecodeHintType, Object> hints, boolean hybrid) {
+        BinaryBitmap bitmap = new BinaryBitmap(hybrid
+            ? new HybridBinarizer(source)
+            : new GlobalHistogramBinarizer(source));
+        try {
+            return new QRCodeReader().decode(bitmap, hints);
+        } catch (ReaderException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Réduit l'image (en niveaux de gris) si sa plus grande dimension dépasse la limite
+     */
+    static BufferedImage downscale(BufferedImage image, int maxDimension) {
+        int largest = Math.max(image.getWidth(), image.getHeight());
+        if (maxDimension <= 0 || largest <= maxDimension) {
+            return image;
+        }
+        
+        double ratio = (double) maxDimension / largest;
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+    
+    private static Map<DecodeHintType, Object> hints(boolean tryHarder) {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.QR_CODE));
+        hints.put(DecodeHintType.CHARACTER_SET, "UTF-8");
+        if (tryHarder) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        return Collections.unmodifiableMap(hints);
+    }
+}
@@ -1,20 +1,23 @@
 package com.aveplus.uemoa.qr.generator;
 
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
 import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.jfr.QrGenerateEvent;
 import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
 import com.aveplus.uemoa.qr.utils.CRCCalculator;
 import com.aveplus.uemoa.qr.utils.EMVFormatter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 
 /**
  * Classe de base pour la génération de QR codes EMVCo
  */
 @Slf4j
-@RequiredArgsConstructor
 public abstract class BaseQRGenerator {
     
     protected final EMVFormatter formatter;
@@ -22,34 +25,63 @@ public abstract class BaseQRGenerator {
     protected final UemoaQrProperties properties;
     
     /**
-     * Champs EMV pour la génération du QR
+     * Configuration compilée (profils PSP), lue une fois par génération
      */
-    protected Map<String, String> fields;
+    protected final QrConfigHolder config;
+    
+    /**
+     * Crée un générateur dont la configuration est compilée depuis les propriétés
+     */
+    protected BaseQRGenerator(EMVFormatter formatter,
+                              CRCCalculator crcCalculator,
+                              UemoaQrProperties properties) {
+        this(formatter, crcCalculator, properties, new QrConfigHolder(properties, formatter, crcCalculator));
+    }
+    
+    /**
+     * Crée un générateur partageant une configuration compilée rechargeable
+     */
+    protected BaseQRGenerator(EMVFormatter formatter,
+                              CRCCalculator crcCalculator,
+                              UemoaQrProperties properties,
+                              QrConfigHolder config) {
+        this.formatter = formatter;
+        this.crcCalculator = crcCalculator;
+        this.properties = properties;
+        this.config = config;
+    }
     
     /**
      * Initialise les champs par défaut selon la spécification BCEAO
+     * 
+     * Les champs sont propres à chaque appel : les générateurs sont des
+     * singletons partagés entre threads.
+     * 
+     * @param profile Le profil PSP
+     * @return Les champs EMV du QR, triés par ID
      */
-    protected void initializeDefaults() {
-        fields = new TreeMap<>();
-        fields.put("00", properties.getPayloadFormatIndicator()); // Toujours "01"
-        fields.put("52", properties.getMerchantCategoryCode()); // "0000" pour tous
-        fields.put("53", properties.getCurrencyCode()); // "952" pour XOF
+    protected Map<String, String> initializeDefaults(QrProfile profile) {
+        Map<String, String> fields = new TreeMap<>();
+        fields.put("00", profile.getPayloadFormatIndicator()); // Toujours "01"
+        fields.put("52", profile.getMerchantCategoryCode()); // "0000" pour tous
+        fields.put("53", profile.getCurrencyCode()); // "952" pour XOF
+        return fields;
     }
     
     /**
      * Configure les informations du compte marchand
      * 
+     * @param fields Les champs EMV du QR
+     * @param profile Le profil PSP
      * @param alias L'alias/proxy du compte
      */
-    protected void setMerchantAccountInfo(String alias) {
+    protected void setMerchantAccountInfo(Map<String, String> fields, QrProfile profile, String alias) {
         if (alias == null || alias.isEmpty()) {
             throw new IllegalArgumentException("L'alias du compte est obligatoire");
         }
         
         // Format: 36 + longueur + (00 + longueur + "int.bceao.pi") + (01 + longueur + alias)
-        String merchantInfo = 
-            formatter.formatSubField("00", properties.getBceaoPrefix()) +
-            formatter.formatSubField("01", alias);
+        String merchantInfo = profile.getAccountGuid() + formatter.formatSubField("01", alias);
         
         fields.put("36", merchantInfo);
         log.debug("Merchant account info configuré: {}", merchantInfo);
@@ -58,17 +90,17 @@ public abstract class BaseQRGenerator {
     /**
      * Configure les informations du compte avec une URL dynamique
      * 
+     * @param fields Les champs EMV du QR
+     * @param profile Le profil PSP
      * @param url L'URL dynamique du PSP
      */
-    protected void setDynamicMerchantInfo(String url) {
+    protected void setDynamicMerchantInfo(Map<String, String> fields, QrProfile profile, String url) {
         if (url == null || url.isEmpty()) {
             throw new IllegalArgumentException("L'URL dynamique est obligatoire");
         }
         
         // Pour QR dynamique, on peut utiliser une URL directement
-        String merchantInfo = 
-            formatter.formatSubField("00", properties.getBceaoPrefix()) +
-            formatter.formatSubField("02", url);
+        String merchantInfo = profile.getAccountGuid() + formatter.formatSubField("02", url);
         
         fields.put("36", merchantInfo);
         log.debug("Dynamic merchant info configuré avec URL: {}", url);
@@ -77,9 +109,10 @@ public abstract class BaseQRGenerator {
     /**
      * Configure les données additionnelles (champ 62)
      * 
+     * @param fields Les champs EMV du QR
      * @param data Map des données additionnelles
      */
-    protected void setAdditionalData(Map<String, String> data) {
+    protected void setAdditionalData(Map<String, String> fields, Map<String, String> data) {
         if (data == null || data.isEmpty()) {
             return;
         }
@@ -101,46 +134,71 @@ public abstract class BaseQRGenerator {
     /**
      * Construit la chaîne finale du QR code avec CRC
      * 
+     * L'en-tête (champs 00 et 01) et les champs 52 et 53 du profil sont
+     * repris déjà formatés ; le CRC repart de l'état précalculé après
+     * l'en-tête et n'est poursuivi que sur le reste du payload.
+     * 
+     * @param fields Les champs EMV du QR
+     * @param profile Le profil PSP
      * @return La chaîne QR code complète
      */
-    protected String buildQRString() {
-        StringBuilder qrData = new StringBuilder();
+    protected String buildQRString(Map<String, String> fields, QrProfile profile) {
+        StringBuilder qrData = new StringBuilder(160);
         
-        // Construit tous les champs sauf le CRC
-        fields.entrySet().stream()
-            .filter(e -> !"63".equals(e.getKey()))
-            .forEach(e -> {
-                String formatted = formatter.formatField(e.getKey(), e.getValue());
-                qrData.append(formatted);
-            });
+        QrProfile.Header header = Objects.equals(fields.get("00"), profile.getPayloadFormatIndicator())
+                ? profile.header(fields.get("01"))
+                : null;
+        int crcState = CRCCalculator.INITIAL_VALUE;
+        if (header != null) {
+            qrData.append(header.getText());
+            crcState = header.getCrc();
+        }
+        int crcStart = qrData.length();
         
-        // Ajoute le placeholder pour le CRC (63 + 04)
-        qrData.append("6304");
+        // Construit tous les champs sauf l'en-tête précalculé et le CRC
+        for (Map.Entry<String, String> e : fields.entrySet()) {
+            String id = e.getKey();
+            if ("63".equals(id) || header != null && ("00".equals(id) || "01".equals(id))) {
+                continue;
+            }
+            qrData.append(formatField(id, e.getValue(), profile));
+        }
         
-        // Calcule le CRC sur toutes les données incluant "6304"
-        String crc = crcCalculator.calculate(qrData.toString());
+        // Ajoute l'en-tête du CRC (63 + 04), inclus dans le calcul
+        qrData.append("6304");
+        crcState = crcCalculator.update(crcState, qrData, crcStart, qrData.length());
+        String crc = crcCalculator.format(crcState);
         
-        // Remplace les 4 derniers caractères par le CRC calculé
-        String result = qrData.substring(0, qrData.length() - 4) + "6304" + crc;
+        String result = qrData.append(crc).toString();
         
-        log.info("QR code généré: longueur={}, CRC={}", result.length(), crc);
+        log.debug("QR code généré: longueur={}, CRC={}", result.length(), crc);
         log.debug("QR code complet: {}", result);
         
         return result;
     }
     
+    private String formatField(String id, String value, QrProfile profile) {
+        if ("52".equals(id) && Objects.equals(value, profile.getMerchantCategoryCode())) {
+            return profile.getCategoryField();
+        }
+        if ("53".equals(id) && Objects.equals(value, profile.getCurrencyCode())) {
+            return profile.getCurrencyField();
+        }
+        return formatter.formatField(id, value);
+    }
+    
     /**
      * Valide les données avant génération
      * 
      * @param data Les données de paiement
      * @throws IllegalArgumentException si les données sont invalides
      */
-    protected void validateData(QRPaymentData data) {
+    protected void validateData(QrPayment data) {
         if (data == null) {
             throw new IllegalArgumentException("Les données de paiement sont obligatoires");
         }
         
-        if (data.getMerchantInfo() == null && data.getDynamicUrl() == null) {
+        if (data.merchant() == null && data.dynamicUrl() == null) {
             throw new IllegalArgumentException("Les informations du marchand ou une URL dynamique sont obligatoires");
         }
     }
@@ -148,8 +206,96 @@ public abstract class BaseQRGenerator {
     /**
      * Génère le QR code pour les données fournies
      * 
+     * Le profil PSP est celui associé à l'alias du marchand, sinon le profil par défaut.
+     * 
+     * @param data Les données de paiement
+     * @return La chaîne QR code EMVCo
+     */
+    public String generate(QRPaymentData data) {
+        return generate(QrPayment.from(data), (String) null);
+    }
+    
+    /**
+     * Génère le QR code avec un profil PSP nommé
+     * 
+     * @param data Les données de paiement
+     * @param profileName Le nom du profil (null = profil du marchand, sinon profil par défaut)
+     * @return La chaîne QR code EMVCo
+     * @throws IllegalArgumentException si le profil est inconnu
+     */
+    public String generate(QRPaymentData data, String profileName) {
+        return generate(QrPayment.from(data), profileName);
+    }
+    
+    /**
+     * Génère le QR code avec un profil PSP compilé
+     * 
+     * @param data Les données de paiement
+     * @param profile Le profil PSP
+     * @return La chaîne QR code EMVCo
+     */
+    public String generate(QRPaymentData data, QrProfile profile) {
+        return generate(QrPayment.from(data), profile);
+    }
+    
+    /**
+     * Génère le QR code à partir des données immuables, sans copie
+     * 
+     * @param data Les données de paiement
+     * @return La chaîne QR code EMVCo
+     */
+    public String generate(QrPayment data) {
+        return generate(data, (String) null);
+    }
+    
+    /**
+     * Génère le QR code à partir des données immuables avec un profil PSP nommé
+     * 
+     * @param data Les données de paiement
+     * @param profileName Le nom du profil (null = profil du marchand, sinon profil par défaut)
+     * @return La chaîne QR code EMVCo
+     * @throws IllegalArgumentException si le profil est inconnu
+     */
+    public String generate(QrPayment data, String profileName) {
+        String alias = data != null && data.merchant() != null ? data.merchant().alias() : null;
+        return generate(data, config.current().getProfiles().resolve(profileName, alias));
+    }
+    
+    /**
+     * Génère le QR code à partir des données immuables avec un profil PSP compilé
+     * 
+     * Émet un événement JFR {@link QrGenerateEvent} (sans coût notable
+     * lorsque l'événement n'est pas activé).
+     * 
+     * @param data Les données de paiement
+     * @param profile Le profil PSP
+     * @return La chaîne QR code EMVCo
+     */
+    public String generate(QrPayment data, QrProfile profile) {
+        QrGenerateEvent event = new QrGenerateEvent();
+        event.begin();
+        String payload = null;
+        try {
+            payload = generatePayload(data, profile);
+            return payload;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = data != null && data.type() != null ? data.type().name() : null;
+                event.generator = getClass().getSimpleName();
+                event.payloadLength = payload != null ? payload.length() : 0;
+                event.success = payload != null;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Construit le payload EMVCo propre au type de QR code
+     * 
      * @param data Les données de paiement
+     * @param profile Le profil PSP
      * @return La chaîne QR code EMVCo
      */
-    public abstract String generate(QRPaymentData data);
+    protected abstract String generatePayload(QrPayment data, QrProfile profile);
 }
@@ -1,11 +1,13 @@
 package com.aveplus.uemoa.qr.generator;
 
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
 import com.aveplus.uemoa.qr.config.UemoaQrProperties;
 import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
 import com.aveplus.uemoa.qr.utils.CRCCalculator;
 import com.aveplus.uemoa.qr.utils.EMVFormatter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -14,7 +16,6 @@ import java.util.Map;
  * Générateur de QR codes pour transferts entre particuliers (P2P)
  */
 @Slf4j
-@Component
 public class P2PQRGenerator extends BaseQRGenerator {
     
     public P2PQRGenerator(EMVFormatter formatter, 
@@ -23,41 +24,48 @@ public class P2PQRGenerator extends BaseQRGenerator {
         super(formatter, crcCalculator, properties);
     }
     
+    public P2PQRGenerator(EMVFormatter formatter, 
+                         CRCCalculator crcCalculator,
+                         UemoaQrProperties properties,
+                         QrConfigHolder config) {
+        super(formatter, crcCalculator, properties, config);
+    }
+    
     @Override
-    public String generate(QRPaymentData data) {
-        log.info("Génération d'un QR code P2P");
+    protected String generatePayload(QrPayment data, QrProfile profile) {
+        log.debug("Génération d'un QR code P2P");
         
         // Validation
         validateData(data);
-        if (data.getMerchantInfo() == null) {
+        if (data.merchant() == null) {
             throw new IllegalArgumentException("Les informations du bénéficiaire sont obligatoires pour un QR P2P");
         }
         
         // Initialisation
-        initializeDefaults();
+        Map<String, String> fields = initializeDefaults(profile);
         
         // Point d'initiation statique (les QR P2P sont toujours statiques)
         fields.put("01", "11");
         
         // Informations du compte du particulier
-        setMerchantAccountInfo(data.getMerchantInfo().getAlias());
+        setMerchantAccountInfo(fields, profile, data.merchant().alias());
         
         // Détails du particulier
-        fields.put("58", data.getMerchantInfo().getCountryCode());
+        fields.put("58", profile.countryCode(data.merchant().countryCode()));
         
         // Pour P2P, le nom peut être masqué pour la confidentialité
-        String name = data.getMerchantInfo().getName();
+        String name = data.merchant().name();
         if (name == null || name.isEmpty() || name.equalsIgnoreCase("XXX")) {
             name = "XXX"; // Nom masqué par défaut
         }
         fields.put("59", name);
         
-        fields.put("60", data.getMerchantInfo().getCity());
+        fields.put("60", data.merchant().city());
         
         // Pour P2P, le montant est généralement saisi par l'envoyeur
-        if (data.getAmount() != null) {
-            fields.put("54", data.getAmount().toPlainString());
-            log.debug("Montant prédéfini: {} XOF", data.getAmount());
+        if (data.amount() != null) {
+            fields.put("54", data.amount().toPlainString());
+            log.debug("Montant prédéfini: {} XOF", data.amount());
         }
         
         // Données additionnelles
@@ -69,27 +77,21 @@ public class P2PQRGenerator extends BaseQRGenerator {
         log.debug("Canal P2P: {}", QRPaymentData.MerchantChannel.P2P_STATIC.getCode());
         
         // Message ou référence optionnelle
-        if (data.getTransactionId() != null && !data.getTransactionId().isEmpty()) {
-            additionalData.put("01", data.getTransactionId());
-            log.debug("Référence P2P: {}", data.getTransactionId());
+        if (data.transactionId() != null && !data.transactionId().isEmpty()) {
+            additionalData.put("01", data.transactionId());
+            log.debug("Référence P2P: {}", data.transactionId());
         }
         
         // Ajoute les données additionnelles personnalisées
-        if (data.getAdditionalData() != null) {
-            data.getAdditionalData().forEach((key, value) -> {
-                if (!additionalData.containsKey(key)) {
-                    additionalData.put(key, value);
-                }
-            });
-        }
+        data.additionalData().forEach(additionalData::putIfAbsent);
         
-        setAdditionalData(additionalData);
+        setAdditionalData(fields, additionalData);
         
         // Construction du QR code final
-        String qrCode = buildQRString();
+        String qrCode = buildQRString(fields, profile);
         
-        log.info("QR code P2P généré avec succès pour: {}", 
-                data.getMerchantInfo().getAlias());
+        log.debug("QR code P2P généré avec succès pour: {}", 
+                data.merchant().alias());
         
         return qrCode;
     }
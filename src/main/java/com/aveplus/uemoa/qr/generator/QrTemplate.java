@@ -0,0 +1,325 @@
+package com.aveplus.uemoa.qr.generator;
+
+import com.aveplus.uemoa.qr.jfr.QrGenerateEvent;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle de QR code précompilé pour un marchand
+ *
+ * Compilé une fois à partir d'un prototype (type, marchand, canal, URL
+ * dynamique, abonnement, données additionnelles) et d'un profil PSP. Les
+ * segments fixes sont formatés à la compilation et l'état du CRC est
+ * conservé jusqu'au premier champ variable ; {@link #render} n'écrit que
+ * le montant (54), l'ID de transaction et la référence de facture (62),
+ * puis termine le CRC.
+ *
+ * Le payload produit est identique octet pour octet à celui des
+ * générateurs pour les mêmes données, y compris l'ordre des sous-champs
+ * du template 62. Immuable, partagé entre threads.
+ */
+public final class QrTemplate {
+    
+    /**
+     * Champs variables du template 62
+     */
+    private enum Variable {
+        TRANSACTION_ID("01"),
+        BILL_REFERENCE("02");
+        
+        private final String tag;
+        
+        Variable(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    private static final int TRANSACTION_ID_PRESENT = 1;
+    private static final int BILL_REFERENCE_PRESENT = 2;
+    
+    private final EMVFormatter formatter;
+    private final CRCCalculator crcCalculator;
+    
+    /**
+     * Type de QR code du modèle
+     */
+    @Getter
+    private final QRPaymentData.QRType type;
+    
+    /**
+     * Nom du profil PSP utilisé à la compilation
+     */
+    @Getter
+    private final String profileName;
+    
+    /**
+     * Champs 00 à 53 et état du CRC à leur fin
+     */
+    private final String prefix;
+    private final int prefixCrc;
+    
+    /**
+     * Champs 58 à 60 et état du CRC à leur fin lorsqu'il n'y a pas de montant
+     */
+    private final String details;
+    private final int detailsCrc;
+    
+    /**
+     * Sous-champs du template 62 dans l'ordre des générateurs, par combinaison
+     * de champs variables présents : texte formaté ou {@link Variable}
+     */
+    private final Object[][] additionalDataLayouts;
+    
+    private QrTemplate(EMVFormatter formatter, CRCCalculator crcCalculator,
+                       QRPaymentData.QRType type, String profileName,
+                       String prefix, String details, Object[][] additionalDataLayouts) {
+        this.formatter = formatter;
+        this.crcCalculator = crcCalculator;
+        this.type = type;
+        this.profileName = profileName;
+        this.prefix = prefix;
+        this.prefixCrc = crcCalculator.update(CRCCalculator.INITIAL_VALUE, prefix);
+        this.details = details;
+        this.detailsCrc = crcCalculator.update(prefixCrc, details);
+        this.additionalDataLayouts = additionalDataLayouts;
+    }
+    
+    /**
+     * Compile un modèle
+     *
+     * Les règles sont celles des générateurs : canal par défaut
+     * {@code DYNAMIC_ONSITE} pour un QR dynamique, canal 731 et nom masqué
+     * pour un QR P2P, URL dynamique prioritaire sur l'alias. Le montant, l'ID
+     * de transaction et la référence de facture du prototype sont ignorés.
+     *
+     * @param prototype Les données fixes du marchand
+     * @param profile Le profil PSP
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @return Le modèle compilé
+     * @throws IllegalArgumentException si les données sont insuffisantes pour le type
+     */
+    public static QrTemplate compile(QRPaymentData prototype,
+                                     QrProfile profile,
+                                     EMVFormatter formatter,
+                                     CRCCalculator crcCalculator) {
+        return compile(QrPayment.from(prototype), profile, formatter, crcCalculator);
+    }
+    
+    /**
+     * Compile un modèle à partir d'un prototype immuable
+     *
+     * @param prototype Les données fixes du marchand
+     * @param profile Le profil PSP
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @return Le modèle compilé
+     * @throws IllegalArgumentException si les données sont insuffisantes pour le type
+     */
+    public static QrTemplate compile(QrPayment prototype,
+                                     QrProfile profile,
+                                     EMVFormatter formatter,
+                                     CRCCalculator crcCalculator) {
+        if (prototype == null || prototype.type() == null) {
+            throw new IllegalArgumentException("Le type de QR code est obligatoire");
+        }
+        QRPaymentData.QRType type = prototype.type();
+        QrMerchant merchant = prototype.merchant();
+        boolean useUrl = type == QRPaymentData.QRType.DYNAMIC
+                && prototype.dynamicUrl() != null && !prototype.dynamicUrl().isEmpty();
+        if (merchant == null && !useUrl) {
+            throw new IllegalArgumentException("Les informations du marchand sont obligatoires pour un QR " + type);
+        }
+        
+        // Champs 00 à 53 (ordre croissant, comme la TreeMap des générateurs)
+        StringBuilder prefix = new StringBuilder(96);
+        prefix.append(profile.header(type == QRPaymentData.QRType.DYNAMIC ? "12" : "11").getText());
+        String accountInfo;
+        if (useUrl) {
+            accountInfo = profile.getAccountGuid() + formatter.formatSubField("02", prototype.dynamicUrl());
+        } else {
+            String alias = merchant.alias();
+            if (alias == null || alias.isEmpty()) {
+                throw new IllegalArgumentException("L'alias du compte est obligatoire");
+            }
+            accountInfo = profile.getAccountGuid() + formatter.formatSubField("01", alias);
+        }
+        formatter.appendField(prefix, "36", accountInfo);
+        prefix.append(profile.getCategoryField()).append(profile.getCurrencyField());
+        
+        // Champs 58 à 60
+        StringBuilder details = new StringBuilder(48);
+        if (merchant != null) {
+            String name = merchant.name();
+            if (type == QRPaymentData.QRType.P2P
+                    && (name == null || name.isEmpty() || name.equalsIgnoreCase("XXX"))) {
+                name = "XXX";
+            }
+            formatter.appendField(details, "58", profile.countryCode(merchant.countryCode()));
+            formatter.appendField(details, "59", name);
+            formatter.appendField(details, "60", merchant.city());
+        }
+        
+        Object[][] layouts = new Object[4][];
+        for (int present = 0; present < layouts.length; present++) {
+            layouts[present] = additionalDataLayout(prototype, present, formatter);
+        }
+        
+        return new QrTemplate(formatter, crcCalculator, type, profile.getName(),
+                prefix.toString(), details.toString(), layouts);
+    }
+    
+    /**
+     * Reproduit l'insertion des générateurs dans leur HashMap : l'ordre
+     * d'itération ne dépend que des clés et de l'ordre d'insertion.
+     */
+    private static Object[] additionalDataLayout(QrPayment prototype, int present, EMVFormatter formatter) {
+        Map<String, Object> additionalData = new HashMap<>();
+        boolean transactionId = (present & TRANSACTION_ID_PRESENT) != 0;
+        boolean billReference = (present & BILL_REFERENCE_PRESENT) != 0;
+        
+        if (prototype.type() == QRPaymentData.QRType.P2P) {
+            additionalData.put("11", String.valueOf(QRPaymentData.MerchantChannel.P2P_STATIC.getCode()));
+            if (transactionId) {
+                additionalData.put("01", Variable.TRANSACTION_ID);
+            }
+        } else {
+            if (transactionId) {
+                additionalData.put("01", Variable.TRANSACTION_ID);
+            }
+            if (billReference) {
+                additionalData.put("02", Variable.BILL_REFERENCE);
+            }
+            if (prototype.subscriptionId() != null && !prototype.subscriptionId().isEmpty()) {
+                additionalData.put("03", prototype.subscriptionId());
+            }
+            QRPaymentData.MerchantChannel channel = prototype.merchantChannel();
+            if (channel == null && prototype.type() == QRPaymentData.QRType.DYNAMIC) {
+                channel = QRPaymentData.MerchantChannel.DYNAMIC_ONSITE;
+            }
+            if (channel != null) {
+                additionalData.put("11", String.valueOf(channel.getCode()));
+            }
+        }
+        prototype.additionalData().forEach(additionalData::putIfAbsent);
+        
+        List<Object> layout = new ArrayList<>(additionalData.size());
+        additionalData.forEach((key, value) -> {
+            if (value instanceof Variable) {
+                layout.add(value);
+            } else if (value != null && !((String) value).isEmpty()) {
+                layout.add(formatter.formatSubField(key, (String) value));
+            }
+        });
+        return layout.toArray();
+    }
+    
+    /**
+     * Produit le payload d'une transaction
+     *
+     * @param amount Le montant (null = sans montant)
+     * @param transactionId L'ID de transaction (null ou vide = absent)
+     * @return La chaîne QR code EMVCo
+     */
+    public String render(BigDecimal amount, String transactionId) {
+        return render(amount, transactionId, null);
+    }
+    
+    /**
+     * Produit le payload d'une transaction
+     *
+     * Émet un événement JFR {@link QrGenerateEvent}, comme les générateurs.
+     *
+     * @param amount Le montant (null = sans montant)
+     * @param transactionId L'ID de transaction (null ou vide = absent)
+     * @param billReference La référence de facture (null ou vide = absente ; ignorée pour un QR P2P)
+     * @return La chaîne QR code EMVCo
+     * @throws IllegalArgumentException si un champ dépasse 99 caractères
+     */
+    public String render(BigDecimal amount, String transactionId, String billReference) {
+        QrGenerateEvent event = new QrGenerateEvent();
+        event.begin();
+        String payload = null;
+        try {
+            payload = renderPayload(amount, transactionId, billReference);
+            return payload;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = type.name();
+                event.generator = QrTemplate.class.getSimpleName();
+                event.payloadLength = payload != null ? payload.length() : 0;
+                event.success = payload != null;
+                event.commit();
+            }
+        }
+    }
+    
+    private String renderPayload(BigDecimal amount, String transactionId, String billReference) {
+        StringBuilder qrData = new StringBuilder(prefix.length() + details.length() + 96);
+        qrData.append(prefix);
+        
+        int crcState;
+        int crcStart;
+        if (amount == null) {
+            qrData.append(details);
+            crcState = detailsCrc;
+            crcStart = qrData.length();
+        } else {
+            crcState = prefixCrc;
+            crcStart = qrData.length();
+            formatter.appendField(qrData, "54", amount.toPlainString());
+            qrData.append(details);
+        }
+        
+        appendAdditionalData(qrData, transactionId, billReference);
+        
+        qrData.append("6304");
+        crcState = crcCalculator.update(crcState, qrData, crcStart, qrData.length());
+        return qrData.append(crcCalculator.format(crcState)).toString();
+    }
+    
+    /**
+     * Écrit le template 62 directement dans le tampon (longueur complétée à la fin)
+     */
+    private void appendAdditionalData(StringBuilder qrData, String transactionId, String billReference) {
+        boolean hasTransactionId = transactionId != null && !transactionId.isEmpty();
+        boolean hasBillReference = billReference != null && !billReference.isEmpty();
+        Object[] layout = additionalDataLayouts[(hasTransactionId ? TRANSACTION_ID_PRESENT : 0)
+                | (hasBillReference ? BILL_REFERENCE_PRESENT : 0)];
+        if (layout.length == 0) {
+            return;
+        }
+        
+        int fieldStart = qrData.length();
+        qrData.append("6200");
+        for (Object part : layout) {
+            if (part == Variable.TRANSACTION_ID) {
+                formatter.appendField(qrData, Variable.TRANSACTION_ID.tag, transactionId);
+            } else if (part == Variable.BILL_REFERENCE) {
+                formatter.appendField(qrData, Variable.BILL_REFERENCE.tag, billReference);
+            } else {
+                qrData.append((String) part);
+            }
+        }
+        
+        int length = qrData.length() - fieldStart - 4;
+        if (length > 99) {
+            qrData.setLength(fieldStart);
+            throw new IllegalArgumentException("La valeur du champ ne peut pas dépasser 99 caractères");
+        }
+        qrData.setCharAt(fieldStart + 2, (char) ('0' + length / 10));
+        qrData.setCharAt(fieldStart + 3, (char) ('0' + length % 10));
+    }
+}
@@ -0,0 +1,197 @@
+package com.aveplus.uemoa.qr.generator;
+
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.QrConfigSnapshot;
+import com.aveplus.uemoa.qr.model.AdditionalData;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cache des modèles de QR code précompilés
+ * 
+ * Les modèles sont indexés par profil PSP et par données fixes du prototype.
+ * Chaque génération de la configuration compilée a sa propre table : un
+ * rechargement la remplace, et un appel qui a lu une configuration plus
+ * ancienne compile son modèle sans l'insérer. La table est aussi vidée
+ * lorsqu'elle atteint sa taille maximale (un modèle se recompile en quelques
+ * microsecondes). Thread-safe.
+ */
+@Slf4j
+public class QrTemplateCache {
+    
+    private final EMVFormatter formatter;
+    private final CRCCalculator crcCalculator;
+    private final QrConfigHolder config;
+    private final int maxSize;
+    
+    private final AtomicReference<Templates> templates;
+    
+    /**
+     * Modèles compilés avec une génération de la configuration
+     */
+    private static final class Templates {
+        final long generation;
+        final Map<Key, QrTemplate> byKey = new ConcurrentHashMap<>();
+        
+        Templates(long generation) {
+            this.generation = generation;
+        }
+    }
+    
+    /**
+     * Données fixes d'un modèle
+     */
+    @Value
+    private static class Key {
+        String profile;
+        QRPaymentData.QRType type;
+        String alias;
+        String name;
+        String city;
+        String countryCode;
+        QRPaymentData.MerchantChannel channel;
+        String dynamicUrl;
+        String subscriptionId;
+        AdditionalData additionalData;
+    }
+    
+    /**
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @param config La configuration compilée (profils PSP)
+     * @param maxSize Le nombre maximal de modèles conservés
+     */
+    public QrTemplateCache(EMVFormatter formatter, CRCCalculator crcCalculator, QrConfigHolder config, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille du cache de modèles doit être positive: " + maxSize);
+        }
+        this.formatter = formatter;
+        this.crcCalculator = crcCalculator;
+        this.config = config;
+        this.maxSize = maxSize;
+        this.templates = new AtomicReference<>(new Templates(config.current().getGeneration()));
+    }
+    
+    /**
+     * Modèle d'un prototype, avec le profil PSP associé au marchand
+     * 
+     * @param prototype Les données fixes du marchand
+     * @return Le modèle, compilé au premier appel
+     */
+    public QrTemplate get(QRPaymentData prototype) {
+        return get(prototype, null);
+    }
+    
+    /**
+     * Modèle d'un prototype avec un profil PSP nommé
+     * 
+     * @param prototype Les données fixes du marchand
+     * @param profileName Le nom du profil (null = profil du marchand, sinon profil par défaut)
+     * @return Le modèle, compilé au premier appel
+     * @throws IllegalArgumentException si le profil est inconnu ou le prototype insuffisant
+     */
+    public QrTemplate get(QRPaymentData prototype, String profileName) {
+        return get(QrPayment.from(prototype), profileName);
+    }
+    
+    /**
+     * Modèle d'un prototype immuable, avec le profil PSP associé au marchand
+     * 
+     * @param prototype Les données fixes du marchand
+     * @return Le modèle, compilé au premier appel
+     */
+    public QrTemplate get(QrPayment prototype) {
+        return get(prototype, null);
+    }
+    
+    /**
+     * Modèle d'un prototype immuable avec un profil PSP nommé
+     * 
+     * @param prototype Les données fixes du marchand
+     * @param profileName Le nom du profil (null = profil du marchand, sinon profil par défaut)
+     * @return Le modèle, compilé au premier appel
+     * @throws IllegalArgumentException si le profil est inconnu ou le prototype insuffisant
+     */
+    public QrTemplate get(QrPayment prototype, String profileName) {
+        if (prototype == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        QrConfigSnapshot snapshot = config.current();
+        Templates current = advance(snapshot.getGeneration());
+        
+        QrMerchant merchant = prototype.merchant();
+        QrProfile profile = snapshot.getProfiles().resolve(profileName, merchant != null ? merchant.alias() : null);
+        
+        if (current.generation != snapshot.getGeneration()) {
+            // Configuration déjà remplacée pendant l'appel : modèle non conservé
+            return QrTemplate.compile(prototype, profile, formatter, crcCalculator);
+        }
+        
+        Map<Key, QrTemplate> byKey = current.byKey;
+        Key key = key(prototype, merchant, profile);
+        QrTemplate template = byKey.get(key);
+        if (template == null) {
+            template = QrTemplate.compile(prototype, profile, formatter, crcCalculator);
+            if (byKey.size() >= maxSize) {
+                log.debug("Cache de modèles QR plein ({} modèles), vidé", byKey.size());
+                byKey.clear();
+            }
+            QrTemplate existing = byKey.putIfAbsent(key, template);
+            if (existing != null) {
+                template = existing;
+            }
+        }
+        return template;
+    }
+    
+    /**
+     * Nombre de modèles en cache
+     */
+    public int size() {
+        return templates.get().byKey.size();
+    }
+    
+    /**
+     * Vide le cache (par exemple après une modification des données d'un marchand)
+     */
+    public void clear() {
+        templates.get().byKey.clear();
+    }
+    
+    /**
+     * Table de la génération la plus récente connue (jamais de retour en arrière)
+     */
+    private Templates advance(long generation) {
+        Templates current = templates.get();
+        while (current.generation < generation) {
+            Templates next = new Templates(generation);
+            if (templates.compareAndSet(current, next)) {
+                return next;
+            }
+            current = templates.get();
+        }
+        return current;
+    }
+    
+    private static Key key(QrPayment prototype, QrMerchant merchant, QrProfile profile) {
+        return new Key(profile.getName(), prototype.type(),
+                merchant != null ? merchant.alias() : null,
+                merchant != null ? merchant.name() : null,
+                merchant != null ? merchant.city() : null,
+                merchant != null ? merchant.countryCode() : null,
+                prototype.merchantChannel(),
+                prototype.dynamicUrl(),
+                prototype.subscriptionId(),
+                prototype.additionalData());
+    }
+}
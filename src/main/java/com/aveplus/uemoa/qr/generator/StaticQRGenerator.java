@@ -1,11 +1,12 @@
 package com.aveplus.uemoa.qr.generator;
 
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
 import com.aveplus.uemoa.qr.config.UemoaQrProperties;
-import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.profile.QrProfile;
 import com.aveplus.uemoa.qr.utils.CRCCalculator;
 import com.aveplus.uemoa.qr.utils.EMVFormatter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -14,7 +15,6 @@ import java.util.Map;
  * Générateur de QR codes statiques pour marchands
  */
 @Slf4j
-@Component
 public class StaticQRGenerator extends BaseQRGenerator {
     
     public StaticQRGenerator(EMVFormatter formatter, 
@@ -23,81 +23,82 @@ public class StaticQRGenerator extends BaseQRGenerator {
         super(formatter, crcCalculator, properties);
     }
     
+    public StaticQRGenerator(EMVFormatter formatter, 
+                            CRCCalculator crcCalculator,
+                            UemoaQrProperties properties,
+                            QrConfigHolder config) {
+        super(formatter, crcCalculator, properties, config);
+    }
+    
     @Override
-    public String generate(QRPaymentData data) {
-        log.info("Génération d'un QR code statique");
+    protected String generatePayload(QrPayment data, QrProfile profile) {
+        log.debug("Génération d'un QR code statique");
         
         // Validation
         validateData(data);
-        if (data.getMerchantInfo() == null) {
+        if (data.merchant() == null) {
             throw new IllegalArgumentException("Les informations du marchand sont obligatoires pour un QR statique");
         }
         
         // Initialisation
-        initializeDefaults();
+        Map<String, String> fields = initializeDefaults(profile);
         
         // Point d'initiation statique
         fields.put("01", "11");
         
         // Informations du compte marchand
-        setMerchantAccountInfo(data.getMerchantInfo().getAlias());
+        setMerchantAccountInfo(fields, profile, data.merchant().alias());
         
         // Détails du marchand
-        fields.put("58", data.getMerchantInfo().getCountryCode());
-        fields.put("59", data.getMerchantInfo().getName());
-        fields.put("60", data.getMerchantInfo().getCity());
+        fields.put("58", profile.countryCode(data.merchant().countryCode()));
+        fields.put("59", data.merchant().name());
+        fields.put("60", data.merchant().city());
         
         // Montant (optionnel pour QR statique)
-        if (data.getAmount() != null) {
-            fields.put("54", data.getAmount().toPlainString());
-            log.debug("Montant configuré: {} XOF", data.getAmount());
+        if (data.amount() != null) {
+            fields.put("54", data.amount().toPlainString());
+            log.debug("Montant configuré: {} XOF", data.amount());
         }
         
         // Données additionnelles
         Map<String, String> additionalData = new HashMap<>();
         
         // ID de transaction
-        if (data.getTransactionId() != null && !data.getTransactionId().isEmpty()) {
-            additionalData.put("01", data.getTransactionId());
-            log.debug("Transaction ID: {}", data.getTransactionId());
+        if (data.transactionId() != null && !data.transactionId().isEmpty()) {
+            additionalData.put("01", data.transactionId());
+            log.debug("Transaction ID: {}", data.transactionId());
         }
         
         // Référence de facture
-        if (data.getBillReference() != null && !data.getBillReference().isEmpty()) {
-            additionalData.put("02", data.getBillReference());
-            log.debug("Référence facture: {}", data.getBillReference());
+        if (data.billReference() != null && !data.billReference().isEmpty()) {
+            additionalData.put("02", data.billReference());
+            log.debug("Référence facture: {}", data.billReference());
         }
         
         // ID d'abonnement
-        if (data.getSubscriptionId() != null && !data.getSubscriptionId().isEmpty()) {
-            additionalData.put("03", data.getSubscriptionId());
-            log.debug("ID abonnement: {}", data.getSubscriptionId());
+        if (data.subscriptionId() != null && !data.subscriptionId().isEmpty()) {
+            additionalData.put("03", data.subscriptionId());
+            log.debug("ID abonnement: {}", data.subscriptionId());
         }
         
         // Canal marchand
-        if (data.getMerchantChannel() != null) {
-            additionalData.put("11", String.valueOf(data.getMerchantChannel().getCode()));
+        if (data.merchantChannel() != null) {
+            additionalData.put("11", String.valueOf(data.merchantChannel().getCode()));
             log.debug("Canal marchand: {} ({})", 
-                     data.getMerchantChannel().getCode(), 
-                     data.getMerchantChannel().getDescription());
+                     data.merchantChannel().getCode(), 
+                     data.merchantChannel().getDescription());
         }
         
         // Ajoute les données additionnelles personnalisées
-        if (data.getAdditionalData() != null) {
-            data.getAdditionalData().forEach((key, value) -> {
-                if (!additionalData.containsKey(key)) {
-                    additionalData.put(key, value);
-                }
-            });
-        }
+        data.additionalData().forEach(additionalData::putIfAbsent);
         
-        setAdditionalData(additionalData);
+        setAdditionalData(fields, additionalData);
         
         // Construction du QR code final
-        String qrCode = buildQRString();
+        String qrCode = buildQRString(fields, profile);
         
-        log.info("QR code statique généré avec succès pour: {}", 
-                data.getMerchantInfo().getName());
+        log.debug("QR code statique généré avec succès pour: {}", 
+                data.merchant().name());
         
         return qrCode;
     }
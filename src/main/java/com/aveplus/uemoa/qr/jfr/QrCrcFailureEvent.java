@@ -0,0 +1,29 @@
+package com.aveplus.uemoa.qr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : CRC invalide détecté au parsing
+ *
+ * Conserve la pile d'appels pour identifier l'origine des payloads corrompus.
+ */
+@Name("com.aveplus.uemoa.qr.QrCrcFailure")
+@Label("QR CRC Failure")
+@Category("UEMOA QR")
+@Description("CRC16 d'un QR code ne correspondant pas à son contenu")
+public class QrCrcFailureEvent extends jdk.jfr.Event {
+    
+    @Label("Expected CRC")
+    public String expected;
+    
+    @Label("Actual CRC")
+    public String actual;
+    
+    @Label("Payload Length")
+    @DataAmount(DataAmount.BYTES)
+    public int payloadLength;
+}
@@ -0,0 +1,32 @@
+package com.aveplus.uemoa.qr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : génération d'un payload EMVCo
+ */
+@Name("com.aveplus.uemoa.qr.QrGenerate")
+@Label("QR Generate")
+@Category("UEMOA QR")
+@Description("Génération d'un payload EMVCo par un générateur")
+@StackTrace(false)
+public class QrGenerateEvent extends jdk.jfr.Event {
+    
+    @Label("Type")
+    public String type;
+    
+    @Label("Generator")
+    public String generator;
+    
+    @Label("Payload Length")
+    @DataAmount(DataAmount.BYTES)
+    public int payloadLength;
+    
+    @Label("Success")
+    public boolean success;
+}
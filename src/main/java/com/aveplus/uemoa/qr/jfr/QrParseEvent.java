@@ -0,0 +1,30 @@
+package com.aveplus.uemoa.qr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : parsing d'un QR code
+ */
+@Name("com.aveplus.uemoa.qr.QrParse")
+@Label("QR Parse")
+@Category("UEMOA QR")
+@Description("Parsing d'un payload EMVCo, avec le code d'erreur en cas d'échec")
+@StackTrace(false)
+public class QrParseEvent extends jdk.jfr.Event {
+    
+    @Label("Success")
+    public boolean success;
+    
+    @Label("Error Code")
+    @Description("Code ParseErrorCode de l'erreur bloquante ou du premier écart")
+    public String errorCode;
+    
+    @Label("Payload Length")
+    @DataAmount(DataAmount.BYTES)
+    public int payloadLength;
+}
@@ -0,0 +1,43 @@
+package com.aveplus.uemoa.qr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR : encodage et rendu d'une image QR
+ */
+@Name("com.aveplus.uemoa.qr.QrRender")
+@Label("QR Render")
+@Category("UEMOA QR")
+@Description("Encodage du symbole QR et écriture de l'image")
+@StackTrace(false)
+public class QrRenderEvent extends jdk.jfr.Event {
+    
+    @Label("Format")
+    public String format;
+    
+    @Label("Size")
+    @Description("Côté de l'image en pixels")
+    public int size;
+    
+    @Label("Error Correction")
+    public String errorCorrection;
+    
+    @Label("Logo")
+    @Description("Logo incrusté au centre du symbole")
+    public boolean logo;
+    
+    @Label("Symbol Version")
+    public int version;
+    
+    @Label("Image Size")
+    @DataAmount(DataAmount.BYTES)
+    public int bytes;
+    
+    @Label("Success")
+    public boolean success;
+}
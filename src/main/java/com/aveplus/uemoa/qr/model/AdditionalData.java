@@ -0,0 +1,214 @@
+package com.aveplus.uemoa.qr.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Sous-champs additionnels du template 62, immuables
+ * 
+ * Séquence ordonnée de couples (tag, valeur) stockée dans un seul tableau :
+ * pas de table de hachage pour les quelques entrées habituelles, et une
+ * instance vide partagée ({@link #EMPTY}). L'ordre est celui de la source
+ * (ordre d'itération de la map convertie) ; l'égalité en tient compte.
+ * Sérialisé en JSON comme un objet {tag: valeur}.
+ */
+public final class AdditionalData {
+    
+    /**
+     * Instance vide partagée
+     */
+    public static final AdditionalData EMPTY = new AdditionalData(new String[0]);
+    
+    /**
+     * Tags et valeurs alternés : [tag0, valeur0, tag1, valeur1, ...]
+     */
+    private final String[] entries;
+    
+    private AdditionalData(String[] entries) {
+        this.entries = entries;
+    }
+    
+    /**
+     * Copie une map de sous-champs
+     * 
+     * @param map Les sous-champs (null ou vide = {@link #EMPTY})
+     * @return Les sous-champs immuables, dans l'ordre d'itération de la map
+     */
+    @JsonCreator
+    public static AdditionalData of(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return EMPTY;
+        }
+        String[] entries = new String[map.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            entries[i++] = requireTag(entry.getKey());
+            entries[i++] = entry.getValue();
+        }
+        return new AdditionalData(entries);
+    }
+    
+    /**
+     * Crée des sous-champs à partir de couples (tag, valeur)
+     * 
+     * @param tagsAndValues Tags et valeurs alternés
+     * @return Les sous-champs immuables
+     * @throws IllegalArgumentException si le nombre d'arguments est impair ou un tag est dupliqué
+     */
+    public static AdditionalData of(String... tagsAndValues) {
+        if (tagsAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Les tags et les valeurs doivent être fournis par paires");
+        }
+        if (tagsAndValues.length == 0) {
+            return EMPTY;
+        }
+        String[] entries = tagsAndValues.clone();
+        for (int i = 0; i < entries.length; i += 2) {
+            requireTag(entries[i]);
+            for (int j = 0; j < i; j += 2) {
+                if (entries[j].equals(entries[i])) {
+                    throw new IllegalArgumentException("Tag dupliqué: " + entries[i]);
+                }
+            }
+        }
+        return new AdditionalData(entries);
+    }
+    
+    /**
+     * Nombre de sous-champs
+     */
+    public int size() {
+        return entries.length / 2;
+    }
+    
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+    
+    /**
+     * Tag du sous-champ à une position
+     */
+    public String tag(int index) {
+        return entries[index * 2];
+    }
+    
+    /**
+     * Valeur du sous-champ à une position
+     */
+    public String value(int index) {
+        return entries[index * 2 + 1];
+    }
+    
+    /**
+     * Valeur d'un sous-champ
+     * 
+     * @param tag Le tag recherché
+     * @return La valeur, ou null si le tag est absent
+     */
+    public String get(String tag) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(tag)) {
+                return entries[i + 1];
+            }
+        }
+        return null;
+    }
+    
+    public boolean containsTag(String tag) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Parcourt les sous-champs dans l'ordre
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < entries.length; i += 2) {
+            action.accept(entries[i], entries[i + 1]);
+        }
+    }
+    
+    /**
+     * Copie avec un sous-champ ajouté ou remplacé
+     * 
+     * @param tag Le tag
+     * @param value La valeur
+     * @return Les nouveaux sous-champs
+     */
+    public AdditionalData with(String tag, String value) {
+        requireTag(tag);
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(tag)) {
+                String[] copy = entries.clone();
+                copy[i + 1] = value;
+                return new AdditionalData(copy);
+            }
+        }
+        String[] copy = Arrays.copyOf(entries, entries.length + 2);
+        copy[entries.length] = tag;
+        copy[entries.length + 1] = value;
+        return new AdditionalData(copy);
+    }
+    
+    /**
+     * Copie modifiable, au format du modèle {@link QRPaymentData}
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new HashMap<>();
+        forEach(map::put);
+        return map;
+    }
+    
+    /**
+     * Copie non modifiable des sous-champs, dans leur ordre
+     */
+    @JsonValue
+    public Map<String, String> asUnmodifiableMap() {
+        if (isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return Collections.unmodifiableMap(map);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AdditionalData && Arrays.equals(entries, ((AdditionalData) o).entries);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(entries);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("{");
+        for (int i = 0; i < entries.length; i += 2) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(entries[i]).append('=').append(entries[i + 1]);
+        }
+        return out.append('}').toString();
+    }
+    
+    private static String requireTag(String tag) {
+        if (tag == null) {
+            throw new IllegalArgumentException("Le tag d'un sous-champ ne peut pas être null");
+        }
+        return tag;
+    }
+}
@@ -0,0 +1,46 @@
+package com.aveplus.uemoa.qr.model;
+
+import lombok.Builder;
+import lombok.With;
+
+/**
+ * Informations du marchand ou du particulier, immuables
+ * 
+ * Équivalent de {@link MerchantInfo} pour le chemin critique : partageable
+ * entre threads et entre transactions d'un même marchand sans copie.
+ * 
+ * @param alias Alias/Proxy du compte
+ * @param name Nom du marchand ou du particulier
+ * @param city Ville
+ * @param countryCode Code pays ISO
+ * @param categoryCode Code catégorie marchand (MCC), optionnel
+ */
+@Builder(toBuilder = true)
+@With
+public record QrMerchant(String alias,
+                         String name,
+                         String city,
+                         String countryCode,
+                         String categoryCode) {
+    
+    /**
+     * Copie les informations d'un bean
+     * 
+     * @param info Les informations du marchand (peut être null)
+     * @return Les informations immuables, ou null
+     */
+    public static QrMerchant from(MerchantInfo info) {
+        if (info == null) {
+            return null;
+        }
+        return new QrMerchant(info.getAlias(), info.getName(), info.getCity(),
+                info.getCountryCode(), info.getCategoryCode());
+    }
+    
+    /**
+     * Copie modifiable (bean validable)
+     */
+    public MerchantInfo toMerchantInfo() {
+        return new MerchantInfo(alias, name, city, countryCode, categoryCode);
+    }
+}
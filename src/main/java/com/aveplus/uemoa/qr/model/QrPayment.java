@@ -0,0 +1,78 @@
+package com.aveplus.uemoa.qr.model;
+
+import lombok.Builder;
+import lombok.With;
+
+import java.math.BigDecimal;
+
+/**
+ * Données de paiement immuables pour le chemin critique
+ * 
+ * Équivalent de {@link QRPaymentData} sans état mutable : les générateurs
+ * et le parser le produisent et le consomment directement, sans copie
+ * défensive. Les sous-champs additionnels sont stockés dans un
+ * {@link AdditionalData} compact ({@link AdditionalData#EMPTY} partagé
+ * lorsqu'il n'y en a pas). La conversion depuis et vers le bean est une
+ * simple recopie des champs.
+ * 
+ * @param type Type de QR code
+ * @param merchant Informations du marchand ou du particulier
+ * @param amount Montant en XOF (null = saisi par le payeur)
+ * @param transactionId ID de transaction (62.01)
+ * @param billReference Référence de facture (62.02)
+ * @param subscriptionId ID d'abonnement (62.03)
+ * @param merchantChannel Canal marchand (62.11)
+ * @param dynamicUrl URL dynamique du PSP (36.02)
+ * @param additionalData Autres sous-champs du template 62 (jamais null)
+ */
+@Builder(toBuilder = true)
+@With
+public record QrPayment(QRPaymentData.QRType type,
+                        QrMerchant merchant,
+                        BigDecimal amount,
+                        String transactionId,
+                        String billReference,
+                        String subscriptionId,
+                        QRPaymentData.MerchantChannel merchantChannel,
+                        String dynamicUrl,
+                        AdditionalData additionalData) {
+    
+    public QrPayment {
+        if (additionalData == null) {
+            additionalData = AdditionalData.EMPTY;
+        }
+    }
+    
+    /**
+     * Copie les données d'un bean
+     * 
+     * @param data Les données de paiement (peut être null)
+     * @return Les données immuables, ou null
+     */
+    public static QrPayment from(QRPaymentData data) {
+        if (data == null) {
+            return null;
+        }
+        return new QrPayment(data.getType(), QrMerchant.from(data.getMerchantInfo()), data.getAmount(),
+                data.getTransactionId(), data.getBillReference(), data.getSubscriptionId(),
+                data.getMerchantChannel(), data.getDynamicUrl(), AdditionalData.of(data.getAdditionalData()));
+    }
+    
+    /**
+     * Copie modifiable (bean validable, sérialisable)
+     */
+    public QRPaymentData toQRPaymentData() {
+        return new QRPaymentData(type, merchant != null ? merchant.toMerchantInfo() : null, amount,
+                transactionId, billReference, subscriptionId, merchantChannel, dynamicUrl,
+                additionalData.toMap());
+    }
+    
+    /**
+     * Point d'initiation (champ 01) correspondant au type
+     * 
+     * @return "11" pour statique/P2P, "12" pour dynamique
+     */
+    public String pointOfInitiationMethod() {
+        return type == QRPaymentData.QRType.DYNAMIC ? "12" : "11";
+    }
+}
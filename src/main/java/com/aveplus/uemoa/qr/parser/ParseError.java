@@ -0,0 +1,46 @@
+package com.aveplus.uemoa.qr.parser;
+
+import lombok.Value;
+
+/**
+ * Écart à la spécification détecté lors du parsing
+ */
+@Value
+public class ParseError {
+    
+    ParseErrorCode code;
+    
+    /**
+     * Position dans le payload (en caractères)
+     */
+    int offset;
+    
+    /**
+     * Champ concerné ("54", "62.11", ...), null si non applicable
+     */
+    String tag;
+    
+    /**
+     * Valeur attendue (null si non applicable)
+     */
+    String expected;
+    
+    /**
+     * Valeur trouvée (null si non applicable)
+     */
+    String actual;
+    
+    /**
+     * Message lisible
+     */
+    public String getMessage() {
+        StringBuilder message = new StringBuilder(code.getMessage());
+        if (tag != null) {
+            message.append(" [champ ").append(tag).append(']');
+        }
+        if (expected != null || actual != null) {
+            message.append(" : attendu ").append(expected).append(", reçu ").append(actual);
+        }
+        return message.append(" (position ").append(offset).append(')').toString();
+    }
+}
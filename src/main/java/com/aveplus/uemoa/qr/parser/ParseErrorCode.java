@@ -0,0 +1,44 @@
+package com.aveplus.uemoa.qr.parser;
+
+/**
+ * Codes d'erreur du parsing des QR codes EMVCo
+ *
+ * Les erreurs bloquantes empêchent toute extraction de données ; les autres
+ * sont des écarts à la spécification signalés sans interrompre le parsing.
+ */
+public enum ParseErrorCode {
+    
+    EMPTY_INPUT(true, "Les données du QR code ne peuvent pas être vides"),
+    INPUT_TOO_LONG(true, "Les données du QR code dépassent la longueur maximale"),
+    CRC_INVALID(true, "Le QR code a un CRC invalide"),
+    
+    TRUNCATED_FIELD(false, "En-tête de champ incomplet"),
+    INVALID_TAG(false, "Identifiant de champ non numérique"),
+    INVALID_LENGTH(false, "Longueur de champ non numérique"),
+    FIELD_OVERFLOW(false, "La longueur du champ dépasse les données disponibles"),
+    DUPLICATE_TAG(false, "Champ présent plusieurs fois"),
+    TRAILING_DATA(false, "Données après le champ CRC"),
+    MISSING_CRC(false, "Champ CRC (63) absent ou mal placé"),
+    MISSING_FIELD(false, "Champ obligatoire absent"),
+    INVALID_VALUE(false, "Valeur de champ invalide"),
+    INVALID_AMOUNT(false, "Montant invalide");
+    
+    private final boolean fatal;
+    private final String message;
+    
+    ParseErrorCode(boolean fatal, String message) {
+        this.fatal = fatal;
+        this.message = message;
+    }
+    
+    /**
+     * @return true si l'erreur empêche l'extraction des données
+     */
+    public boolean isFatal() {
+        return fatal;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
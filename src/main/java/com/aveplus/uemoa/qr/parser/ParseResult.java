@@ -0,0 +1,76 @@
+package com.aveplus.uemoa.qr.parser;
+
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Résultat d'un parsing sans exception
+ *
+ * Contient les données extraites (null en cas d'erreur bloquante) et la liste
+ * de tous les écarts à la spécification rencontrés.
+ */
+@Value
+public class ParseResult {
+    
+    /**
+     * Données extraites, immuables (null si une erreur bloquante est survenue)
+     */
+    QrPayment payment;
+    
+    /**
+     * Tous les écarts détectés, dans l'ordre du payload
+     */
+    List<ParseError> errors;
+    
+    static ParseResult of(QrPayment payment, List<ParseError> errors) {
+        return new ParseResult(payment, errors.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(errors));
+    }
+    
+    static ParseResult failure(ParseError error) {
+        return new ParseResult(null, Collections.singletonList(error));
+    }
+    
+    /**
+     * Données extraites, sous forme de bean modifiable (copie)
+     * 
+     * @return Les données, ou null si une erreur bloquante est survenue
+     */
+    public QRPaymentData getData() {
+        return payment != null ? payment.toQRPaymentData() : null;
+    }
+    
+    /**
+     * @return true si les données ont pu être extraites (aucune erreur bloquante)
+     */
+    public boolean isSuccess() {
+        return payment != null;
+    }
+    
+    /**
+     * @return true si le payload respecte entièrement la spécification
+     */
+    public boolean isCompliant() {
+        return payment != null && errors.isEmpty();
+    }
+    
+    /**
+     * Première erreur : l'erreur bloquante en cas d'échec, sinon le premier écart
+     * 
+     * @return L'erreur, ou null si aucune
+     */
+    public ParseError getError() {
+        if (errors.isEmpty()) {
+            return null;
+        }
+        for (ParseError error : errors) {
+            if (error.getCode().isFatal()) {
+                return error;
+            }
+        }
+        return errors.get(0);
+    }
+}
@@ -1,28 +1,51 @@
 package com.aveplus.uemoa.qr.parser;
 
-import com.aveplus.uemoa.qr.model.EMVField;
-import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.jfr.QrCrcFailureEvent;
+import com.aveplus.uemoa.qr.jfr.QrParseEvent;
+import com.aveplus.uemoa.qr.model.AdditionalData;
 import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
 import com.aveplus.uemoa.qr.utils.CRCCalculator;
 import com.aveplus.uemoa.qr.utils.EMVFormatter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Parser pour lire et interpréter les QR codes EMVCo UEMOA
+ *
+ * Le parsing ne lève pas d'exception sur le chemin critique : les écarts sont
+ * collectés dans un {@link ParseResult} (voir {@link #tryParse(String)}).
  */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class QRParser {
     
-    private final EMVFormatter formatter;
+    /**
+     * Longueur maximale d'un payload EMVCo (vérifiée avant toute analyse)
+     */
+    public static final int MAX_PAYLOAD_LENGTH = 512;
+    
+    private static final String CRC_TAG = "63";
+    private static final int CRC_FIELD_LENGTH = 8;
+    
+    /**
+     * Identifiants "00" à "99" partagés : le découpage ne crée pas de chaîne par champ
+     */
+    private static final String[] TAG_IDS = new String[100];
+    
+    static {
+        for (int i = 0; i < TAG_IDS.length; i++) {
+            TAG_IDS[i] = (i < 10 ? "0" : "") + i;
+        }
+    }
+    
     private final CRCCalculator crcCalculator;
     
     /**
@@ -30,107 +53,264 @@ public class QRParser {
      * 
      * @param qrData La chaîne de données du QR code
      * @return Les données de paiement extraites
-     * @throws IllegalArgumentException si le QR code est invalide
+     * @throws IllegalArgumentException au premier écart à la spécification
      */
     public QRPaymentData parse(String qrData) {
-        log.debug("Parsing QR code: {}", qrData);
-        
+        ParseResult result = tryParse(qrData);
+        if (!result.isCompliant()) {
+            throw new IllegalArgumentException(result.getError().getCode().getMessage());
+        }
+        return result.getData();
+    }
+    
+    /**
+     * Parse un QR code EMVCo et retourne les données de paiement immuables
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @return Les données de paiement extraites, sans copie vers le bean
+     * @throws IllegalArgumentException au premier écart à la spécification
+     */
+    public QrPayment parsePayment(String qrData) {
+        ParseResult result = tryParse(qrData);
+        if (!result.isCompliant()) {
+            throw new IllegalArgumentException(result.getError().getCode().getMessage());
+        }
+        return result.getPayment();
+    }
+    
+    /**
+     * Parse un QR code EMVCo sans lever d'exception
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @return Les données extraites et tous les écarts à la spécification
+     */
+    public ParseResult tryParse(String qrData) {
+        QrParseEvent event = new QrParseEvent();
+        event.begin();
+        ParseResult result = parseFields(qrData);
+        event.end();
+        if (event.shouldCommit()) {
+            ParseError error = result.getError();
+            event.success = result.isSuccess();
+            event.errorCode = error != null ? error.getCode().name() : null;
+            event.payloadLength = qrData != null ? qrData.length() : 0;
+            event.commit();
+        }
+        return result;
+    }
+    
+    private ParseResult parseFields(String qrData) {
         if (qrData == null || qrData.isEmpty()) {
-            throw new IllegalArgumentException("Les données du QR code ne peuvent pas être vides");
+            return ParseResult.failure(new ParseError(ParseErrorCode.EMPTY_INPUT, 0, null, null, null));
         }
         
+        // Longueur plafonnée avant toute analyse
+        if (qrData.length() > MAX_PAYLOAD_LENGTH) {
+            return ParseResult.failure(new ParseError(ParseErrorCode.INPUT_TOO_LONG, MAX_PAYLOAD_LENGTH, null,
+                    String.valueOf(MAX_PAYLOAD_LENGTH), String.valueOf(qrData.length())));
+        }
+        
+        log.debug("Parsing QR code: {}", qrData);
+        List<ParseError> errors = new ArrayList<>(0);
+        
         // Vérifie le CRC si présent
-        if (qrData.length() > 8) {
-            validateCRC(qrData);
+        if (qrData.length() > CRC_FIELD_LENGTH) {
+            ParseError crcError = validateCRC(qrData, errors);
+            if (crcError != null) {
+                return ParseResult.failure(crcError);
+            }
         }
         
         // Parse tous les champs EMV
-        List<EMVField> fields = formatter.parseAllFields(qrData);
-        Map<String, String> fieldsMap = formatter.fieldsToMap(fields);
+        int[] offsets = new int[TAG_IDS.length];
+        Map<String, String> fieldsMap = scan(qrData, 0, qrData.length(), null, offsets, errors);
+        checkMandatoryFields(fieldsMap, offsets, qrData.length(), errors);
         
-        // Crée l'objet de données de paiement
-        QRPaymentData paymentData = new QRPaymentData();
+        // Accumule les données de paiement (immuables une fois construites)
+        QrPayment.QrPaymentBuilder paymentData = QrPayment.builder();
         
         // Détermine le type de QR
         String initiationMethod = fieldsMap.get("01");
         if ("12".equals(initiationMethod)) {
-            paymentData.setType(QRPaymentData.QRType.DYNAMIC);
+            paymentData.type(QRPaymentData.QRType.DYNAMIC);
         } else {
-            paymentData.setType(QRPaymentData.QRType.STATIC);
+            paymentData.type(QRPaymentData.QRType.STATIC);
+            if (initiationMethod != null && !"11".equals(initiationMethod)) {
+                errors.add(new ParseError(ParseErrorCode.INVALID_VALUE, offsets[1], "01",
+                        "11|12", initiationMethod));
+            }
         }
         
         // Parse les informations du marchand/particulier
-        parseMerchantInfo(fieldsMap, paymentData);
+        parseMerchantInfo(qrData, fieldsMap, offsets, paymentData, errors);
         
         // Parse le montant
         String amount = fieldsMap.get("54");
         if (amount != null && !amount.isEmpty()) {
-            try {
-                paymentData.setAmount(new BigDecimal(amount));
+            if (isAmount(amount)) {
+                paymentData.amount(new BigDecimal(amount));
                 log.debug("Montant parsé: {} XOF", amount);
-            } catch (NumberFormatException e) {
-                log.warn("Montant invalide: {}", amount);
+            } else {
+                errors.add(new ParseError(ParseErrorCode.INVALID_AMOUNT, offsets[54], "54",
+                        "nombre décimal (13 caractères max)", amount));
             }
         }
         
         // Parse les données additionnelles
-        parseAdditionalData(fieldsMap, paymentData);
+        parseAdditionalData(qrData, fieldsMap, offsets, paymentData, errors);
         
-        log.info("QR code parsé avec succès: type={}, montant={}", 
-                paymentData.getType(), paymentData.getAmount());
+        QrPayment payment = paymentData.build();
+        if (log.isDebugEnabled()) {
+            log.debug("QR code parsé: type={}, montant={}, écarts={}",
+                    payment.type(), payment.amount(), errors.size());
+        }
         
-        return paymentData;
+        return ParseResult.of(payment, errors);
     }
     
     /**
      * Valide le CRC du QR code
      * 
-     * @param qrData Les données du QR code
-     * @throws IllegalArgumentException si le CRC est invalide
+     * @return L'erreur bloquante si le CRC ne correspond pas, null sinon
      */
-    private void validateCRC(String qrData) {
-        // Recherche le champ CRC (63)
-        int crcFieldIndex = qrData.lastIndexOf("6304");
-        if (crcFieldIndex > 0 && crcFieldIndex == qrData.length() - 8) {
-            boolean isValid = crcCalculator.validate(qrData);
-            if (!isValid) {
-                log.error("CRC invalide pour le QR code");
-                throw new IllegalArgumentException("Le QR code a un CRC invalide");
-            }
+    private ParseError validateCRC(String qrData, List<ParseError> errors) {
+        // Le champ CRC (63) doit être le dernier : "6304" + 4 caractères
+        int crcFieldIndex = qrData.length() - CRC_FIELD_LENGTH;
+        if (!qrData.startsWith("6304", crcFieldIndex)) {
+            errors.add(new ParseError(ParseErrorCode.MISSING_CRC, crcFieldIndex, CRC_TAG, null, null));
+            return null;
+        }
+        if (crcCalculator.validate(qrData)) {
             log.debug("CRC validé avec succès");
+            return null;
+        }
+        
+        String expected = crcCalculator.calculate(qrData.substring(0, qrData.length() - 4));
+        String actual = qrData.substring(qrData.length() - 4);
+        QrCrcFailureEvent event = new QrCrcFailureEvent();
+        if (event.shouldCommit()) {
+            event.expected = expected;
+            event.actual = actual;
+            event.payloadLength = qrData.length();
+            event.commit();
+        }
+        log.debug("CRC invalide pour le QR code: attendu {}, reçu {}", expected, actual);
+        return new ParseError(ParseErrorCode.CRC_INVALID, qrData.length() - 4, CRC_TAG, expected, actual);
+    }
+    
+    /**
+     * Découpe une suite de champs TLV (ID sur 2 chiffres, longueur sur 2 chiffres, valeur)
+     * 
+     * S'arrête au premier défaut de structure, qui empêche de retrouver les
+     * champs suivants. Au premier niveau, l'analyse s'arrête après le CRC.
+     * 
+     * @param parent Le champ parent des sous-champs (null au premier niveau)
+     * @param offsets Positions des valeurs, indexées par numéro d'ID (null si inutile)
+     */
+    private static Map<String, String> scan(String data, int start, int end, String parent,
+                                            int[] offsets, List<ParseError> errors) {
+        Map<String, String> fields = new TreeMap<>();
+        int offset = start;
+        while (offset < end) {
+            if (end - offset < 4) {
+                errors.add(new ParseError(ParseErrorCode.TRUNCATED_FIELD, offset, parent,
+                        "4", String.valueOf(end - offset)));
+                break;
+            }
+            if (!isDigit(data.charAt(offset)) || !isDigit(data.charAt(offset + 1))) {
+                errors.add(new ParseError(ParseErrorCode.INVALID_TAG, offset, parent,
+                        "2 chiffres", data.substring(offset, offset + 2)));
+                break;
+            }
+            int number = (data.charAt(offset) - '0') * 10 + (data.charAt(offset + 1) - '0');
+            String id = TAG_IDS[number];
+            int length = EMVFormatter.parseLength(data, offset + 2);
+            if (length < 0) {
+                errors.add(new ParseError(ParseErrorCode.INVALID_LENGTH, offset + 2, tag(parent, id),
+                        "2 chiffres", data.substring(offset + 2, offset + 4)));
+                break;
+            }
+            int valueStart = offset + 4;
+            if (valueStart + length > end) {
+                errors.add(new ParseError(ParseErrorCode.FIELD_OVERFLOW, offset + 2, tag(parent, id),
+                        String.valueOf(length), String.valueOf(end - valueStart)));
+                break;
+            }
+            
+            if (fields.put(id, data.substring(valueStart, valueStart + length)) != null) {
+                errors.add(new ParseError(ParseErrorCode.DUPLICATE_TAG, offset, tag(parent, id), null, null));
+            }
+            if (offsets != null) {
+                offsets[number] = valueStart;
+            }
+            offset = valueStart + length;
+            
+            // Arrêt après le CRC (champ 63)
+            if (parent == null && CRC_TAG.equals(id)) {
+                if (offset < end) {
+                    errors.add(new ParseError(ParseErrorCode.TRAILING_DATA, offset, null,
+                            null, String.valueOf(end - offset)));
+                }
+                break;
+            }
+        }
+        return fields;
+    }
+    
+    /**
+     * Nom complet d'un champ ("36.01" pour un sous-champ), construit seulement pour les écarts
+     */
+    private static String tag(String parent, String id) {
+        return parent == null ? id : parent + "." + id;
+    }
+    
+    /**
+     * Champs obligatoires de la spécification BCEAO
+     */
+    private static void checkMandatoryFields(Map<String, String> fields, int[] offsets,
+                                             int end, List<ParseError> errors) {
+        String payloadFormat = fields.get("00");
+        if (payloadFormat == null) {
+            errors.add(new ParseError(ParseErrorCode.MISSING_FIELD, 0, "00", null, null));
+        } else if (!"01".equals(payloadFormat)) {
+            errors.add(new ParseError(ParseErrorCode.INVALID_VALUE, offsets[0], "00", "01", payloadFormat));
+        }
+        for (String id : new String[] {"36", "52", "53", "58", "59", "60"}) {
+            if (!fields.containsKey(id)) {
+                errors.add(new ParseError(ParseErrorCode.MISSING_FIELD, end, id, null, null));
+            }
         }
     }
     
     /**
      * Parse les informations du marchand ou du particulier
      */
-    private void parseMerchantInfo(Map<String, String> fields, QRPaymentData paymentData) {
+    private static void parseMerchantInfo(String qrData, Map<String, String> fields, int[] offsets,
+                                          QrPayment.QrPaymentBuilder paymentData, List<ParseError> errors) {
         // Parse le champ 36 (Merchant Account Information)
         String merchantAccountInfo = fields.get("36");
         if (merchantAccountInfo != null) {
-            List<EMVField> subFields = formatter.parseSubFields(merchantAccountInfo);
-            Map<String, String> subFieldsMap = formatter.fieldsToMap(subFields);
+            int start = offsets[36];
+            Map<String, String> subFieldsMap = scan(qrData, start, start + merchantAccountInfo.length(),
+                    "36", null, errors);
             
             String alias = subFieldsMap.get("01"); // Alias standard
             if (alias == null || alias.isEmpty()) {
                 alias = subFieldsMap.get("02"); // URL ou alias alternatif
                 if (alias != null && alias.startsWith("pi.")) {
                     // C'est une URL dynamique
-                    paymentData.setDynamicUrl(alias);
+                    paymentData.dynamicUrl(alias);
                 }
             }
             
             if (alias != null && !alias.isEmpty()) {
-                MerchantInfo merchantInfo = MerchantInfo.builder()
-                    .alias(alias)
-                    .name(fields.get("59"))
-                    .city(fields.get("60"))
-                    .countryCode(fields.get("58"))
-                    .categoryCode(fields.get("52"))
-                    .build();
+                QrMerchant merchant = new QrMerchant(alias, fields.get("59"), fields.get("60"),
+                        fields.get("58"), fields.get("52"));
                 
-                paymentData.setMerchantInfo(merchantInfo);
-                log.debug("Merchant info parsé: {}", merchantInfo.getName());
+                paymentData.merchant(merchant);
+                log.debug("Merchant info parsé: {}", merchant.name());
+            } else {
+                errors.add(new ParseError(ParseErrorCode.MISSING_FIELD, start, "36.01", null, null));
             }
         }
     }
@@ -138,70 +318,118 @@ public class QRParser {
     /**
      * Parse les données additionnelles
      */
-    private void parseAdditionalData(Map<String, String> fields, QRPaymentData paymentData) {
+    private static void parseAdditionalData(String qrData, Map<String, String> fields, int[] offsets,
+                                            QrPayment.QrPaymentBuilder paymentData, List<ParseError> errors) {
         String additionalData = fields.get("62");
         if (additionalData == null || additionalData.isEmpty()) {
             return;
         }
         
-        List<EMVField> subFields = formatter.parseSubFields(additionalData);
-        Map<String, String> subFieldsMap = formatter.fieldsToMap(subFields);
+        int start = offsets[62];
+        int end = start + additionalData.length();
+        Map<String, String> subFieldsMap = scan(qrData, start, end, "62", null, errors);
         
         // Transaction ID
         String txId = subFieldsMap.get("01");
         if (txId != null) {
-            paymentData.setTransactionId(txId);
+            paymentData.transactionId(txId);
             log.debug("Transaction ID parsé: {}", txId);
         }
         
         // Référence de facture
         String billRef = subFieldsMap.get("02");
         if (billRef != null) {
-            paymentData.setBillReference(billRef);
+            paymentData.billReference(billRef);
             log.debug("Référence facture parsée: {}", billRef);
         }
         
         // ID d'abonnement
         String subscriptionId = subFieldsMap.get("03");
         if (subscriptionId != null) {
-            paymentData.setSubscriptionId(subscriptionId);
+            paymentData.subscriptionId(subscriptionId);
             log.debug("ID abonnement parsé: {}", subscriptionId);
         }
         
         // Canal marchand
         String merchantChannel = subFieldsMap.get("11");
         if (merchantChannel != null) {
-            try {
-                int channelCode = Integer.parseInt(merchantChannel);
-                QRPaymentData.MerchantChannel channel = 
-                    QRPaymentData.MerchantChannel.fromCode(channelCode);
+            QRPaymentData.MerchantChannel channel = isDigits(merchantChannel) && merchantChannel.length() <= 9
+                ? QRPaymentData.MerchantChannel.fromCode(Integer.parseInt(merchantChannel))
+                : null;
+            
+            if (channel != null) {
+                paymentData.merchantChannel(channel);
                 
-                if (channel != null) {
-                    paymentData.setMerchantChannel(channel);
-                    
-                    // Détermine si c'est un P2P basé sur le canal
-                    if (channel == QRPaymentData.MerchantChannel.P2P_STATIC) {
-                        paymentData.setType(QRPaymentData.QRType.P2P);
-                    }
-                    
-                    log.debug("Canal marchand parsé: {} ({})", 
+                // Détermine si c'est un P2P basé sur le canal
+                if (channel == QRPaymentData.MerchantChannel.P2P_STATIC) {
+                    paymentData.type(QRPaymentData.QRType.P2P);
+                }
+                
+                if (log.isDebugEnabled()) {
+                    log.debug("Canal marchand parsé: {} ({})",
                              channel.getCode(), channel.getDescription());
                 }
-            } catch (NumberFormatException e) {
-                log.warn("Canal marchand invalide: {}", merchantChannel);
+            } else {
+                // Positions des sous-champs relevées seulement pour situer l'écart
+                int[] subOffsets = new int[TAG_IDS.length];
+                scan(qrData, start, end, "62", subOffsets, new ArrayList<>(0));
+                errors.add(new ParseError(ParseErrorCode.INVALID_VALUE, subOffsets[11], "62.11",
+                        "code de canal connu", merchantChannel));
             }
         }
         
-        // Stocke toutes les autres données additionnelles
-        Map<String, String> additionalDataMap = new HashMap<>(subFieldsMap);
-        // Retire les champs déjà traités
-        additionalDataMap.remove("01");
-        additionalDataMap.remove("02");
-        additionalDataMap.remove("03");
-        additionalDataMap.remove("11");
-        
-        if (!additionalDataMap.isEmpty()) {
-            paymentData.setAdditionalData(additionalDataMap);
+        // Stocke toutes les autres données additionnelles (hors champs déjà traités)
+        int others = 0;
+        for (String tag : subFieldsMap.keySet()) {
+            if (!isHandledAdditionalTag(tag)) {
+                others++;
+            }
+        }
+        if (others > 0) {
+            String[] tagsAndValues = new String[others * 2];
+            int i = 0;
+            for (Map.Entry<String, String> entry : subFieldsMap.entrySet()) {
+                if (!isHandledAdditionalTag(entry.getKey())) {
+                    tagsAndValues[i++] = entry.getKey();
+                    tagsAndValues[i++] = entry.getValue();
+                }
+            }
+            paymentData.additionalData(AdditionalData.of(tagsAndValues));
+        }
+    }
+    
+    private static boolean isHandledAdditionalTag(String tag) {
+        return "01".equals(tag) || "02".equals(tag) || "03".equals(tag) || "11".equals(tag);
+    }
+    
+    /**
+     * Montant EMVCo : chiffres avec point décimal optionnel, 13 caractères au plus
+     */
+    private static boolean isAmount(String value) {
+        if (value.length() > 13) {
+            return false;
         }
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return isDigits(value);
+        }
+        return dot > 0 && dot < value.length() - 1
+            && isDigits(value.substring(0, dot)) && isDigits(value.substring(dot + 1));
+    }
+    
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,139 @@
+package com.aveplus.uemoa.qr.profile;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Profil PSP compilé : valeurs d'en-tête et segments précalculés
+ * 
+ * Les segments constants du payload (champs 00 et 01, sous-champ GUID du
+ * template 36, champs 52 et 53) sont formatés une seule fois, et l'état du
+ * CRC après l'en-tête 00 + 01 est conservé pour chaque point d'initiation.
+ * Immuable, partagé entre threads.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class QrProfile {
+    
+    /**
+     * Nom du profil par défaut (valeurs globales de la configuration)
+     */
+    public static final String DEFAULT_NAME = "default";
+    
+    String name;
+    String payloadFormatIndicator;
+    String merchantCategoryCode;
+    String currencyCode;
+    String bceaoPrefix;
+    
+    /**
+     * Code pays (champ 58) des marchands qui n'en renseignent pas
+     */
+    String defaultCountryCode;
+    
+    /**
+     * En-tête des QR statiques et P2P (champs 00 et 01 = "11")
+     */
+    Header staticHeader;
+    
+    /**
+     * En-tête des QR dynamiques (champs 00 et 01 = "12")
+     */
+    Header dynamicHeader;
+    
+    /**
+     * Sous-champ 00 (GUID) du template 36, formaté
+     */
+    String accountGuid;
+    
+    /**
+     * Champ 52 formaté
+     */
+    String categoryField;
+    
+    /**
+     * Champ 53 formaté
+     */
+    String currencyField;
+    
+    /**
+     * Segment de payload précalculé avec l'état du CRC à sa fin
+     */
+    @Value
+    public static class Header {
+        String text;
+        int crc;
+    }
+    
+    /**
+     * Compile un profil
+     * 
+     * @param name Le nom du profil
+     * @param profile Les valeurs du profil (null = valeurs globales)
+     * @param defaults La configuration globale, pour les valeurs non renseignées
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @return Le profil compilé
+     */
+    public static QrProfile compile(String name,
+                                    UemoaQrProperties.Profile profile,
+                                    UemoaQrProperties defaults,
+                                    EMVFormatter formatter,
+                                    CRCCalculator crcCalculator) {
+        UemoaQrProperties.Profile values = profile != null ? profile : new UemoaQrProperties.Profile();
+        String payloadFormatIndicator = orDefault(values.getPayloadFormatIndicator(), defaults.getPayloadFormatIndicator());
+        String merchantCategoryCode = orDefault(values.getMerchantCategoryCode(), defaults.getMerchantCategoryCode());
+        String currencyCode = orDefault(values.getCurrencyCode(), defaults.getCurrencyCode());
+        String bceaoPrefix = orDefault(values.getBceaoPrefix(), defaults.getBceaoPrefix());
+        String defaultCountryCode = orDefault(values.getDefaultCountryCode(), defaults.getDefaultCountryCode());
+        
+        String formatIndicatorField = formatter.formatField("00", payloadFormatIndicator);
+        return new QrProfile(name, payloadFormatIndicator, merchantCategoryCode, currencyCode,
+                bceaoPrefix, defaultCountryCode,
+                header(formatIndicatorField + formatter.formatField("01", "11"), crcCalculator),
+                header(formatIndicatorField + formatter.formatField("01", "12"), crcCalculator),
+                formatter.formatSubField("00", bceaoPrefix),
+                formatter.formatField("52", merchantCategoryCode),
+                formatter.formatField("53", currencyCode));
+    }
+    
+    /**
+     * En-tête précalculé pour un point d'initiation
+     * 
+     * @param initiationMethod La valeur du champ 01 ("11" ou "12")
+     * @return L'en-tête, ou null s'il n'est pas précalculé
+     */
+    public Header header(String initiationMethod) {
+        if ("11".equals(initiationMethod)) {
+            return staticHeader;
+        }
+        if ("12".equals(initiationMethod)) {
+            return dynamicHeader;
+        }
+        return null;
+    }
+    
+    /**
+     * Code pays du champ 58
+     * 
+     * @param merchantCountryCode Le code pays du marchand (peut être null ou vide)
+     * @return Le code du marchand s'il est renseigné, sinon le code pays par défaut du profil
+     */
+    public String countryCode(String merchantCountryCode) {
+        return merchantCountryCode != null && !merchantCountryCode.isEmpty()
+            ? merchantCountryCode
+            : defaultCountryCode;
+    }
+    
+    private static Header header(String text, CRCCalculator crcCalculator) {
+        return new Header(text, crcCalculator.update(CRCCalculator.INITIAL_VALUE, text));
+    }
+    
+    private static String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
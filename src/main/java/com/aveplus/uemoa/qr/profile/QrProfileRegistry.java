@@ -0,0 +1,120 @@
+package com.aveplus.uemoa.qr.profile;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Profils PSP compilés, indexés par nom et par alias marchand
+ * 
+ * Compilé une fois au démarrage ; la sélection d'un profil ne coûte
+ * ensuite qu'une recherche dans une table. Immuable, partagé entre threads.
+ */
+@Slf4j
+public class QrProfileRegistry {
+    
+    private final QrProfile defaultProfile;
+    private final Map<String, QrProfile> profiles;
+    private final Map<String, QrProfile> merchantProfiles;
+    
+    private QrProfileRegistry(QrProfile defaultProfile,
+                              Map<String, QrProfile> profiles,
+                              Map<String, QrProfile> merchantProfiles) {
+        this.defaultProfile = defaultProfile;
+        this.profiles = profiles;
+        this.merchantProfiles = merchantProfiles;
+    }
+    
+    /**
+     * Compile les profils de la configuration
+     * 
+     * Le profil {@value QrProfile#DEFAULT_NAME} reprend les valeurs globales,
+     * sauf s'il est redéfini dans {@code profiles}.
+     * 
+     * @param properties La configuration du module
+     * @param formatter Le formateur EMV
+     * @param crcCalculator Le calculateur de CRC
+     * @return Le registre compilé
+     * @throws IllegalArgumentException si un alias marchand désigne un profil inconnu
+     */
+    public static QrProfileRegistry from(UemoaQrProperties properties,
+                                         EMVFormatter formatter,
+                                         CRCCalculator crcCalculator) {
+        Map<String, QrProfile> profiles = new HashMap<>();
+        profiles.put(QrProfile.DEFAULT_NAME,
+                QrProfile.compile(QrProfile.DEFAULT_NAME, null, properties, formatter, crcCalculator));
+        properties.getProfiles().forEach((name, profile) ->
+                profiles.put(name, QrProfile.compile(name, profile, properties, formatter, crcCalculator)));
+        
+        Map<String, QrProfile> merchantProfiles = new HashMap<>();
+        properties.getMerchantProfiles().forEach((alias, name) -> {
+            QrProfile profile = profiles.get(name);
+            if (profile == null) {
+                throw new IllegalArgumentException(
+                    "Profil PSP inconnu pour le marchand " + alias + ": " + name);
+            }
+            merchantProfiles.put(alias, profile);
+        });
+        
+        log.debug("Profils PSP compilés: {} profil(s), {} marchand(s) associé(s)",
+                profiles.size(), merchantProfiles.size());
+        return new QrProfileRegistry(profiles.get(QrProfile.DEFAULT_NAME),
+                Collections.unmodifiableMap(profiles), Collections.unmodifiableMap(merchantProfiles));
+    }
+    
+    /**
+     * Profil par défaut
+     */
+    public QrProfile defaultProfile() {
+        return defaultProfile;
+    }
+    
+    /**
+     * Profil par nom
+     * 
+     * @param name Le nom du profil
+     * @return Le profil compilé
+     * @throws IllegalArgumentException si le profil est inconnu
+     */
+    public QrProfile get(String name) {
+        QrProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Profil PSP inconnu: " + name);
+        }
+        return profile;
+    }
+    
+    /**
+     * Sélectionne le profil d'une requête
+     * 
+     * @param name Le profil demandé (prioritaire), ou null
+     * @param merchantAlias L'alias du marchand, ou null
+     * @return Le profil demandé, sinon celui du marchand, sinon le profil par défaut
+     * @throws IllegalArgumentException si le profil demandé est inconnu
+     */
+    public QrProfile resolve(String name, String merchantAlias) {
+        if (name != null) {
+            return get(name);
+        }
+        if (merchantAlias != null) {
+            QrProfile profile = merchantProfiles.get(merchantAlias);
+            if (profile != null) {
+                return profile;
+            }
+        }
+        return defaultProfile;
+    }
+    
+    /**
+     * Noms des profils disponibles
+     */
+    public Set<String> names() {
+        return profiles.keySet();
+    }
+}
@@ -0,0 +1,394 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.QrConfigSnapshot;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.jfr.QrRenderEvent;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rendu des images QR code (ZXing + AWT/ImageIO)
+ *
+ * Isolé du service pour que la pile image ne soit chargée que si
+ * la génération d'images est activée, et seulement au premier rendu
+ * (ou en arrière-plan via {@link #preloadAsync()}).
+ */
+@Slf4j
+public class QRImageRenderer {
+
+    private static final int DEFAULT_LOGO_CACHE_SIZE = 1000;
+    private static final int BLACK = 0x000000;
+    private static final int WHITE = 0xFFFFFF;
+
+    /**
+     * Configuration compilée (paramètres d'image, indications d'encodage)
+     */
+    private final QrConfigHolder config;
+
+    /**
+     * Rendus en cours et durée moyenne, pour les budgets de latence
+     */
+    @Getter
+    private final RenderLoadMonitor load = new RenderLoadMonitor();
+
+    /**
+     * Logos marchands et incrustations pré-mises à l'échelle
+     */
+    @Getter
+    private final QrLogoCache logos;
+
+    /**
+     * Crée un moteur de rendu dont la configuration est compilée depuis les propriétés
+     */
+    public QRImageRenderer(UemoaQrProperties properties) {
+        this(new QrConfigHolder(properties, new EMVFormatter(), new CRCCalculator()),
+             new QrLogoCache(properties.getLogoCacheSize()));
+    }
+
+    /**
+     * Crée un moteur de rendu partageant une configuration compilée rechargeable
+     */
+    public QRImageRenderer(QrConfigHolder config) {
+        this(config, new QrLogoCache(DEFAULT_LOGO_CACHE_SIZE));
+    }
+
+    /**
+     * Crée un moteur de rendu partageant une configuration et un cache de logos
+     */
+    public QRImageRenderer(QrConfigHolder config, QrLogoCache logos) {
+        this.config = config;
+        this.logos = logos;
+    }
+
+    /**
+     * Image rendue avec la version du symbole encodé
+     */
+    @Value
+    public static class RenderedSymbol {
+        @Getter(AccessLevel.NONE)
+        byte[] image;
+        String format;
+        int version;
+
+        /**
+         * Octets de l'image (tableau interne, à ne pas modifier)
+         */
+        public byte[] image() {
+            return image;
+        }
+    }
+
+    /**
+     * Génère une image QR code sous forme de tableau d'octets
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @return L'image QR code en bytes
+     * @throws WriterException En cas d'erreur de génération
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public byte[] render(String qrData) throws WriterException, IOException {
+        return render(qrData, RenderOptions.defaults()).image();
+    }
+
+    /**
+     * Encode et rend une image QR code en une passe
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @param options Les options de rendu (valeurs null = configuration du module)
+     * @return L'image rendue et la version du symbole
+     * @throws WriterException En cas d'erreur de génération
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public RenderedSymbol render(String qrData, RenderOptions options) throws WriterException, IOException {
+        // Un logo masque des modules : correction d'erreur maximale
+        ErrorCorrectionLevel errorCorrection = options.getLogo() != null
+                ? ErrorCorrectionLevel.H
+                : options.getErrorCorrection();
+        long start = System.nanoTime();
+        load.begin();
+        try {
+            return render(encodeSymbol(qrData, errorCorrection), options);
+        } finally {
+            load.end(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Rend l'image d'un symbole déjà encodé
+     *
+     * Le niveau de correction d'erreur est celui du symbole ; un logo exige
+     * un symbole encodé au niveau H.
+     *
+     * @param symbol Le symbole encodé
+     * @param options Les options de rendu (valeurs null = configuration du module)
+     * @return L'image rendue et la version du symbole
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public RenderedSymbol render(QrSymbol symbol, RenderOptions options) throws IOException {
+        QrConfigSnapshot snapshot = config.current();
+        int size = options.getSize() != null ? options.getSize() : snapshot.getQrImageSize();
+        int margin = options.getMargin() != null ? options.getMargin() : snapshot.getQrImageMargin();
+        String format = options.getFormat() != null ? options.getFormat() : snapshot.getImageFormat();
+
+        log.debug("Génération d'image QR: taille={}px, marge={}px", size, margin);
+
+        // Les rendus en échec (logo inconnu, erreur d'écriture) sont aussi enregistrés
+        QrRenderEvent event = new QrRenderEvent();
+        event.begin();
+        BitMatrix bitMatrix = null;
+        byte[] imageBytes = null;
+        try {
+            if (options.getLogo() != null && symbol.getErrorCorrection() != ErrorCorrectionLevel.H) {
+                throw new IllegalArgumentException("Un logo exige un symbole encodé au niveau H");
+            }
+            bitMatrix = toBitMatrix(symbol, size, size, margin);
+
+            // Conversion en image
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            if (options.getLogo() != null) {
+                writeWithLogo(bitMatrix, symbol, margin, options.getLogo(), format, outputStream);
+            } else {
+                MatrixToImageWriter.writeToStream(bitMatrix, format, outputStream);
+            }
+            imageBytes = outputStream.toByteArray();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.format = format;
+                event.size = bitMatrix != null ? bitMatrix.getWidth() : size;
+                event.errorCorrection = symbol.getErrorCorrection().name();
+                event.logo = options.getLogo() != null;
+                event.version = symbol.getVersion();
+                event.bytes = imageBytes != null ? imageBytes.length : 0;
+                event.success = imageBytes != null;
+                event.commit();
+            }
+        }
+        log.debug("Image QR générée: {} bytes, format={}, version={}",
+                imageBytes.length, format, symbol.getVersion());
+
+        return new RenderedSymbol(imageBytes, format, symbol.getVersion());
+    }
+
+    /**
+     * Encode le symbole une fois et le rend dans plusieurs tailles et formats
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @param specs Les déclinaisons demandées
+     * @return Les déclinaisons, dans l'ordre demandé
+     * @throws WriterException En cas d'erreur d'encodage
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public List<Rendition> renditions(String qrData, ErrorCorrectionLevel errorCorrection,
+                                      List<RenditionSpec> specs) throws WriterException, IOException {
+        return renditions(encodeSymbol(qrData, errorCorrection), specs);
+    }
+
+    /**
+     * Rend un symbole déjà encodé dans plusieurs tailles et formats
+     *
+     * Chaque module occupe un nombre entier de pixels ; les lignes de
+     * pixels sont produites une fois par ligne de modules puis recopiées.
+     * Chaque déclinaison compte comme un rendu pour {@link #getLoad()}.
+     *
+     * @param symbol Le symbole encodé
+     * @param specs Les déclinaisons demandées
+     * @return Les déclinaisons, dans l'ordre demandé
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public List<Rendition> renditions(QrSymbol symbol, List<RenditionSpec> specs) throws IOException {
+        int defaultMargin = config.current().getQrImageMargin();
+        List<Rendition> renditions = new ArrayList<>(specs.size());
+        for (RenditionSpec spec : specs) {
+            QrRenderEvent event = new QrRenderEvent();
+            event.begin();
+            long start = System.nanoTime();
+            load.begin();
+            Rendition rendition = null;
+            try {
+                rendition = QrRasterizer.rendition(symbol, spec,
+                        spec.getMargin() != null ? spec.getMargin() : defaultMargin);
+            } finally {
+                load.end(System.nanoTime() - start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.format = spec.getFormat().name();
+                    event.size = rendition != null ? rendition.getWidth() : spec.getSize();
+                    event.errorCorrection = symbol.getErrorCorrection().name();
+                    event.version = symbol.getVersion();
+                    event.bytes = rendition != null ? rendition.getByteSize() : 0;
+                    event.success = rendition != null;
+                    event.commit();
+                }
+            }
+            renditions.add(rendition);
+        }
+        return renditions;
+    }
+
+    /**
+     * Encode le symbole QR, réutilisable pour plusieurs rendus
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @return Le symbole encodé (immuable)
+     * @throws WriterException En cas d'erreur d'encodage
+     */
+    public QrSymbol encodeSymbol(String qrData, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        QrConfigSnapshot snapshot = config.current();
+        if (snapshot.isNativeEncoder() && qrData != null && QrSymbolEncoder.supports(qrData)) {
+            return QrSymbolEncoder.encode(qrData, errorCorrection);
+        }
+        return QrSymbol.of(encode(qrData, errorCorrection, snapshot));
+    }
+
+    /**
+     * Écrit l'image avec le logo incrusté au centre
+     *
+     * Les modules sont écrits directement dans le tampon RGB de l'image, puis
+     * les pixels de l'incrustation en cache y sont copiés ligne par ligne.
+     */
+    private void writeWithLogo(BitMatrix bitMatrix, QrSymbol symbol, int quietZone, String logo,
+                               String format, OutputStream output) throws IOException {
+        int dimension = symbol.getDimension();
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = bitMatrix.get(x, y) ? BLACK : WHITE;
+            }
+        }
+
+        // Même mise à l'échelle que toBitMatrix
+        int multiple = Math.min(width / (dimension + quietZone * 2), height / (dimension + quietZone * 2));
+        int modules = QrLogoArea.modules(symbol.getVersion());
+        if (modules > 0 && multiple > 0) {
+            int side = modules * multiple;
+            int[] overlay = logos.overlay(logo, side, multiple);
+            int left = (width - dimension * multiple) / 2 + (dimension - modules) / 2 * multiple;
+            int top = (height - dimension * multiple) / 2 + (dimension - modules) / 2 * multiple;
+            for (int y = 0; y < side; y++) {
+                System.arraycopy(overlay, y * side, pixels, (top + y) * width + left, side);
+            }
+        } else {
+            log.debug("Symbole trop petit pour un logo (version {})", symbol.getVersion());
+        }
+
+        if (!ImageIO.write(image, format, output)) {
+            throw new IOException("Format d'image non supporté: " + format);
+        }
+    }
+
+    /**
+     * Encode les modules du QR code, sans zone calme (1 pixel par module)
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @return La matrice des modules
+     * @throws WriterException En cas d'erreur d'encodage
+     */
+    public BitMatrix encodeModules(String qrData) throws WriterException {
+        return encodeModules(qrData, ErrorCorrectionLevel.L);
+    }
+
+    /**
+     * Encode les modules du QR code avec un niveau de correction d'erreur donné
+     *
+     * @param qrData La chaîne de données EMVCo
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @return La matrice des modules (1 pixel par module, sans zone calme)
+     * @throws WriterException En cas d'erreur d'encodage
+     */
+    public BitMatrix encodeModules(String qrData, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        return toBitMatrix(encodeSymbol(qrData, errorCorrection), 0, 0, 0);
+    }
+
+    /**
+     * Encode le symbole QR (mode octet, UTF-8, comme QRCodeWriter)
+     */
+    QRCode encode(String qrData, ErrorCorrectionLevel errorCorrection, QrConfigSnapshot snapshot) throws WriterException {
+        if (qrData == null || qrData.isEmpty()) {
+            throw new IllegalArgumentException("Les données du QR code ne peuvent pas être vides");
+        }
+        return Encoder.encode(qrData, errorCorrection, snapshot.getEncodeHints());
+    }
+
+    /**
+     * Met à l'échelle les modules d'un symbole (même algorithme que QRCodeWriter)
+     */
+    static BitMatrix toBitMatrix(QrSymbol symbol, int width, int height, int quietZone) {
+        int dimension = symbol.getDimension();
+        int qrWidth = dimension + (quietZone * 2);
+        int outputWidth = Math.max(width, qrWidth);
+        int outputHeight = Math.max(height, qrWidth);
+
+        int multiple = Math.min(outputWidth / qrWidth, outputHeight / qrWidth);
+        int leftPadding = (outputWidth - (dimension * multiple)) / 2;
+        int topPadding = (outputHeight - (dimension * multiple)) / 2;
+
+        BitMatrix output = new BitMatrix(outputWidth, outputHeight);
+        for (int inputY = 0, outputY = topPadding; inputY < dimension; inputY++, outputY += multiple) {
+            for (int inputX = 0, outputX = leftPadding; inputX < dimension; inputX++, outputX += multiple) {
+                if (symbol.get(inputX, inputY)) {
+                    output.setRegion(outputX, outputY, multiple, multiple);
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Initialise la pile ZXing/AWT/ImageIO dans un thread démon
+     *
+     * Le premier rendu ne paie alors plus le chargement des classes
+     * AWT et la découverte des plugins ImageIO.
+     *
+     * @return Le thread d'initialisation démarré
+     */
+    public Thread preloadAsync() {
+        Thread thread = new Thread(this::preload, "uemoa-qr-image-init");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Rend une image minimale sans la conserver
+     */
+    void preload() {
+        long start = System.nanoTime();
+        try {
+            QrConfigSnapshot snapshot = config.current();
+            ImageIO.getImageWritersByFormatName(snapshot.getImageFormat()).hasNext();
+            BitMatrix matrix = toBitMatrix(encodeSymbol("0", ErrorCorrectionLevel.L), 21, 21, 0);
+            MatrixToImageWriter.writeToStream(matrix, snapshot.getImageFormat(), OutputStream.nullOutputStream());
+            log.debug("Pile image QR initialisée en {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception | LinkageError e) {
+            log.warn("Initialisation anticipée de la pile image impossible: {}", e.getMessage());
+        }
+    }
+}
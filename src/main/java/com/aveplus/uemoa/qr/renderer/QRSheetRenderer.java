@@ -0,0 +1,345 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.google.zxing.common.BitMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Rendu de planches d'autocollants QR (impression en masse)
+ *
+ * Les QR codes sont dessinés directement dans la page (raster ou SVG), sans
+ * passer par une image intermédiaire par marchand. Les pages sont rendues en
+ * parallèle et livrées dans l'ordre ; au plus {@code parallelism} pages sont
+ * en mémoire, quel que soit le nombre de marchands.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QRSheetRenderer {
+    
+    /**
+     * Zone calme autour de chaque QR (en modules, selon ISO/IEC 18004)
+     */
+    private static final int QUIET_ZONE_MODULES = 4;
+    
+    private final QRImageRenderer imageRenderer;
+    
+    /**
+     * Rend les planches pour un flux de données de paiement
+     * 
+     * @param items Les données de paiement, consommées au fil du rendu
+     * @param payloads Fonction de génération du payload EMVCo
+     * @param layout La mise en page
+     * @param sink La destination des pages, appelée dans l'ordre
+     * @return Le nombre de pages rendues
+     * @throws IOException En cas d'erreur de rendu ou d'écriture
+     */
+    public int render(Iterator<QRPaymentData> items,
+                      Function<QRPaymentData, String> payloads,
+                      SheetLayout layout,
+                      SheetPageSink sink) throws IOException {
+        validate(layout);
+        
+        int parallelism = layout.getParallelism() > 0
+            ? layout.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "uemoa-qr-sheet");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>(parallelism);
+        int delivered = 0;
+        try {
+            while (items.hasNext()) {
+                List<QRPaymentData> cells = new ArrayList<>(layout.getCellsPerPage());
+                while (cells.size() < layout.getCellsPerPage() && items.hasNext()) {
+                    cells.add(items.next());
+                }
+                inFlight.add(executor.submit(() -> renderPage(cells, payloads, layout)));
+                
+                // Contre-pression : on attend la page la plus ancienne avant d'en lire d'autres
+                if (inFlight.size() >= parallelism) {
+                    sink.accept(delivered++, await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(delivered++, await(inFlight.poll()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        log.debug("Planches QR rendues: {} page(s), format={}", delivered, layout.getFormat());
+        return delivered;
+    }
+    
+    private static byte[] await(Future<byte[]> page) throws IOException {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Rendu des planches interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Erreur lors du rendu d'une planche", e.getCause());
+        }
+    }
+    
+    private static void validate(SheetLayout layout) {
+        if (layout.getColumns() <= 0 || layout.getRows() <= 0 || layout.getDpi() <= 0) {
+            throw new IllegalArgumentException("La grille et la résolution de la planche doivent être positives");
+        }
+    }
+    
+    /**
+     * Rend une page complète
+     */
+    byte[] renderPage(List<QRPaymentData> cells,
+                      Function<QRPaymentData, String> payloads,
+                      SheetLayout layout) throws Exception {
+        Geometry geometry = new Geometry(layout);
+        if (geometry.qrSide <= 0) {
+            throw new IllegalArgumentException("Cellules trop petites pour la mise en page demandée: " + layout);
+        }
+        
+        List<BitMatrix> matrices = new ArrayList<>(cells.size());
+        for (QRPaymentData cell : cells) {
+            BitMatrix matrix = imageRenderer.encodeModules(payloads.apply(cell));
+            // Au moins un pixel par module, zone calme comprise, sinon le QR déborde de sa cellule
+            int required = matrix.getWidth() + 2 * QUIET_ZONE_MODULES;
+            if (geometry.qrSide < required) {
+                throw new IllegalArgumentException(String.format(
+                        "Cellules de %d px trop petites pour un QR de %d modules (zone calme comprise): %s",
+                        geometry.qrSide, required, layout));
+            }
+            matrices.add(matrix);
+        }
+        
+        return layout.getFormat() == SheetLayout.Format.SVG
+            ? renderSvg(cells, matrices, geometry)
+            : renderRaster(cells, matrices, geometry);
+    }
+    
+    private byte[] renderRaster(List<QRPaymentData> cells, List<BitMatrix> matrices, Geometry geometry)
+            throws IOException {
+        BufferedImage page = new BufferedImage(geometry.pageWidth, geometry.pageHeight, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) page.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, (byte) 0xFF);
+        
+        Graphics2D graphics = null;
+        for (int i = 0; i < matrices.size(); i++) {
+            BitMatrix matrix = matrices.get(i);
+            int scale = geometry.moduleScale(matrix.getWidth());
+            int left = geometry.qrLeft(i, matrix.getWidth(), scale);
+            int top = geometry.qrTop(i, matrix.getWidth(), scale);
+            
+            // Ecriture directe des segments de modules sombres dans le raster
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                int x = 0;
+                while (x < matrix.getWidth()) {
+                    if (!matrix.get(x, y)) {
+                        x++;
+                        continue;
+                    }
+                    int runStart = x;
+                    while (x < matrix.getWidth() && matrix.get(x, y)) {
+                        x++;
+                    }
+                    int from = left + runStart * scale;
+                    int to = left + x * scale;
+                    for (int dy = 0; dy < scale; dy++) {
+                        int row = (top + y * scale + dy) * geometry.pageWidth;
+                        Arrays.fill(pixels, row + from, row + to, (byte) 0);
+                    }
+                }
+            }
+            
+            String[] caption = caption(cells.get(i));
+            if (geometry.captionHeight > 0 && caption != null) {
+                if (graphics == null) {
+                    graphics = page.createGraphics();
+                    graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                    graphics.setColor(Color.BLACK);
+                    graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, geometry.fontSize));
+                }
+                FontMetrics metrics = graphics.getFontMetrics();
+                int centerX = geometry.cellLeft(i) + geometry.cellWidth / 2;
+                int baseline = geometry.captionTop(i) + metrics.getAscent();
+                for (String line : caption) {
+                    graphics.drawString(line, centerX - metrics.stringWidth(line) / 2, baseline);
+                    baseline += metrics.getHeight();
+                }
+            }
+        }
+        if (graphics != null) {
+            graphics.dispose();
+        }
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+        ImageIO.write(page, "PNG", output);
+        return output.toByteArray();
+    }
+    
+    private byte[] renderSvg(List<QRPaymentData> cells, List<BitMatrix> matrices, Geometry geometry) {
+        StringBuilder svg = new StringBuilder(32 * 1024);
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(geometry.layout.getPageSize().getWidthMm())
+           .append("mm\" height=\"").append(geometry.layout.getPageSize().getHeightMm())
+           .append("mm\" viewBox=\"0 0 ").append(geometry.pageWidth).append(' ').append(geometry.pageHeight)
+           .append("\" shape-rendering=\"crispEdges\">\n")
+           .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>\n");
+        
+        for (int i = 0; i < matrices.size(); i++) {
+            BitMatrix matrix = matrices.get(i);
+            int scale = geometry.moduleScale(matrix.getWidth());
+            int left = geometry.qrLeft(i, matrix.getWidth(), scale);
+            int top = geometry.qrTop(i, matrix.getWidth(), scale);
+            
+            svg.append("<path fill=\"#000\" d=\"");
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                int x = 0;
+                while (x < matrix.getWidth()) {
+                    if (!matrix.get(x, y)) {
+                        x++;
+                        continue;
+                    }
+                    int runStart = x;
+                    while (x < matrix.getWidth() && matrix.get(x, y)) {
+                        x++;
+                    }
+                    int width = (x - runStart) * scale;
+                    svg.append('M').append(left + runStart * scale).append(',').append(top + y * scale)
+                       .append('h').append(width).append('v').append(scale)
+                       .append('h').append(-width).append('z');
+                }
+            }
+            svg.append("\"/>\n");
+            
+            String[] caption = caption(cells.get(i));
+            if (geometry.captionHeight > 0 && caption != null) {
+                int centerX = geometry.cellLeft(i) + geometry.cellWidth / 2;
+                int baseline = geometry.captionTop(i) + geometry.fontSize;
+                for (String line : caption) {
+                    svg.append("<text x=\"").append(centerX).append("\" y=\"").append(baseline)
+                       .append("\" font-family=\"sans-serif\" font-weight=\"bold\" font-size=\"")
+                       .append(geometry.fontSize).append("\" text-anchor=\"middle\">")
+                       .append(escapeXml(line)).append("</text>\n");
+                    baseline += Math.round(geometry.fontSize * 1.2f);
+                }
+            }
+        }
+        svg.append("</svg>\n");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String[] caption(QRPaymentData data) {
+        MerchantInfo merchant = data.getMerchantInfo();
+        if (merchant == null || merchant.getName() == null) {
+            return null;
+        }
+        return merchant.getCity() != null
+            ? new String[] {merchant.getName(), merchant.getCity()}
+            : new String[] {merchant.getName()};
+    }
+    
+    private static String escapeXml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    /**
+     * Géométrie de la page en pixels à la résolution de la planche
+     */
+    private static final class Geometry {
+        final SheetLayout layout;
+        final int pageWidth;
+        final int pageHeight;
+        final int margin;
+        final int gutter;
+        final int cellWidth;
+        final int cellHeight;
+        final int captionHeight;
+        final int fontSize;
+        final int qrSide;
+        
+        Geometry(SheetLayout layout) {
+            this.layout = layout;
+            pageWidth = layout.toPixels(layout.getPageSize().getWidthMm());
+            pageHeight = layout.toPixels(layout.getPageSize().getHeightMm());
+            margin = layout.toPixels(layout.getMarginMm());
+            gutter = layout.toPixels(layout.getGutterMm());
+            cellWidth = (pageWidth - 2 * margin - (layout.getColumns() - 1) * gutter) / layout.getColumns();
+            cellHeight = (pageHeight - 2 * margin - (layout.getRows() - 1) * gutter) / layout.getRows();
+            captionHeight = layout.isCaption() ? cellHeight / 6 : 0;
+            // Deux lignes (nom, ville) ; le nom fait au plus 25 caractères
+            fontSize = Math.max(1, Math.min(captionHeight * 10 / 25, cellWidth / 15));
+            qrSide = Math.min(cellWidth, cellHeight - captionHeight);
+        }
+        
+        int cellLeft(int index) {
+            return margin + (index % layout.getColumns()) * (cellWidth + gutter);
+        }
+        
+        int cellTop(int index) {
+            return margin + (index / layout.getColumns()) * (cellHeight + gutter);
+        }
+        
+        int captionTop(int index) {
+            return cellTop(index) + qrSide;
+        }
+        
+        /**
+         * Taille entière d'un module (bords nets), zone calme comprise
+         */
+        int moduleScale(int modules) {
+            return qrSide / (modules + 2 * QUIET_ZONE_MODULES);
+        }
+        
+        int qrLeft(int index, int modules, int scale) {
+            return cellLeft(index) + (cellWidth - modules * scale) / 2;
+        }
+        
+        int qrTop(int index, int modules, int scale) {
+            return cellTop(index) + (qrSide - modules * scale) / 2;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Zone centrale d'un symbole QR pouvant être masquée par un logo
+ * 
+ * Pour chaque version, la zone est déduite du placement réel des mots de
+ * code (ISO/IEC 18004, 7.7.3) : un carré centré est accepté tant que,
+ * dans chaque bloc Reed-Solomon du niveau H, le nombre de mots de code
+ * qu'il touche reste sous {@link #ERROR_BUDGET} de la capacité de
+ * correction. Le reste de la capacité couvre l'impression et la prise de
+ * vue. Calculé une fois par version, thread-safe.
+ */
+final class QrLogoArea {
+    
+    /**
+     * Part de la capacité de correction de chaque bloc réservée au logo
+     */
+    static final double ERROR_BUDGET = 0.75;
+    
+    /**
+     * Modules réservés de chaque côté : motifs de position, séparateurs et
+     * informations de format (8 + 1)
+     */
+    private static final int FINDER_MODULES = 9;
+    
+    /**
+     * Côté de la zone par version (-1 = non calculé)
+     */
+    private static final AtomicIntegerArray MODULES = new AtomicIntegerArray(41);
+    
+    static {
+        for (int version = 0; version <= 40; version++) {
+            MODULES.set(version, -1);
+        }
+    }
+    
+    private QrLogoArea() {
+    }
+    
+    /**
+     * Côté (en modules) du carré central pouvant recevoir un logo
+     * 
+     * Le carré a la parité du symbole pour rester aligné sur la grille des
+     * modules, et ne touche ni les motifs de position ni les informations
+     * de format.
+     * 
+     * @param versionNumber La version du symbole (1 à 40), encodé au niveau H
+     * @return Le côté du carré, 0 si le symbole est trop petit
+     */
+    static int modules(int versionNumber) {
+        int modules = MODULES.get(versionNumber);
+        if (modules < 0) {
+            modules = compute(Version.getVersionForNumber(versionNumber));
+            MODULES.set(versionNumber, modules);
+        }
+        return modules;
+    }
+    
+    private static int compute(Version version) {
+        int dimension = version.getDimensionForVersion();
+        int[] codewords = codewordIndexes(version, dimension);
+        int[] blocks = blockIndexes(version.getECBlocksForLevel(ErrorCorrectionLevel.H));
+        int budget = (int) (version.getECBlocksForLevel(ErrorCorrectionLevel.H).getECCodewordsPerBlock() / 2
+                * ERROR_BUDGET);
+        int blockCount = version.getECBlocksForLevel(ErrorCorrectionLevel.H).getNumBlocks();
+        
+        int best = 0;
+        for (int side = dimension % 2 == 0 ? 2 : 1; side <= dimension - 2 * FINDER_MODULES; side += 2) {
+            if (!fits(codewords, blocks, blockCount, budget, dimension, side)) {
+                break;
+            }
+            best = side;
+        }
+        return best;
+    }
+    
+    /**
+     * Vérifie que les mots de code touchés par le carré restent dans le budget de chaque bloc
+     */
+    private static boolean fits(int[] codewords, int[] blocks, int blockCount, int budget,
+                                int dimension, int side) {
+        boolean[] touched = new boolean[blocks.length];
+        int[] perBlock = new int[blockCount];
+        int offset = (dimension - side) / 2;
+        for (int y = offset; y < offset + side; y++) {
+            for (int x = offset; x < offset + side; x++) {
+                int codeword = codewords[y * dimension + x];
+                if (codeword >= 0 && !touched[codeword]) {
+                    touched[codeword] = true;
+                    if (++perBlock[blocks[codeword]] > budget) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Index du mot de code porté par chaque module (-1 = motif fonctionnel
+     * ou bit de remplissage), dans l'ordre de placement en zigzag
+     */
+    private static int[] codewordIndexes(Version version, int dimension) {
+        boolean[] function = functionPattern(version, dimension);
+        int[] codewords = new int[dimension * dimension];
+        int total = version.getTotalCodewords();
+        int bit = 0;
+        boolean upward = true;
+        for (int right = dimension - 1; right > 0; right -= 2) {
+            if (right == 6) {
+                // Colonne du motif de synchronisation vertical
+                right--;
+            }
+            for (int step = 0; step < dimension; step++) {
+                int y = upward ? dimension - 1 - step : step;
+                for (int column = 0; column < 2; column++) {
+                    int index = y * dimension + right - column;
+                    if (function[index]) {
+                        codewords[index] = -1;
+                    } else {
+                        codewords[index] = bit / 8 < total ? bit / 8 : -1;
+                        bit++;
+                    }
+                }
+            }
+            upward = !upward;
+        }
+        return codewords;
+    }
+    
+    /**
+     * Modules réservés aux motifs fonctionnels (comme {@code Version.buildFunctionPattern})
+     */
+    private static boolean[] functionPattern(Version version, int dimension) {
+        boolean[] function = new boolean[dimension * dimension];
+        // Motifs de position, séparateurs et informations de format
+        fill(function, dimension, 0, 0, 9, 9);
+        fill(function, dimension, dimension - 8, 0, 8, 9);
+        fill(function, dimension, 0, dimension - 8, 9, 8);
+        
+        int[] centers = version.getAlignmentPatternCenters();
+        int max = centers.length;
+        for (int i = 0; i < max; i++) {
+            int top = centers[i] - 2;
+            for (int j = 0; j < max; j++) {
+                if ((i != 0 || (j != 0 && j != max - 1)) && (i != max - 1 || j != 0)) {
+                    fill(function, dimension, centers[j] - 2, top, 5, 5);
+                }
+            }
+        }
+        
+        // Motifs de synchronisation
+        fill(function, dimension, 6, 9, 1, dimension - 17);
+        fill(function, dimension, 9, 6, dimension - 17, 1);
+        
+        if (version.getVersionNumber() > 6) {
+            // Informations de version
+            fill(function, dimension, dimension - 11, 0, 3, 6);
+            fill(function, dimension, 0, dimension - 11, 6, 3);
+        }
+        return function;
+    }
+    
+    private static void fill(boolean[] function, int dimension, int left, int top, int width, int height) {
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                function[y * dimension + x] = true;
+            }
+        }
+    }
+    
+    /**
+     * Bloc Reed-Solomon de chaque mot de code, dans l'ordre entrelacé
+     * (données des blocs tour à tour, puis correction d'erreur)
+     */
+    private static int[] blockIndexes(Version.ECBlocks ecBlocks) {
+        int blockCount = ecBlocks.getNumBlocks();
+        int[] dataCodewords = new int[blockCount];
+        int block = 0;
+        int maxData = 0;
+        int totalData = 0;
+        for (Version.ECB ecb : ecBlocks.getECBlocks()) {
+            for (int i = 0; i < ecb.getCount(); i++) {
+                dataCodewords[block++] = ecb.getDataCodewords();
+                totalData += ecb.getDataCodewords();
+                maxData = Math.max(maxData, ecb.getDataCodewords());
+            }
+        }
+        
+        int ecPerBlock = ecBlocks.getECCodewordsPerBlock();
+        int[] blocks = new int[totalData + ecPerBlock * blockCount];
+        int index = 0;
+        for (int i = 0; i < maxData; i++) {
+            for (int b = 0; b < blockCount; b++) {
+                if (i < dataCodewords[b]) {
+                    blocks[index++] = b;
+                }
+            }
+        }
+        for (int i = 0; i < ecPerBlock; i++) {
+            for (int b = 0; b < blockCount; b++) {
+                blocks[index++] = b;
+            }
+        }
+        return blocks;
+    }
+}
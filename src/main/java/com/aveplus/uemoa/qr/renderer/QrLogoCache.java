@@ -0,0 +1,246 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logos marchands et incrustations pré-mises à l'échelle
+ * 
+ * Les logos sont enregistrés une fois sous un nom (alias marchand, par
+ * exemple). Pour chaque couple logo et taille en pixels, l'incrustation
+ * (logo redimensionné, centré sur un fond blanc et aplati en RGB opaque)
+ * est calculée au premier rendu puis conservée : un rendu ne fait ensuite
+ * que copier ces pixels au centre de l'image.
+ * 
+ * Chaque logo porte une révision (empreinte de ses pixels) qui sert de clé
+ * aux incrustations et entre dans l'ETag des images : remplacer un logo
+ * change sa révision, et une incrustation calculée depuis l'ancienne image
+ * pendant le remplacement n'est plus jamais servie.
+ * 
+ * Le cache des incrustations est vidé lorsqu'il atteint sa taille maximale
+ * (une incrustation se recalcule en quelques millisecondes). Thread-safe.
+ */
+@Slf4j
+public class QrLogoCache {
+    
+    private final int maxSize;
+    private final Map<String, Logo> logos = new ConcurrentHashMap<>();
+    private final Map<Key, int[]> overlays = new ConcurrentHashMap<>();
+    
+    /**
+     * Image d'un logo et empreinte de ses pixels
+     */
+    @Value
+    private static class Logo {
+        BufferedImage image;
+        long revision;
+    }
+    
+    /**
+     * Incrustation d'une révision de logo à une taille donnée
+     */
+    @Value
+    private static class Key {
+        String logo;
+        long revision;
+        int side;
+        int padding;
+    }
+    
+    /**
+     * @param maxSize Le nombre maximal d'incrustations conservées
+     */
+    public QrLogoCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille du cache de logos doit être positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Enregistre (ou remplace) un logo à partir d'une image encodée
+     * 
+     * @param name Le nom du logo (alias marchand, par exemple)
+     * @param imageBytes L'image encodée (PNG, JPG, ...)
+     * @throws IOException En cas d'erreur de lecture
+     * @throws IllegalArgumentException si l'image est illisible
+     */
+    public void register(String name, byte[] imageBytes) throws IOException {
+        if (imageBytes == null || imageBytes.length == 0) {
+            throw new IllegalArgumentException("Le logo ne peut pas être vide");
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        if (image == null) {
+            throw new IllegalArgumentException("Format de logo non reconnu: " + name);
+        }
+        register(name, image);
+    }
+    
+    /**
+     * Enregistre (ou remplace) un logo
+     * 
+     * @param name Le nom du logo (alias marchand, par exemple)
+     * @param image L'image du logo (la transparence est aplatie sur du blanc)
+     */
+    public void register(String name, BufferedImage image) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Le nom du logo est obligatoire");
+        }
+        if (image == null || image.getWidth() == 0 || image.getHeight() == 0) {
+            throw new IllegalArgumentException("Le logo ne peut pas être vide");
+        }
+        logos.put(name, new Logo(image, fingerprint(image)));
+        evict(name);
+        log.debug("Logo QR enregistré: {} ({}x{})", name, image.getWidth(), image.getHeight());
+    }
+    
+    /**
+     * Retire un logo et ses incrustations
+     * 
+     * @param name Le nom du logo
+     * @return true si le logo était enregistré
+     */
+    public boolean remove(String name) {
+        boolean removed = logos.remove(name) != null;
+        evict(name);
+        return removed;
+    }
+    
+    /**
+     * Indique si un logo est enregistré sous ce nom
+     */
+    public boolean contains(String name) {
+        return logos.containsKey(name);
+    }
+    
+    /**
+     * Révision d'un logo : empreinte FNV-1a 64 bits de ses dimensions et de
+     * ses pixels, identique d'un redémarrage (ou d'une instance) à l'autre
+     * 
+     * @param name Le nom du logo
+     * @return La révision en hexadécimal, ou null si le logo est inconnu
+     */
+    public String revision(String name) {
+        Logo logo = logos.get(name);
+        return logo != null ? Long.toHexString(logo.getRevision()) : null;
+    }
+    
+    /**
+     * Nombre d'incrustations en cache
+     */
+    public int size() {
+        return overlays.size();
+    }
+    
+    /**
+     * Vide le cache des incrustations (les logos restent enregistrés)
+     */
+    public void clear() {
+        overlays.clear();
+    }
+    
+    /**
+     * Pixels RGB opaques d'une incrustation carrée, calculés au premier appel
+     * 
+     * @param name Le nom du logo
+     * @param side Le côté de l'incrustation en pixels
+     * @param padding La bordure blanche autour du logo, en pixels
+     * @return Les pixels, ligne par ligne (tableau partagé, à ne pas modifier)
+     * @throws IllegalArgumentException si le logo est inconnu
+     */
+    int[] overlay(String name, int side, int padding) {
+        Logo logo = logos.get(name);
+        if (logo == null) {
+            throw new IllegalArgumentException("Logo inconnu: " + name);
+        }
+        Key key = new Key(name, logo.getRevision(), side, padding);
+        int[] pixels = overlays.get(key);
+        if (pixels == null) {
+            pixels = scale(logo.getImage(), side, padding);
+            if (overlays.size() >= maxSize) {
+                log.debug("Cache de logos QR plein ({} incrustations), vidé", overlays.size());
+                overlays.clear();
+            }
+            int[] existing = overlays.putIfAbsent(key, pixels);
+            if (existing != null) {
+                pixels = existing;
+            }
+        }
+        return pixels;
+    }
+    
+    private void evict(String name) {
+        overlays.keySet().removeIf(key -> key.getLogo().equals(name));
+    }
+    
+    private static long fingerprint(BufferedImage image) {
+        int width = image.getWidth();
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ width) * 0x100000001b3L;
+        hash = (hash ^ image.getHeight()) * 0x100000001b3L;
+        int[] row = new int[width];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int argb : row) {
+                hash = (hash ^ argb) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+    
+    /**
+     * Centre le logo, proportions conservées, sur un carré blanc
+     */
+    private static int[] scale(BufferedImage logo, int side, int padding) {
+        int inner = Math.max(1, side - 2 * padding);
+        double ratio = Math.min((double) inner / logo.getWidth(), (double) inner / logo.getHeight());
+        int width = Math.max(1, (int) Math.round(logo.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(logo.getHeight() * ratio));
+        
+        BufferedImage source = downscale(logo, width, height);
+        BufferedImage canvas = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = canvas.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, side, side);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, (side - width) / 2, (side - height) / 2, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return canvas.getRGB(0, 0, side, side, null, 0, side);
+    }
+    
+    /**
+     * Réduit l'image par moitiés successives jusqu'au double de la cible
+     * (une seule interpolation bicubique crée du crénelage au-delà)
+     */
+    private static BufferedImage downscale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width * 2 && current.getHeight() / 2 >= height * 2) {
+            int halfWidth = current.getWidth() / 2;
+            int halfHeight = current.getHeight() / 2;
+            BufferedImage half = new BufferedImage(halfWidth, halfHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = half.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, halfWidth, halfHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = half;
+        }
+        return current;
+    }
+}
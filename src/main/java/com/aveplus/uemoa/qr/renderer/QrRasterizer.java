@@ -0,0 +1,250 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Rastérisation d'un symbole à l'échelle entière : pixels 1 bit, PBM, ESC/POS, PNG, JPEG, SVG
+ * 
+ * Les pixels sont produits en lignes de bits (1 = noir, bit de poids fort
+ * en premier, lignes complétées à l'octet), le format commun des sorties
+ * brutes ; chaque ligne de modules n'est calculée qu'une fois puis
+ * recopiée sur la hauteur d'un module.
+ */
+final class QrRasterizer {
+    
+    /**
+     * Commande ESC/POS d'impression d'une image raster ({@code GS v 0}, densité normale)
+     */
+    private static final byte[] ESC_POS_RASTER = {0x1D, 0x76, 0x30, 0x00};
+    
+    private QrRasterizer() {
+    }
+    
+    /**
+     * Côté d'un module en pixels pour un côté d'image maximal
+     */
+    static int moduleSize(QrSymbol symbol, int size, int margin) {
+        return Math.max(1, size / (symbol.getDimension() + 2 * margin));
+    }
+    
+    /**
+     * Rend une déclinaison d'un symbole
+     * 
+     * @param symbol Le symbole encodé
+     * @param spec La déclinaison demandée
+     * @param margin La zone calme en modules
+     * @return La déclinaison rendue
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    static Rendition rendition(QrSymbol symbol, RenditionSpec spec, int margin) throws IOException {
+        if (spec.getSize() <= 0 || margin < 0) {
+            throw new IllegalArgumentException("Déclinaison invalide: taille=" + spec.getSize() + ", marge=" + margin);
+        }
+        // ESC/POS : les lignes sont tronquées à l'octet, le module se calcule sur cette largeur
+        int size = spec.getFormat() == RenditionSpec.Format.ESC_POS ? spec.getSize() & ~7 : spec.getSize();
+        int moduleSize = moduleSize(symbol, size, margin);
+        int width = (symbol.getDimension() + 2 * margin) * moduleSize;
+        byte[] data;
+        switch (spec.getFormat()) {
+            case PBM:
+                data = pbm(symbol, margin, moduleSize, width);
+                break;
+            case ESC_POS:
+                data = escPos(symbol, margin, moduleSize, width, spec.getSize());
+                break;
+            case SVG:
+                data = svg(symbol, margin, width);
+                break;
+            case RAW:
+                data = packed(symbol, margin, moduleSize);
+                break;
+            case JPG:
+                data = write(gray(symbol, margin, moduleSize, width), "JPG");
+                break;
+            case PNG:
+            default:
+                data = write(binary(symbol, margin, moduleSize, width), "PNG");
+                break;
+        }
+        return new Rendition(spec.getFormat(), width, moduleSize, data);
+    }
+    
+    /**
+     * Pixels 1 bit par pixel (1 = noir), lignes de {@code (côté + 7) / 8} octets
+     * 
+     * @param symbol Le symbole encodé
+     * @param margin La zone calme en modules
+     * @param moduleSize Le côté d'un module en pixels
+     * @return Les lignes de pixels, de haut en bas
+     */
+    static byte[] packed(QrSymbol symbol, int margin, int moduleSize) {
+        int width = (symbol.getDimension() + 2 * margin) * moduleSize;
+        return packed(symbol, margin, moduleSize, width, 0);
+    }
+    
+    /**
+     * Pixels 1 bit par pixel (1 = noir) dans des lignes plus larges que l'image
+     * 
+     * @param symbol Le symbole encodé
+     * @param margin La zone calme en modules
+     * @param moduleSize Le côté d'un module en pixels
+     * @param rowWidth La largeur d'une ligne en pixels (au moins le côté de l'image)
+     * @param left Le décalage de l'image depuis le bord gauche, en pixels
+     * @return Les lignes de {@code (rowWidth + 7) / 8} octets, de haut en bas
+     */
+    private static byte[] packed(QrSymbol symbol, int margin, int moduleSize, int rowWidth, int left) {
+        int dimension = symbol.getDimension();
+        int width = (dimension + 2 * margin) * moduleSize;
+        int stride = (rowWidth + 7) >>> 3;
+        byte[] pixels = new byte[stride * width];
+        int origin = left + margin * moduleSize;
+        
+        int offset = margin * moduleSize * stride;
+        for (int y = 0; y < dimension; y++) {
+            int x = 0;
+            while (x < dimension) {
+                if (!symbol.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < dimension && symbol.get(x, y)) {
+                    x++;
+                }
+                setBits(pixels, offset, origin + runStart * moduleSize, origin + x * moduleSize);
+            }
+            for (int dy = 1; dy < moduleSize; dy++) {
+                System.arraycopy(pixels, offset, pixels, offset + dy * stride, stride);
+            }
+            offset += moduleSize * stride;
+        }
+        return pixels;
+    }
+    
+    /**
+     * Met à 1 les bits [from, to) d'une ligne
+     */
+    private static void setBits(byte[] pixels, int rowOffset, int from, int to) {
+        int first = from >>> 3;
+        int last = (to - 1) >>> 3;
+        int headMask = 0xFF >>> (from & 7);
+        int tailMask = 0xFF << (7 - ((to - 1) & 7));
+        if (first == last) {
+            pixels[rowOffset + first] |= (byte) (headMask & tailMask);
+            return;
+        }
+        pixels[rowOffset + first] |= (byte) headMask;
+        Arrays.fill(pixels, rowOffset + first + 1, rowOffset + last, (byte) 0xFF);
+        pixels[rowOffset + last] |= (byte) tailMask;
+    }
+    
+    /**
+     * Image PBM binaire ({@code P4}) : en-tête texte suivi des lignes de bits, sans conversion
+     */
+    private static byte[] pbm(QrSymbol symbol, int margin, int moduleSize, int width) {
+        byte[] header = ("P4\n" + width + " " + width + "\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] pixels = packed(symbol, margin, moduleSize);
+        byte[] data = Arrays.copyOf(header, header.length + pixels.length);
+        System.arraycopy(pixels, 0, data, header.length, pixels.length);
+        return data;
+    }
+    
+    /**
+     * Commande ESC/POS {@code GS v 0} : l'image est centrée dans des lignes de la
+     * largeur imprimable (arrondie à l'octet inférieur), en un seul bloc
+     */
+    private static byte[] escPos(QrSymbol symbol, int margin, int moduleSize, int width, int printerDots) {
+        int stride = printerDots >>> 3;
+        if (width > stride << 3) {
+            throw new IllegalArgumentException("Largeur d'impression insuffisante: " + printerDots
+                    + " points pour un symbole de " + width + " points");
+        }
+        byte[] pixels = packed(symbol, margin, moduleSize, stride << 3, ((stride << 3) - width) / 2);
+        byte[] data = Arrays.copyOf(ESC_POS_RASTER, ESC_POS_RASTER.length + 4 + pixels.length);
+        data[4] = (byte) stride;
+        data[5] = (byte) (stride >>> 8);
+        data[6] = (byte) width;
+        data[7] = (byte) (width >>> 8);
+        System.arraycopy(pixels, 0, data, 8, pixels.length);
+        return data;
+    }
+    
+    /**
+     * Image 1 bit (palette noir et blanc : bit à 0 = noir)
+     */
+    private static BufferedImage binary(QrSymbol symbol, int margin, int moduleSize, int width) {
+        byte[] pixels = packed(symbol, margin, moduleSize);
+        BufferedImage image = new BufferedImage(width, width, BufferedImage.TYPE_BYTE_BINARY);
+        byte[] raster = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++) {
+            raster[i] = (byte) ~pixels[i];
+        }
+        return image;
+    }
+    
+    /**
+     * Image en niveaux de gris (le codec JPEG n'accepte pas les images 1 bit)
+     */
+    private static BufferedImage gray(QrSymbol symbol, int margin, int moduleSize, int width) {
+        byte[] pixels = packed(symbol, margin, moduleSize);
+        int stride = (width + 7) >>> 3;
+        BufferedImage image = new BufferedImage(width, width, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] raster = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < width; y++) {
+            int row = y * stride;
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                boolean dark = (pixels[row + (x >>> 3)] & (0x80 >>> (x & 7))) != 0;
+                raster[out + x] = dark ? 0 : (byte) 0xFF;
+            }
+        }
+        return image;
+    }
+    
+    private static byte[] write(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(8 * 1024);
+        if (!ImageIO.write(image, format, output)) {
+            throw new IOException("Format d'image non supporté: " + format);
+        }
+        return output.toByteArray();
+    }
+    
+    /**
+     * Document SVG : un chemin par segments de modules sombres, en unités de modules
+     */
+    private static byte[] svg(QrSymbol symbol, int margin, int width) {
+        int dimension = symbol.getDimension();
+        int side = dimension + 2 * margin;
+        StringBuilder svg = new StringBuilder(16 * 1024);
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+           .append("\" height=\"").append(width)
+           .append("\" viewBox=\"0 0 ").append(side).append(' ').append(side)
+           .append("\" shape-rendering=\"crispEdges\">\n")
+           .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>\n")
+           .append("<path fill=\"#000\" d=\"");
+        for (int y = 0; y < dimension; y++) {
+            int x = 0;
+            while (x < dimension) {
+                if (!symbol.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < dimension && symbol.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(margin + runStart).append(',').append(margin + y)
+                   .append('h').append(x - runStart).append("v1h").append(runStart - x).append('z');
+            }
+        }
+        svg.append("\"/>\n</svg>\n");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.QRCode;
+
+import java.util.Arrays;
+
+/**
+ * Symbole QR encodé : matrice des modules, indépendante de toute taille d'image
+ * 
+ * Les modules sont stockés ligne par ligne dans un tableau de bits contigu
+ * (bit {@code y × dimension + x}, 1 = module sombre), sans zone calme. Un
+ * symbole est encodé une fois puis rendu à autant de tailles et de formats
+ * que nécessaire ; immuable, il peut être conservé dans un cache et
+ * partagé entre threads.
+ */
+public final class QrSymbol {
+    
+    private final int version;
+    private final ErrorCorrectionLevel errorCorrection;
+    private final int dimension;
+    private final long[] bits;
+    
+    private QrSymbol(int version, ErrorCorrectionLevel errorCorrection, int dimension, long[] bits) {
+        this.version = version;
+        this.errorCorrection = errorCorrection;
+        this.dimension = dimension;
+        this.bits = bits;
+    }
+    
+    /**
+     * Reprend la matrice d'un symbole encodé par ZXing
+     * 
+     * @param code Le symbole encodé
+     * @return Le symbole
+     */
+    public static QrSymbol of(QRCode code) {
+        ByteMatrix matrix = code.getMatrix();
+        int dimension = matrix.getWidth();
+        long[] bits = new long[(dimension * dimension + 63) >>> 6];
+        for (int y = 0; y < dimension; y++) {
+            int row = y * dimension;
+            for (int x = 0; x < dimension; x++) {
+                if (matrix.get(x, y) == 1) {
+                    int index = row + x;
+                    bits[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        return new QrSymbol(code.getVersion().getVersionNumber(), code.getECLevel(), dimension, bits);
+    }
+    
+    /**
+     * Symbole à partir de ses modules déjà empaquetés (tableau repris sans copie)
+     * 
+     * @param version La version du symbole
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @param dimension Le côté en modules
+     * @param bits Les modules, bit {@code y × dimension + x}
+     * @return Le symbole
+     */
+    static QrSymbol of(int version, ErrorCorrectionLevel errorCorrection, int dimension, long[] bits) {
+        return new QrSymbol(version, errorCorrection, dimension, bits);
+    }
+    
+    /**
+     * Version du symbole (1 à 40)
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Niveau de correction d'erreur
+     */
+    public ErrorCorrectionLevel getErrorCorrection() {
+        return errorCorrection;
+    }
+    
+    /**
+     * Côté du symbole en modules (17 + 4 × version)
+     */
+    public int getDimension() {
+        return dimension;
+    }
+    
+    /**
+     * @param x La colonne du module
+     * @param y La ligne du module
+     * @return true si le module est sombre
+     */
+    public boolean get(int x, int y) {
+        int index = y * dimension + x;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    /**
+     * Modules en lignes de bits (1 = sombre, bit de poids fort en premier)
+     * 
+     * Chaque ligne occupe {@code (dimension + 7) / 8} octets, sans zone calme :
+     * quelques dizaines d'octets à transmettre à une application qui dessine
+     * les modules elle-même.
+     * 
+     * @return Les lignes de modules, de haut en bas (nouveau tableau)
+     */
+    public byte[] toPackedRows() {
+        return QrRasterizer.packed(this, 0, 1);
+    }
+    
+    /**
+     * Copie de la matrice au format ZXing (1 pixel par module, sans zone calme)
+     */
+    public BitMatrix toBitMatrix() {
+        BitMatrix matrix = new BitMatrix(dimension);
+        for (int y = 0; y < dimension; y++) {
+            for (int x = 0; x < dimension; x++) {
+                if (get(x, y)) {
+                    matrix.set(x, y);
+                }
+            }
+        }
+        return matrix;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QrSymbol)) {
+            return false;
+        }
+        QrSymbol other = (QrSymbol) o;
+        return version == other.version
+                && errorCorrection == other.errorCorrection
+                && Arrays.equals(bits, other.bits);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * version + errorCorrection.ordinal()) + Arrays.hashCode(bits);
+    }
+    
+    @Override
+    public String toString() {
+        return "QrSymbol[version=" + version + ", errorCorrection=" + errorCorrection
+                + ", dimension=" + dimension + "]";
+    }
+}
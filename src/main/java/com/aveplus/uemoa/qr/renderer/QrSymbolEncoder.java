@@ -0,0 +1,629 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Encodeur de symboles QR spécialisé pour les payloads EMVCo
+ *
+ * Produit exactement le symbole de {@code Encoder.encode} de ZXing avec
+ * l'indication {@code CHARACTER_SET=UTF-8} (ECI 26, mode octet, même choix
+ * de version et de masque), pour les contenus que ZXing encode en mode
+ * octet, c'est-à-dire tous les payloads EMVCo (l'identifiant global du
+ * template 36 est en minuscules) ; les autres passent par ZXing.
+ *
+ * L'en-tête ECI, mode et longueur tient sur un nombre entier d'octets : les
+ * mots de code de données sont copiés octet par octet. Par version, les
+ * motifs fonctionnels, l'ordre de placement en zigzag et les bits des huit
+ * masques sont calculés une fois ; les polynômes générateurs Reed-Solomon
+ * une fois par nombre de mots de correction. Chaque module est un octet
+ * dont le bit {@code m} est sa valeur sous le masque {@code m} : la matrice
+ * est construite une seule fois et les pénalités des huit masques sont
+ * évaluées en une passe (règles et arrondis de {@code MaskUtil}). Thread-safe.
+ */
+final class QrSymbolEncoder {
+    
+    /**
+     * Indicateurs de mode ECI et octet, valeur ECI de l'UTF-8
+     */
+    private static final int MODE_ECI = 0b0111;
+    private static final int MODE_BYTE = 0b0100;
+    private static final int ECI_UTF8 = 26;
+    
+    /**
+     * Octets de remplissage (ISO/IEC 18004, 7.4.10)
+     */
+    private static final byte PAD_FIRST = (byte) 0xEC;
+    private static final byte PAD_SECOND = (byte) 0x11;
+    
+    private static final int TYPE_INFO_POLY = 0x537;
+    private static final int TYPE_INFO_MASK_PATTERN = 0x5412;
+    private static final int VERSION_INFO_POLY = 0x1F25;
+    
+    /**
+     * Poids des règles de pénalité (comme {@code MaskUtil})
+     */
+    private static final int N1 = 3;
+    private static final int N2 = 3;
+    private static final int N3 = 40;
+    private static final int N4 = 10;
+    
+    /**
+     * Module sombre sous les huit masques
+     */
+    private static final byte DARK = (byte) 0xFF;
+    
+    /**
+     * Caractères du mode alphanumérique (hors chiffres)
+     */
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+    
+    /**
+     * Corps de Galois GF(256), polynôme 0x11D (table des puissances doublée : pas de modulo)
+     */
+    private static final int[] EXP = new int[512];
+    private static final int[] LOG = new int[256];
+    
+    static {
+        int value = 1;
+        for (int i = 0; i < 255; i++) {
+            EXP[i] = value;
+            LOG[value] = i;
+            value <<= 1;
+            if (value >= 256) {
+                value ^= 0x11D;
+            }
+        }
+        for (int i = 255; i < EXP.length; i++) {
+            EXP[i] = EXP[i - 255];
+        }
+    }
+    
+    /**
+     * Structure par version (null = non calculée)
+     */
+    private static final AtomicReferenceArray<Layout> LAYOUTS = new AtomicReferenceArray<>(41);
+    
+    /**
+     * Polynômes générateurs par nombre de mots de correction, en logarithmes (null = non calculé)
+     */
+    private static final AtomicReferenceArray<int[]> GENERATORS = new AtomicReferenceArray<>(69);
+    
+    private QrSymbolEncoder() {
+    }
+    
+    /**
+     * Indique si le contenu est encodé en mode octet par ZXing (au moins un
+     * caractère hors des modes numérique et alphanumérique)
+     *
+     * @param content Le contenu à encoder
+     * @return true si cet encodeur produit le même symbole que ZXing
+     */
+    static boolean supports(CharSequence content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if ((c < '0' || c > '9') && ALPHANUMERIC.indexOf(c) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Encode un contenu en mode octet UTF-8
+     *
+     * @param content Le contenu (voir {@link #supports})
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @return Le symbole encodé
+     * @throws WriterException si le contenu dépasse la capacité de la version 40
+     */
+    static QrSymbol encode(String content, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        
+        // Même choix que Encoder.recommendVersion : version provisoire avec
+        // le compteur sur 8 bits, puis choix définitif avec son compteur
+        Version provisional = chooseVersion(headerBits(1) + bytes.length * 8, errorCorrection);
+        Version version = chooseVersion(headerBits(provisional.getVersionNumber()) + bytes.length * 8,
+                errorCorrection);
+        
+        Version.ECBlocks ecBlocks = version.getECBlocksForLevel(errorCorrection);
+        int totalCodewords = version.getTotalCodewords();
+        int dataCodewords = totalCodewords - ecBlocks.getTotalECCodewords();
+        byte[] data = dataCodewords(bytes, version.getVersionNumber(), dataCodewords);
+        byte[] codewords = interleave(data, totalCodewords, ecBlocks.getNumBlocks());
+        
+        Layout layout = layout(version);
+        byte[] modules = layout.build(codewords, errorCorrection);
+        int mask = chooseMask(modules, layout.dimension);
+        return QrSymbol.of(version.getVersionNumber(), errorCorrection, layout.dimension, lane(modules, mask));
+    }
+    
+    /**
+     * Bits d'en-tête : ECI (4 + 8), mode (4) et compteur d'octets (8 ou 16 selon la version)
+     */
+    private static int headerBits(int version) {
+        return 16 + (version < 10 ? 8 : 16);
+    }
+    
+    private static Version chooseVersion(int bits, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        int bytes = (bits + 7) / 8;
+        for (int number = 1; number <= 40; number++) {
+            Version version = Version.getVersionForNumber(number);
+            int dataCodewords = version.getTotalCodewords()
+                    - version.getECBlocksForLevel(errorCorrection).getTotalECCodewords();
+            if (dataCodewords >= bytes) {
+                return version;
+            }
+        }
+        throw new WriterException("Data too big");
+    }
+    
+    /**
+     * Mots de code de données : en-tête, contenu, terminateur et remplissage
+     * (l'en-tête étant aligné sur l'octet, le terminateur et l'alignement
+     * forment un octet nul)
+     */
+    private static byte[] dataCodewords(byte[] bytes, int version, int dataCodewords) {
+        byte[] data = new byte[dataCodewords];
+        int offset = 0;
+        data[offset++] = (byte) (MODE_ECI << 4 | ECI_UTF8 >>> 4);
+        data[offset++] = (byte) ((ECI_UTF8 & 0x0F) << 4 | MODE_BYTE);
+        if (version >= 10) {
+            data[offset++] = (byte) (bytes.length >>> 8);
+        }
+        data[offset++] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, data, offset, bytes.length);
+        offset += bytes.length;
+        
+        if (offset < dataCodewords) {
+            data[offset++] = 0;
+        }
+        for (int pad = 0; offset < dataCodewords; pad++) {
+            data[offset++] = (pad & 1) == 0 ? PAD_FIRST : PAD_SECOND;
+        }
+        return data;
+    }
+    
+    /**
+     * Calcule la correction d'erreur de chaque bloc et entrelace les mots de
+     * code (découpage en blocs de {@code Encoder.getNumDataBytesAndNumECBytesForBlockID})
+     */
+    private static byte[] interleave(byte[] data, int totalCodewords, int blocks) {
+        int longBlocks = totalCodewords % blocks;
+        int shortBlocks = blocks - longBlocks;
+        int shortTotal = totalCodewords / blocks;
+        int shortData = data.length / blocks;
+        int ecPerBlock = shortTotal - shortData;
+        int[] generator = generator(ecPerBlock);
+        
+        byte[] codewords = new byte[totalCodewords];
+        byte[] ec = new byte[ecPerBlock];
+        int dataOffset = 0;
+        for (int block = 0; block < blocks; block++) {
+            int blockData = block < shortBlocks ? shortData : shortData + 1;
+            remainder(data, dataOffset, blockData, generator, ec);
+            
+            // Données : colonne par colonne, les blocs longs ayant un mot de plus en fin
+            for (int i = 0; i < blockData; i++) {
+                int index = i < shortData
+                        ? i * blocks + block
+                        : shortData * blocks + block - shortBlocks;
+                codewords[index] = data[dataOffset + i];
+            }
+            for (int i = 0; i < ecPerBlock; i++) {
+                codewords[data.length + i * blocks + block] = ec[i];
+            }
+            dataOffset += blockData;
+        }
+        return codewords;
+    }
+    
+    /**
+     * Reste de la division du bloc (multiplié par x^ec) par le polynôme générateur
+     */
+    private static void remainder(byte[] data, int offset, int length, int[] generator, byte[] ec) {
+        int degree = ec.length;
+        Arrays.fill(ec, (byte) 0);
+        for (int i = 0; i < length; i++) {
+            int factor = (data[offset + i] ^ ec[0]) & 0xFF;
+            System.arraycopy(ec, 1, ec, 0, degree - 1);
+            ec[degree - 1] = 0;
+            if (factor != 0) {
+                int logFactor = LOG[factor];
+                for (int j = 0; j < degree; j++) {
+                    ec[j] ^= (byte) EXP[logFactor + generator[j]];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Coefficients (hors terme dominant) de prod(x - α^i), i = 0..degree-1, en logarithmes
+     */
+    private static int[] generator(int degree) {
+        int[] generator = GENERATORS.get(degree);
+        if (generator == null) {
+            int[] coefficients = {1};
+            for (int d = 0; d < degree; d++) {
+                int[] next = new int[coefficients.length + 1];
+                for (int i = 0; i < coefficients.length; i++) {
+                    next[i] ^= coefficients[i];
+                    if (coefficients[i] != 0) {
+                        next[i + 1] ^= EXP[LOG[coefficients[i]] + d];
+                    }
+                }
+                coefficients = next;
+            }
+            generator = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                // Les coefficients du générateur ne sont jamais nuls
+                generator[i] = LOG[coefficients[i + 1]];
+            }
+            GENERATORS.set(degree, generator);
+        }
+        return generator;
+    }
+    
+    private static Layout layout(Version version) {
+        Layout layout = LAYOUTS.get(version.getVersionNumber());
+        if (layout == null) {
+            layout = new Layout(version);
+            LAYOUTS.set(version.getVersionNumber(), layout);
+        }
+        return layout;
+    }
+    
+    /**
+     * Masque de pénalité minimale (le premier en cas d'égalité, comme {@code Encoder.chooseMaskPattern})
+     */
+    private static int chooseMask(byte[] modules, int dimension) {
+        int[] penalties = penalties(modules, dimension);
+        int best = 0;
+        for (int mask = 1; mask < 8; mask++) {
+            if (penalties[mask] < penalties[best]) {
+                best = mask;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Pénalités des huit masques en une passe (règles N1 à N4 de {@code MaskUtil})
+     */
+    static int[] penalties(byte[] modules, int dimension) {
+        int[] penalties = new int[8];
+        int[] blocks = new int[256];
+        int[] colors = new int[256];
+        int[] rowRunStart = new int[8];
+        int[] columnRunStart = new int[dimension * 8];
+        
+        for (int y = 0; y < dimension; y++) {
+            int row = y * dimension;
+            Arrays.fill(rowRunStart, 0);
+            for (int x = 0; x < dimension; x++) {
+                int index = row + x;
+                int module = modules[index] & 0xFF;
+                colors[module]++;
+                
+                // Règle 1 : suites de modules de même couleur, en ligne puis en colonne
+                if (x > 0) {
+                    int ended = module ^ (modules[index - 1] & 0xFF);
+                    while (ended != 0) {
+                        int mask = Integer.numberOfTrailingZeros(ended);
+                        penalties[mask] += run(x - rowRunStart[mask]);
+                        rowRunStart[mask] = x;
+                        ended &= ended - 1;
+                    }
+                }
+                if (y > 0) {
+                    int ended = module ^ (modules[index - dimension] & 0xFF);
+                    while (ended != 0) {
+                        int mask = Integer.numberOfTrailingZeros(ended);
+                        penalties[mask] += run(y - columnRunStart[x * 8 + mask]);
+                        columnRunStart[x * 8 + mask] = y;
+                        ended &= ended - 1;
+                    }
+                }
+                
+                // Règle 2 : blocs 2 × 2 de même couleur
+                if (x + 1 < dimension && y + 1 < dimension) {
+                    int same = ~(module ^ modules[index + 1])
+                            & ~(module ^ modules[index + dimension])
+                            & ~(module ^ modules[index + dimension + 1]);
+                    blocks[same & 0xFF]++;
+                }
+                
+                // Règle 3 : motifs 1:1:3:1:1 bordés de quatre modules clairs
+                // (comme MaskUtil, une bordure qui sort du symbole ne compte pas)
+                if (x + 6 < dimension) {
+                    int finder = finderLike(modules, index, 1);
+                    if (finder != 0) {
+                        int before = x >= 4 ? dark(modules, index - 4, index, 1) : 0xFF;
+                        int after = x + 11 <= dimension ? dark(modules, index + 7, index + 11, 1) : 0xFF;
+                        addBits(penalties, finder & ~(before & after), N3);
+                    }
+                }
+                if (y + 6 < dimension) {
+                    int finder = finderLike(modules, index, dimension);
+                    if (finder != 0) {
+                        int before = y >= 4 ? dark(modules, index - 4 * dimension, index, dimension) : 0xFF;
+                        int after = y + 11 <= dimension
+                                ? dark(modules, index + 7 * dimension, index + 11 * dimension, dimension)
+                                : 0xFF;
+                        addBits(penalties, finder & ~(before & after), N3);
+                    }
+                }
+            }
+            for (int mask = 0; mask < 8; mask++) {
+                penalties[mask] += run(dimension - rowRunStart[mask]);
+            }
+        }
+        for (int x = 0; x < dimension; x++) {
+            for (int mask = 0; mask < 8; mask++) {
+                penalties[mask] += run(dimension - columnRunStart[x * 8 + mask]);
+            }
+        }
+        
+        // Règle 4 : proportion de modules sombres, par pas de 5 %
+        int total = dimension * dimension;
+        int[] darkModules = new int[8];
+        for (int value = 1; value < 256; value++) {
+            if (colors[value] != 0 || blocks[value] != 0) {
+                for (int bits = value; bits != 0; bits &= bits - 1) {
+                    int mask = Integer.numberOfTrailingZeros(bits);
+                    darkModules[mask] += colors[value];
+                    penalties[mask] += N2 * blocks[value];
+                }
+            }
+        }
+        for (int mask = 0; mask < 8; mask++) {
+            penalties[mask] += Math.abs(darkModules[mask] * 2 - total) * 10 / total * N4;
+        }
+        return penalties;
+    }
+    
+    private static int run(int length) {
+        return length >= 5 ? N1 + length - 5 : 0;
+    }
+    
+    /**
+     * Masques pour lesquels les sept modules à partir de {@code index} forment 1011101
+     */
+    private static int finderLike(byte[] modules, int index, int step) {
+        return modules[index]
+                & ~modules[index + step]
+                & modules[index + 2 * step]
+                & modules[index + 3 * step]
+                & modules[index + 4 * step]
+                & ~modules[index + 5 * step]
+                & modules[index + 6 * step]
+                & 0xFF;
+    }
+    
+    /**
+     * Masques pour lesquels au moins un module de [from, to) est sombre
+     */
+    private static int dark(byte[] modules, int from, int to, int step) {
+        int dark = 0;
+        for (int index = from; index < to; index += step) {
+            dark |= modules[index];
+        }
+        return dark & 0xFF;
+    }
+    
+    private static void addBits(int[] penalties, int masks, int penalty) {
+        for (int bits = masks & 0xFF; bits != 0; bits &= bits - 1) {
+            penalties[Integer.numberOfTrailingZeros(bits)] += penalty;
+        }
+    }
+    
+    /**
+     * Modules d'un masque, en bits ligne par ligne (format de {@link QrSymbol})
+     */
+    private static long[] lane(byte[] modules, int mask) {
+        long[] bits = new long[(modules.length + 63) >>> 6];
+        for (int index = 0; index < modules.length; index++) {
+            if ((modules[index] >>> mask & 1) != 0) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return bits;
+    }
+    
+    /**
+     * Code BCH d'une information de format ou de version (comme {@code MatrixUtil.calculateBCHCode})
+     */
+    private static int bch(int value, int poly) {
+        int polyBits = 32 - Integer.numberOfLeadingZeros(poly);
+        value <<= polyBits - 1;
+        while (32 - Integer.numberOfLeadingZeros(value) >= polyBits) {
+            value ^= poly << (32 - Integer.numberOfLeadingZeros(value) - polyBits);
+        }
+        return value;
+    }
+    
+    /**
+     * Motifs fonctionnels, ordre de placement et bits des masques d'une version
+     */
+    private static final class Layout {
+        
+        final int dimension;
+        
+        /**
+         * Motifs fonctionnels (hors informations de format), identiques sous les huit masques
+         */
+        private final byte[] template;
+        
+        /**
+         * Modules de données dans l'ordre de placement en zigzag
+         */
+        private final int[] placement;
+        
+        /**
+         * Bit {@code m} : le masque {@code m} inverse le module de données correspondant
+         */
+        private final byte[] inversions;
+        
+        Layout(Version version) {
+            dimension = version.getDimensionForVersion();
+            template = new byte[dimension * dimension];
+            boolean[] function = new boolean[dimension * dimension];
+            
+            finder(function, 0, 0);
+            finder(function, dimension - 7, 0);
+            finder(function, 0, dimension - 7);
+            
+            int[] centers = version.getAlignmentPatternCenters();
+            int last = centers.length - 1;
+            for (int i = 0; i <= last; i++) {
+                for (int j = 0; j <= last; j++) {
+                    if ((i != 0 || (j != 0 && j != last)) && (i != last || j != 0)) {
+                        alignment(function, centers[j], centers[i]);
+                    }
+                }
+            }
+            
+            for (int i = 8; i < dimension - 8; i++) {
+                byte timing = (i & 1) == 0 ? DARK : 0;
+                set(function, i, 6, timing);
+                set(function, 6, i, timing);
+            }
+            set(function, 8, dimension - 8, DARK);
+            
+            // Informations de format, écrites par niveau de correction dans build
+            for (int i = 0; i < 9; i++) {
+                function[8 * dimension + i] = true;
+                function[i * dimension + 8] = true;
+            }
+            for (int i = 0; i < 8; i++) {
+                function[8 * dimension + dimension - 1 - i] = true;
+                function[(dimension - 1 - i) * dimension + 8] = true;
+            }
+            
+            if (version.getVersionNumber() >= 7) {
+                int versionNumber = version.getVersionNumber();
+                int versionInfo = versionNumber << 12 | bch(versionNumber, VERSION_INFO_POLY);
+                for (int i = 0; i < 6; i++) {
+                    for (int j = 0; j < 3; j++) {
+                        byte bit = (versionInfo >>> (i * 3 + j) & 1) != 0 ? DARK : 0;
+                        set(function, i, dimension - 11 + j, bit);
+                        set(function, dimension - 11 + j, i, bit);
+                    }
+                }
+            }
+            
+            int count = 0;
+            for (boolean reserved : function) {
+                count += reserved ? 0 : 1;
+            }
+            placement = new int[count];
+            inversions = new byte[count];
+            int next = 0;
+            boolean upward = true;
+            for (int right = dimension - 1; right > 0; right -= 2) {
+                if (right == 6) {
+                    right--;
+                }
+                for (int step = 0; step < dimension; step++) {
+                    int y = upward ? dimension - 1 - step : step;
+                    for (int column = 0; column < 2; column++) {
+                        int x = right - column;
+                        if (!function[y * dimension + x]) {
+                            placement[next] = y * dimension + x;
+                            inversions[next] = inversions(x, y);
+                            next++;
+                        }
+                    }
+                }
+                upward = !upward;
+            }
+        }
+        
+        /**
+         * Modules sous les huit masques : motifs fonctionnels, informations de format, données
+         */
+        byte[] build(byte[] codewords, ErrorCorrectionLevel errorCorrection) {
+            byte[] modules = template.clone();
+            
+            for (int mask = 0; mask < 8; mask++) {
+                int typeInfo = errorCorrection.getBits() << 3 | mask;
+                typeInfo = (typeInfo << 10 | bch(typeInfo, TYPE_INFO_POLY)) ^ TYPE_INFO_MASK_PATTERN;
+                for (int i = 0; i < 15; i++) {
+                    if ((typeInfo >>> i & 1) == 0) {
+                        continue;
+                    }
+                    int first = i < 6 ? i * dimension + 8
+                            : i < 8 ? (i + 1) * dimension + 8
+                            : i == 8 ? 8 * dimension + 7
+                            : 8 * dimension + 14 - i;
+                    int second = i < 8 ? 8 * dimension + dimension - 1 - i
+                            : (dimension - 15 + i) * dimension + 8;
+                    modules[first] |= (byte) (1 << mask);
+                    modules[second] |= (byte) (1 << mask);
+                }
+            }
+            
+            int bits = codewords.length * 8;
+            for (int i = 0; i < placement.length; i++) {
+                boolean dark = i < bits && (codewords[i >>> 3] & (0x80 >>> (i & 7))) != 0;
+                modules[placement[i]] = dark ? (byte) ~inversions[i] : inversions[i];
+            }
+            return modules;
+        }
+        
+        private void set(boolean[] function, int x, int y, byte value) {
+            int index = y * dimension + x;
+            function[index] = true;
+            template[index] = value;
+        }
+        
+        /**
+         * Motif de position 7 × 7 et son séparateur clair
+         */
+        private void finder(boolean[] function, int left, int top) {
+            for (int y = top - 1; y <= top + 7; y++) {
+                for (int x = left - 1; x <= left + 7; x++) {
+                    if (x < 0 || y < 0 || x >= dimension || y >= dimension) {
+                        continue;
+                    }
+                    int dx = Math.max(Math.abs(x - left - 3), Math.abs(y - top - 3));
+                    set(function, x, y, dx == 2 || dx == 4 ? 0 : DARK);
+                }
+            }
+        }
+        
+        /**
+         * Motif d'alignement 5 × 5 centré sur (x, y)
+         */
+        private void alignment(boolean[] function, int centerX, int centerY) {
+            for (int y = centerY - 2; y <= centerY + 2; y++) {
+                for (int x = centerX - 2; x <= centerX + 2; x++) {
+                    int distance = Math.max(Math.abs(x - centerX), Math.abs(y - centerY));
+                    set(function, x, y, distance == 1 ? 0 : DARK);
+                }
+            }
+        }
+        
+        /**
+         * Masques qui inversent le module (x, y) (conditions de {@code MaskUtil.getDataMaskBit})
+         */
+        private static byte inversions(int x, int y) {
+            int product = x * y;
+            int masks = 0;
+            masks |= ((x + y) & 1) == 0 ? 1 : 0;
+            masks |= (y & 1) == 0 ? 1 << 1 : 0;
+            masks |= x % 3 == 0 ? 1 << 2 : 0;
+            masks |= (x + y) % 3 == 0 ? 1 << 3 : 0;
+            masks |= ((y / 2 + x / 3) & 1) == 0 ? 1 << 4 : 0;
+            masks |= (product & 1) + product % 3 == 0 ? 1 << 5 : 0;
+            masks |= (((product & 1) + product % 3) & 1) == 0 ? 1 << 6 : 0;
+            masks |= ((product % 3 + ((x + y) & 1)) & 1) == 0 ? 1 << 7 : 0;
+            return (byte) masks;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.aveplus.uemoa.qr.renderer;
+
+/**
+ * Motif pour lequel une image n'a pas été rendue dans le budget de latence
+ */
+public enum RenderDegradation {
+    
+    /**
+     * Le budget était déjà consommé avant le rendu (génération du payload)
+     */
+    BUDGET_EXHAUSTED,
+    
+    /**
+     * La durée moyenne d'un rendu dépasse à elle seule le budget restant
+     */
+    RENDER_TIME,
+    
+    /**
+     * Les rendus en cours saturent les processeurs : l'attente dépasserait le budget
+     */
+    RENDER_QUEUE
+}
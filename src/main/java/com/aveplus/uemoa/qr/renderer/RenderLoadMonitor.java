@@ -0,0 +1,200 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Charge du moteur de rendu : rendus en cours et durée moyenne mesurée
+ * 
+ * Sert à prédire, avant de commencer un rendu, s'il tiendra dans un budget
+ * de latence : durée moyenne (moyenne mobile exponentielle, poids 1/8)
+ * multipliée par le nombre de vagues de rendus devant s'exécuter sur les
+ * processeurs disponibles. Aucune prédiction n'est faite avant la première
+ * mesure.
+ * 
+ * La moyenne est divisée par deux à chaque {@link #DECAY_HALF_LIFE} écoulée
+ * sans nouvelle mesure : après un pic de charge qui a fait refuser tous les
+ * rendus, elle redescend d'elle-même sous les budgets et les rendus
+ * reprennent, au lieu de rester bloquée sur la dernière mesure. Sans
+ * verrou, thread-safe.
+ */
+public class RenderLoadMonitor {
+    
+    /**
+     * Durée sans mesure au bout de laquelle la moyenne est divisée par deux
+     */
+    public static final Duration DECAY_HALF_LIFE = Duration.ofSeconds(1);
+    
+    private static final long HALF_LIFE_NANOS = DECAY_HALF_LIFE.toNanos();
+    
+    private final int parallelism;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    /**
+     * Durée moyenne d'un rendu en nanosecondes (0 = aucune mesure)
+     */
+    private final AtomicLong averageNanos = new AtomicLong();
+    
+    /**
+     * Instant (nanos) de la dernière mesure
+     */
+    private final AtomicLong lastSampleNanos = new AtomicLong();
+    
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder renderTime = new LongAdder();
+    private final LongAdder renderQueue = new LongAdder();
+    
+    /**
+     * Crée un moniteur pour le nombre de processeurs de la machine
+     */
+    public RenderLoadMonitor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param parallelism Nombre de rendus pouvant s'exécuter simultanément sans attente
+     */
+    public RenderLoadMonitor(int parallelism) {
+        this(parallelism, System::nanoTime);
+    }
+    
+    /**
+     * @param parallelism Nombre de rendus pouvant s'exécuter simultanément sans attente
+     * @param clock Horloge monotone en nanosecondes
+     */
+    public RenderLoadMonitor(int parallelism, LongSupplier clock) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Le parallélisme doit être positif: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.clock = clock;
+    }
+    
+    /**
+     * Compteurs et état courant
+     */
+    @Value
+    public static class Stats {
+        
+        /**
+         * Rendus terminés
+         */
+        long renders;
+        
+        /**
+         * Rendus en cours
+         */
+        int inFlight;
+        
+        /**
+         * Durée moyenne d'un rendu (zéro sans mesure)
+         */
+        Duration averageRenderTime;
+        
+        /**
+         * Dégradations {@link RenderDegradation#BUDGET_EXHAUSTED}
+         */
+        long budgetExhausted;
+        
+        /**
+         * Dégradations {@link RenderDegradation#RENDER_TIME}
+         */
+        long renderTime;
+        
+        /**
+         * Dégradations {@link RenderDegradation#RENDER_QUEUE}
+         */
+        long renderQueue;
+        
+        /**
+         * Nombre total de réponses dégradées
+         */
+        public long getDegraded() {
+            return budgetExhausted + renderTime + renderQueue;
+        }
+    }
+    
+    /**
+     * Décide si un rendu peut commencer dans le budget restant
+     * 
+     * Un refus est compté par motif ; l'appelant répond alors sans image.
+     * 
+     * @param budgetNanos Le budget restant en nanosecondes
+     * @return null si le rendu devrait tenir dans le budget, sinon le motif de dégradation
+     */
+    public RenderDegradation check(long budgetNanos) {
+        RenderDegradation degradation = predict(budgetNanos);
+        if (degradation == RenderDegradation.BUDGET_EXHAUSTED) {
+            budgetExhausted.increment();
+        } else if (degradation == RenderDegradation.RENDER_TIME) {
+            renderTime.increment();
+        } else if (degradation == RenderDegradation.RENDER_QUEUE) {
+            renderQueue.increment();
+        }
+        return degradation;
+    }
+    
+    private RenderDegradation predict(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            return RenderDegradation.BUDGET_EXHAUSTED;
+        }
+        long average = average(clock.getAsLong());
+        if (average == 0) {
+            return null;
+        }
+        if (average > budgetNanos) {
+            return RenderDegradation.RENDER_TIME;
+        }
+        long waves = inFlight.get() / parallelism + 1;
+        return average * waves > budgetNanos ? RenderDegradation.RENDER_QUEUE : null;
+    }
+    
+    /**
+     * Signale le début d'un rendu
+     */
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+    
+    /**
+     * Signale la fin d'un rendu et intègre sa durée à la moyenne
+     * 
+     * @param elapsedNanos La durée du rendu
+     */
+    public void end(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        renders.increment();
+        long sample = Math.max(1, elapsedNanos);
+        long now = clock.getAsLong();
+        long decayed = average(now);
+        averageNanos.accumulateAndGet(sample, (average, value) -> {
+            long base = Math.min(average, decayed);
+            return base == 0 ? value : Math.max(1, base + (value - base) / 8);
+        });
+        lastSampleNanos.set(now);
+    }
+    
+    /**
+     * Moyenne divisée par deux par demi-vie écoulée depuis la dernière mesure
+     */
+    private long average(long now) {
+        long average = averageNanos.get();
+        long halvings = (now - lastSampleNanos.get()) / HALF_LIFE_NANOS;
+        return halvings <= 0 ? average : average >> Math.min(halvings, 62);
+    }
+    
+    /**
+     * @return Les compteurs et l'état courant
+     */
+    public Stats stats() {
+        return new Stats(renders.sum(), inFlight.get(), Duration.ofNanos(average(clock.getAsLong())),
+                budgetExhausted.sum(), renderTime.sum(), renderQueue.sum());
+    }
+}
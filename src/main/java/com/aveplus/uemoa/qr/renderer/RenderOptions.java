@@ -0,0 +1,79 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Options de rendu d'une image QR code
+ *
+ * Les valeurs non renseignées (null) reprennent la configuration du module
+ * ({@code qr-image-size}, {@code qr-image-margin}, {@code image-format}).
+ */
+@Value
+@Builder(toBuilder = true)
+public class RenderOptions {
+    
+    private static final RenderOptions DEFAULTS = RenderOptions.builder().build();
+    private static final RenderOptions PAYLOAD_ONLY = RenderOptions.builder().includeImage(false).build();
+    
+    /**
+     * Produit l'image (sinon seul le payload est généré)
+     */
+    @Builder.Default
+    boolean includeImage = true;
+    
+    /**
+     * Taille de l'image en pixels
+     */
+    Integer size;
+    
+    /**
+     * Marge (zone calme) en modules
+     */
+    Integer margin;
+    
+    /**
+     * Format d'image (PNG, JPG)
+     */
+    String format;
+    
+    /**
+     * Niveau de correction d'erreur
+     */
+    @Builder.Default
+    ErrorCorrectionLevel errorCorrection = ErrorCorrectionLevel.L;
+    
+    /**
+     * Logo à incruster au centre (nom enregistré dans {@link QrLogoCache},
+     * null = sans logo) ; impose le niveau de correction d'erreur H
+     */
+    String logo;
+    
+    /**
+     * Budget de latence de la génération (null = pas de budget) : si le rendu
+     * ne devrait pas y tenir, le résultat est rendu sans image
+     */
+    Duration deadline;
+    
+    /**
+     * Joint la matrice des modules à un résultat dégradé (encodage sans image)
+     */
+    boolean includeModulesOnDegradation;
+    
+    /**
+     * Options par défaut : image rendue selon la configuration du module
+     */
+    public static RenderOptions defaults() {
+        return DEFAULTS;
+    }
+    
+    /**
+     * Options sans image : payload uniquement
+     */
+    public static RenderOptions payloadOnly() {
+        return PAYLOAD_ONLY;
+    }
+}
@@ -0,0 +1,47 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Déclinaison rendue d'un symbole
+ */
+@Value
+public class Rendition {
+    
+    /**
+     * Format de sortie
+     */
+    RenditionSpec.Format format;
+    
+    /**
+     * Côté de l'image en pixels (zone calme comprise)
+     */
+    int width;
+    
+    /**
+     * Côté d'un module en pixels
+     */
+    int moduleSize;
+    
+    /**
+     * Contenu encodé
+     */
+    @Getter(AccessLevel.NONE)
+    byte[] data;
+    
+    /**
+     * Octets du contenu (tableau interne, à ne pas modifier)
+     */
+    public byte[] data() {
+        return data;
+    }
+    
+    /**
+     * Taille du contenu en octets
+     */
+    public int getByteSize() {
+        return data.length;
+    }
+}
@@ -0,0 +1,94 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Déclinaison demandée d'un symbole : taille et format
+ * 
+ * Chaque module occupe un nombre entier de pixels (bords nets) : le côté
+ * produit est le plus grand multiple de (dimension + 2 × marge) ne
+ * dépassant pas {@code size}, et au moins un pixel par module.
+ */
+@Value
+@Builder(toBuilder = true)
+public class RenditionSpec {
+    
+    /**
+     * Format de sortie
+     */
+    public enum Format {
+        /**
+         * Image PNG 1 bit
+         */
+        PNG,
+        
+        /**
+         * Image JPEG en niveaux de gris
+         */
+        JPG,
+        
+        /**
+         * Document SVG (chemins en unités de modules, redimensionnable sans perte)
+         */
+        SVG,
+        
+        /**
+         * Pixels bruts, 1 bit par pixel (1 = noir), lignes complétées à l'octet
+         */
+        RAW,
+        
+        /**
+         * Image PBM binaire ({@code P4}), les pixels bruts précédés d'un en-tête
+         */
+        PBM,
+        
+        /**
+         * Commande ESC/POS {@code GS v 0} pour imprimante thermique ; la taille
+         * est la largeur imprimable en points, le symbole y est centré
+         */
+        ESC_POS
+    }
+    
+    /**
+     * Largeur imprimable d'une imprimante thermique 58 mm (203 dpi), en points
+     */
+    public static final int PRINTER_58MM_DOTS = 384;
+    
+    /**
+     * Largeur imprimable d'une imprimante thermique 80 mm (203 dpi), en points
+     */
+    public static final int PRINTER_80MM_DOTS = 576;
+    
+    /**
+     * Côté maximal de l'image en pixels
+     */
+    int size;
+    
+    /**
+     * Format de sortie
+     */
+    @Builder.Default
+    Format format = Format.PNG;
+    
+    /**
+     * Zone calme en modules (null = configuration du module)
+     */
+    Integer margin;
+    
+    /**
+     * Déclinaison d'une taille et d'un format, zone calme par défaut
+     */
+    public static RenditionSpec of(int size, Format format) {
+        return RenditionSpec.builder().size(size).format(format).build();
+    }
+    
+    /**
+     * Commande ESC/POS pour une imprimante de la largeur imprimable donnée
+     * 
+     * @param printerDots La largeur imprimable en points ({@link #PRINTER_58MM_DOTS}, {@link #PRINTER_80MM_DOTS})
+     */
+    public static RenditionSpec escPos(int printerDots) {
+        return of(printerDots, Format.ESC_POS);
+    }
+}
@@ -0,0 +1,110 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Mise en page des planches d'autocollants QR
+ */
+@Value
+@Builder
+public class SheetLayout {
+    
+    /**
+     * Formats de page (dimensions en millimètres)
+     */
+    public enum PageSize {
+        A4(210.0, 297.0),
+        A5(148.0, 210.0),
+        LETTER(215.9, 279.4);
+        
+        private final double widthMm;
+        private final double heightMm;
+        
+        PageSize(double widthMm, double heightMm) {
+            this.widthMm = widthMm;
+            this.heightMm = heightMm;
+        }
+        
+        public double getWidthMm() {
+            return widthMm;
+        }
+        
+        public double getHeightMm() {
+            return heightMm;
+        }
+    }
+    
+    /**
+     * Format de sortie des pages
+     */
+    public enum Format {
+        PNG,
+        SVG
+    }
+    
+    /**
+     * Format de page
+     */
+    @Builder.Default
+    PageSize pageSize = PageSize.A4;
+    
+    /**
+     * Format de sortie
+     */
+    @Builder.Default
+    Format format = Format.PNG;
+    
+    /**
+     * Résolution d'impression (points par pouce)
+     */
+    @Builder.Default
+    int dpi = 300;
+    
+    /**
+     * Nombre de colonnes de la grille
+     */
+    @Builder.Default
+    int columns = 3;
+    
+    /**
+     * Nombre de lignes de la grille
+     */
+    @Builder.Default
+    int rows = 4;
+    
+    /**
+     * Marge de la page (millimètres)
+     */
+    @Builder.Default
+    double marginMm = 10.0;
+    
+    /**
+     * Espace entre les autocollants (millimètres)
+     */
+    @Builder.Default
+    double gutterMm = 5.0;
+    
+    /**
+     * Ajoute le nom et la ville du marchand sous chaque QR
+     */
+    @Builder.Default
+    boolean caption = true;
+    
+    /**
+     * Nombre de pages rendues en parallèle (0 = nombre de processeurs)
+     */
+    @Builder.Default
+    int parallelism = 0;
+    
+    public int getCellsPerPage() {
+        return columns * rows;
+    }
+    
+    /**
+     * Convertit des millimètres en pixels à la résolution de la planche
+     */
+    public int toPixels(double mm) {
+        return (int) Math.round(mm * dpi / 25.4);
+    }
+}
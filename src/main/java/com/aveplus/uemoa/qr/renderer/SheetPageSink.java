@@ -0,0 +1,19 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import java.io.IOException;
+
+/**
+ * Destination des pages rendues, appelée dans l'ordre des pages
+ */
+@FunctionalInterface
+public interface SheetPageSink {
+    
+    /**
+     * Reçoit une page rendue
+     * 
+     * @param pageIndex Index de la page (à partir de 0)
+     * @param page Le contenu de la page (PNG ou SVG UTF-8)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    void accept(int pageIndex, byte[] page) throws IOException;
+}
@@ -0,0 +1,183 @@
+package com.aveplus.uemoa.qr.service;
+
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Détails d'un QR code scanné (résultat de vérification)
+ *
+ * Sérialisable directement vers un {@link JsonGenerator}, avec la même forme
+ * JSON que {@link UemoaQRService#getQRCodeDetails(String)} et sans map
+ * intermédiaire.
+ */
+@Value
+public class QRCodeDetails {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    boolean valid;
+    
+    QRPaymentData.QRType type;
+    
+    /**
+     * Informations du marchand (null si absentes)
+     */
+    Merchant merchant;
+    
+    BigDecimal amount;
+    
+    String transactionId;
+    
+    QRPaymentData.MerchantChannel channel;
+    
+    /**
+     * Message d'erreur (null si le QR code est valide)
+     */
+    String error;
+    
+    /**
+     * Informations du marchand exposées dans les détails
+     */
+    @Value
+    public static class Merchant {
+        String name;
+        String city;
+        String country;
+        String alias;
+    }
+    
+    /**
+     * Détails d'un QR code parsé avec succès
+     * 
+     * @param parsed Les données parsées
+     * @return Les détails
+     */
+    public static QRCodeDetails of(QRPaymentData parsed) {
+        return of(QrPayment.from(parsed));
+    }
+    
+    /**
+     * Détails d'un QR code parsé avec succès
+     * 
+     * @param parsed Les données parsées, immuables
+     * @return Les détails
+     */
+    public static QRCodeDetails of(QrPayment parsed) {
+        QrMerchant info = parsed.merchant();
+        Merchant merchant = info == null ? null
+            : new Merchant(info.name(), info.city(), info.countryCode(), info.alias());
+        return new QRCodeDetails(true, parsed.type(), merchant, parsed.amount(),
+            parsed.transactionId(), parsed.merchantChannel(), null);
+    }
+    
+    /**
+     * Détails d'un QR code invalide
+     * 
+     * @param error Le message d'erreur
+     * @return Les détails
+     */
+    public static QRCodeDetails invalid(String error) {
+        return new QRCodeDetails(false, null, null, null, null, null, error);
+    }
+    
+    /**
+     * Écrit l'objet JSON des détails
+     * 
+     * @param generator Le générateur JSON (non fermé)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeBooleanField("valid", valid);
+        if (!valid) {
+            generator.writeStringField("error", error);
+            generator.writeEndObject();
+            return;
+        }
+        
+        generator.writeStringField("type", type == null ? null : type.name());
+        if (merchant != null) {
+            generator.writeObjectFieldStart("merchant");
+            generator.writeStringField("name", merchant.getName());
+            generator.writeStringField("city", merchant.getCity());
+            generator.writeStringField("country", merchant.getCountry());
+            generator.writeStringField("alias", merchant.getAlias());
+            generator.writeEndObject();
+        }
+        if (amount != null) {
+            generator.writeFieldName("amount");
+            generator.writeNumber(amount);
+        }
+        if (transactionId != null) {
+            generator.writeStringField("transactionId", transactionId);
+        }
+        if (channel != null) {
+            generator.writeObjectFieldStart("channel");
+            generator.writeNumberField("code", channel.getCode());
+            generator.writeStringField("description", channel.getDescription());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+    
+    /**
+     * Écrit l'objet JSON des détails en UTF-8
+     * 
+     * @param output Le flux de sortie (non fermé)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeTo(generator);
+        }
+    }
+    
+    /**
+     * Représentation sous forme de map (ancienne API)
+     * 
+     * @return Les détails sous forme de map
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> details = new HashMap<>();
+        details.put("valid", valid);
+        if (!valid) {
+            details.put("error", error);
+            return details;
+        }
+        
+        details.put("type", type);
+        if (merchant != null) {
+            Map<String, String> merchantDetails = new HashMap<>();
+            merchantDetails.put("name", merchant.getName());
+            merchantDetails.put("city", merchant.getCity());
+            merchantDetails.put("country", merchant.getCountry());
+            merchantDetails.put("alias", merchant.getAlias());
+            details.put("merchant", merchantDetails);
+        }
+        if (amount != null) {
+            details.put("amount", amount);
+        }
+        if (transactionId != null) {
+            details.put("transactionId", transactionId);
+        }
+        if (channel != null) {
+            Map<String, Object> channelDetails = new HashMap<>();
+            channelDetails.put("code", channel.getCode());
+            channelDetails.put("description", channel.getDescription());
+            details.put("channel", channelDetails);
+        }
+        return details;
+    }
+}
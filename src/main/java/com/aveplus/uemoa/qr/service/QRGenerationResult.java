@@ -0,0 +1,134 @@
+package com.aveplus.uemoa.qr.service;
+
+import com.aveplus.uemoa.qr.renderer.RenderDegradation;
+import com.google.zxing.common.BitMatrix;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Résultat d'une génération en une passe : payload, image et métadonnées
+ */
+@Value
+public class QRGenerationResult {
+    
+    /**
+     * Chaîne de données EMVCo complète
+     */
+    String payload;
+    
+    /**
+     * CRC16 du payload (4 caractères hexadécimaux)
+     */
+    String crc;
+    
+    /**
+     * Image encodée (null si l'image n'a pas été demandée)
+     */
+    @Getter(AccessLevel.NONE)
+    byte[] image;
+    
+    /**
+     * Format de l'image (null sans image)
+     */
+    String imageFormat;
+    
+    /**
+     * Version du symbole QR (1 à 40, 0 sans image)
+     */
+    int symbolVersion;
+    
+    /**
+     * Durée de génération du payload
+     */
+    Duration generationTime;
+    
+    /**
+     * Durée d'encodage et de rendu de l'image
+     */
+    Duration renderTime;
+    
+    /**
+     * Motif pour lequel l'image demandée n'a pas été rendue (null si non dégradé)
+     */
+    RenderDegradation degradation;
+    
+    /**
+     * Matrice des modules d'un résultat dégradé, si demandée (null sinon)
+     */
+    @Getter(AccessLevel.NONE)
+    BitMatrix modules;
+    
+    public boolean hasImage() {
+        return image != null;
+    }
+    
+    /**
+     * Indique que l'image a été abandonnée pour respecter le budget de latence
+     */
+    public boolean isDegraded() {
+        return degradation != null;
+    }
+    
+    /**
+     * Copie de la matrice des modules (1 bit par module, sans zone calme)
+     * 
+     * @return La matrice, ou null si elle n'a pas été demandée
+     */
+    public BitMatrix getModules() {
+        return modules != null ? modules.clone() : null;
+    }
+    
+    /**
+     * Copie de l'image encodée
+     * 
+     * @return Les octets de l'image, ou null sans image
+     */
+    public byte[] getImageBytes() {
+        return image != null ? image.clone() : null;
+    }
+    
+    /**
+     * Flux de lecture de l'image, sans copie
+     * 
+     * @return Le flux, ou null sans image
+     */
+    public InputStream openImageStream() {
+        return image != null ? new ByteArrayInputStream(image) : null;
+    }
+    
+    /**
+     * Ecrit l'image dans un flux, sans copie
+     * 
+     * @param output Le flux de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeImageTo(OutputStream output) throws IOException {
+        if (image != null) {
+            output.write(image);
+        }
+    }
+    
+    /**
+     * Image encodée en Base64
+     * 
+     * @return L'image en Base64, ou null sans image
+     */
+    public String getImageBase64() {
+        return image != null ? Base64.getEncoder().encodeToString(image) : null;
+    }
+    
+    /**
+     * Taille de l'image en octets (0 sans image)
+     */
+    public int getImageSize() {
+        return image != null ? image.length : 0;
+    }
+}
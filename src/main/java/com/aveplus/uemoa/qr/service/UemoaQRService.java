@@ -1,33 +1,58 @@
 package com.aveplus.uemoa.qr.service;
 
+import com.aveplus.uemoa.qr.admission.AdmissionController;
+import com.aveplus.uemoa.qr.admission.AdmissionResult;
 import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.DecodedSymbol;
+import com.aveplus.uemoa.qr.decoder.ImageDecodeResult;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
 import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
 import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
 import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
 import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.parser.ParseResult;
 import com.aveplus.uemoa.qr.parser.QRParser;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.QRSheetRenderer;
+import com.aveplus.uemoa.qr.renderer.QrSymbol;
+import com.aveplus.uemoa.qr.renderer.RenderDegradation;
+import com.aveplus.uemoa.qr.renderer.RenderLoadMonitor;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.renderer.Rendition;
+import com.aveplus.uemoa.qr.renderer.RenditionSpec;
+import com.aveplus.uemoa.qr.renderer.SheetLayout;
+import com.aveplus.uemoa.qr.renderer.SheetPageSink;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
 
 import jakarta.validation.Valid;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service principal pour la gestion des QR codes de paiement UEMOA
  */
 @Slf4j
-@Service
 @RequiredArgsConstructor
 public class UemoaQRService {
     
@@ -37,6 +62,35 @@ public class UemoaQRService {
     private final QRParser qrParser;
     private final UemoaQrProperties properties;
     
+    /**
+     * Moteur de rendu d'images (null si la génération d'images est désactivée)
+     */
+    private final QRImageRenderer imageRenderer;
+    
+    /**
+     * Lecteur d'images de QR codes
+     */
+    private final QRImageDecoder imageDecoder;
+    
+    /**
+     * Contrôle d'admission des méthodes {@code tryGenerate*}
+     */
+    private final AdmissionController admission;
+    
+    /**
+     * Crée un service sans contrôle d'admission
+     */
+    public UemoaQRService(StaticQRGenerator staticQRGenerator,
+                          DynamicQRGenerator dynamicQRGenerator,
+                          P2PQRGenerator p2pQRGenerator,
+                          QRParser qrParser,
+                          UemoaQrProperties properties,
+                          QRImageRenderer imageRenderer,
+                          QRImageDecoder imageDecoder) {
+        this(staticQRGenerator, dynamicQRGenerator, p2pQRGenerator, qrParser, properties,
+             imageRenderer, imageDecoder, AdmissionController.unlimited());
+    }
+    
     /**
      * Génère les données du QR code selon le type spécifié
      * 
@@ -44,33 +98,297 @@ public class UemoaQRService {
      * @return La chaîne de données EMVCo du QR code
      */
     public String generateQRData(@Valid QRPaymentData data) {
+        return generateQRData(data, null);
+    }
+    
+    /**
+     * Génère les données du QR code avec un profil PSP nommé
+     * 
+     * @param data Les données de paiement
+     * @param profile Le nom du profil PSP (null = profil associé au marchand, sinon profil par défaut)
+     * @return La chaîne de données EMVCo du QR code
+     * @throws IllegalArgumentException si le profil est inconnu
+     */
+    public String generateQRData(@Valid QRPaymentData data, String profile) {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        return generateQRData(QrPayment.from(data), profile);
+    }
+    
+    /**
+     * Génère les données du QR code à partir des données immuables
+     * 
+     * @param data Les données de paiement
+     * @return La chaîne de données EMVCo du QR code
+     */
+    public String generateQRData(QrPayment data) {
+        return generateQRData(data, null);
+    }
+    
+    /**
+     * Génère les données du QR code à partir des données immuables avec un profil PSP nommé
+     * 
+     * @param data Les données de paiement
+     * @param profile Le nom du profil PSP (null = profil associé au marchand, sinon profil par défaut)
+     * @return La chaîne de données EMVCo du QR code
+     * @throws IllegalArgumentException si le profil est inconnu
+     */
+    public String generateQRData(QrPayment data, String profile) {
         if (data == null) {
             throw new IllegalArgumentException("Les données de paiement sont obligatoires");
         }
+        if (data.type() == null) {
+            throw new IllegalArgumentException("Le type de QR code est obligatoire");
+        }
         
-        log.info("Génération de QR code: type={}, marchand={}", 
-                data.getType(), 
-                data.getMerchantInfo() != null ? data.getMerchantInfo().getName() : "N/A");
+        log.debug("Génération de QR code: type={}, marchand={}", 
+                data.type(), 
+                data.merchant() != null ? data.merchant().name() : "N/A");
         
         String qrData;
-        switch (data.getType()) {
+        switch (data.type()) {
             case STATIC:
-                qrData = staticQRGenerator.generate(data);
+                qrData = staticQRGenerator.generate(data, profile);
                 break;
             case DYNAMIC:
-                qrData = dynamicQRGenerator.generate(data);
+                qrData = dynamicQRGenerator.generate(data, profile);
                 break;
             case P2P:
-                qrData = p2pQRGenerator.generate(data);
+                qrData = p2pQRGenerator.generate(data, profile);
                 break;
             default:
-                throw new IllegalArgumentException("Type de QR code non supporté: " + data.getType());
+                throw new IllegalArgumentException("Type de QR code non supporté: " + data.type());
         }
         
         log.debug("QR code généré: {}", qrData);
         return qrData;
     }
     
+    /**
+     * Génère le payload et, si demandé, l'image en une seule passe
+     * 
+     * Le payload n'est construit (et son CRC calculé) qu'une fois ; l'image
+     * est rendue à partir de ce même payload.
+     * 
+     * Avec un budget de latence ({@link RenderOptions#getDeadline()}), le
+     * rendu n'est pas commencé si la durée moyenne mesurée ou la file des
+     * rendus en cours le ferait dépasser : le résultat contient alors le
+     * payload seul (et la matrice des modules si demandée), marqué
+     * {@link QRGenerationResult#isDegraded()}.
+     * 
+     * @param data Les données de paiement
+     * @param options Les options de rendu ({@link RenderOptions#payloadOnly()} pour ne pas rendre d'image)
+     * @return Le résultat immuable : payload, CRC, image, version du symbole et durées
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public QRGenerationResult generate(@Valid QRPaymentData data, RenderOptions options)
+            throws WriterException, IOException {
+        return generate(data, null, options);
+    }
+    
+    /**
+     * Génère le payload avec un profil PSP nommé et, si demandé, l'image
+     * 
+     * @param data Les données de paiement
+     * @param profile Le nom du profil PSP (null = profil associé au marchand, sinon profil par défaut)
+     * @param options Les options de rendu ({@link RenderOptions#payloadOnly()} pour ne pas rendre d'image)
+     * @return Le résultat immuable : payload, CRC, image, version du symbole et durées
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public QRGenerationResult generate(@Valid QRPaymentData data, String profile, RenderOptions options)
+            throws WriterException, IOException {
+        if (options == null) {
+            options = RenderOptions.defaults();
+        }
+        if (options.isIncludeImage() && imageRenderer == null) {
+            throw new UnsupportedOperationException("La génération d'images QR est désactivée");
+        }
+        
+        long start = System.nanoTime();
+        String payload = generateQRData(data, profile);
+        return render(payload, options, Duration.ofNanos(System.nanoTime() - start));
+    }
+    
+    /**
+     * Génère les données du QR code si le débit du client le permet
+     * 
+     * La requête n'est jamais mise en attente : un seau vide donne un
+     * résultat refusé avec le délai avant le prochain jeton.
+     * 
+     * @param data Les données de paiement
+     * @param client La clé de limitation (client d'API ; null = alias du marchand)
+     * @return Le payload, ou le refus typé
+     */
+    public AdmissionResult<String> tryGenerateQRData(@Valid QRPaymentData data, String client) {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        return tryGenerateQRData(QrPayment.from(data), client);
+    }
+    
+    /**
+     * Génère les données du QR code à partir des données immuables si le débit du client le permet
+     * 
+     * @param data Les données de paiement
+     * @param client La clé de limitation (client d'API ; null = alias du marchand)
+     * @return Le payload, ou le refus typé
+     */
+    public AdmissionResult<String> tryGenerateQRData(QrPayment data, String client) {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        Duration wait = admission.tryAcquire(admissionKey(data, client));
+        if (!wait.isZero()) {
+            return AdmissionResult.rejected(AdmissionResult.Rejection.RATE_LIMITED, wait);
+        }
+        return AdmissionResult.admitted(generateQRData(data));
+    }
+    
+    /**
+     * Génère le payload et l'image si le débit du client et la capacité de rendu le permettent
+     * 
+     * Le plafond global de rendus simultanés n'est consulté que si une image
+     * est demandée ; une requête refusée ne consomme pas de jeton.
+     * 
+     * @param data Les données de paiement
+     * @param client La clé de limitation (client d'API ; null = alias du marchand)
+     * @param options Les options de rendu
+     * @return Le résultat de génération, ou le refus typé
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public AdmissionResult<QRGenerationResult> tryGenerate(@Valid QRPaymentData data, String client,
+                                                           RenderOptions options)
+            throws WriterException, IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        boolean image = options == null || options.isIncludeImage();
+        if (image && !admission.tryAcquireRender()) {
+            return AdmissionResult.rejected(AdmissionResult.Rejection.RENDER_CAPACITY, Duration.ZERO);
+        }
+        try {
+            Duration wait = admission.tryAcquire(admissionKey(QrPayment.from(data), client));
+            if (!wait.isZero()) {
+                return AdmissionResult.rejected(AdmissionResult.Rejection.RATE_LIMITED, wait);
+            }
+            return AdmissionResult.admitted(generate(data, options));
+        } finally {
+            if (image) {
+                admission.releaseRender();
+            }
+        }
+    }
+    
+    private static String admissionKey(QrPayment data, String client) {
+        if (client != null) {
+            return client;
+        }
+        return data.merchant() != null ? data.merchant().alias() : data.dynamicUrl();
+    }
+    
+    /**
+     * Rend l'image d'un payload déjà généré
+     * 
+     * @param qrData La chaîne de données EMVCo
+     * @param options Les options de rendu
+     * @return Le résultat immuable : payload, CRC, image, version du symbole et durée de rendu
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public QRGenerationResult render(String qrData, RenderOptions options) throws WriterException, IOException {
+        if (qrData == null || qrData.length() < 8) {
+            throw new IllegalArgumentException("Les données du QR code sont invalides");
+        }
+        if (options == null) {
+            options = RenderOptions.defaults();
+        }
+        if (options.isIncludeImage() && imageRenderer == null) {
+            throw new UnsupportedOperationException("La génération d'images QR est désactivée");
+        }
+        return render(qrData, options, Duration.ZERO);
+    }
+    
+    /**
+     * Rend l'image d'un payload déjà généré si la capacité de rendu le permet
+     * 
+     * Seul le plafond global de rendus simultanés s'applique (aucun jeton
+     * n'est consommé) ; il n'est consulté que si une image est demandée.
+     * 
+     * @param qrData La chaîne de données EMVCo
+     * @param options Les options de rendu
+     * @return Le résultat de rendu, ou le refus {@link AdmissionResult.Rejection#RENDER_CAPACITY}
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public AdmissionResult<QRGenerationResult> tryRender(String qrData, RenderOptions options)
+            throws WriterException, IOException {
+        boolean image = options == null || options.isIncludeImage();
+        if (image && !admission.tryAcquireRender()) {
+            return AdmissionResult.rejected(AdmissionResult.Rejection.RENDER_CAPACITY, Duration.ZERO);
+        }
+        try {
+            return AdmissionResult.admitted(render(qrData, options));
+        } finally {
+            if (image) {
+                admission.releaseRender();
+            }
+        }
+    }
+    
+    private QRGenerationResult render(String payload, RenderOptions options, Duration generationTime)
+            throws WriterException, IOException {
+        String crc = payload.substring(payload.length() - 4);
+        if (!options.isIncludeImage()) {
+            return new QRGenerationResult(payload, crc, null, null, 0, generationTime, Duration.ZERO, null, null);
+        }
+        
+        if (options.getDeadline() != null) {
+            long budget = options.getDeadline().toNanos() - generationTime.toNanos();
+            RenderDegradation degradation = imageRenderer.getLoad().check(budget);
+            if (degradation != null) {
+                log.debug("Rendu abandonné ({}), budget restant {} µs", degradation, budget / 1_000);
+                BitMatrix modules = options.isIncludeModulesOnDegradation()
+                    ? imageRenderer.encodeModules(payload, options.getErrorCorrection())
+                    : null;
+                return new QRGenerationResult(payload, crc, null, null, 0, generationTime, Duration.ZERO,
+                        degradation, modules);
+            }
+        }
+        
+        long renderStart = System.nanoTime();
+        QRImageRenderer.RenderedSymbol rendered = imageRenderer.render(payload, options);
+        Duration renderTime = Duration.ofNanos(System.nanoTime() - renderStart);
+        
+        return new QRGenerationResult(payload, crc, rendered.image(), rendered.getFormat(),
+                rendered.getVersion(), generationTime, renderTime, null, null);
+    }
+    
+    /**
+     * Compteurs du moteur de rendu : rendus, durée moyenne et réponses dégradées
+     * 
+     * @return Les compteurs (tous nuls si la génération d'images est désactivée)
+     */
+    public RenderLoadMonitor.Stats getRenderStats() {
+        if (imageRenderer == null) {
+            return new RenderLoadMonitor.Stats(0, 0, Duration.ZERO, 0, 0, 0);
+        }
+        return imageRenderer.getLoad().stats();
+    }
+    
+    /**
+     * Révision d'un logo enregistré (empreinte de ses pixels), pour les ETag
+     * 
+     * @param logo Le nom du logo
+     * @return La révision, ou null si le logo est inconnu ou si la génération d'images est désactivée
+     */
+    public String logoRevision(String logo) {
+        return imageRenderer != null ? imageRenderer.getLogos().revision(logo) : null;
+    }
+    
     /**
      * Génère une image QR code en Base64
      * 
@@ -93,7 +411,7 @@ public class UemoaQRService {
      * @throws IOException En cas d'erreur d'écriture
      */
     public String generateQRImageFromString(String qrData) throws WriterException, IOException {
-        if (!properties.isGenerateQrImage()) {
+        if (imageRenderer == null) {
             throw new UnsupportedOperationException("La génération d'images QR est désactivée");
         }
         
@@ -123,36 +441,110 @@ public class UemoaQRService {
      * @throws IOException En cas d'erreur d'écriture
      */
     public byte[] generateQRImageBytes(String qrData) throws WriterException, IOException {
-        if (!properties.isGenerateQrImage()) {
+        if (imageRenderer == null) {
             throw new UnsupportedOperationException("La génération d'images QR est désactivée");
         }
         
-        log.debug("Génération d'image QR: taille={}px, marge={}px", 
-                properties.getQrImageSize(), properties.getQrImageMargin());
-        
-        // Configuration des hints pour la génération
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.MARGIN, properties.getQrImageMargin());
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        
-        // Génération du QR code
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(
-            qrData, 
-            BarcodeFormat.QR_CODE, 
-            properties.getQrImageSize(), 
-            properties.getQrImageSize(),
-            hints
-        );
-        
-        // Conversion en image
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, properties.getImageFormat(), outputStream);
-        
-        byte[] imageBytes = outputStream.toByteArray();
-        log.info("Image QR générée: {} bytes, format={}", imageBytes.length, properties.getImageFormat());
+        return imageRenderer.render(qrData);
+    }
+    
+    /**
+     * Génère le payload, encode le symbole une fois et le rend dans plusieurs tailles et formats
+     * 
+     * Par exemple 150 px pour une liste, 300 px pour l'écran de paiement et
+     * un SVG pour l'impression, à partir d'un seul encodage.
+     * 
+     * @param data Les données de paiement
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @param specs Les déclinaisons demandées (taille, format PNG/JPG/SVG/RAW/PBM/ESC_POS, marge)
+     * @return Les déclinaisons, dans l'ordre demandé
+     * @throws WriterException En cas d'erreur d'encodage
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public List<Rendition> renditions(@Valid QRPaymentData data, ErrorCorrectionLevel errorCorrection,
+                                      List<RenditionSpec> specs) throws WriterException, IOException {
+        return renditions(encodeSymbol(generateQRData(data), errorCorrection), specs);
+    }
+    
+    /**
+     * Rend un symbole déjà encodé dans plusieurs tailles et formats
+     * 
+     * @param symbol Le symbole encodé (voir {@link #encodeSymbol})
+     * @param specs Les déclinaisons demandées
+     * @return Les déclinaisons, dans l'ordre demandé
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public List<Rendition> renditions(QrSymbol symbol, List<RenditionSpec> specs) throws IOException {
+        if (imageRenderer == null) {
+            throw new UnsupportedOperationException("La génération d'images QR est désactivée");
+        }
+        return imageRenderer.renditions(symbol, specs);
+    }
+    
+    /**
+     * Génère le payload et encode son symbole QR, sans image
+     * 
+     * Le symbole donne la matrice des modules ({@link QrSymbol#toPackedRows()},
+     * {@link QrSymbol#getDimension()}) aux applications qui dessinent le QR
+     * elles-mêmes, et se décline en PBM ou en commande ESC/POS via {@link #renditions}.
+     * 
+     * @param data Les données de paiement
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @return Le symbole encodé (immuable)
+     * @throws WriterException En cas d'erreur d'encodage
+     */
+    public QrSymbol encodeSymbol(@Valid QRPaymentData data, ErrorCorrectionLevel errorCorrection)
+            throws WriterException {
+        return encodeSymbol(generateQRData(data), errorCorrection);
+    }
+    
+    /**
+     * Encode le symbole QR d'un payload, pour le conserver et le rendre plusieurs fois
+     * 
+     * @param qrData La chaîne de données EMVCo
+     * @param errorCorrection Le niveau de correction d'erreur
+     * @return Le symbole encodé (immuable)
+     * @throws WriterException En cas d'erreur d'encodage
+     */
+    public QrSymbol encodeSymbol(String qrData, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        if (imageRenderer == null) {
+            throw new UnsupportedOperationException("La génération d'images QR est désactivée");
+        }
+        return imageRenderer.encodeSymbol(qrData, errorCorrection);
+    }
+    
+    /**
+     * Rend des planches d'autocollants QR pour un flux de marchands
+     * 
+     * Les pages sont rendues en parallèle et transmises dans l'ordre au
+     * {@code sink} au fur et à mesure : la mémoire utilisée ne dépend pas
+     * du nombre de marchands.
+     * 
+     * @param items Les données de paiement (consommées au fil du rendu)
+     * @param layout La mise en page (format, résolution, grille, marges, légende)
+     * @param sink La destination des pages
+     * @return Le nombre de pages rendues
+     * @throws IOException En cas d'erreur de rendu ou d'écriture
+     */
+    public int renderSheets(Iterator<QRPaymentData> items, SheetLayout layout, SheetPageSink sink) throws IOException {
+        if (imageRenderer == null) {
+            throw new UnsupportedOperationException("La génération d'images QR est désactivée");
+        }
         
-        return imageBytes;
+        return new QRSheetRenderer(imageRenderer).render(items, this::generateQRData, layout, sink);
+    }
+    
+    /**
+     * Rend des planches d'autocollants QR pour un flux de marchands
+     * 
+     * @param items Les données de paiement
+     * @param layout La mise en page
+     * @param sink La destination des pages
+     * @return Le nombre de pages rendues
+     * @throws IOException En cas d'erreur de rendu ou d'écriture
+     */
+    public int renderSheets(Stream<QRPaymentData> items, SheetLayout layout, SheetPageSink sink) throws IOException {
+        return renderSheets(items.iterator(), layout, sink);
     }
     
     /**
@@ -162,10 +554,152 @@ public class UemoaQRService {
      * @return Les données de paiement extraites
      */
     public QRPaymentData parseQRCode(String qrData) {
-        log.info("Parsing du QR code");
+        log.debug("Parsing du QR code");
         return qrParser.parse(qrData);
     }
     
+    /**
+     * Parse un QR code EMVCo et retourne les données de paiement immuables
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @return Les données de paiement extraites
+     */
+    public QrPayment parseQRPayment(String qrData) {
+        return qrParser.parsePayment(qrData);
+    }
+    
+    /**
+     * Parse un QR code sans lever d'exception, avec le diagnostic complet
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @return Les données extraites (si possible) et tous les écarts à la spécification
+     */
+    public ParseResult tryParseQRCode(String qrData) {
+        return qrParser.tryParse(qrData);
+    }
+    
+    /**
+     * Lit une image de QR code (capture d'écran, photo) et parse son contenu
+     * 
+     * @param imageBytes L'image encodée (PNG, JPG, ...)
+     * @return Les données de paiement extraites
+     * @throws IOException En cas d'erreur de lecture de l'image
+     * @throws IllegalArgumentException si aucun QR code valide n'est lisible
+     */
+    public QRPaymentData decodeImage(byte[] imageBytes) throws IOException {
+        return qrParser.parse(imageDecoder.decode(imageBytes));
+    }
+    
+    /**
+     * Lit une image de QR code (capture d'écran, photo) et parse son contenu
+     * 
+     * @param imageStream Le flux de l'image encodée
+     * @return Les données de paiement extraites
+     * @throws IOException En cas d'erreur de lecture de l'image
+     * @throws IllegalArgumentException si aucun QR code valide n'est lisible
+     */
+    public QRPaymentData decodeImage(InputStream imageStream) throws IOException {
+        return qrParser.parse(imageDecoder.decode(imageStream));
+    }
+    
+    /**
+     * Détecte tous les QR codes d'une image (factures, planches) et parse chacun
+     * 
+     * Les symboles de même contenu ne sont retournés qu'une fois ; un symbole
+     * dont le parsing échoue est retourné avec son message d'erreur.
+     * 
+     * @param imageBytes L'image encodée (PNG, JPG, ...)
+     * @return Les symboles trouvés avec leur boîte englobante
+     * @throws IOException En cas d'erreur de lecture de l'image
+     */
+    public List<DecodedSymbol> decodeAllSymbols(byte[] imageBytes) throws IOException {
+        return parseSymbols(imageDecoder.decodeAll(imageBytes));
+    }
+    
+    /**
+     * Détecte tous les QR codes d'une image (factures, planches) et parse chacun
+     * 
+     * @param imageStream Le flux de l'image encodée
+     * @return Les symboles trouvés avec leur boîte englobante
+     * @throws IOException En cas d'erreur de lecture de l'image
+     */
+    public List<DecodedSymbol> decodeAllSymbols(InputStream imageStream) throws IOException {
+        return parseSymbols(imageDecoder.decodeAll(imageStream));
+    }
+    
+    private List<DecodedSymbol> parseSymbols(List<DecodedSymbol> symbols) {
+        List<DecodedSymbol> parsed = new ArrayList<>(symbols.size());
+        for (DecodedSymbol symbol : symbols) {
+            try {
+                parsed.add(symbol.withData(qrParser.parse(symbol.getPayload())));
+            } catch (IllegalArgumentException e) {
+                parsed.add(symbol.withError(e.getMessage()));
+            }
+        }
+        return parsed;
+    }
+    
+    /**
+     * Décode en parallèle toutes les images d'un répertoire
+     * 
+     * Chaque fichier produit un résultat (succès ou erreur), dans l'ordre
+     * alphabétique des noms de fichiers.
+     * 
+     * @param directory Le répertoire contenant les images
+     * @return Les résultats par fichier
+     * @throws IOException Si le répertoire ne peut pas être lu
+     */
+    public List<ImageDecodeResult> decodeImages(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        int parallelism = properties.getDecodeParallelism() > 0
+            ? properties.getDecodeParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, files.size()));
+        try {
+            List<Future<ImageDecodeResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> decodeFile(file)));
+            }
+            
+            List<ImageDecodeResult> results = new ArrayList<>(files.size());
+            for (Future<ImageDecodeResult> future : futures) {
+                results.add(future.get());
+            }
+            log.debug("Décodage batch de {}: {} fichiers", directory, results.size());
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Décodage batch interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors du décodage batch", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private ImageDecodeResult decodeFile(Path file) {
+        long start = System.nanoTime();
+        String payload = null;
+        try {
+            payload = imageDecoder.decode(Files.readAllBytes(file));
+            QRPaymentData data = qrParser.parse(payload);
+            return new ImageDecodeResult(file, payload, data, null, elapsedMillis(start));
+        } catch (Exception e) {
+            return new ImageDecodeResult(file, payload, null, e.getMessage(), elapsedMillis(start));
+        }
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+    
     /**
      * Génère un QR code statique pour marchand
      * 
@@ -173,8 +707,7 @@ public class UemoaQRService {
      * @return La chaîne de données EMVCo
      */
     public String generateStaticQR(@Valid QRPaymentData data) {
-        data.setType(QRPaymentData.QRType.STATIC);
-        return generateQRData(data);
+        return generateQRData(withType(data, QRPaymentData.QRType.STATIC));
     }
     
     /**
@@ -184,8 +717,7 @@ public class UemoaQRService {
      * @return La chaîne de données EMVCo
      */
     public String generateDynamicQR(@Valid QRPaymentData data) {
-        data.setType(QRPaymentData.QRType.DYNAMIC);
-        return generateQRData(data);
+        return generateQRData(withType(data, QRPaymentData.QRType.DYNAMIC));
     }
     
     /**
@@ -195,8 +727,17 @@ public class UemoaQRService {
      * @return La chaîne de données EMVCo
      */
     public String generateP2PQR(@Valid QRPaymentData data) {
-        data.setType(QRPaymentData.QRType.P2P);
-        return generateQRData(data);
+        return generateQRData(withType(data, QRPaymentData.QRType.P2P));
+    }
+    
+    /**
+     * Copie immuable des données avec le type imposé (l'objet de l'appelant n'est pas modifié)
+     */
+    private static QrPayment withType(QRPaymentData data, QRPaymentData.QRType type) {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données de paiement sont obligatoires");
+        }
+        return QrPayment.from(data).withType(type);
     }
     
     /**
@@ -206,13 +747,11 @@ public class UemoaQRService {
      * @return true si le QR code est valide
      */
     public boolean validateQRCode(String qrData) {
-        try {
-            QRPaymentData parsed = parseQRCode(qrData);
-            return parsed != null;
-        } catch (Exception e) {
-            log.error("QR code invalide: {}", e.getMessage());
-            return false;
+        ParseResult result = qrParser.tryParse(qrData);
+        if (!result.isCompliant()) {
+            log.debug("QR code invalide: {}", result.getError().getMessage());
         }
+        return result.isCompliant();
     }
     
     /**
@@ -222,43 +761,41 @@ public class UemoaQRService {
      * @return Un map contenant les détails du QR code
      */
     public Map<String, Object> getQRCodeDetails(String qrData) {
-        Map<String, Object> details = new HashMap<>();
-        
-        try {
-            QRPaymentData parsed = parseQRCode(qrData);
-            
-            details.put("valid", true);
-            details.put("type", parsed.getType());
-            
-            if (parsed.getMerchantInfo() != null) {
-                Map<String, String> merchantDetails = new HashMap<>();
-                merchantDetails.put("name", parsed.getMerchantInfo().getName());
-                merchantDetails.put("city", parsed.getMerchantInfo().getCity());
-                merchantDetails.put("country", parsed.getMerchantInfo().getCountryCode());
-                merchantDetails.put("alias", parsed.getMerchantInfo().getAlias());
-                details.put("merchant", merchantDetails);
-            }
-            
-            if (parsed.getAmount() != null) {
-                details.put("amount", parsed.getAmount());
-            }
-            
-            if (parsed.getTransactionId() != null) {
-                details.put("transactionId", parsed.getTransactionId());
-            }
-            
-            if (parsed.getMerchantChannel() != null) {
-                Map<String, Object> channelDetails = new HashMap<>();
-                channelDetails.put("code", parsed.getMerchantChannel().getCode());
-                channelDetails.put("description", parsed.getMerchantChannel().getDescription());
-                details.put("channel", channelDetails);
-            }
-            
-        } catch (Exception e) {
-            details.put("valid", false);
-            details.put("error", e.getMessage());
-        }
-        
-        return details;
+        return getDetails(qrData).toMap();
+    }
+    
+    /**
+     * Obtient les détails typés et immuables d'un QR code
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @return Les détails (valid=false avec le message d'erreur si invalide)
+     */
+    public QRCodeDetails getDetails(String qrData) {
+        ParseResult result = qrParser.tryParse(qrData);
+        return result.isCompliant()
+            ? QRCodeDetails.of(result.getPayment())
+            : QRCodeDetails.invalid(result.getError().getCode().getMessage());
+    }
+    
+    /**
+     * Écrit les détails d'un QR code en JSON (même forme que {@link #getQRCodeDetails(String)})
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @param generator Le générateur JSON (non fermé)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeQRCodeDetails(String qrData, JsonGenerator generator) throws IOException {
+        getDetails(qrData).writeTo(generator);
+    }
+    
+    /**
+     * Écrit les détails d'un QR code en JSON UTF-8
+     * 
+     * @param qrData La chaîne de données du QR code
+     * @param output Le flux de sortie (non fermé)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void writeQRCodeDetails(String qrData, OutputStream output) throws IOException {
+        getDetails(qrData).writeTo(output);
     }
 }
@@ -1,15 +1,24 @@
 package com.aveplus.uemoa.qr.utils;
 
-import org.springframework.stereotype.Component;
-
 /**
  * Calculateur de CRC16-CCITT pour la validation des QR codes EMVCo
+ * 
+ * Le calcul peut être incrémental ({@link #update(int, CharSequence)}) : un
+ * préfixe constant est alors traité une seule fois et son état réutilisé.
+ * Les caractères sont encodés en UTF-8, comme dans l'image du QR code.
  */
-@Component
 public class CRCCalculator {
     
     private static final int POLYNOMIAL = 0x1021;
-    private static final int INITIAL_VALUE = 0xFFFF;
+    
+    /**
+     * État initial du CRC, avant tout octet
+     */
+    public static final int INITIAL_VALUE = 0xFFFF;
+    
+    private static final int[] TABLE = buildTable();
+    
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
     
     /**
      * Calcule le CRC16-CCITT d'une chaîne de caractères
@@ -22,21 +31,69 @@ public class CRCCalculator {
             throw new IllegalArgumentException("Les données ne peuvent pas être nulles ou vides");
         }
         
-        int crc = INITIAL_VALUE;
-        byte[] bytes = data.getBytes();
-        
-        for (byte b : bytes) {
-            crc ^= (b & 0xFF) << 8;
-            for (int i = 0; i < 8; i++) {
-                if ((crc & 0x8000) != 0) {
-                    crc = (crc << 1) ^ POLYNOMIAL;
-                } else {
-                    crc = crc << 1;
-                }
+        return format(update(INITIAL_VALUE, data));
+    }
+    
+    /**
+     * Poursuit le calcul du CRC sur une séquence de caractères
+     * 
+     * @param crc L'état courant ({@link #INITIAL_VALUE} pour commencer)
+     * @param data Les caractères à ajouter
+     * @return Le nouvel état du CRC
+     */
+    public int update(int crc, CharSequence data) {
+        return update(crc, data, 0, data.length());
+    }
+    
+    /**
+     * Poursuit le calcul du CRC sur une portion de séquence de caractères
+     * 
+     * @param crc L'état courant ({@link #INITIAL_VALUE} pour commencer)
+     * @param data Les caractères
+     * @param start L'index du premier caractère (inclus)
+     * @param end L'index de fin (exclus)
+     * @return Le nouvel état du CRC
+     */
+    public int update(int crc, CharSequence data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = data.charAt(i);
+            if (c < 0x80) {
+                crc = updateByte(crc, c);
+            } else if (c < 0x800) {
+                crc = updateByte(crc, 0xC0 | (c >> 6));
+                crc = updateByte(crc, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end
+                    && Character.isLowSurrogate(data.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, data.charAt(++i));
+                crc = updateByte(crc, 0xF0 | (codePoint >> 18));
+                crc = updateByte(crc, 0x80 | ((codePoint >> 12) & 0x3F));
+                crc = updateByte(crc, 0x80 | ((codePoint >> 6) & 0x3F));
+                crc = updateByte(crc, 0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate isolé : remplacé par '?', comme String.getBytes(UTF_8)
+                crc = updateByte(crc, '?');
+            } else {
+                crc = updateByte(crc, 0xE0 | (c >> 12));
+                crc = updateByte(crc, 0x80 | ((c >> 6) & 0x3F));
+                crc = updateByte(crc, 0x80 | (c & 0x3F));
             }
         }
-        
-        return String.format("%04X", crc & 0xFFFF);
+        return crc;
+    }
+    
+    /**
+     * Formate un état de CRC en hexadécimal majuscule sur 4 caractères
+     * 
+     * @param crc L'état du CRC
+     * @return Le CRC au format hexadécimal
+     */
+    public String format(int crc) {
+        char[] hex = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            hex[i] = HEX_DIGITS[crc & 0xF];
+            crc >>>= 4;
+        }
+        return new String(hex);
     }
     
     /**
@@ -54,9 +111,28 @@ public class CRCCalculator {
         String providedCrc = qrData.substring(qrData.length() - 4);
         
         // Calcule le CRC sur les données sans le CRC final
-        String dataWithoutCrc = qrData.substring(0, qrData.length() - 4);
-        String calculatedCrc = calculate(dataWithoutCrc);
+        String calculatedCrc = format(update(INITIAL_VALUE, qrData, 0, qrData.length() - 4));
         
         return providedCrc.equalsIgnoreCase(calculatedCrc);
     }
+    
+    private static int updateByte(int crc, int b) {
+        return ((crc << 8) ^ TABLE[((crc >> 8) ^ b) & 0xFF]) & 0xFFFF;
+    }
+    
+    private static int[] buildTable() {
+        int[] table = new int[256];
+        for (int n = 0; n < 256; n++) {
+            int crc = n << 8;
+            for (int i = 0; i < 8; i++) {
+                if ((crc & 0x8000) != 0) {
+                    crc = (crc << 1) ^ POLYNOMIAL;
+                } else {
+                    crc = crc << 1;
+                }
+            }
+            table[n] = crc & 0xFFFF;
+        }
+        return table;
+    }
 }
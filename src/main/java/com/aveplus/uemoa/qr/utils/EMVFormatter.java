@@ -1,7 +1,6 @@
 package com.aveplus.uemoa.qr.utils;
 
 import com.aveplus.uemoa.qr.model.EMVField;
-import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +10,6 @@ import java.util.TreeMap;
 /**
  * Formateur pour les champs EMV selon la spécification EMVCo
  */
-@Component
 public class EMVFormatter {
     
     /**
@@ -49,6 +47,37 @@ public class EMVFormatter {
         return formatField(id, value);
     }
     
+    /**
+     * Ajoute un champ EMV formaté à un tampon, sans chaîne intermédiaire
+     * 
+     * Mêmes règles que {@link #formatField(String, String)} : une valeur
+     * nulle ou vide n'ajoute rien.
+     * 
+     * @param out Le tampon de destination
+     * @param id L'identifiant du champ (2 caractères)
+     * @param value La valeur du champ
+     * @return Le tampon
+     */
+    public StringBuilder appendField(StringBuilder out, String id, String value) {
+        if (id == null || id.length() != 2) {
+            throw new IllegalArgumentException("L'ID du champ doit faire exactement 2 caractères");
+        }
+        
+        if (value == null || value.isEmpty()) {
+            return out;
+        }
+        
+        int length = value.length();
+        if (length > 99) {
+            throw new IllegalArgumentException("La valeur du champ ne peut pas dépasser 99 caractères");
+        }
+        
+        return out.append(id)
+            .append((char) ('0' + length / 10))
+            .append((char) ('0' + length % 10))
+            .append(value);
+    }
+    
     /**
      * Parse un champ EMV à partir d'une position donnée
      * 
@@ -61,19 +90,33 @@ public class EMVFormatter {
             return null;
         }
         
-        try {
-            String id = data.substring(offset, offset + 2);
-            int length = Integer.parseInt(data.substring(offset + 2, offset + 4));
-            
-            if (offset + 4 + length > data.length()) {
-                return null;
-            }
-            
-            String value = data.substring(offset + 4, offset + 4 + length);
-            return new EMVField(id, value);
-        } catch (NumberFormatException e) {
+        int length = parseLength(data, offset + 2);
+        if (length < 0 || offset + 4 + length > data.length()) {
             return null;
         }
+        
+        String id = data.substring(offset, offset + 2);
+        String value = data.substring(offset + 4, offset + 4 + length);
+        return new EMVField(id, value);
+    }
+    
+    /**
+     * Lit une longueur EMV sur 2 chiffres, sans exception
+     * 
+     * @param data Les données EMV
+     * @param offset La position de la longueur
+     * @return La longueur (0 à 99), ou -1 si les 2 caractères ne sont pas des chiffres
+     */
+    public static int parseLength(String data, int offset) {
+        if (offset < 0 || offset + 2 > data.length()) {
+            return -1;
+        }
+        int tens = data.charAt(offset) - '0';
+        int units = data.charAt(offset + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return -1;
+        }
+        return tens * 10 + units;
     }
     
     /**
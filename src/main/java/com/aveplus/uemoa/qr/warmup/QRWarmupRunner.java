@@ -0,0 +1,125 @@
+package com.aveplus.uemoa.qr.warmup;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Préchauffage JIT des générateurs, du parser, du CRC et du rendu d'images
+ *
+ * Exécuté de manière synchrone sur {@link ApplicationReadyEvent} : l'état de
+ * disponibilité reste à {@link ReadinessState#REFUSING_TRAFFIC} pendant le
+ * préchauffage, la sonde Kubernetes readiness (/actuator/health/readiness)
+ * ne passe donc au vert qu'une fois le code compilé.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QRWarmupRunner implements ApplicationListener<ApplicationReadyEvent> {
+    
+    private static final String[] COUNTRIES = {"BF", "CI", "TG", "SN", "ML", "BJ", "GW", "NE"};
+    
+    private final UemoaQRService qrService;
+    private final UemoaQrProperties properties;
+    
+    private volatile WarmupReport lastReport;
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        try {
+            lastReport = warmup();
+            log.info("Préchauffage QR terminé: {} itérations en {} ms ({} échecs, images={})",
+                    lastReport.getIterations(), lastReport.getDuration().toMillis(),
+                    lastReport.getFailures(), lastReport.isImagesRendered());
+        } finally {
+            AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+    
+    /**
+     * Exécute le préchauffage avec des données synthétiques
+     * 
+     * @return Le rapport de préchauffage
+     */
+    public WarmupReport warmup() {
+        UemoaQrProperties.Warmup config = properties.getWarmup();
+        long start = System.nanoTime();
+        long deadline = start + config.getMaxDuration().toNanos();
+        boolean renderImages = properties.isGenerateQrImage();
+        
+        int iterations = 0;
+        int failures = 0;
+        while (iterations < config.getIterations() && System.nanoTime() < deadline) {
+            failures += runIteration(iterations, renderImages);
+            iterations++;
+        }
+        
+        return new WarmupReport(iterations, Duration.ofNanos(System.nanoTime() - start), failures, renderImages);
+    }
+    
+    /**
+     * Génère, parse et rend un QR de chaque type
+     * 
+     * @return Le nombre d'opérations en échec
+     */
+    private int runIteration(int i, boolean renderImages) {
+        int failures = 0;
+        for (QRPaymentData.QRType type : QRPaymentData.QRType.values()) {
+            try {
+                String payload = qrService.generateQRData(syntheticData(type, i));
+                qrService.parseQRCode(payload);
+                if (renderImages) {
+                    qrService.generateQRImageBytes(payload);
+                }
+            } catch (Exception e) {
+                failures++;
+                log.debug("Echec du préchauffage ({}): {}", type, e.getMessage());
+            }
+        }
+        return failures;
+    }
+    
+    private QRPaymentData syntheticData(QRPaymentData.QRType type, int i) {
+        MerchantInfo merchantInfo = MerchantInfo.builder()
+            .alias("warmup-" + Integer.toHexString(0x10000 + i) + "-4312-49ec-b75e-4c8c74c10fd7")
+            .name("MARCHAND " + (i % 1000))
+            .city("VILLE " + (i % 97))
+            .countryCode(COUNTRIES[i % COUNTRIES.length])
+            .build();
+        
+        QRPaymentData.QRPaymentDataBuilder builder = QRPaymentData.builder()
+            .type(type)
+            .merchantInfo(merchantInfo);
+        
+        if (type == QRPaymentData.QRType.DYNAMIC) {
+            builder.amount(BigDecimal.valueOf(100 + (i * 37L) % 500_000))
+                   .transactionId("TXN-" + i)
+                   .merchantChannel(QRPaymentData.MerchantChannel.DYNAMIC_ONSITE);
+        } else if (type == QRPaymentData.QRType.STATIC) {
+            builder.merchantChannel(QRPaymentData.MerchantChannel.STATIC_ONSITE);
+            if (i % 2 == 0) {
+                builder.amount(BigDecimal.valueOf(1000 + i));
+            }
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Dernier rapport de préchauffage
+     * 
+     * @return Le rapport, ou null si le préchauffage n'a pas encore eu lieu
+     */
+    public WarmupReport getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,32 @@
+package com.aveplus.uemoa.qr.warmup;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Résultat du préchauffage JIT
+ */
+@Value
+public class WarmupReport {
+    
+    /**
+     * Nombre d'itérations effectuées
+     */
+    int iterations;
+    
+    /**
+     * Durée totale du préchauffage
+     */
+    Duration duration;
+    
+    /**
+     * Nombre d'opérations en échec (ne bloque pas le préchauffage)
+     */
+    int failures;
+    
+    /**
+     * Indique si le rendu d'images a été préchauffé
+     */
+    boolean imagesRendered;
+}
@@ -0,0 +1,295 @@
+package com.aveplus.uemoa.qr.web;
+
+import com.aveplus.uemoa.qr.admission.AdmissionResult;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.ParseResult;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.QRGenerationResult;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Traitement en flux de lots NDJSON (génération et parsing)
+ *
+ * Chaque ligne d'entrée produit exactement une ligne de sortie, dans l'ordre
+ * d'entrée. Au plus {@code maxInFlight} lignes sont en mémoire : la lecture
+ * s'arrête tant que la plus ancienne n'a pas été écrite, si bien qu'un client
+ * lent ralentit la lecture du lot (contre-pression par le flux de réponse).
+ *
+ * Format de sortie : {@code {"line":n,"success":true,...}} ou
+ * {@code {"line":n,"success":false,"error":"..."}}. Les rendus passent par le
+ * contrôle d'admission du service : une ligne refusée faute de capacité de
+ * rendu porte {@code "rejection":"RENDER_CAPACITY"} et peut être renvoyée.
+ *
+ * Les lignes de tous les lots sont traitées par un même pool de
+ * {@code batch.parallelism} threads, arrêté par {@link #close()}.
+ */
+@Slf4j
+public class QRBatchStreamer implements AutoCloseable {
+    
+    private static final byte NEWLINE = '\n';
+    
+    private final UemoaQRService qrService;
+    private final ObjectMapper objectMapper;
+    private final UemoaQrProperties properties;
+    private final ExecutorService executor;
+    
+    /**
+     * @param qrService Le service de génération et de parsing
+     * @param objectMapper Le mapper JSON (lecture des lignes, écriture des résultats)
+     * @param properties La configuration du module (section {@code batch})
+     */
+    public QRBatchStreamer(UemoaQRService qrService, ObjectMapper objectMapper, UemoaQrProperties properties) {
+        this.qrService = qrService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(parallelism(properties.getBatch()), runnable -> {
+            Thread thread = new Thread(runnable, "uemoa-qr-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Génère un QR code par ligne {@link QRPaymentData} (JSON)
+     * 
+     * @param input Le flux NDJSON d'entrée
+     * @param output Le flux NDJSON de sortie (non fermé)
+     * @param options Les options de rendu ({@link RenderOptions#payloadOnly()} pour le payload seul)
+     * @return Le nombre de lignes traitées
+     * @throws IOException En cas d'erreur de lecture ou d'écriture
+     */
+    public long generate(InputStream input, OutputStream output, RenderOptions options) throws IOException {
+        return process(input, output, (line, json) -> {
+            QRPaymentData data = objectMapper.readValue(json, QRPaymentData.class);
+            AdmissionResult<QRGenerationResult> rendered = qrService.tryRender(qrService.generateQRData(data), options);
+            if (!rendered.isAdmitted()) {
+                return rejected(line, rendered.getRejection());
+            }
+            QRGenerationResult result = rendered.get();
+            return write(line, generator -> {
+                generator.writeStringField("data", result.getPayload());
+                generator.writeStringField("crc", result.getCrc());
+                if (result.hasImage()) {
+                    generator.writeStringField("image", result.getImageBase64());
+                } else if (result.isDegraded()) {
+                    generator.writeStringField("degraded", result.getDegradation().name());
+                }
+            });
+        });
+    }
+    
+    /**
+     * Parse un payload EMVCo par ligne (texte brut)
+     * 
+     * @param input Le flux NDJSON d'entrée (un payload par ligne)
+     * @param output Le flux NDJSON de sortie (non fermé)
+     * @return Le nombre de lignes traitées
+     * @throws IOException En cas d'erreur de lecture ou d'écriture
+     */
+    public long parse(InputStream input, OutputStream output) throws IOException {
+        return process(input, output, (line, payload) -> {
+            ParseResult result = qrService.tryParseQRCode(unquote(payload));
+            if (!result.isSuccess()) {
+                return error(line, result.getError().getCode().getMessage());
+            }
+            return write(line, generator -> generator.writeObjectField("result", result.getData()));
+        });
+    }
+    
+    /**
+     * Pipeline ordonné à fenêtre bornée
+     */
+    private long process(InputStream input, OutputStream output, LineHandler handler) throws IOException {
+        UemoaQrProperties.Batch config = properties.getBatch();
+        int maxInFlight = config.getMaxInFlight() > 0 ? config.getMaxInFlight() : parallelism(config) * 4;
+        int maxLineLength = config.getMaxLineLength();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        OutputStream out = new BufferedOutputStream(output);
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>(maxInFlight);
+        long lineNumber = 0;
+        long written = 0;
+        try {
+            StringBuilder buffer = new StringBuilder(256);
+            while (readLine(reader, buffer, maxLineLength)) {
+                long line = ++lineNumber;
+                if (buffer.length() > maxLineLength) {
+                    inFlight.add(executor.submit(() -> error(line, "Ligne trop longue (max " + maxLineLength + " caractères)")));
+                } else if (isBlank(buffer)) {
+                    continue;
+                } else {
+                    String content = buffer.toString();
+                    inFlight.add(executor.submit(() -> handle(handler, line, content)));
+                }
+                
+                // Contre-pression : on écrit la ligne la plus ancienne avant d'en lire d'autres
+                if (inFlight.size() >= maxInFlight) {
+                    writeNext(inFlight, out);
+                    written++;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeNext(inFlight, out);
+                written++;
+            }
+            out.flush();
+        } finally {
+            // Lot interrompu (erreur d'écriture du client) : les lignes restantes sont abandonnées
+            for (Future<byte[]> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+        
+        log.debug("Lot NDJSON traité: {} ligne(s)", written);
+        return written;
+    }
+    
+    /**
+     * Arrête le pool de traitement (appelé par Spring à la fermeture du contexte)
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    private static int parallelism(UemoaQrProperties.Batch config) {
+        return config.getParallelism() > 0 ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+    
+    private byte[] handle(LineHandler handler, long line, String content) throws IOException {
+        try {
+            return handler.apply(line, content);
+        } catch (Exception e) {
+            return error(line, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+    
+    /**
+     * Écrit le résultat le plus ancien ; vide le tampon avant d'attendre
+     * pour que les résultats déjà prêts partent sans délai
+     */
+    private static void writeNext(Deque<Future<byte[]>> inFlight, OutputStream out) throws IOException {
+        Future<byte[]> next = inFlight.poll();
+        if (!next.isDone()) {
+            out.flush();
+        }
+        out.write(await(next));
+        out.write(NEWLINE);
+    }
+    
+    private static byte[] await(Future<byte[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Traitement du lot interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erreur lors du traitement d'une ligne", e.getCause());
+        }
+    }
+    
+    /**
+     * Lit une ligne dans {@code buffer} ; au-delà de {@code maxLength}
+     * caractères, le reste de la ligne est ignoré (pas d'accumulation)
+     */
+    static boolean readLine(BufferedReader reader, StringBuilder buffer, int maxLength) throws IOException {
+        buffer.setLength(0);
+        int c = reader.read();
+        if (c < 0) {
+            return false;
+        }
+        while (c >= 0 && c != '\n') {
+            if (c != '\r' && buffer.length() <= maxLength) {
+                buffer.append((char) c);
+            }
+            c = reader.read();
+        }
+        return true;
+    }
+    
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Accepte aussi les payloads écrits comme chaînes JSON ("...", échappements décodés)
+     */
+    private String unquote(String payload) throws IOException {
+        String trimmed = payload.trim();
+        if (trimmed.startsWith("\"")) {
+            return objectMapper.readValue(trimmed, String.class);
+        }
+        return trimmed;
+    }
+    
+    private byte[] error(long line, String message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+            generator.writeStartObject();
+            generator.writeNumberField("line", line);
+            generator.writeBooleanField("success", false);
+            generator.writeStringField("error", message);
+            generator.writeEndObject();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private byte[] rejected(long line, AdmissionResult.Rejection rejection) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+            generator.writeStartObject();
+            generator.writeNumberField("line", line);
+            generator.writeBooleanField("success", false);
+            generator.writeStringField("error", "Capacité de rendu atteinte");
+            generator.writeStringField("rejection", rejection.name());
+            generator.writeEndObject();
+        }
+        return bytes.toByteArray();
+    }
+    
+    private byte[] write(long line, FieldWriter fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+            generator.writeStartObject();
+            generator.writeNumberField("line", line);
+            generator.writeBooleanField("success", true);
+            fields.write(generator);
+            generator.writeEndObject();
+        }
+        return bytes.toByteArray();
+    }
+    
+    @FunctionalInterface
+    private interface LineHandler {
+        byte[] apply(long line, String content) throws Exception;
+    }
+    
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
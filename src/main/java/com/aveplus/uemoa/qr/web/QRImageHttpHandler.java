@@ -0,0 +1,219 @@
+package com.aveplus.uemoa.qr.web;
+
+import com.aveplus.uemoa.qr.admission.AdmissionResult;
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.QrConfigSnapshot;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.QRGenerationResult;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.WriterException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Réponses HTTP pour les images QR avec ETag fort, Cache-Control et 304
+ *
+ * L'ETag est dérivé du payload (CRC et empreinte) et des paramètres de rendu :
+ * un client qui revalide avec If-None-Match reçoit un 304 sans qu'aucune
+ * image ne soit encodée. Avec un logo, l'ETag porte la révision du logo
+ * (empreinte de ses pixels) et non son nom : remplacer le logo change l'ETag.
+ * La taille et la marge demandées sont bornées
+ * ({@code http.max-image-size}, {@code http.max-image-margin}) : une valeur
+ * hors limites reçoit un 400 sans rendu. Les rendus passent par le contrôle
+ * d'admission du service : plafond de rendus simultanés atteint, 503.
+ */
+@Slf4j
+public class QRImageHttpHandler {
+    
+    private final UemoaQRService qrService;
+    
+    /**
+     * Configuration compilée (paramètres d'image par défaut, durées de cache)
+     */
+    private final QrConfigHolder config;
+    
+    /**
+     * Crée un gestionnaire dont la configuration est compilée depuis les propriétés
+     */
+    public QRImageHttpHandler(UemoaQRService qrService, UemoaQrProperties properties) {
+        this(qrService, new QrConfigHolder(properties, new EMVFormatter(), new CRCCalculator()));
+    }
+    
+    /**
+     * Crée un gestionnaire partageant une configuration compilée rechargeable
+     */
+    public QRImageHttpHandler(UemoaQRService qrService, QrConfigHolder config) {
+        this.qrService = qrService;
+        this.config = config;
+    }
+    
+    /**
+     * Génère (ou revalide) l'image QR de données de paiement
+     * 
+     * @param data Les données de paiement
+     * @param options Les options de rendu
+     * @param ifNoneMatch La valeur de l'en-tête If-None-Match (peut être null)
+     * @return 200 avec l'image, ou 304 si l'ETag correspond
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public ResponseEntity<byte[]> handle(QRPaymentData data, RenderOptions options, String ifNoneMatch)
+            throws WriterException, IOException {
+        return handlePayload(qrService.generateQRData(data), options, ifNoneMatch);
+    }
+    
+    /**
+     * Génère (ou revalide) l'image QR d'un payload EMVCo
+     * 
+     * @param qrData La chaîne de données EMVCo
+     * @param options Les options de rendu
+     * @param ifNoneMatch La valeur de l'en-tête If-None-Match (peut être null)
+     * @return 200 avec l'image, 304 si l'ETag correspond, 400 si la taille ou la marge est hors limites,
+     *         503 si la capacité de rendu est atteinte
+     * @throws WriterException En cas d'erreur de génération de l'image
+     * @throws IOException En cas d'erreur d'écriture de l'image
+     */
+    public ResponseEntity<byte[]> handlePayload(String qrData, RenderOptions options, String ifNoneMatch)
+            throws WriterException, IOException {
+        if (qrData == null || qrData.length() < 8) {
+            throw new IllegalArgumentException("Les données du QR code sont invalides");
+        }
+        QrConfigSnapshot snapshot = config.current();
+        RenderOptions resolved = resolve(options, snapshot);
+        if (!withinLimits(resolved, snapshot)) {
+            log.debug("Image QR refusée: taille={}, marge={}", resolved.getSize(), resolved.getMargin());
+            return ResponseEntity.badRequest().build();
+        }
+        String logoRevision = null;
+        if (resolved.getLogo() != null) {
+            logoRevision = qrService.logoRevision(resolved.getLogo());
+            if (logoRevision == null) {
+                throw new IllegalArgumentException("Logo inconnu: " + resolved.getLogo());
+            }
+        }
+        String etag = etag(qrData, resolved, logoRevision);
+        CacheControl cacheControl = cacheControl(qrData, snapshot);
+        
+        if (matches(ifNoneMatch, etag)) {
+            log.debug("Image QR non modifiée: {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+        }
+        
+        AdmissionResult<QRGenerationResult> rendered = qrService.tryRender(qrData, resolved);
+        if (!rendered.isAdmitted()) {
+            log.debug("Image QR refusée: {}", rendered.getRejection());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .cacheControl(CacheControl.noStore())
+                .build();
+        }
+        QRGenerationResult result = rendered.get();
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .contentType(mediaType(result.getImageFormat()))
+            .contentLength(result.getImageSize())
+            .body(result.getImageBytes());
+    }
+    
+    /**
+     * Fige les paramètres de rendu (valeurs par défaut du module) pour l'ETag
+     */
+    private static RenderOptions resolve(RenderOptions options, QrConfigSnapshot snapshot) {
+        RenderOptions base = options != null ? options : RenderOptions.defaults();
+        return base.toBuilder()
+            .includeImage(true)
+            .deadline(null)
+            .size(base.getSize() != null ? base.getSize() : snapshot.getQrImageSize())
+            .margin(base.getMargin() != null ? base.getMargin() : snapshot.getQrImageMargin())
+            .format((base.getFormat() != null ? base.getFormat() : snapshot.getImageFormat()).toUpperCase(Locale.ROOT))
+            .build();
+    }
+    
+    /**
+     * Vérifie la taille (1 à max-image-size) et la marge (0 à max-image-margin) avant tout rendu
+     */
+    private static boolean withinLimits(RenderOptions options, QrConfigSnapshot snapshot) {
+        return options.getSize() > 0 && options.getSize() <= snapshot.getMaxImageSize()
+            && options.getMargin() >= 0 && options.getMargin() <= snapshot.getMaxImageMargin();
+    }
+    
+    /**
+     * ETag fort : CRC16 du payload, empreinte FNV-1a 64 bits (le CRC seul
+     * n'a que 65536 valeurs), paramètres de rendu et révision du logo
+     */
+    static String etag(String qrData, RenderOptions options, String logoRevision) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < qrData.length(); i++) {
+            hash ^= qrData.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return "\"" + qrData.substring(qrData.length() - 4)
+            + '-' + Long.toHexString(hash)
+            + '-' + options.getSize() + 'x' + options.getMargin()
+            + '-' + options.getErrorCorrection()
+            + '-' + options.getFormat().toLowerCase(Locale.ROOT)
+            + (logoRevision != null ? "-logo-" + logoRevision : "") + '"';
+    }
+    
+    /**
+     * Comparaison faible (RFC 9110) de l'en-tête If-None-Match avec l'ETag
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Cache long pour les QR statiques/P2P, court pour les QR dynamiques
+     * (méthode d'initiation "12" en position 6 : 000201 010212)
+     */
+    private static CacheControl cacheControl(String qrData, QrConfigSnapshot snapshot) {
+        boolean dynamic = qrData.startsWith("010212", 6);
+        return dynamic
+            ? CacheControl.maxAge(snapshot.getDynamicMaxAge()).cachePrivate()
+            : CacheControl.maxAge(snapshot.getStaticMaxAge()).cachePublic();
+    }
+    
+    private static MediaType mediaType(String format) {
+        switch (format.toUpperCase(Locale.ROOT)) {
+            case "PNG":
+                return MediaType.IMAGE_PNG;
+            case "JPG":
+            case "JPEG":
+                return MediaType.IMAGE_JPEG;
+            case "GIF":
+                return MediaType.IMAGE_GIF;
+            default:
+                return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.aveplus.uemoa.qr.admission;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.QRGenerationResult;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AdmissionController (sans Spring)
+ */
+public class AdmissionControllerTest {
+    
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    
+    private AdmissionController controller(int burst, double refillPerSecond, int maxConcurrentRenders) {
+        return new AdmissionController(burst, refillPerSecond, maxConcurrentRenders,
+                Duration.ofMinutes(1), 1_000, now::get);
+    }
+    
+    @Test
+    public void testBurstThenRefill() {
+        AdmissionController controller = controller(5, 10, 0);
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Duration.ZERO, controller.tryAcquire("merchant-a"));
+        }
+        Duration wait = controller.tryAcquire("merchant-a");
+        assertEquals(Duration.ofMillis(100), wait);
+        
+        // Les autres clés ne sont pas affectées
+        assertEquals(Duration.ZERO, controller.tryAcquire("merchant-b"));
+        
+        now.addAndGet(wait.toNanos());
+        assertEquals(Duration.ZERO, controller.tryAcquire("merchant-a"));
+        assertFalse(controller.tryAcquire("merchant-a").isZero());
+        assertEquals(7, controller.admittedCount());
+        assertEquals(2, controller.rateLimitedCount());
+    }
+    
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        AdmissionController controller = controller(2, 1, 0);
+        for (int i = 0; i < 100; i++) {
+            controller.tryAcquire("client-" + i);
+        }
+        assertEquals(100, controller.size());
+        
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        controller.tryAcquire("client-0");
+        assertEquals(1, controller.size());
+    }
+    
+    @Test
+    public void testKeysBeyondLimitShareOverflowBucket() {
+        AdmissionController controller = new AdmissionController(3, 1, 0,
+                Duration.ofMinutes(1), 10, now::get);
+        for (int i = 0; i < 10; i++) {
+            controller.tryAcquire("client-" + i);
+        }
+        
+        // Trois jetons partagés par toutes les nouvelles clés
+        int admitted = 0;
+        for (int i = 10; i < 20; i++) {
+            if (controller.tryAcquire("client-" + i).isZero()) {
+                admitted++;
+            }
+        }
+        assertEquals(3, admitted);
+        assertEquals(11, controller.size());
+    }
+    
+    @Test
+    public void testKeyRotationDoesNotSweepPerRequest() {
+        AdmissionController controller = new AdmissionController(3, 1, 0,
+                Duration.ofMinutes(1), 10, now::get);
+        for (int i = 0; i < 50_000; i++) {
+            now.addAndGet(1_000);
+            controller.tryAcquire("rotating-" + i);
+        }
+        assertEquals(0, controller.sweepCount());
+        assertEquals(11, controller.size());
+        
+        // Le balayage périodique libère les seaux inactifs, une seule fois
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertTrue(controller.tryAcquire("fresh").isZero());
+        controller.tryAcquire("fresher");
+        assertEquals(1, controller.sweepCount());
+        assertEquals(2, controller.size());
+    }
+    
+    @Test
+    public void testConcurrentAcquisitionsNeverExceedBurst() throws Exception {
+        AdmissionController controller = controller(1_000, 0.001, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (controller.tryAcquire("hot-merchant").isZero()) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1_000, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testServiceReturnsTypedRejections() throws Exception {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        AdmissionController controller = controller(2, 1, 1);
+        UemoaQRService service = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator), properties,
+            new QRImageRenderer(properties), new QRImageDecoder(properties), controller);
+        QRPaymentData data = QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("MERCHANT-LOOP").name("BOUTIQUE LOOP").city("Dakar").countryCode("SN").build())
+            .amount(new BigDecimal("1000"))
+            .transactionId("TXN-1")
+            .build();
+        
+        assertTrue(service.tryGenerateQRData(data, null).isAdmitted());
+        AdmissionResult<QRGenerationResult> rendered = service.tryGenerate(data, null, RenderOptions.defaults());
+        assertTrue(rendered.isAdmitted());
+        assertTrue(rendered.get().hasImage());
+        
+        AdmissionResult<String> limited = service.tryGenerateQRData(data, null);
+        assertFalse(limited.isAdmitted());
+        assertEquals(AdmissionResult.Rejection.RATE_LIMITED, limited.getRejection());
+        assertEquals(Duration.ofSeconds(1), limited.getRetryAfter());
+        assertThrows(java.util.NoSuchElementException.class, limited::get);
+        
+        // Un autre client n'est pas limité, mais le plafond de rendus s'applique à tous
+        assertTrue(service.tryGenerateQRData(data, "other-client").isAdmitted());
+        assertTrue(controller.tryAcquireRender());
+        try {
+            AdmissionResult<QRGenerationResult> busy = service.tryGenerate(data, "other-client", null);
+            assertEquals(AdmissionResult.Rejection.RENDER_CAPACITY, busy.getRejection());
+            assertTrue(service.tryGenerate(data, "other-client", RenderOptions.payloadOnly()).isAdmitted());
+        } finally {
+            controller.releaseRender();
+        }
+        assertEquals(0, controller.activeRenders());
+    }
+}
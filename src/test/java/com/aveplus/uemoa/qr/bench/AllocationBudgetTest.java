@@ -0,0 +1,194 @@
+package com.aveplus.uemoa.qr.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.QrTemplate;
+import com.aveplus.uemoa.qr.generator.QrTemplateCache;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.AdditionalData;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.model.QrPayment;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Budgets d'allocation par opération du chemin critique (sans Spring)
+ *
+ * Les octets alloués par le thread courant sont mesurés avec
+ * {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes}
+ * après préchauffage JIT, sur plusieurs tours dont on retient le minimum.
+ * Un budget dépassé fait échouer le build avec le tableau mesuré / budget
+ * de toutes les opérations. Les budgets gardent une marge d'environ 50 %
+ * sur les valeurs mesurées (JDK 17, C2) : une régression qui double les
+ * allocations est détectée, pas une variation de quelques octets.
+ */
+public class AllocationBudgetTest {
+    
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+    private static final int ROUNDS = 3;
+    
+    /**
+     * Les tests journalisent en DEBUG : les messages (et leurs arguments)
+     * fausseraient la mesure
+     */
+    private static final String LOGGER_NAME = "com.aveplus.uemoa";
+    private static Level previousLevel;
+    
+    private static com.sun.management.ThreadMXBean threads;
+    
+    /**
+     * Opération mesurée et son budget en octets par appel
+     */
+    private record Budget(String operation, long bytesPerCall, Supplier<Object> call) {
+    }
+    
+    @BeforeAll
+    public static void setUpMeasurement() {
+        Logger logger = (Logger) LoggerFactory.getLogger(LOGGER_NAME);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+        
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "com.sun.management.ThreadMXBean indisponible");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Mesure des allocations par thread non supportée");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+    
+    @AfterAll
+    public static void restoreLogging() {
+        ((Logger) LoggerFactory.getLogger(LOGGER_NAME)).setLevel(previousLevel);
+    }
+    
+    @Test
+    public void testHotPathAllocationBudgets() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        QrConfigHolder config = new QrConfigHolder(properties, formatter, crcCalculator);
+        StaticQRGenerator staticGenerator = new StaticQRGenerator(formatter, crcCalculator, properties, config);
+        DynamicQRGenerator dynamicGenerator = new DynamicQRGenerator(formatter, crcCalculator, properties, config);
+        P2PQRGenerator p2pGenerator = new P2PQRGenerator(formatter, crcCalculator, properties, config);
+        QRParser parser = new QRParser(crcCalculator);
+        UemoaQRService service = new UemoaQRService(staticGenerator, dynamicGenerator, p2pGenerator,
+                parser, properties, null, new QRImageDecoder(properties));
+        
+        QrPayment dynamic = QrPayment.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchant(new QrMerchant("111c3e1b-4312-49ec-b75e-4c8c74c10fd7", "BOUTIQUE BUDGET", "Abidjan", "CI", null))
+            .amount(new BigDecimal("18000"))
+            .transactionId("TXN-2024-001")
+            .merchantChannel(QRPaymentData.MerchantChannel.DYNAMIC_ONSITE)
+            .additionalData(AdditionalData.of("05", "REF-42"))
+            .build();
+        QrPayment staticPayment = dynamic.toBuilder()
+            .type(QRPaymentData.QRType.STATIC)
+            .merchantChannel(QRPaymentData.MerchantChannel.STATIC_WITH_AMOUNT)
+            .build();
+        QrPayment p2p = dynamic.toBuilder().type(QRPaymentData.QRType.P2P).merchantChannel(null).build();
+        QRPaymentData staticBean = staticPayment.toQRPaymentData();
+        QRPaymentData dynamicBean = dynamic.toQRPaymentData();
+        QRPaymentData p2pBean = p2p.toQRPaymentData();
+        QrTemplate template = new QrTemplateCache(formatter, crcCalculator, config, 16).get(dynamic);
+        BigDecimal amount = dynamic.amount();
+        String payload = dynamicGenerator.generate(dynamic);
+        String payloadWithoutCrc = payload.substring(0, payload.length() - 4);
+        ByteArrayOutputStream detailsOutput = new ByteArrayOutputStream(1024);
+        
+        List<Budget> budgets = List.of(
+            new Budget("StaticQRGenerator.generate(QRPaymentData)", 13_000, () -> staticGenerator.generate(staticBean)),
+            new Budget("StaticQRGenerator.generate(QrPayment)", 13_000, () -> staticGenerator.generate(staticPayment)),
+            new Budget("DynamicQRGenerator.generate(QRPaymentData)", 13_000, () -> dynamicGenerator.generate(dynamicBean)),
+            new Budget("DynamicQRGenerator.generate(QrPayment)", 13_000, () -> dynamicGenerator.generate(dynamic)),
+            new Budget("P2PQRGenerator.generate(QRPaymentData)", 13_000, () -> p2pGenerator.generate(p2pBean)),
+            new Budget("P2PQRGenerator.generate(QrPayment)", 13_000, () -> p2pGenerator.generate(p2p)),
+            new Budget("UemoaQRService.generateQRData(QRPaymentData)", 13_000, () -> service.generateQRData(dynamicBean)),
+            new Budget("UemoaQRService.generateQRData(QrPayment)", 13_000, () -> service.generateQRData(dynamic)),
+            new Budget("QrTemplate.render", 1_000, () -> template.render(amount, "TXN-2024-001")),
+            new Budget("QRParser.tryParse", 4_500, () -> parser.tryParse(payload)),
+            new Budget("QRParser.parsePayment", 4_500, () -> parser.parsePayment(payload)),
+            new Budget("QRParser.parse", 4_500, () -> parser.parse(payload)),
+            new Budget("UemoaQRService.parseQRCode", 4_500, () -> service.parseQRCode(payload)),
+            new Budget("UemoaQRService.validateQRCode", 4_500, () -> service.validateQRCode(payload)),
+            new Budget("UemoaQRService.writeQRCodeDetails", 4_500, () -> writeDetails(service, payload, detailsOutput)),
+            new Budget("CRCCalculator.validate", 160, () -> crcCalculator.validate(payload)),
+            new Budget("CRCCalculator.calculate", 128, () -> crcCalculator.calculate(payloadWithoutCrc)),
+            new Budget("CRCCalculator.update", 64, () -> crcCalculator.update(CRCCalculator.INITIAL_VALUE, payloadWithoutCrc))
+        );
+        
+        List<String> exceeded = new ArrayList<>();
+        StringBuilder report = new StringBuilder(String.format("%nAllocations par appel (octets, après préchauffage)%n"));
+        report.append(String.format("%-44s %10s %10s%n", "Opération", "Mesuré", "Budget"));
+        for (Budget budget : budgets) {
+            long measured = measure(budget.call());
+            boolean ok = measured <= budget.bytesPerCall();
+            if (!ok) {
+                exceeded.add(budget.operation());
+            }
+            report.append(String.format("%-44s %10d %10d%s%n", budget.operation(), measured,
+                    budget.bytesPerCall(), ok ? "" : "  DÉPASSÉ"));
+        }
+        
+        assertTrue(exceeded.isEmpty(), "Budget d'allocation dépassé pour " + exceeded + report);
+    }
+    
+    /**
+     * Détails JSON écrits dans un tampon réutilisé (seul le coût de l'appel est mesuré)
+     */
+    private static Object writeDetails(UemoaQRService service, String payload, ByteArrayOutputStream output) {
+        output.reset();
+        try {
+            service.writeQRCodeDetails(payload, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output;
+    }
+    
+    /**
+     * Octets alloués par appel : minimum sur plusieurs tours, après préchauffage
+     */
+    private static long measure(Supplier<Object> call) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += call.get().hashCode();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sink += call.get().hashCode();
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            best = Math.min(best, allocated / MEASURED_ITERATIONS);
+        }
+        // Empêche l'élimination des appels par le JIT
+        assertNotEquals(Long.MIN_VALUE, sink);
+        return best;
+    }
+}
@@ -0,0 +1,78 @@
+package com.aveplus.uemoa.qr.bench;
+
+import com.aveplus.uemoa.qr.codec.QRPaymentCodec;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Comparaison du format binaire {@link QRPaymentCodec} et de Jackson (taille et débit)
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:exec -Dbench.main=com.aveplus.uemoa.qr.bench.CodecBenchmark
+ * </pre>
+ */
+public final class CodecBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS = 200_000;
+
+    private CodecBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> additionalData = new HashMap<>();
+        additionalData.put("05", "REF-42");
+        additionalData.put("08", "Achat");
+        QRPaymentData data = QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE BENCH")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("18000"))
+            .transactionId("TXN-2024-001")
+            .merchantChannel(QRPaymentData.MerchantChannel.DYNAMIC_ONSITE)
+            .additionalData(additionalData)
+            .build();
+
+        // Même réglage que l'ObjectMapper de Spring Boot
+        ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        byte[] json = mapper.writeValueAsBytes(data);
+        byte[] binary = QRPaymentCodec.encode(data);
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+
+        System.out.println();
+        System.out.printf("Taille: JSON=%d octets, binaire=%d octets%n", json.length, binary.length);
+
+        long sink = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += mapper.readValue(mapper.writeValueAsBytes(data), QRPaymentData.class).hashCode();
+            }
+            long jackson = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                buffer.clear();
+                QRPaymentCodec.write(data, buffer);
+                buffer.flip();
+                sink += QRPaymentCodec.read(buffer).hashCode();
+            }
+            long codec = System.nanoTime() - start;
+
+            System.out.printf("Tour %d: Jackson %4d ns/aller-retour, binaire %4d ns/aller-retour (x%.1f)%n",
+                round, jackson / ITERATIONS, codec / ITERATIONS, (double) jackson / codec);
+        }
+        System.out.println(sink == 42 ? "" : "ok");
+    }
+}
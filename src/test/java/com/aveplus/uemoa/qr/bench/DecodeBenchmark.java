@@ -0,0 +1,111 @@
+package com.aveplus.uemoa.qr.bench;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.DecodedSymbol;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Mesure du décodage multi-symboles d'une grande page (6000x4000, 4 QR à cheval sur les tuiles)
+ *
+ * Objectif : une page de 24 Mpx décodée en moins d'une seconde une fois le JIT
+ * chaud (environ 300 ms sur un seul cœur). Le code de sortie est 1 si le
+ * meilleur temps dépasse l'objectif ou si un symbole manque :
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:exec -Dbench.main=com.aveplus.uemoa.qr.bench.DecodeBenchmark \
+ *     -Dbench.args="--rounds 10 --target-ms 1000"
+ * </pre>
+ */
+public final class DecodeBenchmark {
+
+    private static final int WIDTH = 6000;
+    private static final int HEIGHT = 4000;
+    private static final int[][] POSITIONS = {{300, 300}, {1900, 400}, {3800, 1850}, {5300, 3300}};
+
+    private DecodeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rounds = 10;
+        long targetMillis = 1000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                case "--target-ms" -> targetMillis = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Option inconnue: " + args[i]);
+            }
+        }
+
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        DynamicQRGenerator generator = new DynamicQRGenerator(formatter, crcCalculator, properties);
+        QRImageRenderer renderer = new QRImageRenderer(properties);
+        QRImageDecoder decoder = new QRImageDecoder(properties);
+
+        BufferedImage page = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        for (int i = 0; i < POSITIONS.length; i++) {
+            String payload = generator.generate(QRPaymentData.builder()
+                .type(QRPaymentData.QRType.DYNAMIC)
+                .merchantInfo(MerchantInfo.builder()
+                    .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                    .name("BOUTIQUE BENCH")
+                    .city("Abidjan")
+                    .countryCode("CI")
+                    .build())
+                .amount(new BigDecimal("15000"))
+                .transactionId("ECHEANCE-" + (i + 1))
+                .build());
+            byte[] image = renderer.render(payload, RenderOptions.defaults().toBuilder().size(400).build()).image();
+            graphics.drawImage(ImageIO.read(new ByteArrayInputStream(image)), POSITIONS[i][0], POSITIONS[i][1], null);
+        }
+        graphics.dispose();
+
+        // Préchauffage du JIT
+        for (int i = 0; i < 3; i++) {
+            decoder.decodeAll(page);
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        int found = POSITIONS.length;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            List<DecodedSymbol> symbols = decoder.decodeAll(page);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+            found = Math.min(found, symbols.size());
+        }
+
+        long bestMillis = best / 1_000_000;
+        System.out.println();
+        System.out.printf("=== Décodage d'une page %dx%d (%d symboles) ===%n", WIDTH, HEIGHT, POSITIONS.length);
+        System.out.printf("meilleur : %6d ms%n", bestMillis);
+        System.out.printf("moyenne  : %6d ms  (%d tours)%n", total / rounds / 1_000_000, rounds);
+        System.out.printf("objectif : %6d ms%n", targetMillis);
+
+        if (found < POSITIONS.length || bestMillis >= targetMillis) {
+            System.out.printf("ÉCHEC (%d symbole(s) décodé(s) sur %d)%n", found, POSITIONS.length);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.aveplus.uemoa.qr.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Harnais de charge en processus pour {@link UemoaQRService}
+ *
+ * Modèle ouvert : chaque thread exécute ses opérations à des instants planifiés
+ * (débit fixe), quelle que soit la durée des précédentes. La latence est mesurée
+ * depuis l'instant planifié (correction de l'omission coordonnée) ; le temps de
+ * service seul est aussi mesuré pour comparaison.
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:exec -Dbench.main=com.aveplus.uemoa.qr.bench.LoadHarness \
+ *     -Dbench.args="--rate 2000 --threads 4 --duration 60s --warmup 15s
+ *                   --mix static=40,dynamic=30,p2p=10,parse=15,render=5
+ *                   --replay payloads.txt --out target/load"
+ * </pre>
+ *
+ * Options (valeurs par défaut entre parenthèses) : {@code --rate} opérations/s
+ * au total (1000), {@code --threads} (nombre de processeurs), {@code --duration}
+ * (30s), {@code --warmup} (10s), {@code --interval} de rapport (1s),
+ * {@code --mix} pondérations par opération, {@code --replay} fichier de payloads
+ * capturés (un par ligne, utilisés par parse et render), {@code --seed} (42),
+ * {@code --out} répertoire des résultats (target/load).
+ *
+ * Résultats : tableau console, {@code summary.json} et {@code latency.hlog}
+ * (journal HdrHistogram par intervalle, une étiquette par opération, lisible
+ * par HistogramLogAnalyzer / HistogramLogProcessor).
+ */
+public final class LoadHarness {
+
+    /**
+     * Opérations de la charge
+     */
+    enum Operation {
+        STATIC, DYNAMIC, P2P, PARSE, RENDER
+    }
+
+    /**
+     * Valeur maximale suivie par les histogrammes (60 s, en nanosecondes)
+     */
+    private static final long HIGHEST_TRACKABLE = TimeUnit.SECONDS.toNanos(60);
+
+    private final UemoaQRService qrService;
+    private final Options options;
+    private final Map<Operation, Recorder> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> service = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, QRPaymentData[]> inputs = new EnumMap<>(Operation.class);
+    private final String[] payloads;
+    private final AtomicLong payloadIndex = new AtomicLong();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadHarness(UemoaQRService qrService, Options options, String[] payloads) {
+        this.qrService = qrService;
+        this.options = options;
+        this.payloads = payloads;
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new Recorder(HIGHEST_TRACKABLE, 3));
+            service.put(operation, new Recorder(HIGHEST_TRACKABLE, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Options options = Options.parse(args);
+        UemoaQRService qrService = newService();
+        String[] payloads = options.replay != null
+            ? Files.readAllLines(options.replay, StandardCharsets.UTF_8).stream()
+                .map(String::trim).filter(line -> !line.isEmpty()).toArray(String[]::new)
+            : null;
+        if (payloads != null && payloads.length == 0) {
+            throw new IllegalArgumentException("Fichier de rejeu vide: " + options.replay);
+        }
+
+        new LoadHarness(qrService, options, payloads).run();
+    }
+
+    private static UemoaQRService newService() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        return new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+    }
+
+    private void run() throws Exception {
+        prepareInputs();
+        Files.createDirectories(options.out);
+
+        PrintStream console = System.out;
+        console.printf(Locale.ROOT, "%nCharge: %d op/s, %d thread(s), mix %s, préchauffage %ds, mesure %ds%s%n",
+            options.rate, options.threads, options.mix, options.warmup.toSeconds(), options.duration.toSeconds(),
+            payloads != null ? ", rejeu de " + payloads.length + " payload(s)" : "");
+
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup.toNanos();
+        long end = measureStart + options.duration.toNanos();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * options.threads / options.rate;
+
+        List<Thread> workers = new ArrayList<>(options.threads);
+        for (int i = 0; i < options.threads; i++) {
+            long firstStart = start + TimeUnit.SECONDS.toNanos(1) * i / options.rate;
+            Thread worker = new Thread(() -> work(firstStart, intervalNanos, end, new SplittableRandom(options.seed + firstStart - start)),
+                "uemoa-qr-load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        sleepUntil(measureStart);
+        long startMillis = System.currentTimeMillis();
+        resetRecorders();
+        recording = true;
+
+        Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+        Map<Operation, Histogram> serviceTotals = new EnumMap<>(Operation.class);
+        File logFile = options.out.resolve("latency.hlog").toFile();
+        try (PrintStream log = new PrintStream(logFile, StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+
+            long nextReport = measureStart + options.interval.toNanos();
+            while (nextReport <= end) {
+                sleepUntil(nextReport);
+                report(writer, totals, serviceTotals, (nextReport - measureStart) / 1_000_000_000.0);
+                nextReport += options.interval.toNanos();
+            }
+            sleepUntil(end);
+            running = false;
+            for (Thread worker : workers) {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            }
+            report(writer, totals, serviceTotals, (System.nanoTime() - measureStart) / 1_000_000_000.0);
+        }
+
+        double seconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+        printSummary(console, totals, serviceTotals, seconds);
+        writeSummary(totals, serviceTotals, seconds);
+        console.printf("Résultats: %s, %s%n", options.out.resolve("summary.json"), logFile);
+    }
+
+    /**
+     * Boucle d'un thread : opérations aux instants planifiés, latence mesurée
+     * depuis l'instant planifié (et non depuis le début effectif)
+     */
+    private void work(long firstStart, long intervalNanos, long end, SplittableRandom random) {
+        long intended = firstStart;
+        while (running && intended < end) {
+            sleepUntil(intended);
+            Operation operation = options.pick(random.nextInt(options.totalWeight));
+            long actualStart = System.nanoTime();
+            try {
+                execute(operation, random);
+            } catch (Exception e) {
+                errors.get(operation).increment();
+            }
+            long done = System.nanoTime();
+            if (recording) {
+                latency.get(operation).recordValue(Math.min(done - intended, HIGHEST_TRACKABLE));
+                service.get(operation).recordValue(Math.min(done - actualStart, HIGHEST_TRACKABLE));
+            }
+            intended += intervalNanos;
+        }
+    }
+
+    private void execute(Operation operation, SplittableRandom random) throws Exception {
+        switch (operation) {
+            case STATIC:
+            case DYNAMIC:
+            case P2P:
+                QRPaymentData[] candidates = inputs.get(operation);
+                qrService.generateQRData(candidates[random.nextInt(candidates.length)]);
+                break;
+            case PARSE:
+                qrService.parseQRCode(nextPayload(random));
+                break;
+            case RENDER:
+                qrService.generateQRImageBytes(nextPayload(random));
+                break;
+            default:
+                throw new IllegalStateException("Opération inconnue: " + operation);
+        }
+    }
+
+    private String nextPayload(SplittableRandom random) {
+        if (payloads != null) {
+            return payloads[(int) (payloadIndex.getAndIncrement() % payloads.length)];
+        }
+        Operation source = Operation.values()[random.nextInt(3)];
+        QRPaymentData[] candidates = inputs.get(source);
+        return qrService.generateQRData(candidates[random.nextInt(candidates.length)]);
+    }
+
+    /**
+     * Données synthétiques : 256 marchands/transactions différents par type
+     */
+    private void prepareInputs() {
+        SplittableRandom random = new SplittableRandom(options.seed);
+        String[] cities = {"Abidjan", "Dakar", "Ouagadougou", "Bamako", "Lome", "Cotonou", "Niamey", "Bissau"};
+        String[] countries = {"CI", "SN", "BF", "ML", "TG", "BJ", "NE", "GW"};
+        for (Operation operation : new Operation[] {Operation.STATIC, Operation.DYNAMIC, Operation.P2P}) {
+            QRPaymentData[] data = new QRPaymentData[256];
+            for (int i = 0; i < data.length; i++) {
+                int place = random.nextInt(cities.length);
+                MerchantInfo merchant = MerchantInfo.builder()
+                    .alias(String.format("%08x-load-%04d", random.nextInt(), i))
+                    .name(operation == Operation.P2P ? "PARTICULIER " + i : "BOUTIQUE " + i)
+                    .city(cities[place])
+                    .countryCode(countries[place])
+                    .build();
+                QRPaymentData.QRPaymentDataBuilder builder = QRPaymentData.builder()
+                    .type(QRPaymentData.QRType.valueOf(operation.name()))
+                    .merchantInfo(merchant)
+                    .additionalData(new HashMap<>());
+                if (operation == Operation.DYNAMIC) {
+                    builder.amount(BigDecimal.valueOf(100 + random.nextInt(500_000)))
+                        .transactionId("TX-" + i + "-" + random.nextInt(1_000_000));
+                } else if (random.nextInt(4) == 0) {
+                    builder.amount(BigDecimal.valueOf(100 + random.nextInt(50_000)));
+                }
+                data[i] = builder.build();
+            }
+            inputs.put(operation, data);
+        }
+    }
+
+    private void resetRecorders() {
+        for (Operation operation : Operation.values()) {
+            latency.get(operation).reset();
+            service.get(operation).reset();
+            errors.get(operation).reset();
+        }
+    }
+
+    private void report(HistogramLogWriter writer, Map<Operation, Histogram> totals,
+                        Map<Operation, Histogram> serviceTotals, double elapsed) {
+        long count = 0;
+        Histogram all = new Histogram(HIGHEST_TRACKABLE, 3);
+        for (Operation operation : Operation.values()) {
+            Histogram interval = latency.get(operation).getIntervalHistogram();
+            Histogram serviceInterval = service.get(operation).getIntervalHistogram();
+            if (interval.getTotalCount() > 0) {
+                interval.setTag(operation.name().toLowerCase(Locale.ROOT));
+                writer.outputIntervalHistogram(interval);
+            }
+            totals.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE, 3)).add(interval);
+            serviceTotals.computeIfAbsent(operation, key -> new Histogram(HIGHEST_TRACKABLE, 3)).add(serviceInterval);
+            all.add(interval);
+            count += interval.getTotalCount();
+        }
+        if (count == 0) {
+            return;
+        }
+        double seconds = options.interval.toNanos() / 1_000_000_000.0;
+        System.out.printf(Locale.ROOT, "[%6.1fs] %8.0f op/s  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms%n",
+            elapsed, count / seconds, millis(all.getValueAtPercentile(50)),
+            millis(all.getValueAtPercentile(99)), millis(all.getMaxValue()));
+    }
+
+    private void printSummary(PrintStream console, Map<Operation, Histogram> totals,
+                              Map<Operation, Histogram> serviceTotals, double seconds) {
+        console.println();
+        console.println("Latence corrigée (depuis l'instant planifié), en ms ; service = temps d'exécution seul");
+        console.printf(Locale.ROOT, "%-8s %10s %10s %9s %9s %9s %9s %11s %7s%n",
+            "op", "nombre", "op/s", "p50", "p99", "p99.9", "max", "service p99", "erreurs");
+        Histogram all = new Histogram(HIGHEST_TRACKABLE, 3);
+        Histogram allService = new Histogram(HIGHEST_TRACKABLE, 3);
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            all.add(histogram);
+            allService.add(serviceTotals.get(operation));
+            allErrors += errors.get(operation).sum();
+            if (histogram.getTotalCount() > 0) {
+                printRow(console, operation.name().toLowerCase(Locale.ROOT), histogram,
+                    serviceTotals.get(operation), errors.get(operation).sum(), seconds);
+            }
+        }
+        printRow(console, "total", all, allService, allErrors, seconds);
+        console.println();
+    }
+
+    private static void printRow(PrintStream console, String name, Histogram histogram, Histogram serviceTime,
+                                 long errorCount, double seconds) {
+        console.printf(Locale.ROOT, "%-8s %10d %10.0f %9.3f %9.3f %9.3f %9.3f %11.3f %7d%n",
+            name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+            millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()),
+            millis(serviceTime.getValueAtPercentile(99)), errorCount);
+    }
+
+    private void writeSummary(Map<Operation, Histogram> totals, Map<Operation, Histogram> serviceTotals,
+                              double seconds) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("rate", options.rate);
+        summary.put("threads", options.threads);
+        summary.put("durationSeconds", seconds);
+        summary.put("mix", options.mix);
+        summary.put("replay", options.replay != null ? options.replay.toString() : null);
+        summary.put("seed", options.seed);
+        summary.put("javaVersion", System.getProperty("java.version"));
+        summary.put("processors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("throughput", histogram.getTotalCount() / seconds);
+            stats.put("errors", errors.get(operation).sum());
+            stats.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(histogram.getMaxValue()));
+            stats.put("serviceP50Ms", millis(serviceTotals.get(operation).getValueAtPercentile(50)));
+            stats.put("serviceP99Ms", millis(serviceTotals.get(operation).getValueAtPercentile(99)));
+            operations.put(operation.name().toLowerCase(Locale.ROOT), stats);
+        }
+        summary.put("operations", operations);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(options.out.resolve("summary.json").toFile(), summary);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Attente jusqu'à un instant (park puis attente active sur la fin)
+     */
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Options de ligne de commande ({@code --nom valeur})
+     */
+    static final class Options {
+        int rate = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        Duration interval = Duration.ofSeconds(1);
+        String mix = "static=40,dynamic=30,p2p=10,parse=15,render=5";
+        Path replay;
+        long seed = 42;
+        Path out = Path.of("target", "load");
+
+        private Operation[] slots;
+        int totalWeight;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if (!name.startsWith("--") || i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Option invalide: " + name);
+                }
+                String value = args[++i];
+                switch (name) {
+                    case "--rate": options.rate = Integer.parseInt(value); break;
+                    case "--threads": options.threads = Integer.parseInt(value); break;
+                    case "--duration": options.duration = duration(value); break;
+                    case "--warmup": options.warmup = duration(value); break;
+                    case "--interval": options.interval = duration(value); break;
+                    case "--mix": options.mix = value; break;
+                    case "--replay": options.replay = Path.of(value); break;
+                    case "--seed": options.seed = Long.parseLong(value); break;
+                    case "--out": options.out = Path.of(value); break;
+                    default: throw new IllegalArgumentException("Option inconnue: " + name);
+                }
+            }
+            if (options.rate <= 0 || options.threads <= 0 || options.rate < options.threads) {
+                throw new IllegalArgumentException("--rate doit être supérieur ou égal à --threads (> 0)");
+            }
+            options.parseMix();
+            return options;
+        }
+
+        /**
+         * Mix "static=40,dynamic=30,..." en table de tirage pondérée
+         */
+        private void parseMix() {
+            List<Operation> table = new ArrayList<>();
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Mix invalide: " + entry);
+                }
+                Operation operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+                int weight = Integer.parseInt(parts[1].trim());
+                for (int i = 0; i < weight; i++) {
+                    table.add(operation);
+                }
+            }
+            if (table.isEmpty()) {
+                throw new IllegalArgumentException("Mix vide: " + mix);
+            }
+            slots = table.toArray(new Operation[0]);
+            totalWeight = slots.length;
+        }
+
+        Operation pick(int draw) {
+            return slots[draw];
+        }
+
+        /**
+         * Durées "30s", "2m", "500ms" ou ISO-8601 ("PT30S")
+         */
+        private static Duration duration(String value) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2)));
+            }
+            if (lower.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1)));
+            }
+            if (lower.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1)));
+            }
+            return Duration.parse(value);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.aveplus.uemoa.qr.bench;
+
+import com.aveplus.uemoa.qr.TestConfiguration;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mesure du temps de démarrage jusqu'au premier QR généré et au premier QR rendu
+ *
+ * Les temps sont exprimés depuis le démarrage de la JVM. A lancer dans une
+ * JVM neuve (sinon les mesures n'ont pas de sens) :
+ *
+ * <pre>
+ * mvn -Pbench test-compile exec:exec
+ * mvn -Pbench test-compile exec:exec -Dbench.jvmArgs="-XX:SharedArchiveFile=target/uemoa-qr.jsa"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long mainEntered = System.currentTimeMillis();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TestConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run(args);
+        long contextReady = System.currentTimeMillis();
+
+        UemoaQRService qrService = context.getBean(UemoaQRService.class);
+        QRPaymentData data = QRPaymentData.builder()
+            .type(QRPaymentData.QRType.STATIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE BENCH")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .merchantChannel(QRPaymentData.MerchantChannel.STATIC_ONSITE)
+            .build();
+
+        String payload = qrService.generateQRData(data);
+        long firstGenerated = System.currentTimeMillis();
+
+        byte[] image = qrService.generateQRImageBytes(payload);
+        long firstRendered = System.currentTimeMillis();
+
+        System.out.println();
+        System.out.println("=== Démarrage UEMOA QR (ms depuis le lancement de la JVM) ===");
+        System.out.printf("main()              : %6d%n", mainEntered - jvmStart);
+        System.out.printf("contexte Spring prêt: %6d%n", contextReady - jvmStart);
+        System.out.printf("premier QR généré   : %6d  (+%d)%n", firstGenerated - jvmStart, firstGenerated - contextReady);
+        System.out.printf("premier QR rendu    : %6d  (+%d, %d bytes)%n",
+            firstRendered - jvmStart, firstRendered - firstGenerated, image.length);
+
+        context.close();
+    }
+}
@@ -0,0 +1,154 @@
+package com.aveplus.uemoa.qr.codec;
+
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRPaymentCodec
+ */
+public class QRPaymentCodecTest {
+    
+    private static QRPaymentData sampleData() {
+        Map<String, String> additionalData = new HashMap<>();
+        additionalData.put("05", "REF-42");
+        additionalData.put("08", "Achat à Cotonou €");
+        additionalData.put("custom", "valeur libre");
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("18000.50"))
+            .transactionId("TXN-2024-001")
+            .merchantChannel(QRPaymentData.MerchantChannel.DYNAMIC_ECOMMERCE_WEB)
+            .additionalData(additionalData)
+            .build();
+    }
+    
+    @Test
+    public void testRoundTrip() {
+        QRPaymentData data = sampleData();
+        
+        byte[] bytes = QRPaymentCodec.encode(data);
+        
+        assertEquals(QRPaymentCodec.encodedSize(data), bytes.length);
+        assertEquals(data, QRPaymentCodec.decode(bytes));
+    }
+    
+    @Test
+    public void testRoundTripMinimalData() {
+        QRPaymentData data = new QRPaymentData();
+        data.setType(null);
+        data.setAmount(new BigDecimal("-1E+3"));
+        
+        assertEquals(data, QRPaymentCodec.decode(QRPaymentCodec.encode(data)));
+    }
+    
+    @Test
+    public void testMuchSmallerThanJson() throws Exception {
+        QRPaymentData data = sampleData();
+        
+        int json = new ObjectMapper().writeValueAsBytes(data).length;
+        int binary = QRPaymentCodec.encode(data).length;
+        
+        assertTrue(binary * 2 < json, "binaire=" + binary + " json=" + json);
+    }
+    
+    @Test
+    public void testWriteAndReadAtBufferPosition() {
+        QRPaymentData first = sampleData();
+        QRPaymentData second = new QRPaymentData();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        buffer.position(7);
+        
+        int written = QRPaymentCodec.write(first, buffer);
+        QRPaymentCodec.write(second, buffer);
+        buffer.flip().position(7);
+        
+        assertEquals(QRPaymentCodec.encodedSize(first), written);
+        assertEquals(first, QRPaymentCodec.read(buffer));
+        assertEquals(second, QRPaymentCodec.read(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+    
+    @Test
+    public void testDictionaryTagsAreInterned() {
+        QRPaymentData a = QRPaymentCodec.decode(QRPaymentCodec.encode(sampleData()));
+        QRPaymentData b = QRPaymentCodec.decode(QRPaymentCodec.encode(sampleData()));
+        
+        String keyA = a.getAdditionalData().keySet().stream().filter("05"::equals).findFirst().orElseThrow();
+        String keyB = b.getAdditionalData().keySet().stream().filter("05"::equals).findFirst().orElseThrow();
+        assertSame(keyA, keyB);
+    }
+    
+    @Test
+    public void testInvalidInputIsRejected() {
+        byte[] bytes = QRPaymentCodec.encode(sampleData());
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+        byte[] future = bytes.clone();
+        future[0] = 2;
+        
+        assertThrows(IllegalArgumentException.class, () -> QRPaymentCodec.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> QRPaymentCodec.decode(future));
+    }
+    
+    @Test
+    public void testCorruptStringLengthIsRejected() {
+        // Longueurs de l'alias : 2^32 + 1 (tronquée en 1 par un cast int) et -2 (varint négatif)
+        for (long header : new long[] {(1L << 32) + 2, -1L}) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            buffer.put(QRPaymentCodec.VERSION).put((byte) 1).put((byte) 0).put((byte) 0);
+            QRPaymentCodec.writeVarLong(buffer, header);
+            for (int i = 0; i < 16; i++) {
+                buffer.put((byte) 1);
+            }
+            buffer.flip();
+            
+            assertThrows(IllegalArgumentException.class, () -> QRPaymentCodec.read(buffer));
+        }
+    }
+    
+    @Test
+    public void testCorruptTagCodeIsRejected() {
+        // 2^31 (négatif après un cast int), 2^32 (0 après un cast int) et varint négatif
+        for (long code : new long[] {1L << 31, 1L << 32, -1L}) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            buffer.put(QRPaymentCodec.VERSION).put((byte) (1 << 6)).put((byte) 0).put((byte) 0);
+            QRPaymentCodec.writeVarLong(buffer, 1);
+            QRPaymentCodec.writeVarLong(buffer, code);
+            for (int i = 0; i < 16; i++) {
+                buffer.put((byte) 1);
+            }
+            buffer.flip();
+            
+            assertThrows(IllegalArgumentException.class, () -> QRPaymentCodec.read(buffer));
+        }
+    }
+    
+    @Test
+    public void testUnpairedSurrogatesEncodedLikeGetBytes() {
+        for (String name : new String[] {"BOUTIQUE \uD800", "\uDC00A", "Caf\u00E9 \uD83D", "\uD83D\uDE00 \uDE00"}) {
+            QRPaymentData data = sampleData();
+            data.getMerchantInfo().setName(name);
+            
+            byte[] bytes = QRPaymentCodec.encode(data);
+            
+            assertEquals(QRPaymentCodec.encodedSize(data), bytes.length);
+            String expected = new String(name.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            assertEquals(expected, QRPaymentCodec.decode(bytes).getMerchantInfo().getName());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.aveplus.uemoa.qr.config;
+
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la configuration compilée rechargeable (sans Spring)
+ */
+public class QrConfigHolderTest {
+    
+    private final EMVFormatter formatter = new EMVFormatter();
+    private final CRCCalculator crcCalculator = new CRCCalculator();
+    private UemoaQrProperties properties;
+    private QrConfigHolder holder;
+    private DynamicQRGenerator generator;
+    
+    @BeforeEach
+    public void setUp() {
+        properties = new UemoaQrProperties();
+        holder = new QrConfigHolder(properties, formatter, crcCalculator);
+        generator = new DynamicQRGenerator(formatter, crcCalculator, properties, holder);
+    }
+    
+    private static QRPaymentData payment() {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("ALIAS-1")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("2500"))
+            .build();
+    }
+    
+    @Test
+    public void testChangesApplyOnlyAfterRefresh() {
+        properties.setCurrencyCode("324");
+        properties.setQrImageSize(500);
+        assertTrue(generator.generate(payment()).contains("5303952"));
+        assertEquals(300, holder.current().getQrImageSize());
+        
+        QrConfigSnapshot refreshed = holder.refresh();
+        
+        assertEquals(2, refreshed.getGeneration());
+        assertSame(refreshed, holder.current());
+        assertEquals(500, refreshed.getQrImageSize());
+        assertTrue(generator.generate(payment()).contains("5303324"));
+    }
+    
+    @Test
+    public void testInvalidRefreshKeepsPreviousSnapshot() {
+        QrConfigSnapshot before = holder.current();
+        properties.setQrImageSize(0);
+        
+        assertThrows(IllegalArgumentException.class, holder::refresh);
+        assertSame(before, holder.current());
+    }
+    
+    @Test
+    public void testRefreshOnEnvironmentChange() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "uemoa.qr.payment.image-format", "jpg",
+            "uemoa.qr.payment.profiles.gn.currency-code", "324")));
+        QrConfigRefreshListener listener = new QrConfigRefreshListener(holder, environment);
+        
+        listener.onApplicationEvent(new EnvironmentChangeEvent(Set.of("server.port")));
+        assertEquals(1, holder.current().getGeneration());
+        
+        listener.onApplicationEvent(new EnvironmentChangeEvent(Set.of("uemoa.qr.payment.image-format")));
+        assertEquals(2, holder.current().getGeneration());
+        assertEquals("JPG", holder.current().getImageFormat());
+        assertEquals("324", holder.current().getProfiles().get("gn").getCurrencyCode());
+    }
+    
+    @Test
+    public void testConcurrentGenerationSeesConsistentSnapshots() throws Exception {
+        UemoaQrProperties other = new UemoaQrProperties();
+        other.setCurrencyCode("324");
+        other.setBceaoPrefix("int.psp.gn");
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> generated = executor.submit(() -> {
+                int count = 0;
+                while (running.get()) {
+                    String payload = generator.generate(payment());
+                    boolean gn = payload.contains("0010int.psp.gn");
+                    // Préfixe et devise proviennent toujours de la même configuration
+                    assertEquals(gn, payload.contains("5303324"), payload);
+                    assertTrue(crcCalculator.validate(payload));
+                    count++;
+                }
+                return count;
+            });
+            Future<?> refresher = executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    holder.refresh(i % 2 == 0 ? other : properties);
+                }
+            });
+            refresher.get(30, TimeUnit.SECONDS);
+            running.set(false);
+            assertTrue(generated.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
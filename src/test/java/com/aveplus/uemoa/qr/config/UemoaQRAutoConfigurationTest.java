@@ -0,0 +1,110 @@
+package com.aveplus.uemoa.qr.config;
+
+import com.aveplus.uemoa.qr.admission.AdmissionController;
+import com.aveplus.uemoa.qr.admission.AdmissionResult;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.QrLogoCache;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.web.QRBatchStreamer;
+import com.aveplus.uemoa.qr.web.QRImageHttpHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour les beans conditionnels de UemoaQRAutoConfiguration (ApplicationContextRunner)
+ */
+public class UemoaQRAutoConfigurationTest {
+    
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(
+            ConfigurationPropertiesAutoConfiguration.class, UemoaQRAutoConfiguration.class))
+        .withPropertyValues("uemoa.qr.payment.image-preload=false");
+    
+    private static QRPaymentData sampleData() {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("18000"))
+            .transactionId("TXN-2024-001")
+            .build();
+    }
+    
+    @Test
+    public void testDefaultContext() {
+        runner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeanNamesForType(QRImageRenderer.class).length);
+            assertEquals(1, context.getBeanNamesForType(QrLogoCache.class).length);
+            assertEquals(1, context.getBeanNamesForType(QRImageHttpHandler.class).length);
+            assertEquals(1, context.getBeanNamesForType(QRBatchStreamer.class).length);
+            assertEquals(1, context.getBeanNamesForType(QrConfigRefreshListener.class).length);
+            assertEquals(0, context.getBeanNamesForType(AdmissionController.class).length);
+            
+            UemoaQRService qrService = context.getBean(UemoaQRService.class);
+            assertTrue(qrService.generate(sampleData(), RenderOptions.defaults()).hasImage());
+            for (int i = 0; i < 100; i++) {
+                assertTrue(qrService.tryGenerateQRData(sampleData(), null).isAdmitted());
+            }
+        });
+    }
+    
+    @Test
+    public void testImageGenerationDisabled() {
+        runner.withPropertyValues("uemoa.qr.payment.generate-qr-image=false").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(0, context.getBeanNamesForType(QRImageRenderer.class).length);
+            assertEquals(0, context.getBeanNamesForType(QrLogoCache.class).length);
+            assertEquals(0, context.getBeanNamesForType(QRImageHttpHandler.class).length);
+            assertEquals(1, context.getBeanNamesForType(QRBatchStreamer.class).length);
+            
+            UemoaQRService qrService = context.getBean(UemoaQRService.class);
+            assertTrue(qrService.validateQRCode(qrService.generateQRData(sampleData())));
+            assertThrows(UnsupportedOperationException.class,
+                () -> qrService.generate(sampleData(), RenderOptions.defaults()));
+        });
+    }
+    
+    @Test
+    public void testAdmissionEnabled() {
+        runner.withPropertyValues(
+                "uemoa.qr.payment.admission.enabled=true",
+                "uemoa.qr.payment.admission.burst=2",
+                "uemoa.qr.payment.admission.refill-per-second=0.01")
+            .run(context -> {
+                assertNull(context.getStartupFailure());
+                assertEquals(1, context.getBeanNamesForType(AdmissionController.class).length);
+                
+                // Le service reçoit le contrôleur configuré
+                UemoaQRService qrService = context.getBean(UemoaQRService.class);
+                assertTrue(qrService.tryGenerateQRData(sampleData(), null).isAdmitted());
+                assertTrue(qrService.tryGenerateQRData(sampleData(), null).isAdmitted());
+                AdmissionResult<String> limited = qrService.tryGenerateQRData(sampleData(), null);
+                assertEquals(AdmissionResult.Rejection.RATE_LIMITED, limited.getRejection());
+            });
+    }
+    
+    @Test
+    public void testRefreshListenerRequiresSpringCloudContext() {
+        runner.withClassLoader(new FilteredClassLoader(EnvironmentChangeEvent.class)).run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(0, context.getBeanNamesForType(QrConfigRefreshListener.class).length);
+            assertEquals(1, context.getBeanNamesForType(UemoaQRService.class).length);
+        });
+    }
+}
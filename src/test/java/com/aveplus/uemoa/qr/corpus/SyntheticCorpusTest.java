@@ -0,0 +1,151 @@
+package com.aveplus.uemoa.qr.corpus;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.model.QrMerchant;
+import com.aveplus.uemoa.qr.parser.ParseErrorCode;
+import com.aveplus.uemoa.qr.parser.ParseResult;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SyntheticCorpus (sans Spring)
+ */
+public class SyntheticCorpusTest {
+    
+    private static final Set<String> UEMOA_COUNTRIES = Set.of("BF", "CI", "TG", "SN", "ML", "BJ", "GW", "NE");
+    
+    private QRParser parser;
+    private UemoaQRService service;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        parser = new QRParser(crcCalculator);
+        service = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            parser, properties, null, new QRImageDecoder(properties));
+    }
+    
+    private static List<String> payloads(CorpusSpec spec) {
+        return new SyntheticCorpus(spec).stream().map(CorpusEntry::getPayload).collect(Collectors.toList());
+    }
+    
+    @Test
+    public void testSameSeedProducesSameCorpus() {
+        CorpusSpec spec = CorpusSpec.builder().size(2_000).merchants(300).corruptCrcRate(0.05).build();
+        
+        assertEquals(payloads(spec), payloads(spec));
+        assertNotEquals(payloads(spec), payloads(spec.toBuilder().seed(7).build()));
+    }
+    
+    @Test
+    public void testValidEntriesMatchGeneratorsAndLimits() {
+        CorpusSpec spec = CorpusSpec.builder().size(3_000).merchants(500).build();
+        Map<QRPaymentData.QRType, Integer> types = new EnumMap<>(QRPaymentData.QRType.class);
+        
+        for (CorpusEntry entry : new SyntheticCorpus(spec)) {
+            assertEquals(CorpusEntry.Kind.VALID, entry.getKind());
+            QrMerchant merchant = entry.getPayment().merchant();
+            assertTrue(merchant.name().length() <= 25, merchant.name());
+            assertTrue(merchant.city().length() <= 15, merchant.city());
+            assertTrue(UEMOA_COUNTRIES.contains(merchant.countryCode()));
+            
+            assertEquals(service.generateQRData(entry.getPayment()), entry.getPayload());
+            ParseResult result = parser.tryParse(entry.getPayload());
+            assertTrue(result.isCompliant(), () -> entry.getPayload() + " " + result.getErrors());
+            types.merge(entry.getPayment().type(), 1, Integer::sum);
+        }
+        
+        // Pondérations par défaut 40/45/15
+        assertEquals(3, types.size());
+        assertTrue(types.get(QRPaymentData.QRType.DYNAMIC) > types.get(QRPaymentData.QRType.P2P) * 2);
+    }
+    
+    @Test
+    public void testCorruptionRatesAndDetection() {
+        CorpusSpec spec = CorpusSpec.builder().size(5_000).merchants(200)
+            .corruptCrcRate(0.1).malformedTlvRate(0.1).build();
+        Map<CorpusEntry.Kind, Integer> kinds = new EnumMap<>(CorpusEntry.Kind.class);
+        
+        for (CorpusEntry entry : new SyntheticCorpus(spec)) {
+            kinds.merge(entry.getKind(), 1, Integer::sum);
+            ParseResult result = parser.tryParse(entry.getPayload());
+            switch (entry.getKind()) {
+                case CORRUPT_CRC:
+                    assertEquals(ParseErrorCode.CRC_INVALID, result.getError().getCode());
+                    break;
+                case MALFORMED_TLV:
+                    assertTrue(crcIsValid(entry.getPayload()));
+                    assertFalse(result.isCompliant(), entry.getPayload());
+                    break;
+                default:
+                    assertTrue(result.isCompliant());
+                    break;
+            }
+        }
+        
+        assertEquals(500, kinds.get(CorpusEntry.Kind.CORRUPT_CRC), 100);
+        assertEquals(500, kinds.get(CorpusEntry.Kind.MALFORMED_TLV), 100);
+    }
+    
+    private static boolean crcIsValid(String payload) {
+        return new CRCCalculator().validate(payload);
+    }
+    
+    @Test
+    public void testWriteAndReadFiles(@TempDir Path directory) throws Exception {
+        CorpusSpec spec = CorpusSpec.builder().size(1_000).merchants(100).malformedTlvRate(0.02).build();
+        SyntheticCorpus corpus = new SyntheticCorpus(spec);
+        
+        Path payloads = directory.resolve("corpus.txt");
+        assertEquals(1_000, corpus.writePayloads(payloads));
+        assertEquals(payloads(spec), Files.readAllLines(payloads, StandardCharsets.UTF_8));
+        
+        Path records = directory.resolve("corpus.bin");
+        assertEquals(1_000, corpus.writeRecords(records));
+        List<QRPaymentData> expected = new ArrayList<>();
+        corpus.records().forEachRemaining(expected::add);
+        List<QRPaymentData> actual = new ArrayList<>();
+        try (InputStream input = Files.newInputStream(records)) {
+            Iterator<QRPaymentData> iterator = SyntheticCorpus.readRecords(input);
+            iterator.forEachRemaining(actual::add);
+        }
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testInvalidSpecIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SyntheticCorpus(CorpusSpec.builder().corruptCrcRate(0.8).malformedTlvRate(0.3).build()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SyntheticCorpus(CorpusSpec.builder().staticWeight(0).dynamicWeight(0).p2pWeight(0).build()));
+    }
+}
@@ -0,0 +1,193 @@
+package com.aveplus.uemoa.qr.decoder;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRImageDecoder et le décodage du service (sans Spring)
+ */
+public class QRImageDecoderTest {
+    
+    private UemoaQrProperties properties;
+    private QRImageRenderer renderer;
+    private QRImageDecoder decoder;
+    private UemoaQRService qrService;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        properties = new UemoaQrProperties();
+        renderer = new QRImageRenderer(properties);
+        decoder = new QRImageDecoder(properties);
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            renderer,
+            decoder);
+    }
+    
+    private QRPaymentData sampleData() {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("15000"))
+            .transactionId("TXN-2024-001")
+            .build();
+    }
+    
+    @Test
+    public void testDecodeRenderedImage() throws Exception {
+        String payload = qrService.generateQRData(sampleData());
+        byte[] image = renderer.render(payload);
+        
+        assertEquals(payload, decoder.decode(image));
+        
+        QRPaymentData parsed = qrService.decodeImage(new ByteArrayInputStream(image));
+        assertEquals("TXN-2024-001", parsed.getTransactionId());
+        assertEquals(0, new BigDecimal("15000").compareTo(parsed.getAmount()));
+    }
+    
+    @Test
+    public void testDecodeLargePhotoIsDownscaled() throws Exception {
+        String payload = qrService.generateQRData(sampleData());
+        BufferedImage qr = ImageIO.read(new ByteArrayInputStream(render(payload, 1500)));
+        
+        // Simule une photo : grand fond gris clair, QR décentré
+        BufferedImage photo = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        graphics.setColor(new Color(210, 205, 200));
+        graphics.fillRect(0, 0, photo.getWidth(), photo.getHeight());
+        graphics.drawImage(qr, 1700, 900, null);
+        graphics.dispose();
+        
+        assertTrue(QRImageDecoder.downscale(photo, properties.getDecodeMaxDimension()).getWidth() <= 1200);
+        assertEquals(payload, decoder.decode(photo));
+    }
+    
+    @Test
+    public void testDecodeImageWithoutQRCode() throws Exception {
+        BufferedImage blank = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(blank, "PNG", out);
+        
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(out.toByteArray()));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(new byte[] {1, 2, 3}));
+    }
+    
+    @Test
+    public void testDecodeImagesBatch(@TempDir Path directory) throws Exception {
+        String payload = qrService.generateQRData(sampleData());
+        Files.write(directory.resolve("a-valid.png"), renderer.render(payload));
+        Files.write(directory.resolve("b-garbage.png"), new byte[] {1, 2, 3});
+        
+        List<ImageDecodeResult> results = qrService.decodeImages(directory);
+        
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(payload, results.get(0).getPayload());
+        assertEquals("TXN-2024-001", results.get(0).getData().getTransactionId());
+        assertFalse(results.get(1).isSuccess());
+        assertNotNull(results.get(1).getError());
+    }
+    
+    private byte[] render(String payload, int size) throws Exception {
+        return renderer.render(payload, RenderOptions.defaults().toBuilder().size(size).build()).image();
+    }
+    
+    private BufferedImage page(int width, int height, String[] payloads, int[][] positions) throws Exception {
+        BufferedImage page = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        for (int i = 0; i < positions.length; i++) {
+            BufferedImage qr = ImageIO.read(new ByteArrayInputStream(render(payloads[i], 400)));
+            graphics.drawImage(qr, positions[i][0], positions[i][1], null);
+        }
+        graphics.dispose();
+        return page;
+    }
+    
+    private String[] installments(int count) {
+        String[] payloads = new String[count];
+        for (int i = 0; i < count; i++) {
+            QRPaymentData data = sampleData();
+            data.setTransactionId("ECHEANCE-" + (i + 1));
+            payloads[i] = qrService.generateQRData(data);
+        }
+        return payloads;
+    }
+    
+    @Test
+    public void testDecodeAllSymbolsDropsDuplicates() throws Exception {
+        String[] payloads = installments(3);
+        String[] placed = {payloads[0], payloads[1], payloads[2], payloads[0]};
+        int[][] positions = {{50, 50}, {650, 50}, {1250, 50}, {650, 700}};
+        BufferedImage page = page(1800, 1200, placed, positions);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(page, "PNG", out);
+        
+        List<DecodedSymbol> symbols = qrService.decodeAllSymbols(out.toByteArray());
+        
+        assertEquals(3, symbols.size());
+        for (int i = 0; i < 3; i++) {
+            DecodedSymbol symbol = symbols.get(i);
+            assertTrue(symbol.isSuccess());
+            assertEquals("ECHEANCE-" + (i + 1), symbol.getData().getTransactionId());
+            // La boîte englobe le symbole (zone calme de 400px exclue)
+            assertTrue(symbol.getX() >= positions[i][0] && symbol.getX() < positions[i][0] + 60);
+            assertTrue(symbol.getWidth() > 300 && symbol.getWidth() <= 400);
+        }
+    }
+    
+    @Test
+    public void testDecodeAllOnLargePageUsesTiles() throws Exception {
+        String[] payloads = installments(4);
+        // Symboles à cheval sur les frontières des tuiles de 2048px
+        int[][] positions = {{300, 300}, {1900, 400}, {3800, 1850}, {5300, 3300}};
+        BufferedImage page = page(6000, 4000, payloads, positions);
+        
+        assertTrue(QRImageDecoder.tiles(6000, 4000, 2048, 640).size() > 1);
+        
+        List<DecodedSymbol> symbols = decoder.decodeAll(page);
+        
+        assertEquals(4, symbols.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(payloads[i], symbols.get(i).getPayload());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.aveplus.uemoa.qr.generator;
+
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.QrConfigSnapshot;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QrTemplate et QrTemplateCache (sans Spring)
+ */
+public class QrTemplateTest {
+    
+    private final EMVFormatter formatter = new EMVFormatter();
+    private final CRCCalculator crcCalculator = new CRCCalculator();
+    private UemoaQrProperties properties;
+    private QrConfigHolder config;
+    private Map<QRPaymentData.QRType, BaseQRGenerator> generators;
+    private QrTemplateCache cache;
+    
+    @BeforeEach
+    public void setUp() {
+        properties = new UemoaQrProperties();
+        UemoaQrProperties.Profile gn = new UemoaQrProperties.Profile();
+        gn.setCurrencyCode("324");
+        properties.getProfiles().put("gn", gn);
+        config = new QrConfigHolder(properties, formatter, crcCalculator);
+        generators = Map.of(
+            QRPaymentData.QRType.STATIC, new StaticQRGenerator(formatter, crcCalculator, properties, config),
+            QRPaymentData.QRType.DYNAMIC, new DynamicQRGenerator(formatter, crcCalculator, properties, config),
+            QRPaymentData.QRType.P2P, new P2PQRGenerator(formatter, crcCalculator, properties, config));
+        cache = new QrTemplateCache(formatter, crcCalculator, config, 100);
+    }
+    
+    private static QRPaymentData prototype(Random random, QRPaymentData.QRType type) {
+        Map<String, String> extras = new HashMap<>();
+        for (String tag : new String[] {"01", "05", "07", "08", "10", "12", "21", "50"}) {
+            if (random.nextInt(4) == 0) {
+                extras.put(tag, "X" + random.nextInt(1000));
+            }
+        }
+        QRPaymentData.MerchantChannel[] channels = QRPaymentData.MerchantChannel.values();
+        return QRPaymentData.builder()
+            .type(type)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("ALIAS-" + random.nextInt(50))
+                .name(random.nextInt(5) == 0 ? "XXX" : "Boutique Café " + random.nextInt(100))
+                .city(random.nextBoolean() ? "Lomé" : "Abidjan")
+                .countryCode(random.nextBoolean() ? "TG" : "CI")
+                .build())
+            .merchantChannel(random.nextBoolean() ? channels[random.nextInt(channels.length)] : null)
+            .dynamicUrl(random.nextInt(4) == 0 ? "https://psp.example/pay/" + random.nextInt(100) : null)
+            .subscriptionId(random.nextInt(3) == 0 ? "SUB-" + random.nextInt(100) : null)
+            .additionalData(extras)
+            .build();
+    }
+    
+    @Test
+    public void testRenderIsByteIdenticalToGenerators() {
+        Random random = new Random(41);
+        QRPaymentData.QRType[] types = QRPaymentData.QRType.values();
+        for (int i = 0; i < 3000; i++) {
+            QRPaymentData data = prototype(random, types[i % types.length]);
+            String profile = random.nextInt(4) == 0 ? "gn" : null;
+            QrTemplate template = cache.get(data, profile);
+            
+            data.setAmount(random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(3)) : null);
+            data.setTransactionId(random.nextBoolean() ? "TXN-" + i : null);
+            data.setBillReference(random.nextInt(3) == 0 ? "FAC-" + i : null);
+            
+            String expected = generators.get(data.getType()).generate(data, profile);
+            assertEquals(expected, template.render(data.getAmount(), data.getTransactionId(), data.getBillReference()),
+                "Prototype " + i + ": " + data);
+        }
+    }
+    
+    @Test
+    public void testCacheReusesTemplatesUntilRefresh() {
+        QRPaymentData data = prototype(new Random(7), QRPaymentData.QRType.DYNAMIC);
+        QrTemplate template = cache.get(data);
+        
+        assertSame(template, cache.get(prototype(new Random(7), QRPaymentData.QRType.DYNAMIC)));
+        assertEquals(1, cache.size());
+        
+        properties.setCurrencyCode("324");
+        config.refresh();
+        
+        QrTemplate refreshed = cache.get(data);
+        assertNotSame(template, refreshed);
+        assertTrue(refreshed.render(new BigDecimal("100"), "TXN-1").contains("5303324"));
+    }
+    
+    @Test
+    public void testInvalidPrototypeAndOverflow() {
+        QRPaymentData noMerchant = QRPaymentData.builder().type(QRPaymentData.QRType.STATIC).build();
+        assertThrows(IllegalArgumentException.class, () -> cache.get(noMerchant));
+        
+        QrTemplate template = cache.get(prototype(new Random(3), QRPaymentData.QRType.STATIC));
+        String longReference = "R".repeat(60);
+        assertThrows(IllegalArgumentException.class, () -> template.render(null, longReference, longReference));
+    }
+    
+    @Test
+    public void testStaleSnapshotNeitherRewindsNorPollutesCache() {
+        QrConfigSnapshot stale = config.current();
+        properties.setCurrencyCode("324");
+        QrConfigSnapshot fresh = config.refresh();
+        
+        // Appel retardé : lit l'ancienne configuration après le rechargement
+        QrConfigSnapshot[] pinned = {fresh};
+        QrConfigHolder racing = new QrConfigHolder(properties, formatter, crcCalculator) {
+            @Override
+            public QrConfigSnapshot current() {
+                return pinned[0];
+            }
+        };
+        QrTemplateCache racingCache = new QrTemplateCache(formatter, crcCalculator, racing, 100);
+        QRPaymentData data = prototype(new Random(11), QRPaymentData.QRType.DYNAMIC);
+        
+        QrTemplate template = racingCache.get(data);
+        
+        pinned[0] = stale;
+        QrTemplate staleTemplate = racingCache.get(data);
+        assertNotSame(template, staleTemplate);
+        assertTrue(staleTemplate.render(new BigDecimal("100"), "TXN-1").contains("5303952"));
+        assertEquals(1, racingCache.size());
+        
+        pinned[0] = fresh;
+        assertSame(template, racingCache.get(data));
+        assertTrue(template.render(new BigDecimal("100"), "TXN-1").contains("5303324"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.aveplus.uemoa.qr.jfr;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.ParseErrorCode;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour les événements JFR du module (sans Spring)
+ */
+public class QrEventsTest {
+    
+    private QRImageRenderer renderer;
+    private UemoaQRService qrService;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        renderer = new QRImageRenderer(properties);
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            renderer,
+            new QRImageDecoder(properties));
+    }
+    
+    @Test
+    public void testEventsRecordedWithBundledProfile() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/uemoa-qr.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path file = tempDir.resolve("qr.jfr");
+        String payload;
+        
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            
+            payload = qrService.generateQRData(QRPaymentData.builder()
+                .type(QRPaymentData.QRType.STATIC)
+                .merchantInfo(MerchantInfo.builder()
+                    .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                    .name("BOUTIQUE TEST")
+                    .city("Abidjan")
+                    .countryCode("CI")
+                    .build())
+                .build());
+            qrService.parseQRCode(payload);
+            String corrupted = payload.substring(0, payload.length() - 4) + "0000";
+            assertThrows(IllegalArgumentException.class, () -> qrService.parseQRCode(corrupted));
+            qrService.generateQRImageBytes(payload);
+            RenderOptions unknownLogo = RenderOptions.builder().logo("inconnu").build();
+            assertThrows(IllegalArgumentException.class, () -> renderer.render(payload, unknownLogo));
+            
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        
+        RecordedEvent generate = single(events, "com.aveplus.uemoa.qr.QrGenerate");
+        assertEquals("STATIC", generate.getString("type"));
+        assertEquals("StaticQRGenerator", generate.getString("generator"));
+        assertTrue(generate.getInt("payloadLength") > 0);
+        
+        List<RecordedEvent> parses = named(events, "com.aveplus.uemoa.qr.QrParse");
+        assertEquals(2, parses.size());
+        assertTrue(parses.get(0).getBoolean("success"));
+        assertFalse(parses.get(1).getBoolean("success"));
+        assertEquals(ParseErrorCode.CRC_INVALID.name(), parses.get(1).getString("errorCode"));
+        
+        RecordedEvent crcFailure = single(events, "com.aveplus.uemoa.qr.QrCrcFailure");
+        assertEquals("0000", crcFailure.getString("actual"));
+        assertEquals(payload.substring(payload.length() - 4), crcFailure.getString("expected"));
+        
+        List<RecordedEvent> renders = named(events, "com.aveplus.uemoa.qr.QrRender");
+        assertEquals(2, renders.size());
+        RecordedEvent render = renders.get(0);
+        assertTrue(render.getBoolean("success"));
+        assertEquals("PNG", render.getString("format"));
+        assertEquals(300, render.getInt("size"));
+        assertTrue(render.getInt("bytes") > 0);
+        assertTrue(render.getDuration().toNanos() > 0);
+        
+        // Un rendu en échec (logo inconnu) est enregistré lui aussi
+        RecordedEvent failed = renders.get(1);
+        assertFalse(failed.getBoolean("success"));
+        assertTrue(failed.getBoolean("logo"));
+        assertEquals(0, failed.getInt("bytes"));
+    }
+    
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+    }
+    
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.aveplus.uemoa.qr.model;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QrPayment et AdditionalData (sans Spring)
+ */
+public class QrPaymentTest {
+    
+    private UemoaQRService service;
+    private QRParser parser;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        parser = new QRParser(crcCalculator);
+        service = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            parser, properties, null, new QRImageDecoder(properties));
+    }
+    
+    private static QRPaymentData bean(Random random) {
+        Map<String, String> extras = new HashMap<>();
+        for (String tag : new String[] {"05", "07", "10", "12", "21", "50"}) {
+            if (random.nextInt(3) == 0) {
+                extras.put(tag, "V" + random.nextInt(1000));
+            }
+        }
+        QRPaymentData.QRType[] types = QRPaymentData.QRType.values();
+        QRPaymentData.MerchantChannel[] channels = QRPaymentData.MerchantChannel.values();
+        return QRPaymentData.builder()
+            .type(types[random.nextInt(types.length)])
+            .merchantInfo(MerchantInfo.builder()
+                .alias("ALIAS-" + random.nextInt(50))
+                .name("Boutique " + random.nextInt(100))
+                .city("Dakar")
+                .countryCode("SN")
+                .build())
+            .amount(random.nextBoolean() ? new BigDecimal(random.nextInt(100000) + 1) : null)
+            .transactionId(random.nextBoolean() ? "TXN-" + random.nextInt(10000) : null)
+            .billReference(random.nextInt(3) == 0 ? "FAC-" + random.nextInt(100) : null)
+            .subscriptionId(random.nextInt(4) == 0 ? "ABO-" + random.nextInt(100) : null)
+            .merchantChannel(random.nextBoolean() ? channels[random.nextInt(channels.length)] : null)
+            .additionalData(extras)
+            .build();
+    }
+    
+    @Test
+    public void testBeanConversionRoundTrip() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            QRPaymentData data = bean(random);
+            QrPayment payment = QrPayment.from(data);
+            
+            assertEquals(data, payment.toQRPaymentData());
+            assertEquals(payment, QrPayment.from(payment.toQRPaymentData()));
+        }
+        assertNull(QrPayment.from(null));
+        assertNull(QrMerchant.from(null));
+    }
+    
+    @Test
+    public void testEmptyAdditionalDataIsShared() {
+        QrPayment built = QrPayment.builder().type(QRPaymentData.QRType.STATIC).build();
+        QrPayment converted = QrPayment.from(QRPaymentData.builder().build());
+        
+        assertSame(AdditionalData.EMPTY, built.additionalData());
+        assertSame(AdditionalData.EMPTY, converted.additionalData());
+        assertSame(AdditionalData.EMPTY, AdditionalData.of((Map<String, String>) null));
+        assertSame(AdditionalData.EMPTY, AdditionalData.of());
+    }
+    
+    @Test
+    public void testAdditionalDataIsImmutableAndOrdered() {
+        Map<String, String> source = new HashMap<>();
+        source.put("05", "LOT-1");
+        AdditionalData extras = AdditionalData.of(source);
+        source.put("07", "TERM-1");
+        extras.toMap().put("08", "X");
+        
+        assertEquals(1, extras.size());
+        assertEquals("LOT-1", extras.get("05"));
+        assertNull(extras.get("07"));
+        
+        AdditionalData more = extras.with("07", "TERM-1").with("05", "LOT-2");
+        assertEquals("LOT-1", extras.get("05"));
+        assertEquals(AdditionalData.of("05", "LOT-2", "07", "TERM-1"), more);
+        assertNotEquals(AdditionalData.of("07", "TERM-1", "05", "LOT-2"), more);
+        assertEquals("07", more.tag(1));
+        assertThrows(IllegalArgumentException.class, () -> AdditionalData.of("05", "A", "05", "B"));
+        assertThrows(IllegalArgumentException.class, () -> AdditionalData.of("05"));
+    }
+    
+    @Test
+    public void testGeneratorAndParserAcceptRecordsNatively() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            QRPaymentData data = bean(random);
+            String expected = service.generateQRData(data);
+            QrPayment payment = QrPayment.from(data);
+            
+            assertEquals(expected, service.generateQRData(payment));
+            
+            QrPayment parsed = parser.parsePayment(expected);
+            assertEquals(parser.parse(expected), parsed.toQRPaymentData());
+            // Le canal 731 est relu comme un QR P2P : le type d'origine est réimposé
+            assertEquals(expected, service.generateQRData(
+                parsed.withType(payment.type()).withMerchant(payment.merchant())));
+        }
+    }
+    
+    @Test
+    public void testTypedGenerationDoesNotMutateCaller() {
+        QRPaymentData data = bean(new Random(1));
+        data.setType(QRPaymentData.QRType.DYNAMIC);
+        QRPaymentData copy = QrPayment.from(data).toQRPaymentData();
+        
+        String qrCode = service.generateStaticQR(data);
+        
+        assertEquals(QRPaymentData.QRType.DYNAMIC, data.getType());
+        assertEquals(copy, data);
+        assertTrue(qrCode.startsWith("000201010211"));
+        assertEquals(QRPaymentData.QRType.DYNAMIC, data.getType());
+        service.generateP2PQR(data);
+        assertEquals(QRPaymentData.QRType.DYNAMIC, data.getType());
+    }
+}
@@ -0,0 +1,194 @@
+package com.aveplus.uemoa.qr.parser;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour le parsing sans exception de QRParser
+ */
+public class QRParserTest {
+    
+    private final CRCCalculator crcCalculator = new CRCCalculator();
+    private EMVFormatter formatter;
+    private UemoaQrProperties properties;
+    private QRParser parser;
+    
+    @BeforeEach
+    public void setUp() {
+        formatter = new EMVFormatter();
+        properties = new UemoaQrProperties();
+        parser = new QRParser(crcCalculator);
+    }
+    
+    private static MerchantInfo merchant() {
+        return MerchantInfo.builder()
+            .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+            .name("BOUTIQUE TEST")
+            .city("Abidjan")
+            .countryCode("CI")
+            .build();
+    }
+    
+    private String withCrc(String body) {
+        String data = body + "6304";
+        return data + crcCalculator.calculate(data);
+    }
+    
+    private static List<ParseErrorCode> codes(ParseResult result) {
+        return result.getErrors().stream().map(ParseError::getCode).collect(Collectors.toList());
+    }
+    
+    @Test
+    public void testGeneratedPayloadsAreCompliant() {
+        String staticQR = new StaticQRGenerator(formatter, crcCalculator, properties).generate(QRPaymentData.builder()
+            .type(QRPaymentData.QRType.STATIC).merchantInfo(merchant()).build());
+        String dynamicQR = new DynamicQRGenerator(formatter, crcCalculator, properties).generate(QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC).merchantInfo(merchant())
+            .amount(new BigDecimal("18000")).transactionId("TXN-2024-001").build());
+        String p2pQR = new P2PQRGenerator(formatter, crcCalculator, properties).generate(QRPaymentData.builder()
+            .type(QRPaymentData.QRType.P2P).merchantInfo(merchant()).build());
+        
+        for (String payload : new String[] {staticQR, dynamicQR, p2pQR}) {
+            ParseResult result = parser.tryParse(payload);
+            assertTrue(result.isCompliant(), payload + " -> " + result.getErrors());
+            assertNull(result.getError());
+        }
+        assertEquals(QRPaymentData.QRType.P2P, parser.tryParse(p2pQR).getData().getType());
+    }
+    
+    @Test
+    public void testCrcMismatchReportsExpectedAndActual() {
+        String payload = withCrc("000201010211360400015204000053039525802CI5904TEST6007Abidjan");
+        String corrupted = payload.substring(0, payload.length() - 4) + "FFFF";
+        
+        ParseResult result = parser.tryParse(corrupted);
+        
+        assertFalse(result.isSuccess());
+        ParseError error = result.getError();
+        assertEquals(ParseErrorCode.CRC_INVALID, error.getCode());
+        assertEquals("63", error.getTag());
+        assertEquals(payload.substring(payload.length() - 4), error.getExpected());
+        assertEquals("FFFF", error.getActual());
+        assertEquals(corrupted.length() - 4, error.getOffset());
+        
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> parser.parse(corrupted));
+        assertEquals("Le QR code a un CRC invalide", exception.getMessage());
+    }
+    
+    @Test
+    public void testEmptyAndOversizedInputsAreRejectedBeforeScanning() {
+        assertEquals(ParseErrorCode.EMPTY_INPUT, parser.tryParse("").getError().getCode());
+        assertEquals(ParseErrorCode.EMPTY_INPUT, parser.tryParse(null).getError().getCode());
+        
+        ParseResult tooLong = parser.tryParse("0".repeat(QRParser.MAX_PAYLOAD_LENGTH + 1));
+        assertFalse(tooLong.isSuccess());
+        assertEquals(ParseErrorCode.INPUT_TOO_LONG, tooLong.getError().getCode());
+        assertEquals(String.valueOf(QRParser.MAX_PAYLOAD_LENGTH + 1), tooLong.getError().getActual());
+    }
+    
+    @Test
+    public void testAllViolationsAreCollected() {
+        // Montant invalide, canal inconnu, méthode d'initiation invalide, champs 58/59/60 absents
+        String payload = withCrc(formatter.formatField("00", "01")
+            + formatter.formatField("01", "13")
+            + formatter.formatField("36", formatter.formatSubField("00", "int.bceao.pi")
+                + formatter.formatSubField("01", "test-123"))
+            + formatter.formatField("52", "0000")
+            + formatter.formatField("53", "952")
+            + formatter.formatField("54", "1,00")
+            + formatter.formatField("62", formatter.formatSubField("11", "999")));
+        
+        ParseResult result = parser.tryParse(payload);
+        
+        assertTrue(result.isSuccess());
+        assertFalse(result.isCompliant());
+        List<ParseErrorCode> codes = codes(result);
+        assertEquals(2, result.getErrors().stream()
+            .filter(error -> error.getCode() == ParseErrorCode.INVALID_VALUE).count(), codes.toString());
+        assertTrue(codes.contains(ParseErrorCode.INVALID_AMOUNT), codes.toString());
+        assertTrue(codes.contains(ParseErrorCode.MISSING_FIELD), codes.toString());
+        assertNull(result.getData().getAmount());
+        
+        ParseError amount = result.getErrors().stream()
+            .filter(error -> error.getCode() == ParseErrorCode.INVALID_AMOUNT).findFirst().orElseThrow();
+        assertEquals("54", amount.getTag());
+        assertEquals("1,00", amount.getActual());
+        assertEquals(payload.indexOf("1,00"), amount.getOffset());
+    }
+    
+    @Test
+    public void testBrokenStructureIsReportedWithOffset() {
+        ParseResult overflow = parser.tryParse("000201015012");
+        ParseError error = overflow.getErrors().stream()
+            .filter(e -> e.getCode() == ParseErrorCode.FIELD_OVERFLOW).findFirst().orElseThrow();
+        assertEquals("01", error.getTag());
+        assertEquals(8, error.getOffset());
+        assertEquals("50", error.getExpected());
+        assertEquals("2", error.getActual());
+        
+        ParseResult badLength = parser.tryParse("00020101XB");
+        assertTrue(codes(badLength).contains(ParseErrorCode.INVALID_LENGTH));
+        
+        ParseResult garbage = parser.tryParse("hello world");
+        assertTrue(garbage.isSuccess());
+        assertTrue(codes(garbage).contains(ParseErrorCode.INVALID_TAG));
+    }
+    
+    @Test
+    public void testStrictParseRejectsMissingMandatoryField() {
+        // Nom du marchand (59) absent, CRC correct
+        String payload = withCrc(formatter.formatField("00", "01")
+            + formatter.formatField("01", "11")
+            + formatter.formatField("36", formatter.formatSubField("00", "int.bceao.pi")
+                + formatter.formatSubField("01", "test-123"))
+            + formatter.formatField("52", "0000")
+            + formatter.formatField("53", "952")
+            + formatter.formatField("58", "CI")
+            + formatter.formatField("60", "Abidjan"));
+        
+        ParseResult result = parser.tryParse(payload);
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(ParseErrorCode.MISSING_FIELD), codes(result));
+        
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> parser.parse(payload));
+        assertEquals(ParseErrorCode.MISSING_FIELD.getMessage(), exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> parser.parsePayment(payload));
+    }
+    
+    @Test
+    public void testStrictParseRejectsBrokenTlv() {
+        // Longueur non numérique au milieu du payload, CRC correct
+        String payload = withCrc(formatter.formatField("00", "01")
+            + formatter.formatField("01", "11")
+            + formatter.formatField("36", formatter.formatSubField("00", "int.bceao.pi")
+                + formatter.formatSubField("01", "test-123"))
+            + formatter.formatField("52", "0000")
+            + formatter.formatField("53", "952")
+            + formatter.formatField("58", "CI")
+            + formatter.formatField("59", "TEST")
+            + formatter.formatField("60", "Abidjan")
+            + "62XB");
+        
+        ParseResult result = parser.tryParse(payload);
+        assertTrue(result.isSuccess(), result.getErrors().toString());
+        assertTrue(codes(result).contains(ParseErrorCode.INVALID_LENGTH), codes(result).toString());
+        
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(payload));
+        assertThrows(IllegalArgumentException.class, () -> parser.parsePayment(payload));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("000201015012"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.aveplus.uemoa.qr.profile;
+
+import com.aveplus.uemoa.qr.config.QrConfigHolder;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.QrTemplateCache;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour les profils PSP (sans Spring)
+ */
+public class QrProfileRegistryTest {
+    
+    private final EMVFormatter formatter = new EMVFormatter();
+    private final CRCCalculator crcCalculator = new CRCCalculator();
+    private UemoaQrProperties properties;
+    
+    @BeforeEach
+    public void setUp() {
+        properties = new UemoaQrProperties();
+        
+        UemoaQrProperties.Profile gnf = new UemoaQrProperties.Profile();
+        gnf.setCurrencyCode("324");
+        gnf.setBceaoPrefix("int.psp.gn");
+        gnf.setDefaultCountryCode("GN");
+        properties.getProfiles().put("gn", gnf);
+        properties.getMerchantProfiles().put("MARCHAND-GN", "gn");
+    }
+    
+    private static QRPaymentData payment(String alias) {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias(alias)
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("2500"))
+            .transactionId("TXN-001")
+            .build();
+    }
+    
+    @Test
+    public void testProfileInheritsGlobalValues() {
+        QrProfileRegistry registry = QrProfileRegistry.from(properties, formatter, crcCalculator);
+        QrProfile gn = registry.get("gn");
+        
+        assertEquals("324", gn.getCurrencyCode());
+        assertEquals("GN", gn.getDefaultCountryCode());
+        assertEquals(properties.getMerchantCategoryCode(), gn.getMerchantCategoryCode());
+        assertEquals("0010int.psp.gn", gn.getAccountGuid());
+        assertEquals("000201010212", gn.getDynamicHeader().getText());
+        assertEquals(crcCalculator.update(CRCCalculator.INITIAL_VALUE, "000201010212"), gn.getDynamicHeader().getCrc());
+        assertEquals(registry.defaultProfile(), registry.resolve(null, "INCONNU"));
+    }
+    
+    @Test
+    public void testPayloadMatchesFieldByFieldConstruction() {
+        String payload = new DynamicQRGenerator(formatter, crcCalculator, properties).generate(payment("ALIAS-1"));
+        
+        String expected = "000201" + "010212"
+            + formatter.formatField("36", "0012int.bceao.pi" + formatter.formatSubField("01", "ALIAS-1"))
+            + "52040000" + "5303952" + "54042500" + "5802CI" + "5913BOUTIQUE TEST" + "6007Abidjan"
+            // Sous-champs du template 62 dans l'ordre d'itération du générateur
+            + formatter.formatField("62", "1103" + QRPaymentData.MerchantChannel.DYNAMIC_ONSITE.getCode() + "0107TXN-001")
+            + "6304";
+        assertEquals(expected + crcCalculator.calculate(expected), payload);
+    }
+    
+    @Test
+    public void testProfileSelectedPerRequestAndPerMerchant() {
+        DynamicQRGenerator generator = new DynamicQRGenerator(formatter, crcCalculator, properties);
+        QRParser parser = new QRParser(crcCalculator);
+        
+        String byMerchant = generator.generate(payment("MARCHAND-GN"));
+        String byRequest = generator.generate(payment("ALIAS-1"), "gn");
+        String byDefault = generator.generate(payment("ALIAS-1"));
+        
+        assertTrue(byMerchant.contains("5303324"));
+        assertTrue(byMerchant.contains("0010int.psp.gn"));
+        assertTrue(byRequest.contains("5303324"));
+        assertTrue(byDefault.contains("5303952"));
+        assertTrue(parser.tryParse(byMerchant).isSuccess());
+        assertTrue(parser.tryParse(byRequest).isSuccess());
+        
+        // Le profil de la requête l'emporte sur celui du marchand
+        assertTrue(generator.generate(payment("MARCHAND-GN"), QrProfile.DEFAULT_NAME).contains("5303952"));
+    }
+    
+    @Test
+    public void testStaticGeneratorUsesStaticHeader() {
+        QRPaymentData data = payment("MARCHAND-GN");
+        data.setType(QRPaymentData.QRType.STATIC);
+        
+        String payload = new StaticQRGenerator(formatter, crcCalculator, properties).generate(data);
+        
+        assertTrue(payload.startsWith("000201010211"));
+        assertTrue(crcCalculator.validate(payload));
+    }
+    
+    @Test
+    public void testMissingCountryCodeFallsBackToProfileDefault() {
+        DynamicQRGenerator generator = new DynamicQRGenerator(formatter, crcCalculator, properties);
+        QrTemplateCache templates = new QrTemplateCache(formatter, crcCalculator,
+                new QrConfigHolder(properties, formatter, crcCalculator), 16);
+        QRParser parser = new QRParser(crcCalculator);
+        QRPaymentData guinea = payment("MARCHAND-GN");
+        guinea.getMerchantInfo().setCountryCode(null);
+        QRPaymentData ivoryCoast = payment("ALIAS-1");
+        ivoryCoast.getMerchantInfo().setCountryCode("");
+        
+        String generated = generator.generate(guinea);
+        String rendered = templates.get(guinea).render(new BigDecimal("2500"), "TXN-001");
+        
+        assertTrue(generated.contains("5802GN"));
+        assertEquals(generated, rendered);
+        assertEquals("GN", parser.parse(generated).getMerchantInfo().getCountryCode());
+        assertTrue(generator.generate(ivoryCoast).contains("5802CI"));
+        
+        // Le code pays du marchand l'emporte sur celui du profil
+        assertTrue(generator.generate(payment("MARCHAND-GN")).contains("5802CI"));
+    }
+    
+    @Test
+    public void testUnknownProfiles() {
+        DynamicQRGenerator generator = new DynamicQRGenerator(formatter, crcCalculator, properties);
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(payment("ALIAS-1"), "inconnu"));
+        
+        properties.getMerchantProfiles().put("MARCHAND-X", "inconnu");
+        assertThrows(IllegalArgumentException.class,
+            () -> QrProfileRegistry.from(properties, formatter, crcCalculator));
+    }
+}
@@ -0,0 +1,136 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.DecodedSymbol;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRSheetRenderer (sans Spring)
+ */
+public class QRSheetRendererTest {
+    
+    private UemoaQRService qrService;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+    }
+    
+    private Stream<QRPaymentData> merchants(int count) {
+        return IntStream.range(0, count).mapToObj(i -> QRPaymentData.builder()
+            .type(QRPaymentData.QRType.STATIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("merchant-" + i)
+                .name("BOUTIQUE " + i)
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .merchantChannel(QRPaymentData.MerchantChannel.STATIC_ONSITE)
+            .build());
+    }
+    
+    @Test
+    public void testRasterPagesAreDeliveredInOrderAndDecodable() throws Exception {
+        SheetLayout layout = SheetLayout.builder()
+            .columns(3)
+            .rows(4)
+            .dpi(200)
+            .parallelism(3)
+            .build();
+        List<Integer> indexes = new ArrayList<>();
+        List<byte[]> pages = new ArrayList<>();
+        
+        int count = qrService.renderSheets(merchants(30), layout, (index, page) -> {
+            indexes.add(index);
+            pages.add(page);
+        });
+        
+        assertEquals(3, count);
+        assertEquals(List.of(0, 1, 2), indexes);
+        
+        List<DecodedSymbol> firstPage = qrService.decodeAllSymbols(pages.get(0));
+        assertEquals(12, firstPage.size());
+        assertEquals("merchant-0", firstPage.get(0).getData().getMerchantInfo().getAlias());
+        
+        List<DecodedSymbol> lastPage = qrService.decodeAllSymbols(pages.get(2));
+        assertEquals(6, lastPage.size());
+        assertEquals("merchant-24", lastPage.get(0).getData().getMerchantInfo().getAlias());
+    }
+    
+    @Test
+    public void testSvgPageContainsModulesAndCaptions() throws Exception {
+        SheetLayout layout = SheetLayout.builder()
+            .pageSize(SheetLayout.PageSize.LETTER)
+            .format(SheetLayout.Format.SVG)
+            .columns(2)
+            .rows(2)
+            .build();
+        List<String> pages = new ArrayList<>();
+        
+        qrService.renderSheets(merchants(4), layout,
+            (index, page) -> pages.add(new String(page, StandardCharsets.UTF_8)));
+        
+        assertEquals(1, pages.size());
+        String svg = pages.get(0);
+        assertTrue(svg.startsWith("<?xml"));
+        assertTrue(svg.contains("width=\"215.9mm\""));
+        assertEquals(4, svg.split("<path ", -1).length - 1);
+        assertTrue(svg.contains(">BOUTIQUE 3</text>"));
+    }
+    
+    @Test
+    public void testInvalidMerchantFailsRendering() {
+        SheetLayout layout = SheetLayout.builder().build();
+        Stream<QRPaymentData> items = Stream.of(QRPaymentData.builder()
+            .type(QRPaymentData.QRType.STATIC)
+            .build());
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> qrService.renderSheets(items, layout, (index, page) -> { }));
+    }
+    
+    @Test
+    public void testCellsSmallerThanSymbolAreRejected() {
+        for (SheetLayout.Format format : SheetLayout.Format.values()) {
+            SheetLayout layout = SheetLayout.builder()
+                .format(format)
+                .dpi(72)
+                .columns(20)
+                .rows(30)
+                .build();
+            
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> qrService.renderSheets(merchants(3), layout, (index, page) -> fail("Page rendue")));
+            assertTrue(error.getMessage().contains(layout.toString()), error.getMessage());
+        }
+    }
+}
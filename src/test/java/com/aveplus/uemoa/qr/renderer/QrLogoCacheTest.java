@@ -0,0 +1,196 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.corpus.CorpusEntry;
+import com.aveplus.uemoa.qr.corpus.CorpusSpec;
+import com.aveplus.uemoa.qr.corpus.SyntheticCorpus;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour l'incrustation de logos (sans Spring)
+ */
+public class QrLogoCacheTest {
+    
+    private UemoaQrProperties properties;
+    private QRImageRenderer renderer;
+    private QRImageDecoder decoder;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        properties = new UemoaQrProperties();
+        renderer = new QRImageRenderer(properties);
+        decoder = new QRImageDecoder(properties);
+        renderer.getLogos().register("merchant-logo", pngBytes(logo(400, 250)));
+    }
+    
+    /**
+     * Logo défavorable : bruit noir et blanc à fort contraste, bandes de couleur
+     */
+    private static BufferedImage logo(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(7);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextBoolean() ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(200, 30, 40));
+        graphics.fillRect(0, height / 3, width, height / 3);
+        graphics.dispose();
+        return image;
+    }
+    
+    private static byte[] pngBytes(BufferedImage image) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", output);
+        return output.toByteArray();
+    }
+    
+    @Test
+    public void testLogoImagesDecodeAcrossPayloads() throws Exception {
+        // Grille échantillonnée directement dans l'image : seule la correction
+        // d'erreur compense les modules masqués par le logo
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
+        SyntheticCorpus corpus = new SyntheticCorpus(CorpusSpec.builder().size(60).seed(11).build(), properties);
+        int[] sizes = {300, 450, 640};
+        int count = 0;
+        for (CorpusEntry entry : corpus) {
+            RenderOptions options = RenderOptions.builder()
+                .size(sizes[count++ % sizes.length])
+                .logo("merchant-logo")
+                .build();
+            QRImageRenderer.RenderedSymbol symbol = renderer.render(entry.getPayload(), options);
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(symbol.image()));
+            
+            Result result = new QRCodeReader().decode(
+                    new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image))), hints);
+            assertEquals(entry.getPayload(), result.getText(),
+                    "Version " + symbol.getVersion() + ", " + options.getSize() + "px");
+        }
+    }
+    
+    @Test
+    public void testLogoImageDecodesWithModuleDecoder() throws Exception {
+        MerchantInfo merchant = MerchantInfo.builder()
+            .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+            .name("BOUTIQUE TEST")
+            .city("Abidjan")
+            .countryCode("CI")
+            .build();
+        String[] payloads = {
+            new StaticQRGenerator(new EMVFormatter(), new CRCCalculator(), properties).generate(QRPaymentData.builder()
+                .type(QRPaymentData.QRType.STATIC).merchantInfo(merchant).build()),
+            new DynamicQRGenerator(new EMVFormatter(), new CRCCalculator(), properties).generate(QRPaymentData.builder()
+                .type(QRPaymentData.QRType.DYNAMIC).merchantInfo(merchant)
+                .amount(new BigDecimal("18000")).transactionId("TXN-2024-001").build())
+        };
+        
+        for (String payload : payloads) {
+            byte[] image = renderer.render(payload, RenderOptions.builder().logo("merchant-logo").build()).image();
+            assertEquals(payload, decoder.decode(image));
+        }
+    }
+    
+    @Test
+    public void testLogoForcesHighErrorCorrectionAndCoversCenter() throws Exception {
+        String payload = new SyntheticCorpus(CorpusSpec.builder().size(1).build(), properties)
+            .payloads().next();
+        RenderOptions plain = RenderOptions.builder().size(400).errorCorrection(ErrorCorrectionLevel.H).build();
+        RenderOptions branded = plain.toBuilder().errorCorrection(ErrorCorrectionLevel.L).logo("merchant-logo").build();
+        
+        QRImageRenderer.RenderedSymbol withoutLogo = renderer.render(payload, plain);
+        QRImageRenderer.RenderedSymbol withLogo = renderer.render(payload, branded);
+        assertEquals(withoutLogo.getVersion(), withLogo.getVersion());
+        
+        // Le centre porte la couleur du logo, les motifs de position sont intacts
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(withLogo.image()));
+        BufferedImage reference = ImageIO.read(new ByteArrayInputStream(withoutLogo.image()));
+        int center = image.getWidth() / 2;
+        assertEquals(new Color(200, 30, 40).getRGB(), image.getRGB(center, center));
+        int dimension = 17 + 4 * withLogo.getVersion();
+        int multiple = image.getWidth() / (dimension + 2 * properties.getQrImageMargin());
+        int finder = (image.getWidth() - dimension * multiple) / 2;
+        for (int offset = 0; offset < 7 * multiple; offset++) {
+            assertEquals(reference.getRGB(finder + offset, finder + offset) & 0xFFFFFF,
+                         image.getRGB(finder + offset, finder + offset) & 0xFFFFFF);
+        }
+    }
+    
+    @Test
+    public void testSafeAreaStaysAlignedAndAwayFromFinders() {
+        int previous = 0;
+        for (int version = 1; version <= 40; version++) {
+            int dimension = 17 + 4 * version;
+            int modules = QrLogoArea.modules(version);
+            
+            assertEquals(0, (dimension - modules) % 2, "Version " + version);
+            assertTrue(modules == 0 || (dimension - modules) / 2 >= 9, "Version " + version);
+            assertEquals(modules, QrLogoArea.modules(version));
+            previous = Math.max(previous, modules);
+        }
+        assertEquals(3, QrLogoArea.modules(1));
+        assertTrue(previous > 40);
+    }
+    
+    @Test
+    public void testOverlaysAreScaledOncePerSize() throws Exception {
+        QrLogoCache logos = renderer.getLogos();
+        int[] first = logos.overlay("merchant-logo", 120, 4);
+        
+        assertSame(first, logos.overlay("merchant-logo", 120, 4));
+        assertNotSame(first, logos.overlay("merchant-logo", 160, 4));
+        assertEquals(2, logos.size());
+        assertEquals(120 * 120, first.length);
+        // Bordure blanche et logo centré sur un fond blanc (ratio 400x250)
+        assertEquals(0xFFFFFFFF, first[0]);
+        assertEquals(0xFFFFFFFF, first[20 * 120 + 60]);
+        
+        // Remplacer un logo change sa révision et invalide ses incrustations
+        String revision = logos.revision("merchant-logo");
+        logos.register("merchant-logo", logo(100, 100));
+        assertEquals(0, logos.size());
+        assertNotEquals(revision, logos.revision("merchant-logo"));
+        assertNotSame(first, logos.overlay("merchant-logo", 120, 4));
+        
+        // La révision ne dépend que des pixels
+        logos.register("copie", pngBytes(logo(100, 100)));
+        assertEquals(logos.revision("merchant-logo"), logos.revision("copie"));
+        assertNull(logos.revision("inconnu"));
+        
+        assertTrue(logos.remove("merchant-logo"));
+        assertThrows(IllegalArgumentException.class, () -> logos.overlay("merchant-logo", 120, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render("000201", RenderOptions.builder().logo("inconnu").build()));
+        assertThrows(IllegalArgumentException.class, () -> logos.register("vide", new byte[] {1, 2, 3}));
+    }
+}
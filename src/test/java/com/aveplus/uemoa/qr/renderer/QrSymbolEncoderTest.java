@@ -0,0 +1,85 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.corpus.CorpusEntry;
+import com.aveplus.uemoa.qr.corpus.CorpusSpec;
+import com.aveplus.uemoa.qr.corpus.SyntheticCorpus;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour l'encodeur de symboles intégré (sans Spring)
+ */
+public class QrSymbolEncoderTest {
+    
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(EncodeHintType.CHARACTER_SET, "UTF-8");
+    
+    private static QrSymbol zxing(String content, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        return QrSymbol.of(Encoder.encode(content, errorCorrection, HINTS));
+    }
+    
+    @Test
+    public void testCorpusIdenticalToZxing() throws Exception {
+        SyntheticCorpus corpus = new SyntheticCorpus(CorpusSpec.builder().size(200).seed(5).build(),
+                new UemoaQrProperties());
+        for (CorpusEntry entry : corpus) {
+            String payload = entry.getPayload();
+            assertTrue(QrSymbolEncoder.supports(payload));
+            for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+                assertEquals(zxing(payload, level), QrSymbolEncoder.encode(payload, level), payload + " " + level);
+            }
+        }
+    }
+    
+    @Test
+    public void testAllVersionsIdenticalToZxing() throws Exception {
+        Random random = new Random(3);
+        StringBuilder content = new StringBuilder("int.bceao.pi é ");
+        for (int length = 1; length < 2900; length += 1 + length / 12) {
+            while (content.length() < length) {
+                content.append((char) (' ' + random.nextInt(95)));
+            }
+            String text = content.toString();
+            for (ErrorCorrectionLevel level : ErrorCorrectionLevel.values()) {
+                QrSymbol expected;
+                try {
+                    expected = zxing(text, level);
+                } catch (WriterException e) {
+                    assertThrows(WriterException.class, () -> QrSymbolEncoder.encode(text, level));
+                    continue;
+                }
+                assertEquals(expected, QrSymbolEncoder.encode(text, level), length + " " + level);
+            }
+        }
+    }
+    
+    @Test
+    public void testNumericAndAlphanumericLeftToZxing() {
+        assertFalse(QrSymbolEncoder.supports("0123456789"));
+        assertFalse(QrSymbolEncoder.supports("HTTPS://PAY.EXAMPLE/$42"));
+        assertTrue(QrSymbolEncoder.supports("00020101021136"  + "int.bceao.pi"));
+    }
+    
+    @Test
+    public void testRendererUsesConfiguredEncoder() throws Exception {
+        UemoaQrProperties properties = new UemoaQrProperties();
+        String payload = new SyntheticCorpus(CorpusSpec.builder().size(1).build(), properties)
+                .payloads().next();
+        QrSymbol builtIn = new QRImageRenderer(properties).encodeSymbol(payload, ErrorCorrectionLevel.M);
+        
+        properties.setNativeEncoder(false);
+        QrSymbol fallback = new QRImageRenderer(properties).encodeSymbol(payload, ErrorCorrectionLevel.M);
+        
+        assertEquals(fallback, builtIn);
+        assertEquals(zxing("0123", ErrorCorrectionLevel.L),
+                new QRImageRenderer(new UemoaQrProperties()).encodeSymbol("0123", ErrorCorrectionLevel.L));
+    }
+}
@@ -0,0 +1,88 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour RenderLoadMonitor (sans Spring)
+ */
+public class RenderLoadMonitorTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    
+    @Test
+    public void testNoPredictionBeforeFirstMeasure() {
+        RenderLoadMonitor monitor = new RenderLoadMonitor(2);
+        
+        assertNull(monitor.check(1));
+        assertEquals(RenderDegradation.BUDGET_EXHAUSTED, monitor.check(0));
+        assertEquals(1, monitor.stats().getBudgetExhausted());
+    }
+    
+    @Test
+    public void testAverageRenderTimeAgainstBudget() {
+        RenderLoadMonitor monitor = new RenderLoadMonitor(2);
+        monitor.begin();
+        monitor.end(8 * MILLIS);
+        
+        assertNull(monitor.check(10 * MILLIS));
+        assertEquals(RenderDegradation.RENDER_TIME, monitor.check(5 * MILLIS));
+        
+        // Moyenne mobile : une mesure lente ne compte que pour 1/8
+        monitor.begin();
+        monitor.end(16 * MILLIS);
+        assertEquals(Duration.ofMillis(9), monitor.stats().getAverageRenderTime());
+        assertEquals(2, monitor.stats().getRenders());
+    }
+    
+    @Test
+    public void testQueuedRendersExtendPrediction() {
+        RenderLoadMonitor monitor = new RenderLoadMonitor(2);
+        monitor.begin();
+        monitor.end(4 * MILLIS);
+        
+        monitor.begin();
+        monitor.begin();
+        assertEquals(2, monitor.stats().getInFlight());
+        
+        // Deux rendus occupent les deux processeurs : une vague d'attente
+        assertNull(monitor.check(8 * MILLIS));
+        assertEquals(RenderDegradation.RENDER_QUEUE, monitor.check(6 * MILLIS));
+        
+        monitor.end(4 * MILLIS);
+        assertNull(monitor.check(6 * MILLIS));
+        
+        RenderLoadMonitor.Stats stats = monitor.stats();
+        assertEquals(1, stats.getRenderQueue());
+        assertEquals(1, stats.getDegraded());
+    }
+    
+    @Test
+    public void testAverageDecaysWhenRendersStop() {
+        AtomicLong now = new AtomicLong(1_000 * MILLIS);
+        RenderLoadMonitor monitor = new RenderLoadMonitor(2, now::get);
+        
+        // Pic de charge : la moyenne dépasse le budget, plus aucun rendu ne commence
+        for (int i = 0; i < 20; i++) {
+            monitor.begin();
+            monitor.end(400 * MILLIS);
+        }
+        assertEquals(RenderDegradation.RENDER_TIME, monitor.check(50 * MILLIS));
+        now.addAndGet(RenderLoadMonitor.DECAY_HALF_LIFE.toNanos() / 2);
+        assertEquals(RenderDegradation.RENDER_TIME, monitor.check(50 * MILLIS));
+        
+        // Sans nouvelle mesure, la moyenne redescend et les rendus reprennent
+        now.addAndGet(3 * RenderLoadMonitor.DECAY_HALF_LIFE.toNanos());
+        assertNull(monitor.check(60 * MILLIS));
+        assertTrue(monitor.stats().getAverageRenderTime().compareTo(Duration.ofMillis(60)) <= 0);
+        
+        // La mesure suivante repart de la moyenne décrue
+        monitor.begin();
+        monitor.end(10 * MILLIS);
+        assertNull(monitor.check(60 * MILLIS));
+    }
+}
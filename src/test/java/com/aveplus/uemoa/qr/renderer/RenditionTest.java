@@ -0,0 +1,221 @@
+package com.aveplus.uemoa.qr.renderer;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour les déclinaisons multi-résolutions (sans Spring)
+ */
+public class RenditionTest {
+    
+    private UemoaQrProperties properties;
+    private QRImageRenderer renderer;
+    private QRImageDecoder decoder;
+    private String payload;
+    
+    @BeforeEach
+    public void setUp() {
+        properties = new UemoaQrProperties();
+        renderer = new QRImageRenderer(properties);
+        decoder = new QRImageDecoder(properties);
+        payload = new DynamicQRGenerator(new EMVFormatter(), new CRCCalculator(), properties).generate(
+            QRPaymentData.builder()
+                .type(QRPaymentData.QRType.DYNAMIC)
+                .merchantInfo(MerchantInfo.builder()
+                    .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                    .name("BOUTIQUE TEST")
+                    .city("Abidjan")
+                    .countryCode("CI")
+                    .build())
+                .amount(new BigDecimal("18000"))
+                .transactionId("TXN-2024-001")
+                .build());
+    }
+    
+    @Test
+    public void testSeveralSizesFromOneEncode() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.M);
+        int side = symbol.getDimension() + 2 * properties.getQrImageMargin();
+        
+        List<Rendition> renditions = renderer.renditions(symbol, List.of(
+            RenditionSpec.of(150, RenditionSpec.Format.PNG),
+            RenditionSpec.of(300, RenditionSpec.Format.PNG),
+            RenditionSpec.of(1200, RenditionSpec.Format.JPG)));
+        
+        assertEquals(3, renditions.size());
+        int[] sizes = {150, 300, 1200};
+        for (int i = 0; i < sizes.length; i++) {
+            Rendition rendition = renditions.get(i);
+            assertEquals(sizes[i] / side, rendition.getModuleSize());
+            assertEquals(side * rendition.getModuleSize(), rendition.getWidth());
+            assertEquals(payload, decoder.decode(rendition.data()));
+            
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendition.data()));
+            assertEquals(rendition.getWidth(), image.getWidth());
+        }
+        
+        // Chaque déclinaison est comptée par le moniteur de charge
+        RenderLoadMonitor.Stats stats = renderer.getLoad().stats();
+        assertEquals(3, stats.getRenders());
+        assertEquals(0, stats.getInFlight());
+        assertTrue(stats.getAverageRenderTime().toNanos() > 0);
+    }
+    
+    @Test
+    public void testPixelsFollowModulesWithCrispEdges() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.L);
+        RenditionSpec spec = RenditionSpec.builder().size(500).margin(4).build();
+        Rendition png = renderer.renditions(symbol, List.of(spec)).get(0);
+        Rendition raw = renderer.renditions(symbol, List.of(spec.toBuilder().format(RenditionSpec.Format.RAW).build())).get(0);
+        
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png.data()));
+        int moduleSize = png.getModuleSize();
+        int stride = (raw.getWidth() + 7) / 8;
+        assertEquals(stride * raw.getWidth(), raw.getByteSize());
+        for (int py = 0; py < image.getHeight(); py++) {
+            for (int px = 0; px < image.getWidth(); px++) {
+                int x = px / moduleSize - 4;
+                int y = py / moduleSize - 4;
+                boolean dark = x >= 0 && y >= 0 && x < symbol.getDimension() && y < symbol.getDimension()
+                        && symbol.get(x, y);
+                assertEquals(dark, (image.getRGB(px, py) & 0xFFFFFF) == 0, px + "," + py);
+                assertEquals(dark, (raw.data()[py * stride + px / 8] & (0x80 >>> (px % 8))) != 0, px + "," + py);
+            }
+        }
+    }
+    
+    @Test
+    public void testSvgUsesModuleUnits() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.L);
+        Rendition svg = renderer.renditions(symbol, List.of(RenditionSpec.of(400, RenditionSpec.Format.SVG))).get(0);
+        String document = new String(svg.data(), StandardCharsets.UTF_8);
+        int side = symbol.getDimension() + 2 * properties.getQrImageMargin();
+        
+        assertTrue(document.contains("viewBox=\"0 0 " + side + " " + side + "\""));
+        assertTrue(document.contains("width=\"" + svg.getWidth() + "\""));
+        assertTrue(document.contains("shape-rendering=\"crispEdges\""));
+        
+        int darkModules = 0;
+        for (int y = 0; y < symbol.getDimension(); y++) {
+            for (int x = 0; x < symbol.getDimension(); x++) {
+                darkModules += symbol.get(x, y) ? 1 : 0;
+            }
+        }
+        int covered = 0;
+        for (String segment : document.split("M")) {
+            int h = segment.indexOf('h');
+            int v = segment.indexOf('v');
+            if (h > 0 && v > h) {
+                covered += Integer.parseInt(segment.substring(h + 1, v));
+            }
+        }
+        assertEquals(darkModules, covered);
+    }
+    
+    @Test
+    public void testSymbolIsReusableAndMatchesDirectRendering() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.L);
+        
+        assertEquals(symbol, renderer.encodeSymbol(payload, ErrorCorrectionLevel.L));
+        assertEquals(symbol.hashCode(), renderer.encodeSymbol(payload, ErrorCorrectionLevel.L).hashCode());
+        assertNotEquals(symbol, renderer.encodeSymbol(payload, ErrorCorrectionLevel.H));
+        assertEquals(renderer.encodeModules(payload), symbol.toBitMatrix());
+        
+        RenderOptions options = RenderOptions.builder().size(360).build();
+        assertArrayEquals(renderer.render(payload, options).image(), renderer.render(symbol, options).image());
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(symbol, options.toBuilder().logo("logo").build()));
+    }
+    
+    @Test
+    public void testPackedRowsAndPbm() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.M);
+        int dimension = symbol.getDimension();
+        int stride = (dimension + 7) / 8;
+        byte[] rows = symbol.toPackedRows();
+        
+        assertEquals(stride * dimension, rows.length);
+        for (int y = 0; y < dimension; y++) {
+            for (int x = 0; x < dimension; x++) {
+                assertEquals(symbol.get(x, y), (rows[y * stride + x / 8] & (0x80 >>> (x % 8))) != 0);
+            }
+        }
+        
+        RenditionSpec spec = RenditionSpec.of(300, RenditionSpec.Format.PBM);
+        List<Rendition> renditions = renderer.renditions(symbol,
+                List.of(spec, spec.toBuilder().format(RenditionSpec.Format.RAW).build()));
+        byte[] pbm = renditions.get(0).data();
+        byte[] raw = renditions.get(1).data();
+        String header = "P4\n" + renditions.get(0).getWidth() + " " + renditions.get(0).getWidth() + "\n";
+        
+        assertEquals(header, new String(pbm, 0, header.length(), StandardCharsets.US_ASCII));
+        assertArrayEquals(raw, Arrays.copyOfRange(pbm, header.length(), pbm.length));
+    }
+    
+    @Test
+    public void testEscPosRasterCentredOnPrinterWidth() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.M);
+        Rendition rendition = renderer.renditions(symbol,
+                List.of(RenditionSpec.escPos(RenditionSpec.PRINTER_80MM_DOTS))).get(0);
+        byte[] data = rendition.data();
+        int width = rendition.getWidth();
+        int stride = RenditionSpec.PRINTER_80MM_DOTS / 8;
+        
+        assertArrayEquals(new byte[] {0x1D, 0x76, 0x30, 0x00}, Arrays.copyOf(data, 4));
+        assertEquals(stride, (data[4] & 0xFF) | (data[5] & 0xFF) << 8);
+        assertEquals(width, (data[6] & 0xFF) | (data[7] & 0xFF) << 8);
+        assertEquals(8 + stride * width, data.length);
+        
+        int left = (RenditionSpec.PRINTER_80MM_DOTS - width) / 2;
+        int origin = left + properties.getQrImageMargin() * rendition.getModuleSize();
+        int top = properties.getQrImageMargin() * rendition.getModuleSize();
+        for (int py = 0; py < width; py++) {
+            for (int px = 0; px < RenditionSpec.PRINTER_80MM_DOTS; px++) {
+                int x = Math.floorDiv(px - origin, rendition.getModuleSize());
+                int y = Math.floorDiv(py - top, rendition.getModuleSize());
+                boolean dark = x >= 0 && y >= 0 && x < symbol.getDimension() && y < symbol.getDimension()
+                        && symbol.get(x, y);
+                assertEquals(dark, (data[8 + py * stride + px / 8] & (0x80 >>> (px % 8))) != 0, px + "," + py);
+            }
+        }
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.renditions(symbol, List.of(RenditionSpec.escPos(16))));
+    }
+    
+    @Test
+    public void testEscPosModuleSizeFitsByteAlignedRows() throws Exception {
+        QrSymbol symbol = renderer.encodeSymbol(payload, ErrorCorrectionLevel.M);
+        int side = symbol.getDimension() + 2 * properties.getQrImageMargin();
+        // Largeurs non multiples de 8, dont une où le module calculé sur la largeur brute déborde
+        int overflowing = side * 10 % 8 != 0 ? side * 10 : side * 10 + 4;
+        for (int dots : new int[] {380, overflowing}) {
+            Rendition rendition = renderer.renditions(symbol, List.of(RenditionSpec.escPos(dots))).get(0);
+            byte[] data = rendition.data();
+            int stride = dots >>> 3;
+            
+            assertEquals((dots & ~7) / side, rendition.getModuleSize(), "largeur " + dots);
+            assertTrue(rendition.getWidth() <= stride << 3, "largeur " + dots);
+            assertEquals(stride, (data[4] & 0xFF) | (data[5] & 0xFF) << 8);
+            assertEquals(8 + stride * rendition.getWidth(), data.length);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.aveplus.uemoa.qr.service;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour les détails de QR code en flux JSON (sans Spring)
+ */
+public class QRCodeDetailsTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UemoaQRService qrService;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        UemoaQrProperties properties = new UemoaQrProperties();
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+    }
+    
+    private String samplePayload() {
+        return qrService.generateQRData(QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("18000"))
+            .transactionId("TXN-2024-001")
+            .merchantChannel(QRPaymentData.MerchantChannel.DYNAMIC_ONSITE)
+            .build());
+    }
+    
+    private String streamed(String qrData) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        qrService.writeQRCodeDetails(qrData, output);
+        return output.toString(java.nio.charset.StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    public void testStreamedJsonMatchesMapSerialization() throws Exception {
+        String payload = samplePayload();
+        
+        String expected = objectMapper.writeValueAsString(qrService.getQRCodeDetails(payload));
+        
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(streamed(payload)));
+    }
+    
+    @Test
+    public void testInvalidQRCodeJsonMatchesMapSerialization() throws Exception {
+        String corrupted = samplePayload().replaceAll(".{4}$", "0000");
+        
+        String expected = objectMapper.writeValueAsString(qrService.getQRCodeDetails(corrupted));
+        
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(streamed(corrupted)));
+        assertFalse(objectMapper.readTree(streamed(corrupted)).get("valid").asBoolean());
+    }
+    
+    @Test
+    public void testTypedDetails() {
+        QRCodeDetails details = qrService.getDetails(samplePayload());
+        
+        assertTrue(details.isValid());
+        assertEquals(QRPaymentData.QRType.DYNAMIC, details.getType());
+        assertEquals("BOUTIQUE TEST", details.getMerchant().getName());
+        assertEquals("CI", details.getMerchant().getCountry());
+        assertEquals(0, new BigDecimal("18000").compareTo(details.getAmount()));
+        assertEquals("TXN-2024-001", details.getTransactionId());
+        assertNull(details.getError());
+    }
+    
+    @Test
+    public void testNonCompliantQRCodeIsInvalid() {
+        // Champ 59 retiré, CRC recalculé : lisible mais non conforme
+        String payload = samplePayload();
+        String body = payload.substring(0, payload.length() - 4).replaceFirst("5913BOUTIQUE TEST", "");
+        String stripped = body + new CRCCalculator().calculate(body);
+        
+        assertTrue(qrService.tryParseQRCode(stripped).isSuccess());
+        assertFalse(qrService.validateQRCode(stripped));
+        assertFalse(qrService.getDetails(stripped).isValid());
+        assertThrows(IllegalArgumentException.class, () -> qrService.parseQRCode(stripped));
+    }
+}
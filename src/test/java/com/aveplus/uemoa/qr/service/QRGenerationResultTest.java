@@ -0,0 +1,139 @@
+package com.aveplus.uemoa.qr.service;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la génération en une passe (sans Spring)
+ */
+public class QRGenerationResultTest {
+    
+    private UemoaQrProperties properties;
+    private UemoaQRService qrService;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        properties = new UemoaQrProperties();
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+    }
+    
+    private QRPaymentData sampleData() {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.DYNAMIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .amount(new BigDecimal("18000"))
+            .transactionId("TXN-2024-001")
+            .build();
+    }
+    
+    @Test
+    public void testGenerateReturnsPayloadImageAndMetadata() throws Exception {
+        QRGenerationResult result = qrService.generate(sampleData(), RenderOptions.defaults());
+        
+        assertEquals(qrService.generateQRData(sampleData()), result.getPayload());
+        assertEquals(result.getPayload().substring(result.getPayload().length() - 4), result.getCrc());
+        assertTrue(result.hasImage());
+        assertEquals("PNG", result.getImageFormat());
+        assertTrue(result.getSymbolVersion() >= 1 && result.getSymbolVersion() <= 40);
+        assertNotNull(result.getGenerationTime());
+        assertNotNull(result.getRenderTime());
+    }
+    
+    @Test
+    public void testImageIsIdenticalToQRCodeWriterOutput() throws Exception {
+        QRGenerationResult result = qrService.generate(sampleData(), RenderOptions.defaults());
+        
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.MARGIN, properties.getQrImageMargin());
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(new QRCodeWriter().encode(result.getPayload(), BarcodeFormat.QR_CODE,
+                properties.getQrImageSize(), properties.getQrImageSize(), hints), "PNG", expected);
+        
+        assertArrayEquals(expected.toByteArray(), result.getImageBytes());
+    }
+    
+    @Test
+    public void testPayloadOnlySkipsRendering() throws Exception {
+        QRGenerationResult result = qrService.generate(sampleData(), RenderOptions.payloadOnly());
+        
+        assertFalse(result.hasImage());
+        assertNull(result.getImageBytes());
+        assertEquals(0, result.getSymbolVersion());
+    }
+    
+    @Test
+    public void testDeadlineDegradesToPayloadAndModules() throws Exception {
+        // Une première mesure de rendu, puis un budget impossible à tenir
+        qrService.generate(sampleData(), RenderOptions.defaults());
+        RenderOptions options = RenderOptions.builder()
+            .deadline(Duration.ofNanos(1))
+            .includeModulesOnDegradation(true)
+            .build();
+        
+        QRGenerationResult result = qrService.generate(sampleData(), options);
+        
+        assertTrue(result.isDegraded());
+        assertFalse(result.hasImage());
+        assertEquals(qrService.generateQRData(sampleData()), result.getPayload());
+        BitMatrix modules = result.getModules();
+        assertNotNull(modules);
+        assertEquals(1, qrService.getRenderStats().getDegraded());
+        assertEquals(1, qrService.getRenderStats().getRenders());
+        
+        // La matrice est celle du symbole rendu, sans zone calme
+        QRImageRenderer renderer = new QRImageRenderer(properties);
+        assertEquals(renderer.encodeModules(result.getPayload()), modules);
+    }
+    
+    @Test
+    public void testGenerousDeadlineRendersImage() throws Exception {
+        RenderOptions options = RenderOptions.builder().deadline(Duration.ofMinutes(1)).build();
+        
+        QRGenerationResult result = qrService.generate(sampleData(), options);
+        
+        assertTrue(result.hasImage());
+        assertFalse(result.isDegraded());
+        assertNull(result.getModules());
+        assertEquals(0, qrService.getRenderStats().getDegraded());
+    }
+}
@@ -3,6 +3,8 @@ package com.aveplus.uemoa.qr.utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -61,4 +63,35 @@ public class CRCCalculatorTest {
             crcCalculator.calculate("");
         });
     }
+    
+    @Test
+    public void testIncrementalUpdateMatchesCalculate() {
+        String data = "000201010211" + "36280012int.bceao.pi0108ALIAS001" + "52040000" + "5303952" + "6304";
+        
+        int crc = crcCalculator.update(CRCCalculator.INITIAL_VALUE, data, 0, 12);
+        crc = crcCalculator.update(crc, data, 12, data.length());
+        
+        assertEquals(crcCalculator.calculate(data), crcCalculator.format(crc));
+    }
+    
+    @Test
+    public void testNonAsciiIsEncodedAsUtf8() {
+        String data = "5913Café Lomé €\uD83D\uDE00";
+        
+        assertEquals(bitwiseCrc(data.getBytes(StandardCharsets.UTF_8)), crcCalculator.calculate(data));
+    }
+    
+    /**
+     * CRC16-CCITT bit à bit, sans table (référence)
+     */
+    private static String bitwiseCrc(byte[] bytes) {
+        int crc = 0xFFFF;
+        for (byte b : bytes) {
+            crc ^= (b & 0xFF) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return String.format("%04X", crc & 0xFFFF);
+    }
 }
@@ -0,0 +1,67 @@
+package com.aveplus.uemoa.qr.warmup;
+
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRWarmupRunner (sans Spring)
+ */
+public class QRWarmupRunnerTest {
+    
+    private UemoaQrProperties properties;
+    private QRWarmupRunner runner;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        properties = new UemoaQrProperties();
+        
+        UemoaQRService qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+        runner = new QRWarmupRunner(qrService, properties);
+    }
+    
+    @Test
+    public void testWarmupRunsConfiguredIterations() {
+        properties.getWarmup().setIterations(20);
+        
+        WarmupReport report = runner.warmup();
+        
+        assertEquals(20, report.getIterations());
+        assertEquals(0, report.getFailures());
+        assertTrue(report.isImagesRendered());
+        assertFalse(report.getDuration().isNegative());
+    }
+    
+    @Test
+    public void testWarmupStopsAtMaxDuration() {
+        properties.getWarmup().setIterations(Integer.MAX_VALUE);
+        properties.getWarmup().setMaxDuration(Duration.ofMillis(200));
+        
+        WarmupReport report = runner.warmup();
+        
+        assertTrue(report.getIterations() < Integer.MAX_VALUE);
+        assertTrue(report.getDuration().toMillis() < 5_000);
+    }
+}
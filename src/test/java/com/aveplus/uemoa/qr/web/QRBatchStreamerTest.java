@@ -0,0 +1,261 @@
+package com.aveplus.uemoa.qr.web;
+
+import com.aveplus.uemoa.qr.admission.AdmissionController;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRBatchStreamer (sans Spring)
+ */
+public class QRBatchStreamerTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UemoaQrProperties properties;
+    private UemoaQRService qrService;
+    private QRBatchStreamer streamer;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        properties = new UemoaQrProperties();
+        properties.getBatch().setParallelism(4);
+        properties.getBatch().setMaxInFlight(8);
+        qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties));
+        streamer = new QRBatchStreamer(qrService, objectMapper, properties);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        streamer.close();
+    }
+    
+    private static String merchantLine(int i) {
+        return "{\"type\":\"DYNAMIC\",\"amount\":" + (1000 + i) + ",\"transactionId\":\"TX-" + i + "\","
+            + "\"merchantInfo\":{\"alias\":\"alias-" + i + "\",\"name\":\"BOUTIQUE " + i + "\","
+            + "\"city\":\"Abidjan\",\"countryCode\":\"CI\"}}";
+    }
+    
+    private List<String> lines(ByteArrayOutputStream output) {
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+    
+    @Test
+    public void testGenerateKeepsInputOrderAndReportsErrors() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 50; i++) {
+            input.append(i == 20 ? "{pas du json" : merchantLine(i)).append('\n');
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        long count = streamer.generate(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)),
+                output, RenderOptions.payloadOnly());
+        
+        List<String> lines = lines(output);
+        assertEquals(50, count);
+        assertEquals(50, lines.size());
+        for (int i = 1; i <= 50; i++) {
+            JsonNode node = objectMapper.readTree(lines.get(i - 1));
+            assertEquals(i, node.get("line").asInt());
+            if (i == 20) {
+                assertFalse(node.get("success").asBoolean());
+                assertNotNull(node.get("error"));
+            } else {
+                assertTrue(node.get("success").asBoolean());
+                assertTrue(qrService.validateQRCode(node.get("data").asText()));
+                assertTrue(node.get("data").asText().contains("TX-" + i));
+                assertNull(node.get("image"));
+            }
+        }
+    }
+    
+    @Test
+    public void testParseAcceptsRawAndQuotedPayloads() throws Exception {
+        String payload = qrService.generateQRData(objectMapper.readValue(merchantLine(1), QRPaymentData.class));
+        String corrupted = payload.substring(0, payload.length() - 4) + "0000";
+        String input = payload + "\n\n\"" + payload + "\"\r\n" + corrupted + "\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        streamer.parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        
+        List<String> lines = lines(output);
+        assertEquals(3, lines.size());
+        assertEquals("alias-1", objectMapper.readTree(lines.get(0)).at("/result/merchantInfo/alias").asText());
+        assertEquals(3, objectMapper.readTree(lines.get(1)).get("line").asInt());
+        assertTrue(objectMapper.readTree(lines.get(1)).get("success").asBoolean());
+        assertFalse(objectMapper.readTree(lines.get(2)).get("success").asBoolean());
+    }
+    
+    @Test
+    public void testOverlongLineIsRejectedWithoutBuffering() throws Exception {
+        properties.getBatch().setMaxLineLength(500);
+        String input = "x".repeat(10_000) + "\n" + merchantLine(2) + "\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        streamer.generate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                output, RenderOptions.payloadOnly());
+        
+        List<String> lines = lines(output);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("Ligne trop longue"));
+        assertTrue(objectMapper.readTree(lines.get(1)).get("success").asBoolean());
+    }
+    
+    @Test
+    public void testClientDisconnectStopsEndlessBatch() throws Exception {
+        // Entrée infinie : la lecture s'arrête dès que l'écriture échoue
+        InputStream endless = new InputStream() {
+            private final byte[] line = (merchantLine(1) + "\n").getBytes(StandardCharsets.UTF_8);
+            private int position;
+            
+            @Override
+            public int read() {
+                int value = line[position];
+                position = (position + 1) % line.length;
+                return value;
+            }
+        };
+        OutputStream disconnecting = new OutputStream() {
+            private int written;
+            
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+            
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                written += length;
+                if (written > 64 * 1024) {
+                    throw new IOException("client déconnecté");
+                }
+            }
+        };
+        
+        assertThrows(IOException.class, () -> streamer.generate(endless, disconnecting, RenderOptions.payloadOnly()));
+    }
+    
+    @Test
+    public void testRendersGoThroughAdmission() throws Exception {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        AdmissionController admission = new AdmissionController(10, 10, 1, Duration.ofMinutes(1), 100, System::nanoTime);
+        properties.getBatch().setParallelism(1);
+        UemoaQRService limited = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            new QRImageRenderer(properties),
+            new QRImageDecoder(properties),
+            admission);
+        streamer.close();
+        streamer = new QRBatchStreamer(limited, objectMapper, properties);
+        byte[] input = (merchantLine(1) + "\n" + merchantLine(2) + "\n").getBytes(StandardCharsets.UTF_8);
+        
+        // Capacité de rendu saturée : les lignes avec image sont refusées, le payload seul passe
+        assertTrue(admission.tryAcquireRender());
+        ByteArrayOutputStream refused = new ByteArrayOutputStream();
+        streamer.generate(new ByteArrayInputStream(input), refused, RenderOptions.defaults());
+        for (String line : lines(refused)) {
+            JsonNode node = objectMapper.readTree(line);
+            assertFalse(node.get("success").asBoolean());
+            assertEquals("RENDER_CAPACITY", node.get("rejection").asText());
+        }
+        ByteArrayOutputStream payloadOnly = new ByteArrayOutputStream();
+        streamer.generate(new ByteArrayInputStream(input), payloadOnly, RenderOptions.payloadOnly());
+        assertTrue(lines(payloadOnly).stream().allMatch(line -> line.contains("\"success\":true")));
+        
+        admission.releaseRender();
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        streamer.generate(new ByteArrayInputStream(input), rendered, RenderOptions.defaults());
+        for (String line : lines(rendered)) {
+            assertNotNull(objectMapper.readTree(line).get("image"));
+        }
+    }
+    
+    @Test
+    public void testQuotedPayloadEscapesAreDecoded() throws Exception {
+        QRPaymentData data = objectMapper.readValue(merchantLine(1), QRPaymentData.class);
+        data.getMerchantInfo().setName("CAFÉ \"LE BON\"");
+        String payload = qrService.generateQRData(data);
+        // Chaîne JSON avec échappements \u00C9 et \"
+        String quoted = objectMapper.writer().with(JsonWriteFeature.ESCAPE_NON_ASCII).writeValueAsString(payload);
+        assertTrue(quoted.contains("\\u00C9") && quoted.contains("\\\""), quoted);
+        String input = quoted + "\n\"" + payload.substring(0, 10) + "\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        streamer.parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        
+        List<String> lines = lines(output);
+        assertEquals(2, lines.size());
+        JsonNode parsed = objectMapper.readTree(lines.get(0));
+        assertTrue(parsed.get("success").asBoolean(), lines.get(0));
+        assertEquals("CAFÉ \"LE BON\"", parsed.at("/result/merchantInfo/name").asText());
+        assertFalse(objectMapper.readTree(lines.get(1)).get("success").asBoolean());
+    }
+    
+    @Test
+    public void testBatchesShareOneExecutor() throws Exception {
+        // Threads créés à la demande : attend l'arrêt des pools des tests précédents
+        awaitNoBatchThreads();
+        for (int i = 0; i < 5; i++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            streamer.generate(new ByteArrayInputStream((merchantLine(i) + "\n").repeat(20).getBytes(StandardCharsets.UTF_8)),
+                    output, RenderOptions.payloadOnly());
+            assertEquals(20, lines(output).size());
+        }
+        assertTrue(batchThreads() <= properties.getBatch().getParallelism(), "threads: " + batchThreads());
+        
+        streamer.close();
+        awaitNoBatchThreads();
+        assertEquals(0, batchThreads());
+    }
+    
+    private static void awaitNoBatchThreads() throws InterruptedException {
+        for (int i = 0; i < 200 && batchThreads() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private static long batchThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.isAlive() && thread.getName().equals("uemoa-qr-batch"))
+            .count();
+    }
+}
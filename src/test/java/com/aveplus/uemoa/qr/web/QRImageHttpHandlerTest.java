@@ -0,0 +1,213 @@
+package com.aveplus.uemoa.qr.web;
+
+import com.aveplus.uemoa.qr.admission.AdmissionController;
+import com.aveplus.uemoa.qr.config.UemoaQrProperties;
+import com.aveplus.uemoa.qr.decoder.QRImageDecoder;
+import com.aveplus.uemoa.qr.generator.DynamicQRGenerator;
+import com.aveplus.uemoa.qr.generator.P2PQRGenerator;
+import com.aveplus.uemoa.qr.generator.StaticQRGenerator;
+import com.aveplus.uemoa.qr.model.MerchantInfo;
+import com.aveplus.uemoa.qr.model.QRPaymentData;
+import com.aveplus.uemoa.qr.parser.QRParser;
+import com.aveplus.uemoa.qr.renderer.QRImageRenderer;
+import com.aveplus.uemoa.qr.renderer.RenderOptions;
+import com.aveplus.uemoa.qr.service.UemoaQRService;
+import com.aveplus.uemoa.qr.utils.CRCCalculator;
+import com.aveplus.uemoa.qr.utils.EMVFormatter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QRImageHttpHandler (sans Spring)
+ */
+public class QRImageHttpHandlerTest {
+    
+    private final AtomicInteger renders = new AtomicInteger();
+    private UemoaQrProperties properties;
+    private QRImageRenderer renderer;
+    private QRImageHttpHandler handler;
+    
+    @BeforeEach
+    public void setUp() {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        properties = new UemoaQrProperties();
+        renderer = new QRImageRenderer(properties) {
+            @Override
+            public RenderedSymbol render(String qrData, RenderOptions options)
+                    throws com.google.zxing.WriterException, IOException {
+                renders.incrementAndGet();
+                return super.render(qrData, options);
+            }
+        };
+        UemoaQRService qrService = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            renderer,
+            new QRImageDecoder(properties));
+        handler = new QRImageHttpHandler(qrService, properties);
+    }
+    
+    private QRPaymentData staticData() {
+        return QRPaymentData.builder()
+            .type(QRPaymentData.QRType.STATIC)
+            .merchantInfo(MerchantInfo.builder()
+                .alias("111c3e1b-4312-49ec-b75e-4c8c74c10fd7")
+                .name("BOUTIQUE TEST")
+                .city("Abidjan")
+                .countryCode("CI")
+                .build())
+            .build();
+    }
+    
+    private QRPaymentData dynamicData() {
+        QRPaymentData data = staticData();
+        data.setType(QRPaymentData.QRType.DYNAMIC);
+        data.setAmount(new BigDecimal("18000"));
+        data.setTransactionId("TXN-2024-001");
+        return data;
+    }
+    
+    private static BufferedImage logo(int argb) {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+    
+    @Test
+    public void testImageResponseHasStrongETagAndLongCache() throws Exception {
+        ResponseEntity<byte[]> response = handler.handle(staticData(), RenderOptions.defaults(), null);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        String etag = response.getHeaders().getETag();
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"));
+        assertEquals("max-age=86400, public", response.getHeaders().getCacheControl());
+        assertTrue(response.getBody().length > 0);
+        assertEquals(1, renders.get());
+    }
+    
+    @Test
+    public void testMatchingIfNoneMatchReturns304WithoutRendering() throws Exception {
+        String etag = handler.handle(staticData(), RenderOptions.defaults(), null).getHeaders().getETag();
+        
+        ResponseEntity<byte[]> response = handler.handle(staticData(), RenderOptions.defaults(), "\"autre\", W/" + etag);
+        
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        assertEquals(1, renders.get());
+    }
+    
+    @Test
+    public void testETagDependsOnRenderSettings() throws Exception {
+        String defaultTag = handler.handle(staticData(), RenderOptions.defaults(), null).getHeaders().getETag();
+        String explicitTag = handler.handle(staticData(), RenderOptions.builder().size(300).margin(1).build(), null)
+            .getHeaders().getETag();
+        String largerTag = handler.handle(staticData(), RenderOptions.builder().size(600).build(), null)
+            .getHeaders().getETag();
+        
+        assertEquals(defaultTag, explicitTag);
+        assertNotEquals(defaultTag, largerTag);
+    }
+    
+    @Test
+    public void testETagFollowsLogoRevision() throws Exception {
+        String name = "logo \"boutique\"";
+        renderer.getLogos().register(name, logo(0xFFC81E28));
+        RenderOptions options = RenderOptions.builder().logo(name).build();
+        String etag = handler.handle(staticData(), options, null).getHeaders().getETag();
+        
+        // Le nom du logo n'apparaît pas dans l'en-tête, seule sa révision y figure
+        assertEquals(2, etag.chars().filter(c -> c == '"').count());
+        assertTrue(etag.contains("-logo-" + renderer.getLogos().revision(name)));
+        assertEquals(HttpStatus.NOT_MODIFIED, handler.handle(staticData(), options, etag).getStatusCode());
+        
+        // Un logo remplacé n'est plus revalidé avec l'ancien ETag
+        renderer.getLogos().register(name, logo(0xFF1E28C8));
+        ResponseEntity<byte[]> replaced = handler.handle(staticData(), options, etag);
+        assertEquals(HttpStatus.OK, replaced.getStatusCode());
+        assertNotEquals(etag, replaced.getHeaders().getETag());
+        assertEquals(2, renders.get());
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> handler.handle(staticData(), RenderOptions.builder().logo("inconnu").build(), "*"));
+    }
+    
+    @Test
+    public void testDynamicQRHasShortPrivateCache() throws Exception {
+        ResponseEntity<byte[]> response = handler.handle(dynamicData(), RenderOptions.defaults(), null);
+        
+        assertEquals("max-age=60, private", response.getHeaders().getCacheControl());
+    }
+    
+    @Test
+    public void testOutOfRangeSizeOrMarginRejectedWithoutRendering() throws Exception {
+        for (RenderOptions options : new RenderOptions[] {
+                RenderOptions.builder().size(50000).build(),
+                RenderOptions.builder().size(0).build(),
+                RenderOptions.builder().size(-1).build(),
+                RenderOptions.builder().margin(1000).build(),
+                RenderOptions.builder().margin(-1).build()}) {
+            ResponseEntity<byte[]> response = handler.handle(staticData(), options, null);
+            
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertNull(response.getBody());
+        }
+        assertEquals(0, renders.get());
+        
+        ResponseEntity<byte[]> largest = handler.handle(staticData(), RenderOptions.builder().size(2000).build(), null);
+        assertEquals(HttpStatus.OK, largest.getStatusCode());
+    }
+    
+    @Test
+    public void testRenderCapacityReachedReturns503() throws Exception {
+        EMVFormatter formatter = new EMVFormatter();
+        CRCCalculator crcCalculator = new CRCCalculator();
+        AdmissionController admission = new AdmissionController(10, 10, 1, Duration.ofMinutes(1), 100, System::nanoTime);
+        UemoaQRService limited = new UemoaQRService(
+            new StaticQRGenerator(formatter, crcCalculator, properties),
+            new DynamicQRGenerator(formatter, crcCalculator, properties),
+            new P2PQRGenerator(formatter, crcCalculator, properties),
+            new QRParser(crcCalculator),
+            properties,
+            renderer,
+            new QRImageDecoder(properties),
+            admission);
+        QRImageHttpHandler limitedHandler = new QRImageHttpHandler(limited, properties);
+        String payload = limited.generateQRData(staticData());
+        
+        // Le seul rendu autorisé est déjà en cours
+        assertTrue(admission.tryAcquireRender());
+        ResponseEntity<byte[]> refused = limitedHandler.handlePayload(payload, RenderOptions.defaults(), null);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+        assertEquals("1", refused.getHeaders().getFirst("Retry-After"));
+        assertNull(refused.getBody());
+        assertEquals(0, renders.get());
+        
+        admission.releaseRender();
+        ResponseEntity<byte[]> served = limitedHandler.handlePayload(payload, RenderOptions.defaults(), null);
+        assertEquals(HttpStatus.OK, served.getStatusCode());
+        assertEquals(1, renders.get());
+        assertTrue(admission.tryAcquireRender());
+    }
+}